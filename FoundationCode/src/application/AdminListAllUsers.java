@@ -1,5 +1,6 @@
 package application;
 
+import databasePart1.AsyncDatabaseHelper;
 import databasePart1.DatabaseHelper;
 import javafx.scene.Scene;
 import javafx.scene.control.*; // Using TableView etc from here 
@@ -7,7 +8,6 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
-import java.sql.SQLException;
 import java.util.List;
 
 
@@ -115,14 +115,19 @@ public class AdminListAllUsers {
         stage.show();
     }
 
+    // Loads the users off the FX thread; pressing Refresh again supersedes a pending load.
     private void refresh(TableView<User> table) {
-        try {
-            List<User> users = db.getAllUsers();
+        db.async().submitLatest("admin-list-all-users", DatabaseHelper::getAllUsers).whenComplete((users, ex) -> {
+            if (AsyncDatabaseHelper.isCancellation(ex)) {
+                return;
+            }
+            if (ex != null) {
+                ex.printStackTrace();
+                new Alert(Alert.AlertType.ERROR, "Failed to load users: " + ex.getMessage()).showAndWait();
+                return;
+            }
             ObservableList<User> data = FXCollections.observableArrayList(users);
             table.setItems(data);
-        } catch (SQLException ex) {
-            ex.printStackTrace();
-            new Alert(Alert.AlertType.ERROR, "Failed to load users: " + ex.getMessage()).showAndWait();
-        }
+        });
     }
 }
@@ -389,9 +389,8 @@ public class AdminUpdateUsers {
         }
     }
     
-    // Gets database connection (should probably be moved to DatabaseHelper??)
+    // Borrows a pooled database connection from DatabaseHelper
     private Connection getConnection() throws Exception {
-        databaseHelper.verifyConnection();
-        return java.sql.DriverManager.getConnection("jdbc:h2:~/FoundationDatabase", "sa", "");
+        return databaseHelper.getConnection();
     }
 }
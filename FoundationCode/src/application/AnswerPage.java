@@ -0,0 +1,66 @@
+package application;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+
+ // One page of a question's answers plus the keyset cursor of the next page. Accepted
+ // answers come first, then the rest oldest first; the cursor is the (resolvesQuestion,
+ // creationTimestamp, id) of the last row.
+
+public class AnswerPage {
+
+    // Position after which the next page starts. Only DatabaseHelper creates these.
+    public static final class Cursor {
+        private final boolean resolvesQuestion;
+        private final OffsetDateTime creationTimestamp;
+        private final String answerId;
+
+        public Cursor(boolean resolvesQuestion, OffsetDateTime creationTimestamp, String answerId) {
+            this.resolvesQuestion = resolvesQuestion;
+            this.creationTimestamp = creationTimestamp;
+            this.answerId = answerId;
+        }
+
+        public boolean getResolvesQuestion() {
+            return resolvesQuestion;
+        }
+
+        public OffsetDateTime getCreationTimestamp() {
+            return creationTimestamp;
+        }
+
+        public String getAnswerId() {
+            return answerId;
+        }
+    }
+
+    private final List<AnswerSummary> answers;
+    private final int totalCount;
+    private final Cursor nextCursor;
+
+    public AnswerPage(List<AnswerSummary> answers, int totalCount, Cursor nextCursor) {
+        this.answers = Collections.unmodifiableList(answers);
+        this.totalCount = totalCount;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<AnswerSummary> getAnswers() {
+        return answers;
+    }
+
+    // Answers the question has in all, not just on this page.
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    // Cursor for the following page, or null if this is the last one.
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,24 @@
+package application;
+
+
+ // Read-only thread projection of an answer: the answer row plus how many top-level
+ // comments it has, so the comments can stay collapsed until they are asked for.
+
+public class AnswerSummary {
+
+    private final Answer answer;
+    private final int commentCount;
+
+    public AnswerSummary(Answer answer, int commentCount) {
+        this.answer = answer;
+        this.commentCount = commentCount;
+    }
+
+    public Answer getAnswer() {
+        return answer;
+    }
+
+    public int getCommentCount() {
+        return commentCount;
+    }
+}
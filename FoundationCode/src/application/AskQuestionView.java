@@ -11,12 +11,11 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.stage.Stage;
 
-import java.sql.SQLException;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 
 import databasePart1.DatabaseHelper;
+import databasePart1.SearchPipeline;
 
 
 // Builds and displays the UI for asking a new question.
@@ -33,6 +32,14 @@ public class AskQuestionView {
     private TitledPane similarThreadsPane; // collapsible panel
     private VBox similarThreadsContent; // holds similar question cards
     private ToggleGroup tagGroup; // colored tag selection
+    // Async channel for the similar threads lookup
+    private static final String SIMILAR_CHANNEL = "ask-question-similar";
+    // Most similar threads shown while typing a title
+    private static final int SIMILAR_LIMIT = 20;
+    // Typing pauses this long before similar threads are looked up; recent lookups are cached
+    private static final long SIMILAR_DEBOUNCE_MILLIS = 300;
+    private static final int SIMILAR_CACHE_SIZE = 32;
+    private SearchPipeline<String, List<Question>> similarSearch;
 
     // Constructor
     public AskQuestionView(DatabaseHelper databaseHelper, boolean adminFlag) {
@@ -53,15 +60,14 @@ public class AskQuestionView {
         titleField = new TextField();
         titleField.setPromptText("Enter a short, descriptive title for your question");
 
+        // Similar threads lookup, run off the FX thread once typing pauses
+        similarSearch = new SearchPipeline<>(databaseHelper, SIMILAR_CHANNEL, SIMILAR_DEBOUNCE_MILLIS, SIMILAR_CACHE_SIZE,
+            (db, title) -> db.findSimilarQuestions(title, SIMILAR_LIMIT),
+            similarQuestions -> showSimilarThreadsCollapsible(similarQuestions, primaryStage, user),
+            Throwable::printStackTrace);
+
         // automatically search for similar threads as user types
-        titleField.textProperty().addListener((observable, oldValue, newValue) -> {
-            if (newValue != null && newValue.trim().length() > 2) {
-                handleSimilarThreadsAction(primaryStage, user);
-            } else {
-                similarThreadsPane.setManaged(false);
-                similarThreadsPane.setVisible(false);
-            }
-        });
+        titleField.textProperty().addListener((observable, oldValue, newValue) -> handleSimilarThreadsAction());
 
         VBox titleGroup = new VBox(5, titleLabel, titleField);
 
@@ -204,37 +210,34 @@ public class AskQuestionView {
                 anonymousCheckBox.isSelected()
         );
 
-        try {
-            databaseHelper.addQuestion(newQuestion);
-            new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, currentUser, newQuestion);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Database Error: Could not save your question. Please try again.");
-        }
+        databaseHelper.async()
+            .submit(db -> {
+                db.addQuestion(newQuestion);
+                return newQuestion;
+            })
+            .whenComplete((saved, error) -> {
+                if (error != null) {
+                    error.printStackTrace();
+                    showError("Database Error: Could not save your question. Please try again.");
+                    return;
+                }
+                new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, currentUser, saved);
+            });
     }
 
-    // Fetch similar posts
-    private void handleSimilarThreadsAction(Stage primaryStage, User user) {
-        String searchTerm = titleField.getText().trim().toLowerCase();
+    // Fetch similar posts, best match first
+    private void handleSimilarThreadsAction() {
+        String searchTerm = SearchPipeline.normalize(titleField.getText());
 
-        if (searchTerm.isEmpty() || searchTerm.length() < 3) {
+        if (searchTerm.length() < 3) {
+            similarSearch.cancel();
             similarThreadsPane.setManaged(false);
             similarThreadsPane.setVisible(false);
             return;
         }
 
-        try {
-            List<Question> allQuestions = databaseHelper.getAllPublicQuestions();
-            List<Question> similarQuestions = new ArrayList<>();
-            for (Question question : allQuestions) {
-                if (question.getTitle().toLowerCase().contains(searchTerm)) {
-                    similarQuestions.add(question);
-                }
-            }
-            showSimilarThreadsCollapsible(similarQuestions, primaryStage, user);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // Further typing restarts the wait and supersedes a lookup in flight
+        similarSearch.submit(searchTerm);
     }
 
     // Show similar threads
@@ -27,13 +27,25 @@ public final class Authorization {
     }
     
     public static boolean canDeleteQuestion(User user, DatabaseHelper databaseHelper, Question q, boolean adminFlag) {
-        return hasAdminPowers(user, databaseHelper, adminFlag) || isOwner(user, q.getAuthor());
+        return canDeleteQuestion(user, q, hasAdminPowers(user, databaseHelper, adminFlag));
     }
     public static boolean canDeleteAnswer(User user, DatabaseHelper databaseHelper, Answer a, boolean adminFlag) {
-        return hasAdminPowers(user, databaseHelper, adminFlag) || isOwner(user, a.getAuthor());
+        return canDeleteAnswer(user, a, hasAdminPowers(user, databaseHelper, adminFlag));
     }
     public static boolean canDeleteComment(User user, DatabaseHelper databaseHelper, Comment c, boolean adminFlag) {
-        return hasAdminPowers(user, databaseHelper, adminFlag) || isOwner(user, c.getAuthor());
+        return canDeleteComment(user, c, hasAdminPowers(user, databaseHelper, adminFlag));
+    }
+
+    // Same checks with hasAdminPowers already resolved, so views can look up roles once
+    // (off the FX thread) instead of once per rendered row
+    public static boolean canDeleteQuestion(User user, Question q, boolean adminPowers) {
+        return adminPowers || isOwner(user, q.getAuthor());
+    }
+    public static boolean canDeleteAnswer(User user, Answer a, boolean adminPowers) {
+        return adminPowers || isOwner(user, a.getAuthor());
+    }
+    public static boolean canDeleteComment(User user, Comment c, boolean adminPowers) {
+        return adminPowers || isOwner(user, c.getAuthor());
     }
 
     //EDIT permissions (Admins cannot edit other people's posts/comments unless you remove the // ) 
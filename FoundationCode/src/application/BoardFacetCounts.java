@@ -0,0 +1,48 @@
+package application;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+
+ // How many questions each discussion board filter option would show, given the other
+ // filters currently picked. Each count ignores only its own filter, e.g. the tag counts
+ // keep the status, author and search filters but not the tag.
+
+public class BoardFacetCounts {
+
+    private final Map<Tags, Integer> tagCounts;
+    private final int allTagsCount;
+    private final Map<BoardQuery.StatusFilter, Integer> statusCounts;
+    private final int allQuestionsCount;
+    private final int myQuestionsCount;
+
+    public BoardFacetCounts(Map<Tags, Integer> tagCounts, int allTagsCount,
+                            Map<BoardQuery.StatusFilter, Integer> statusCounts,
+                            int allQuestionsCount, int myQuestionsCount) {
+        this.tagCounts = new EnumMap<>(tagCounts);
+        this.allTagsCount = allTagsCount;
+        this.statusCounts = new EnumMap<>(statusCounts);
+        this.allQuestionsCount = allQuestionsCount;
+        this.myQuestionsCount = myQuestionsCount;
+    }
+
+    public int getTagCount(Tags tag) {
+        return tagCounts.getOrDefault(tag, 0);
+    }
+
+    public int getAllTagsCount() {
+        return allTagsCount;
+    }
+
+    public int getStatusCount(BoardQuery.StatusFilter status) {
+        return statusCounts.getOrDefault(status, 0);
+    }
+
+    public int getAllQuestionsCount() {
+        return allQuestionsCount;
+    }
+
+    public int getMyQuestionsCount() {
+        return myQuestionsCount;
+    }
+}
@@ -0,0 +1,75 @@
+package application;
+
+import java.util.Objects;
+
+import databasePart1.SearchPipeline;
+
+ // Filters and sort order of a discussion board page request. Every field is turned into a
+ // SQL predicate by DatabaseHelper.getPublicQuestionPage, so no filtering happens in memory.
+ // Queries are values, so they can key the board's result cache.
+
+public class BoardQuery {
+
+    public enum StatusFilter { ALL, RESOLVED, UNRESOLVED, ANSWERED, UNANSWERED }
+
+    private final String searchText;
+    private final String authorUserName;
+    private final StatusFilter status;
+    private final Tags tag;
+    private final boolean newestFirst;
+
+    // searchText is matched case-insensitively and normalized; a null authorUserName or tag means any.
+    public BoardQuery(String searchText, String authorUserName, StatusFilter status, Tags tag, boolean newestFirst) {
+        this.searchText = SearchPipeline.normalize(searchText);
+        this.authorUserName = authorUserName;
+        this.status = status == null ? StatusFilter.ALL : status;
+        this.tag = tag;
+        this.newestFirst = newestFirst;
+    }
+
+    // Every public question, newest first.
+    public static BoardQuery all() {
+        return new BoardQuery("", null, StatusFilter.ALL, null, true);
+    }
+
+    public String getSearchText() {
+        return searchText;
+    }
+
+    public String getAuthorUserName() {
+        return authorUserName;
+    }
+
+    public StatusFilter getStatus() {
+        return status;
+    }
+
+    public Tags getTag() {
+        return tag;
+    }
+
+    public boolean isNewestFirst() {
+        return newestFirst;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof BoardQuery)) {
+            return false;
+        }
+        BoardQuery other = (BoardQuery) o;
+        return searchText.equals(other.searchText)
+            && Objects.equals(authorUserName, other.authorUserName)
+            && status == other.status
+            && tag == other.tag
+            && newestFirst == other.newestFirst;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(searchText, authorUserName, status, tag, newestFirst);
+    }
+}
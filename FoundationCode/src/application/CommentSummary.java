@@ -0,0 +1,24 @@
+package application;
+
+
+ // Read-only thread projection of a comment: the comment row plus how many direct replies
+ // it has, so its subtree can stay collapsed until it is expanded.
+
+public class CommentSummary {
+
+    private final Comment comment;
+    private final int replyCount;
+
+    public CommentSummary(Comment comment, int replyCount) {
+        this.comment = comment;
+        this.replyCount = replyCount;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    public int getReplyCount() {
+        return replyCount;
+    }
+}
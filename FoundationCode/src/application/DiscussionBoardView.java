@@ -2,45 +2,84 @@ package application;
 
 import application.Authorization;
 
-import java.sql.SQLException;
-import java.time.Duration;
-import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 
+import databasePart1.AsyncDatabaseHelper;
 import databasePart1.DatabaseHelper;
+import databasePart1.DomainEvent;
+import databasePart1.DomainEventBus;
+import databasePart1.SearchPipeline;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
-import javafx.scene.Cursor;
-import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
-import javafx.scene.paint.Color;
-import javafx.scene.text.Font;
-import javafx.scene.text.FontWeight;
-import javafx.scene.text.Text;
-import javafx.scene.text.TextFlow;
 import javafx.stage.Stage;
+import javafx.util.Callback;
 
 
 // Builds and displays the UI for the Discussion Board, which shows a filterable
-// list of all public questions fetched from the database.
+// list of all public questions fetched from the database. The board stays alive in the
+// NavigationController while a question is open, so coming back keeps filters and scroll.
 
-public class DiscussionBoardView {
+public class DiscussionBoardView implements NavigationController.Screen {
 
     // fields
     private final DatabaseHelper databaseHelper;
     private TextField searchField;
-    // The main container that holds the list of question summary nodes. 
-    private VBox postsContainer;
+    // Virtualized list of question summaries; only the visible rows have nodes
+    private ListView<QuestionSummary> questionList;
     // flag for if user is admin
     private final boolean adminFlag; 
+    // Questions fetched per page; more are loaded as the user scrolls down
+    private static final int PAGE_SIZE = 25;
+    // The next page is requested once a row this close to the end is shown
+    private static final int PREFETCH_ROWS = 5;
+    // Filters of the list on screen and where its next page starts (null when fully loaded)
+    private BoardQuery currentQuery;
+    private QuestionPage.Cursor nextCursor;
+    private boolean loadingPage;
+    // Async channel for board pages; a new request cancels the pending one
+    private static final String PAGE_CHANNEL = "discussion-board-page";
+    // Typing pauses this long before the board is queried; first pages of recent queries are cached
+    private static final long SEARCH_DEBOUNCE_MILLIS = 250;
+    private static final int SEARCH_CACHE_SIZE = 32;
+    private SearchPipeline<BoardQuery, QuestionPage> boardSearch;
+    // Filter choices, labelled with how many questions each would show (once counted)
+    private ComboBox<String> showFilter;
+    private ComboBox<String> statusFilter;
+    private ComboBox<Tags> tagFilter;
+    private BoardFacetCounts facetCounts;
+    private static final String FACET_CHANNEL = "discussion-board-facets";
+    private Scene scene;
+    private String userName;
+    // Questions whose rows may be out of date: opened from the board (unseen counts) or
+    // changed by a write. They are re-read together in the next refresh.
+    private final Set<String> staleQuestionIds = new HashSet<>();
+    // A question was posted since the last refresh
+    private boolean questionsAdded;
+    private boolean refreshScheduled;
+    // Most write events queued for the board before it reloads instead
+    private static final int EVENT_QUEUE_CAPACITY = 256;
+    private DomainEventBus.Subscription eventSubscription;
+
+    // What changed: the stale questions as they are now, and the current first page to
+    // pick up questions posted meanwhile (newest first only)
+    private record BoardRefresh(List<QuestionSummary> stale, QuestionPage firstPage) { }
 
     // Constructor
     public DiscussionBoardView(DatabaseHelper databaseHelper, boolean adminFlag) {
@@ -48,10 +87,51 @@ public class DiscussionBoardView {
         this.adminFlag = adminFlag;
     }
 
+    // Shows the user's live board if there is one, otherwise builds it.
     public void show(Stage primaryStage, User user) {
-        postsContainer = new VBox(10);
-        postsContainer.setPadding(new Insets(10));
-        postsContainer.setStyle("-fx-background-color: #FAFAFA;");
+        NavigationController.of(primaryStage).open(screenKey(user, adminFlag), () -> {
+            build(primaryStage, user);
+            return this;
+        });
+    }
+
+    static String screenKey(User user, boolean adminFlag) {
+        return "board:" + user.getUserName() + ":" + adminFlag;
+    }
+
+    @Override
+    public Scene getScene() {
+        return scene;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Discussion Board";
+    }
+
+    private void build(Stage primaryStage, User user) {
+        userName = user.getUserName();
+        questionList = new ListView<>();
+        questionList.setStyle("-fx-background-color: #FAFAFA; -fx-padding: 10;");
+        questionList.setFocusTraversable(false);
+        // Cells are recycled while scrolling; opening a row records the visit first
+        questionList.setCellFactory(list -> new QuestionSummaryCell(
+            summary -> openQuestion(summary.getQuestion(), primaryStage, user),
+            index -> {
+                if (index >= questionList.getItems().size() - PREFETCH_ROWS) {
+                    loadNextPage(user);
+                }
+            }));
+
+        // First pages for the search field and filters; later pages are loaded on scroll
+        boardSearch = new SearchPipeline<>(databaseHelper, PAGE_CHANNEL, SEARCH_DEBOUNCE_MILLIS, SEARCH_CACHE_SIZE,
+            (db, query) -> db.getPublicQuestionPage(user.getUserName(), query, null, PAGE_SIZE),
+            this::showFirstPage,
+            error -> {
+                loadingPage = false;
+                questionList.getItems().clear();
+                questionList.setPlaceholder(new Label("Error: Could not load questions."));
+            });
 
         // Search bar setup
         searchField = new TextField();
@@ -64,17 +144,18 @@ public class DiscussionBoardView {
 
         // Filter setup
         // Allows user to filter pre existing questions
-        ComboBox<String> showFilter = new ComboBox<>();
+        showFilter = new ComboBox<>();
         showFilter.getItems().addAll("All Questions", "My Questions");
         showFilter.setValue("All Questions");
 
-        ComboBox<String> statusFilter = new ComboBox<>();
+        statusFilter = new ComboBox<>();
         statusFilter.getItems().addAll("All", "Resolved", "Unresolved", "Answered", "Unanswered");
         statusFilter.setValue("All");
 
-        ComboBox<Tags> tagFilter = new ComboBox<>();
+        tagFilter = new ComboBox<>();
         tagFilter.getItems().addAll(Tags.values());
         tagFilter.setPromptText("All Tags");
+        relabelFilters();
 
         ComboBox<String> sortFilter = new ComboBox<>();
         sortFilter.getItems().addAll("Newest First", "Oldest First");
@@ -87,7 +168,7 @@ public class DiscussionBoardView {
             tagFilter.setValue(null);
             sortFilter.setValue("Newest First");
             searchField.clear();
-            filterQuestions("", primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter);
+            filterQuestions("", primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, false);
         });
 
         HBox filterBar = new HBox(10, new Label("Show:"), showFilter,
@@ -98,20 +179,15 @@ public class DiscussionBoardView {
         filterBar.setPadding(new Insets(10));
         filterBar.setAlignment(Pos.CENTER_LEFT);
 
-        // Live updates on search or filters
-        searchField.textProperty().addListener((obs, oldText, newText) -> filterQuestions(newText, primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter));
-        showFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter));
-        statusFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter));
-        tagFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter));
-        sortFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter));
+        // Live updates on search or filters; typing is debounced, picking a filter is not
+        searchField.textProperty().addListener((obs, oldText, newText) -> filterQuestions(newText, primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, true));
+        showFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, false));
+        statusFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, false));
+        tagFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, false));
+        sortFilter.setOnAction(e -> filterQuestions(searchField.getText(), primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, false));
 
         // Initial population of the question list
-        filterQuestions("", primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter);
-
-        // Scroll pane for the posts
-        ScrollPane scrollPane = new ScrollPane(postsContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background-color: transparent;");
+        filterQuestions("", primaryStage, user, showFilter, statusFilter, tagFilter, sortFilter, false);
 
         Button backButton = new Button("← Back to Main Menu");
         backButton.setOnAction(e -> {
@@ -123,227 +199,298 @@ public class DiscussionBoardView {
         });
 
         // Final layout container
-        VBox container = new VBox(10, backButton, searchBox, filterBar, scrollPane);
+        VBox container = new VBox(10, backButton, searchBox, filterBar, questionList);
         container.setPadding(new Insets(10));
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        VBox.setVgrow(questionList, Priority.ALWAYS);
         
-        Scene scene = new Scene(container, 800, 600);
-        primaryStage.setScene(scene);
-        primaryStage.setTitle("Discussion Board");
+        scene = new Scene(container, 800, 600);
+
+        // Writes anywhere in the app update the board in place, even while it is hidden
+        eventSubscription = databaseHelper.getEvents().subscribeAsync(DomainEvent.class, this::onEvent,
+            () -> {
+                // Too many changes to follow one by one
+                boardSearch.invalidate();
+                if (currentQuery != null) {
+                    boardSearch.submitNow(currentQuery);
+                }
+            },
+            Platform::runLater, EVENT_QUEUE_CAPACITY);
     }
 
-    // Private Helper Methods
-    private void filterQuestions(String searchText, Stage primaryStage, User user,
-                                 ComboBox<String> showFilter,
-                                 ComboBox<String> statusFilter,
-                                 ComboBox<Tags> tagFilter,
-                                 ComboBox<String> sortFilter) {
-        postsContainer.getChildren().clear();
-
-        try {
-            List<Question> questions = databaseHelper.getAllPublicQuestions();
-            String lowerCaseSearch = searchText.trim().toLowerCase();
+    @Override
+    public void dispose() {
+        if (eventSubscription != null) {
+            eventSubscription.close();
+        }
+    }
 
-            // search filter
-            questions.removeIf(q -> !q.getTitle().toLowerCase().contains(lowerCaseSearch));
+    // Shown again: re-read the rows of the questions opened meanwhile, as their unseen
+    // answer counts changed. Filters, loaded pages and scroll position stay.
+    @Override
+    public void refresh() {
+        if (!staleQuestionIds.isEmpty()) {
+            boardSearch.invalidate(); // cached first pages still carry the old unseen counts
+        }
+        refreshStaleRows();
+    }
 
-            // show filter
-            if ("My Questions".equals(showFilter.getValue())) {
-                questions.removeIf(q -> !q.getAuthor().getUserName().equals(user.getUserName()));
+    // Applies one committed write. Deletions are applied at once; other changes mark rows
+    // stale, and all marked in one batch of events are re-read by a single refresh.
+    private void onEvent(DomainEvent event) {
+        boardSearch.invalidate(); // cached first pages may be out of date now
+        if (event instanceof DomainEvent.QuestionDeleted deleted) {
+            removeRows(Set.of(deleted.questionId()));
+        } else if (event instanceof DomainEvent.UserDeleted deleted) {
+            removeRows(new HashSet<>(deleted.questionIds()));
+        } else if (event instanceof DomainEvent.QuestionCreated created) {
+            if (!created.question().isPrivate()) {
+                questionsAdded = true;
+                scheduleRefresh();
             }
+        } else if (event instanceof DomainEvent.QuestionUpdated e) {
+            markStale(e.questionId());
+        } else if (event instanceof DomainEvent.AnswerAdded e) {
+            markStale(e.questionId());
+        } else if (event instanceof DomainEvent.AnswerDeleted e) {
+            markStale(e.questionId());
+        } else if (event instanceof DomainEvent.AnswerResolved e) {
+            markStale(e.questionId());
+        }
+        // answer and comment edits do not show on the board
+    }
 
-            // resolved/unresolved/answered/unanswered filter
-            if ("Resolved".equals(statusFilter.getValue())) {
-                questions.removeIf(q -> {
-                    try {
-                        return !databaseHelper.hasAcceptedAnswer(q.getQuestionId().toString());
-                    } catch (SQLException e) {
-                        return true;
-                    }
-                });
-            } else if ("Unresolved".equals(statusFilter.getValue())) {
-                questions.removeIf(q -> {
-                    try {
-                        return databaseHelper.hasAcceptedAnswer(q.getQuestionId().toString());
-                    } catch (SQLException e) {
-                        return false;
-                    }
-                });
-            } else if ("Answered".equals(statusFilter.getValue())) {
-                questions.removeIf(q -> databaseHelper.getAnswerCountForQuestion(q.getQuestionId().toString()) == 0);
-            } else if ("Unanswered".equals(statusFilter.getValue())) {
-                questions.removeIf(q -> databaseHelper.getAnswerCountForQuestion(q.getQuestionId().toString()) > 0);
-            }
+    private void markStale(String questionId) {
+        staleQuestionIds.add(questionId);
+        scheduleRefresh();
+    }
 
-            // tag filter
-            if (tagFilter.getValue() != null) {
-                questions.removeIf(q -> q.getTag() != tagFilter.getValue());
-            }
+    private void scheduleRefresh() {
+        if (!refreshScheduled) {
+            refreshScheduled = true;
+            Platform.runLater(this::refreshStaleRows);
+        }
+    }
 
-            // sort filter
-            questions.sort((a, b) -> {
-                if ("Newest First".equals(sortFilter.getValue())) {
-                    return b.getCreationTimestamp().compareTo(a.getCreationTimestamp());
-                } else {
-                    return a.getCreationTimestamp().compareTo(b.getCreationTimestamp());
+    private void removeRows(Set<String> questionIds) {
+        questionList.getItems().removeIf(summary -> questionIds.contains(summary.getQuestion().getQuestionId().toString()));
+        loadFacetCounts();
+    }
+
+    // Re-reads the stale rows (dropping the deleted ones) and, on a newest-first board,
+    // puts questions posted since the last refresh on top.
+    private void refreshStaleRows() {
+        refreshScheduled = false;
+        if (currentQuery == null) {
+            return;
+        }
+        loadFacetCounts();
+        Set<String> stale = new HashSet<>(staleQuestionIds);
+        staleQuestionIds.clear();
+        BoardQuery query = currentQuery;
+        boolean checkNewest = questionsAdded && query.isNewestFirst();
+        questionsAdded = false;
+        if (stale.isEmpty() && !checkNewest) {
+            return;
+        }
+        databaseHelper.async()
+            .submit(db -> new BoardRefresh(
+                db.getPublicQuestionSummaries(userName, stale),
+                checkNewest ? db.getPublicQuestionPage(userName, query, null, PAGE_SIZE) : null))
+            .whenComplete((update, error) -> {
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
+                }
+                if (query.equals(currentQuery)) {
+                    applyRefresh(stale, update);
                 }
             });
+    }
 
-            if (questions.isEmpty()) {
-                postsContainer.getChildren().add(new Label("No questions match your filters."));
-            } else {
-                for (Question q : questions) {
-                    postsContainer.getChildren().add(createQuestionSummaryNode(q, primaryStage, user));
+    private void applyRefresh(Set<String> stale, BoardRefresh update) {
+        List<QuestionSummary> items = questionList.getItems();
+        Map<String, QuestionSummary> current = new HashMap<>();
+        update.stale().forEach(summary -> current.put(summary.getQuestion().getQuestionId().toString(), summary));
+        Set<String> shown = new HashSet<>();
+        for (int i = items.size() - 1; i >= 0; i--) {
+            String id = items.get(i).getQuestion().getQuestionId().toString();
+            if (stale.contains(id)) {
+                QuestionSummary now = current.get(id);
+                if (now == null) {
+                    items.remove(i);
+                    continue;
                 }
+                items.set(i, now);
             }
-
-        } catch (SQLException e) {
-            postsContainer.getChildren().add(new Label("Error: Could not load questions."));
+            shown.add(id);
         }
-    }
-
-    // Creates a clickable UI node that displays a summary of a single question.
-    private Node createQuestionSummaryNode(Question question, Stage primaryStage, User user) {
-        VBox summaryBox = new VBox(5);
-        summaryBox.setPadding(new Insets(10));
-
-        final String normalStyle = "-fx-background-color: white; -fx-border-color: #E0E0E0; -fx-border-width: 1; -fx-border-radius: 5;";
-        final String hoverStyle = "-fx-background-color: #F5F5F5; -fx-border-color: #CCCCCC; -fx-border-width: 1; -fx-border-radius: 5;";
-        summaryBox.setStyle(normalStyle);
-        summaryBox.setCursor(Cursor.HAND);
-        summaryBox.setOnMouseEntered(e -> summaryBox.setStyle(hoverStyle));
-        summaryBox.setOnMouseExited(e -> summaryBox.setStyle(normalStyle));
-
-        // Navigate to the detail view when clicked
-        summaryBox.setOnMouseClicked(e -> {
-            try {
-                databaseHelper.updateLastViewed(user.getUserName(), question.getQuestionId().toString());
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-            }
-            new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, question);
-        });
-
-        Label titleLabel = new Label(question.getTitle());
-        titleLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
-
-        HBox metadataBox = new HBox(15);
-        metadataBox.setAlignment(Pos.CENTER_LEFT);
-
-        Label tagLabel = new Label(question.getTag().toString());
-        tagLabel.setFont(Font.font("System", 12));
-        tagLabel.setPadding(new Insets(3, 10, 3, 10));
-        tagLabel.setStyle("-fx-background-radius: 10; -fx-font-weight: 600;");
-
-        // Tag Colors
-        String tagColor;
-        switch (question.getTag()) {
-            case GENERAL:
-                tagColor = "#6C63AC";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #6C63AC; -fx-text-fill: white;");
-                break;
-            case HOMEWORK:
-                tagColor = "#EF7FAF";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #EF7FAF; -fx-text-fill: white;");
-                break;
-            case TEAM_PROJECT:
-                tagColor = "#EC6A5C";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #EC6A5C; -fx-text-fill: white;");
-                break;
-            case QUIZZES:
-                tagColor = "#F89963";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #F89963; -fx-text-fill: #1F2937;");
-                break;
-            case EXAMS:
-                tagColor = "#F5C46D";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #F5C46D; -fx-text-fill: #1F2937;");
-                break;
-            case TEAM_FORMATION:
-                tagColor = "#9BC48C";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #9BC48C; -fx-text-fill: #1F2937;");
-                break;
-            default:
-                tagColor = "#6B7280";
-                tagLabel.setStyle(tagLabel.getStyle() + "-fx-background-color: #6B7280; -fx-text-fill: white;");
+        if (update.firstPage() == null) {
+            return;
+        }
+        // New questions sort before everything loaded; stop at the first one already shown
+        List<QuestionSummary> added = new ArrayList<>();
+        boolean reachedShown = false;
+        for (QuestionSummary summary : update.firstPage().getSummaries()) {
+            if (shown.contains(summary.getQuestion().getQuestionId().toString())) {
+                reachedShown = true;
                 break;
+            }
+            added.add(summary);
         }
+        if (reachedShown) {
+            items.addAll(0, added);
+        } else {
+            // Nothing loaded is on the first page any more; too much changed to patch the list
+            showFirstPage(update.firstPage());
+        }
+    }
 
-        String author = question.isAnonymous() ? "Anonymous" : question.getAuthor().getName();
-        Label authorLabel = new Label("by " + author);
-        authorLabel.setTextFill(Color.GRAY);
+    // Private Helper Methods
+    // Requests the first page matching the current search and filters. The list on screen
+    // stays until the page arrives; while typing, the request waits for a pause.
+    private void filterQuestions(String searchText, Stage primaryStage, User user,
+                                 ComboBox<String> showFilter,
+                                 ComboBox<String> statusFilter,
+                                 ComboBox<Tags> tagFilter,
+                                 ComboBox<String> sortFilter,
+                                 boolean typing) {
+        String author = "My Questions".equals(showFilter.getValue()) ? user.getUserName() : null;
+        BoardQuery.StatusFilter status = statusOf(statusFilter.getValue());
+        boolean newestFirst = !"Oldest First".equals(sortFilter.getValue());
+        BoardQuery query = new BoardQuery(searchText, author, status, tagFilter.getValue(), newestFirst);
+        if (typing && query.equals(currentQuery)) {
+            return; // only whitespace or letter case changed
+        }
+        currentQuery = query;
+        // No scroll loads for the old list while its replacement is on the way
+        nextCursor = null;
+        loadingPage = true;
+        if (typing) {
+            boardSearch.submit(query);
+        } else {
+            boardSearch.submitNow(query);
+        }
+    }
 
-        Label timeLabel = new Label("• " + formatTimeSince(question.getCreationTimestamp()));
-        timeLabel.setTextFill(Color.GRAY);
+    private static BoardQuery.StatusFilter statusOf(String option) {
+        return switch (option == null ? "All" : option) {
+            case "Resolved" -> BoardQuery.StatusFilter.RESOLVED;
+            case "Unresolved" -> BoardQuery.StatusFilter.UNRESOLVED;
+            case "Answered" -> BoardQuery.StatusFilter.ANSWERED;
+            case "Unanswered" -> BoardQuery.StatusFilter.UNANSWERED;
+            default -> BoardQuery.StatusFilter.ALL;
+        };
+    }
 
-        int answerCount = databaseHelper.getAnswerCountForQuestion(question.getQuestionId().toString());
-        int unseenCount = 0;
+    // Replaces the list with a freshly loaded first page.
+    private void showFirstPage(QuestionPage page) {
+        loadingPage = false;
+        nextCursor = page.getNextCursor();
+        questionList.setPlaceholder(new Label("No questions match your filters."));
+        questionList.getItems().setAll(page.getSummaries());
+        questionList.scrollTo(0);
+        loadFacetCounts();
+    }
 
-        try {
-            unseenCount = databaseHelper.getUnseenAnswerCount(user.getUserName(), question.getQuestionId().toString());
-        } catch (SQLException e) {
-            e.printStackTrace();
+    // Counts how many questions each filter choice would show next to the current filters.
+    // Counts come from the facet bitmaps, so this is cheap enough to redo after every change.
+    private void loadFacetCounts() {
+        BoardQuery query = currentQuery;
+        if (query == null) {
+            return;
         }
+        databaseHelper.async()
+            .submitLatest(FACET_CHANNEL, db -> db.getBoardFacetCounts(userName, query))
+            .whenComplete((counts, error) -> {
+                if (AsyncDatabaseHelper.isCancellation(error)) {
+                    return;
+                }
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
+                }
+                if (query.equals(currentQuery)) {
+                    facetCounts = counts;
+                    relabelFilters();
+                }
+            });
+    }
 
-        // Combine answers and "new" count, coloring "new" based on tag
-        Text answersText = new Text("• " + answerCount + (answerCount == 1 ? " answer" : " answers"));
-        answersText.setFill(Color.web("#1F2937"));
-        
-        Text newText = new Text();
-        if (unseenCount > 0) {
-            newText = new Text(" (" + unseenCount + " new)");
-            newText.setFill(Color.web(tagColor));
-            newText.setStyle("-fx-font-weight: bold;");
-        }
+    // Re-renders the filter choices with the current counts; plain labels until counted.
+    private void relabelFilters() {
+        labelChoices(showFilter, option -> withCount(option,
+                "My Questions".equals(option) ? facetCounts.getMyQuestionsCount() : facetCounts.getAllQuestionsCount()));
+        labelChoices(statusFilter, option -> withCount(option, facetCounts.getStatusCount(statusOf(option))));
+        labelChoices(tagFilter, tag -> withCount(tag.toString(), facetCounts.getTagCount(tag)));
+    }
 
-        TextFlow answersFlow = new TextFlow(answersText, newText);
-        answersFlow.setLineSpacing(0);
+    private String withCount(String label, int count) {
+        return label + " (" + count + ")";
+    }
 
-        // Resolution status label
-        Label statusLabel = new Label();
-        boolean resolved = false;
-        try {
-            resolved = databaseHelper.hasAcceptedAnswer(question.getQuestionId().toString());
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+    // Fresh cells make the ComboBox redraw every choice, including the one shown on the button.
+    private <T> void labelChoices(ComboBox<T> comboBox, Function<T, String> countedLabel) {
+        Callback<ListView<T>, ListCell<T>> cells = list -> new ListCell<>() {
+            @Override
+            protected void updateItem(T item, boolean empty) {
+                super.updateItem(item, empty);
+                if (empty || item == null) {
+                    setText(comboBox.getPromptText());
+                } else {
+                    setText(facetCounts == null ? item.toString() : countedLabel.apply(item));
+                }
+            }
+        };
+        comboBox.setCellFactory(cells);
+        comboBox.setButtonCell(cells.call(null));
+    }
 
-        if (resolved) {
-            statusLabel.setText("Resolved");
-            statusLabel.setTextFill(Color.web("#388E3C"));
-            statusLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 12px;");
-        } else {
-            statusLabel.setText("Unresolved");
-            statusLabel.setTextFill(Color.web("#9E9E9E"));
-            statusLabel.setStyle("-fx-font-size: 12px;");
+    // Appends the next page of the current list, if there is one.
+    private void loadNextPage(User user) {
+        if (nextCursor != null && !loadingPage) {
+            loadPage(user);
         }
+    }
 
-        // Combine title and status
-        HBox headerRow = new HBox(10, titleLabel, statusLabel);
-        headerRow.setAlignment(Pos.CENTER_LEFT);
-
-        metadataBox.getChildren().addAll(tagLabel, authorLabel, timeLabel, answersFlow);
-        summaryBox.getChildren().addAll(headerRow, metadataBox);
-
-        return summaryBox;
+    // Fetches the page after nextCursor off the FX thread and appends it when it arrives.
+    // A newer filter or page request supersedes this one, and its result is dropped.
+    private void loadPage(User user) {
+        loadingPage = true;
+        BoardQuery query = currentQuery;
+        QuestionPage.Cursor after = nextCursor;
+        databaseHelper.async()
+            .submitLatest(PAGE_CHANNEL, db -> db.getPublicQuestionPage(user.getUserName(), query, after, PAGE_SIZE))
+            .whenComplete((page, error) -> {
+                if (AsyncDatabaseHelper.isCancellation(error)) {
+                    return;
+                }
+                loadingPage = false;
+                if (error != null) {
+                    nextCursor = null;
+                    System.err.println("Could not load the next board page: " + error.getMessage());
+                    return;
+                }
+                nextCursor = page.getNextCursor();
+                questionList.getItems().addAll(page.getSummaries());
+            });
     }
 
-    // Creates time since 
-    private String formatTimeSince(ZonedDateTime time) {
-        if (time == null) return "some time ago";
-        Duration duration = Duration.between(time, ZonedDateTime.now());
-        long seconds = duration.getSeconds();
-
-        if (seconds < 60) return "just now";
-        long minutes = seconds / 60;
-        if (minutes < 60) return minutes + (minutes == 1 ? " minute ago" : " minutes ago");
-        long hours = minutes / 60;
-        if (hours < 24) return hours + (hours == 1 ? " hour ago" : " hours ago");
-        long days = hours / 24;
-        if (days < 30) return days + (days == 1 ? " day ago" : " days ago");
-        long months = days / 30;
-        if (months < 12) return months + (months == 1 ? " month ago" : " months ago");
-
-        long years = months / 12;
-        return years + (years == 1 ? " year ago" : " years ago");
+    // Opens the detail view of a question picked from the list.
+    private void openQuestion(Question question, Stage primaryStage, User user) {
+        String questionId = question.getQuestionId().toString();
+        staleQuestionIds.add(questionId);
+        // Nothing waits on the last-viewed time, so the write is not awaited
+        databaseHelper.async()
+            .execute(db -> db.updateLastViewed(user.getUserName(), questionId))
+            .whenComplete((done, error) -> {
+                if (error != null) {
+                    error.printStackTrace();
+                    return;
+                }
+                // The board may have been shown again before the write landed
+                boardSearch.invalidate();
+                markStale(questionId);
+            });
+        new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, question);
     }
 }
@@ -1,6 +1,6 @@
 package application;
 
-import java.sql.SQLException;
+import databasePart1.AsyncDatabaseHelper;
 import databasePart1.DatabaseHelper;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
@@ -32,11 +32,7 @@ public class EditAnswerView {
    public void show(Stage primaryStage, User user, Answer answerToEdit) {
 	   showEditor(primaryStage, user, "Edit Your Answer", answerToEdit.getBody(), newBody -> 
 	   {answerToEdit.setBody(newBody);
-	   		try {
-	   			databaseHelper.updateAnswer(answerToEdit);
-	   		} catch (SQLException ex) {
-	   			throw new RuntimeException(ex);
-	   		}
+	   		return db -> db.updateAnswer(answerToEdit);
 	   },
 		
 	   answerToEdit.getParentQuestion());
@@ -45,11 +41,7 @@ public class EditAnswerView {
    public void show(Stage primaryStage, User user, Comment commentToEdit) {
 	   showEditor(primaryStage, user, "Edit Your Comment", commentToEdit.getBody(), newBody -> 
 	   {commentToEdit.setBody(newBody);
-	   		try {
-	   			databaseHelper.updateComment(commentToEdit);
-	   		} catch (SQLException ex) {
-	   			throw new RuntimeException(ex);
-	   		}
+	   		return db -> db.updateComment(commentToEdit);
 	   },
 		
 	   findParentQuestion(commentToEdit));
@@ -76,13 +68,18 @@ public class EditAnswerView {
     		   showError("The text body cannot be empty.");
     		   return;
     	   }
-    	   try {
-    		   saver.save(newBody);
-    		   new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, parentQuestion);
-    	   } catch (Exception ex) {
-    		   ex.printStackTrace();
-    		   showError("Database Error: Could not save your changes.");
-    	   }
+    	   saveButton.setDisable(true);
+    	   databaseHelper.async()
+    	   	   .execute(saver.save(newBody))
+    	   	   .whenComplete((done, error) -> {
+    	   		   saveButton.setDisable(false);
+    	   		   if (error != null) {
+    	   			   error.printStackTrace();
+    	   			   showError("Database Error: Could not save your changes.");
+    	   			   return;
+    	   		   }
+    	   		   new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, parentQuestion);
+    	   	   });
        });
        
        feedbackLabel = new Label();
@@ -111,8 +108,9 @@ public class EditAnswerView {
    }
    
    
+   // Applies the new body and returns the write that saves it, run off the FX thread
    private interface BodySaver {
-	   void save(String newBody) throws Exception;
+	   AsyncDatabaseHelper.Update save(String newBody);
    }
 
     private void handleSaveChangesAction(Stage primaryStage, User user, Answer answerToEdit) {
@@ -125,13 +123,16 @@ public class EditAnswerView {
 
         answerToEdit.setBody(newBody);
 
-        try {
-            databaseHelper.updateAnswer(answerToEdit);
-            new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, answerToEdit.getParentQuestion());
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Database Error: Could not save your changes.");
-        }
+        databaseHelper.async()
+            .execute(db -> db.updateAnswer(answerToEdit))
+            .whenComplete((done, error) -> {
+                if (error != null) {
+                    error.printStackTrace();
+                    showError("Database Error: Could not save your changes.");
+                    return;
+                }
+                new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, answerToEdit.getParentQuestion());
+            });
     }
 
     private void showError(String message) {
@@ -1,7 +1,5 @@
 package application;
 
-import java.sql.SQLException;
-
 import databasePart1.DatabaseHelper;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
@@ -69,7 +67,7 @@ public class EditQuestionView {
         Button saveButton = new Button("Save Changes");
         saveButton.setMaxWidth(Double.MAX_VALUE);
         saveButton.setPrefHeight(40);
-        saveButton.setOnAction(event -> handleSaveChangesAction(primaryStage, user, questionToEdit));
+        saveButton.setOnAction(event -> handleSaveChangesAction(primaryStage, user, questionToEdit, saveButton));
 
         feedbackLabel = new Label();
         feedbackLabel.setWrapText(true);
@@ -92,7 +90,7 @@ public class EditQuestionView {
 
  
     // helper methods
-    private void handleSaveChangesAction(Stage primaryStage, User user, Question questionToEdit) {
+    private void handleSaveChangesAction(Stage primaryStage, User user, Question questionToEdit, Button saveButton) {
         String newTitle = titleField.getText().trim();
         String newBody = bodyTextArea.getText().trim();
         Tags newTag = tagComboBox.getValue();
@@ -107,15 +105,20 @@ public class EditQuestionView {
         questionToEdit.setBody(newBody);
         questionToEdit.setTag(newTag);
 
-        try {
-            // save the updated object to the database.
-            databaseHelper.updateQuestion(questionToEdit);
-            // navigate back to the detail view to see the changes.
-            new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, questionToEdit);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            showError("Database Error: Could not save your changes.");
-        }
+        // save the updated object to the database off the FX thread.
+        saveButton.setDisable(true);
+        databaseHelper.async()
+            .execute(db -> db.updateQuestion(questionToEdit))
+            .whenComplete((done, error) -> {
+                saveButton.setDisable(false);
+                if (error != null) {
+                    error.printStackTrace();
+                    showError("Database Error: Could not save your changes.");
+                    return;
+                }
+                // navigate back to the detail view to see the changes.
+                new QuestionDetailView(databaseHelper, adminFlag).show(primaryStage, user, questionToEdit);
+            });
     }
 
 
@@ -7,12 +7,14 @@ public class EmailValidator {
 	 * <p> Description: A demonstration of the mechanical translation of a Finite State Machine
 	 * into an executable Java program. This variant validates emails per multiple primary rules:
 	 * (1) Local part of email may contain alphanumeric and some specials (2) '.' can not start email or follow another '.' or '-'
-	 * (3) Domain can contain alphanumeric, '-' and non consecutive '.' (4) At least one '.' must be in the domain 
-	 * (5) An alphabetic char must appear immediately after last '.' (6)  TLD following last '.' can be alphabetic or '-', though '-' 
+	 * (3) Domain can contain alphanumeric, '-' and non consecutive '.' (4) At least one '.' must be in the domain
+	 * (5) An alphabetic char must appear immediately after last '.' (6)  TLD following last '.' can be alphabetic or '-', though '-'
 	 * must not follow '.' or end email.
-	 * 
-	 * 	
-	 * 
+	 *
+	 * The FSM is compiled into a transition table indexed by state and character class. What
+	 * the original machine tracked in flags (whether the local part has started, what the
+	 * previous domain character was) is folded into the states, and a validation run keeps
+	 * its state in local variables, so emails can be checked from any number of threads.
 	 * </p>
 	 *
 	 * <p> Derived structure from UserNameRecognizer by Lynn Robert Carter © 2024. </p>
@@ -21,314 +23,195 @@ public class EmailValidator {
 	 * @author Jonathan Waterway, Collin Looney
 
 	 * @version 1.00  2025-09-15  Initial version based on UserNameRecognizer FSM style
+	 * @version 2.00  2026-10-18  Table-driven and reentrant; validate returns an immutable ValidationResult
 	 */
 
 	/**********************************************************************************************
-	 * Result attributes to be used for GUI applications.
+	 * Result attributes of the last checkForValidEmail call, kept for existing GUI code. With
+	 * concurrent callers they describe whichever call finished last; use validate instead.
 	 */
-	
-	public static String emailValidatorErrorMessage = "";	// The error message text
-	public static String emailValidatorInput = "";			// The input being processed
-	private static String inputLine = "";					// The input line
-	
-	public static int emailValidatorIndexofError = -1;		// The index of error location
-	private static int state = 0;							// The current state value
-	private static int nextState = 0;						// The next state value
-	private static int emailSize = 0;			       		// Size of email entry 
-	private static int currentCharNdx;						// The index of the current character
-	private static int atIndex = -1;						// Count how many @
-	private static int dotCount = 0;						// How many dots seen after @ in input
-	private static int totalDots = 0;						// How many total dots after @ in input
-	
-	private static char currentChar;						// The current character in the line
-	private static char prevChar = '\0'; 					//added to track '.' location 
-	
-	private static boolean running;							// The flag that specifies if the FSM is running
-	private static boolean validLocal = false;				// Valid input in local part of email (<local>@domain.TLD)
-	private static boolean otherChar = false;				// Invalid char found in local part of email
-	private static boolean finalState = false;				// Is this state a final state?
-	private static boolean badHyphen = false;				// Hyphen in wrong spot?
-	
-	private static final boolean debugMode = false; 
-	
-	
-	
-	private static boolean isAlpha(char c) { // helper to check if input char is Alphabetical 
-	    if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
-	        return true;
-	    } else {
-	        return false;
-	    }
-	}
 
-	private static boolean isAlphanum(char c) { // helper to check if input char is Alphanumeric 
-	    if (isAlpha(c) || (c >= '0' && c <= '9')) {
-	        return true;
-	    } else {
-	        return false;
-	    }
+	public static volatile String emailValidatorErrorMessage = "";	// The error message text
+	public static volatile String emailValidatorInput = "";			// The input being processed
+	public static volatile int emailValidatorIndexofError = -1;		// The index of error location
+
+	// Error codes of the ValidationResult returned by validate
+	public static final int EMPTY = 1;
+	public static final int MULTIPLE_AT = 2;
+	public static final int MISSING_AT = 3;
+	public static final int MISSING_DOMAIN_DOT = 4;
+	public static final int LOCAL_INVALID_CHARACTER = 5;
+	public static final int STARTS_WITH_AT = 6;
+	public static final int STARTS_WITH_DOT = 7;
+	public static final int LOCAL_WITHOUT_AT = 8;
+	public static final int LOCAL_BAD_AFTER_DOT = 9;
+	public static final int DOMAIN_STARTS_WITH_HYPHEN = 10;
+	public static final int DOMAIN_BAD_START = 11;
+	public static final int DOMAIN_HYPHEN_AFTER_DOT = 12;
+	public static final int DOMAIN_INVALID_CHARACTER = 13;
+	public static final int DOMAIN_BAD_BEFORE_DOT = 14;
+	public static final int TLD_BAD_START = 15;
+	public static final int ENDS_WITH_HYPHEN = 16;
+	public static final int TLD_INVALID_CHARACTER = 17;
+
+	// Error messages, indexed by error code
+	private static final String[] MESSAGES = {
+		"",
+		"\nEMAIL ERROR: The input is empty",
+		"\nEMAIL ERROR: Multiple '@' symbols are not allowed.",
+		"\nEMAIL ERROR: Missing '@' symbol.",
+		"\nEMAIL ERROR: Missing '.' in domain.",
+		"\nEMAIL ERROR: Invalid character in local part of email.",
+		"\nEMAIL ERROR: Email can't start with '@'.",
+		"\nEMAIL ERROR: Email can't start with '.'.",
+		"\nEMAIL ERROR: Missing '@' to transition from local part to domain.",
+		"\nEMAIL ERROR: Only alphanumeric or \"~`!#$%^&*_-+{}|'?/\" are allowed between '.' in the local part of email.",
+		"\nEMAIL ERROR: Domain can't start with a hyphen.",
+		"\nEMAIL ERROR: Domain must start with a letter or digit.",
+		"\nEMAIL ERROR: A hyphen can not follow a '.' in the domain.",
+		"\nEMAIL ERROR: Invalid char in the domain.",
+		"\nEMAIL ERROR: The character immediately before '.' must be alphanumeric.",
+		"\nEMAIL ERROR: The character immediately after the last '.' must be alphabetic (A-Z or a-z).",
+		"\nEMAIL ERROR: Email can not end with hyphen.",
+		"\nEMAIL ERROR: Only alphabetic characters or hyphens are allowed in TLD.",
+	};
+
+	// Character classes. Characters outside ASCII are always OTHER.
+	private static final int ALPHA = 0;
+	private static final int DIGIT = 1;
+	private static final int DOT = 2;
+	private static final int AT = 3;
+	private static final int HYPHEN = 4;
+	private static final int LOCAL_SPECIAL = 5;		// "~`!#$%^&*_+{}|'?/", allowed in the local part only
+	private static final int OTHER = 6;
+	private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+	/** FSM
+	 * States:
+	 * 0: local part, nothing read yet
+	 * 1: local part -> repeat state 1, goto 2 on '.' or 3 on '@'
+	 * 2: dot in the local part, needs alphanumeric or special next -> state 1
+	 * 3: '@' read, a domain label must start here
+	 * 4: '.' read inside the domain, a label must start here
+	 * 5: in a domain label after a letter or digit
+	 * 6: in a domain label after a hyphen
+	 * 7: last dot entered -> state 8
+	 * 8: alpha character entered after the last dot, completing requirements (Accepting state)
+	 */
+	private static final int LOCAL_START = 0;
+	private static final int LOCAL = 1;
+	private static final int LOCAL_DOT = 2;
+	private static final int AFTER_AT = 3;
+	private static final int AFTER_DOMAIN_DOT = 4;
+	private static final int DOMAIN = 5;
+	private static final int DOMAIN_HYPHEN = 6;
+	private static final int LAST_DOT = 7;
+	private static final int TLD = 8;
+	// Targets that depend on where the character is: a domain dot goes to LAST_DOT if it is
+	// the last dot, and a TLD hyphen is an error if it is the last character
+	private static final int DOMAIN_DOT = 9;
+	private static final int TLD_HYPHEN = 10;
+
+	// TRANSITIONS[state][character class] is the next state, or minus the error code when the
+	// character is not allowed there
+	private static final int[][] TRANSITIONS = {
+		//                   ALPHA   DIGIT   DOT                      AT                        HYPHEN                      LOCAL_SPECIAL              OTHER
+		/* LOCAL_START */  { LOCAL,  LOCAL,  -STARTS_WITH_DOT,        -STARTS_WITH_AT,          LOCAL,                      LOCAL,                     -LOCAL_INVALID_CHARACTER },
+		/* LOCAL */        { LOCAL,  LOCAL,  LOCAL_DOT,               AFTER_AT,                 LOCAL,                      LOCAL,                     -LOCAL_INVALID_CHARACTER },
+		/* LOCAL_DOT */    { LOCAL,  LOCAL,  -LOCAL_BAD_AFTER_DOT,    -LOCAL_BAD_AFTER_DOT,     LOCAL,                      LOCAL,                     -LOCAL_BAD_AFTER_DOT },
+		/* AFTER_AT */     { DOMAIN, DOMAIN, -DOMAIN_BAD_START,       -DOMAIN_BAD_START,        -DOMAIN_STARTS_WITH_HYPHEN, -DOMAIN_BAD_START,         -DOMAIN_BAD_START },
+		/* AFTER_DOT */    { DOMAIN, DOMAIN, -DOMAIN_BAD_BEFORE_DOT,  -DOMAIN_INVALID_CHARACTER, -DOMAIN_HYPHEN_AFTER_DOT, -DOMAIN_INVALID_CHARACTER, -DOMAIN_INVALID_CHARACTER },
+		/* DOMAIN */       { DOMAIN, DOMAIN, DOMAIN_DOT,              -DOMAIN_INVALID_CHARACTER, DOMAIN_HYPHEN,             -DOMAIN_INVALID_CHARACTER, -DOMAIN_INVALID_CHARACTER },
+		/* DOMAIN_HYPHEN */{ DOMAIN, DOMAIN, -DOMAIN_BAD_BEFORE_DOT,  -DOMAIN_INVALID_CHARACTER, DOMAIN_HYPHEN,             -DOMAIN_INVALID_CHARACTER, -DOMAIN_INVALID_CHARACTER },
+		/* LAST_DOT */     { TLD,    -TLD_BAD_START, -TLD_BAD_START,  -TLD_BAD_START,           -TLD_BAD_START,             -TLD_BAD_START,            -TLD_BAD_START },
+		/* TLD */          { TLD,    -TLD_INVALID_CHARACTER, -TLD_INVALID_CHARACTER, -TLD_INVALID_CHARACTER, TLD_HYPHEN, -TLD_INVALID_CHARACTER,     -TLD_INVALID_CHARACTER },
+	};
+
+	// The error when the input ends in a state, indexed by state; 0 for the accepting state
+	private static final int[] END_OF_INPUT_ERRORS = {
+		LOCAL_WITHOUT_AT, LOCAL_WITHOUT_AT, LOCAL_BAD_AFTER_DOT, DOMAIN_BAD_START, DOMAIN_BAD_BEFORE_DOT,
+		DOMAIN_BAD_BEFORE_DOT, DOMAIN_BAD_BEFORE_DOT, TLD_BAD_START, 0,
+	};
+
+	static {
+		java.util.Arrays.fill(CHARACTER_CLASSES, (byte) OTHER);
+		for (char c = 'A'; c <= 'Z'; c++) CHARACTER_CLASSES[c] = ALPHA;
+		for (char c = 'a'; c <= 'z'; c++) CHARACTER_CLASSES[c] = ALPHA;
+		for (char c = '0'; c <= '9'; c++) CHARACTER_CLASSES[c] = DIGIT;
+		for (char c : "~`!#$%^&*_+{}|'?/".toCharArray()) CHARACTER_CLASSES[c] = LOCAL_SPECIAL;
+		CHARACTER_CLASSES['.'] = DOT;
+		CHARACTER_CLASSES['@'] = AT;
+		CHARACTER_CLASSES['-'] = HYPHEN;
 	}
-	
-	private static void displayDebuggingInfo() { //same as LR Carter's code except line 78 (emailSize) 
-		// Display the current state of the FSM as part of an execution trace
-		if(!debugMode) return;
-		
-		if (currentCharNdx >= inputLine.length())
-			// display the line with the current state numbers aligned
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
-					((finalState) ? "       F   " : "           ") + "None");
-		else
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
-				((finalState) ? "       F   " : "           ") + "  " + currentChar + " " + 
-				((nextState > 99) ? "" : (nextState > 9) || (nextState == -1) ? "   " : "    ") + 
-				nextState + "     " + emailSize);
+
+	private static int classOf(char c) {
+		return c < CHARACTER_CLASSES.length ? CHARACTER_CLASSES[c] : OTHER;
 	}
-	
-	// Private method to move to the next character within the limits of the input line
-		private static void moveToNextCharacter() {
-			prevChar = currentChar; // tracks previous character for purpose of '.' check implementation 
-			currentCharNdx++;
-			if (currentCharNdx < inputLine.length())
-				currentChar = inputLine.charAt(currentCharNdx);
-			else {
-				currentChar = ' ';
-				running = false;
-			}
-		}
-		
-		
-		/** FSM 
-		 * States:
-		 * 0: validates the local part of the email address -> repeat state 0 or goto 2
-		 * 1: dot state needs alphanumeric or special between -> repeat state 1 or goto 0
-		 * 2: transition to domain upon '@' symbol -> state 3 
-		 * 3: last dot entered -> state 4
-		 * 4: alpha character entered after period, completing requirements (Accepting state)
-		 */
-		
-		public static String checkForValidEmail (String input) { 
-			if (input == null || input.length() <= 0) {
-				emailValidatorIndexofError = 0;
-				return "\nEMAIL ERROR: The input is empty"; 
-			}
-				
-		// The local variables used to perform the Finite State Machine simulation
-		state = 0;							// This is the FSM state number
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-		currentChar = input.charAt(0);		// The current character from above indexed position
-		prevChar = '\0'; 					// Previous character for '.' tracking 
-		
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
 
-		emailValidatorInput = input;	// Save a copy of the input
-		running = true;						// Start the loop
-		nextState = -1;						// There is no next state
-		finalState = false; 				// Still running 
-		validLocal = false;					// Reset validLocal
-		otherChar = false;       			// Reset otherChar
-		badHyphen = false;					// Reset badHyphen flag
-		atIndex = -1;                       // Reset index number for @ sign (-1 if none)
-		dotCount = 0;						// Reset dotCount
-		totalDots = 0;						// Reset totalDots
-		emailSize = 0;						// Initialize the email size
-		
-		// **Special pre-scan errors
-		// System.out.println(input); // debug line
-		
-		// Count and index @
-		if (debugMode) {
-			System.out.println("\nCurrent Final Input  Next  Size\nState   State Char  State  Size"); // debug line
+	/**
+	 * Checks the '@' and domain dot up front, then runs the FSM over the input, stopping at
+	 * the first character that is not allowed in the current state.
+	 *
+	 * @param input		The input string for the Finite State Machine
+	 * @return			ValidationResult.VALID, or the error code and the index of the character
+	 * 					where validation stopped
+	 */
+	public static ValidationResult validate(String input) {
+		if (input == null || input.length() <= 0) {
+			return ValidationResult.of(EMPTY, 0);
 		}
-		
-		for (int i = 0; i < input.length(); i++) {
-		    char c = input.charAt(i);
-		    if (c == '@') 
-		    	if (atIndex == -1) {
-		    	 	atIndex = i;
-		    	} else 	return "\nEMAIL ERROR: Multiple '@' symbols are not allowed.";
+
+		// Special pre-scan errors: exactly one '@', and a '.' somewhere after it
+		int atIndex = input.indexOf('@');
+		if (atIndex == -1) {
+			return ValidationResult.of(MISSING_AT, input.length());
 		}
-		
-				
-		if (atIndex == -1) return "\nEMAIL ERROR: Missing '@' symbol.";  // Return error if no @
-		
-		// find total # of dots in input after @ symbol
-		for (int i = atIndex; i < input.length(); i++) {
-			char c = input.charAt(i);
-			if (c == '.') totalDots++;				
+		int secondAt = input.indexOf('@', atIndex + 1);
+		if (secondAt != -1) {
+			return ValidationResult.of(MULTIPLE_AT, secondAt);
 		}
-		
-		if (totalDots == 0) {
-		    return "\nEMAIL ERROR: Missing '.' in domain."; // Return error if no . after @
+		int lastDot = input.lastIndexOf('.');
+		if (lastDot < atIndex) {
+			return ValidationResult.of(MISSING_DOMAIN_DOT, input.length());
 		}
-				
-		
-		while (running) { 
-			switch (state) {
-			case 0: 
-				// Allow Alphanumeric and "~`!#$%^&*_-+{}|'?/" -> state 0
-				// . -> state 1 if previousChar is alphaNum
-				// @ -> state 2 unless empty local
-				if (currentChar == '@') {
-					    if (!validLocal) {
-					    	running = false;
-					    	break;
-					    }
-				    nextState = 2;
-				    emailSize++;
-				} else if (currentChar == '.') {
-					    if (!validLocal) {
-					    	running = false;
-					    	break;
-					    }
-				    nextState = 1;
-				    emailSize++;
-				} else if (isAlphanum(currentChar) || ("~`!#$%^&*_-+{}|'?/".indexOf(currentChar) >= 0)) {
-					nextState = 0; 
-					emailSize++; 
-					validLocal = true;
-				} else {
-					running = false; 
-					otherChar = true;				
-				}
-				break;
-			
-			case 1: // dot state -> 0 or 1 
-				//  
-				if ((isAlphanum(currentChar) || ("~`!#$%^&*_-+{}|'?/".indexOf(currentChar) >= 0)) ) { 
-					nextState = 0; 
-					emailSize++; 
-				} else {
-					running = false; 
-				}
-				break;
-			
-			
-			case 2: // handle domain -> 3
-				
-				if (currentChar == '-' && (prevChar == '@' || prevChar == '.')) {
-					badHyphen = true;
-					running = false;
-					break;		
-				}
-				
-				if (currentChar == '.') {
-					if (isAlphanum(prevChar)) {
-						if (dotCount == totalDots - 1) {
-							nextState = 3; 
-							emailSize++;
-						} else {
-							dotCount++; 
-							nextState = 2; 
-							emailSize++;
-						}
-					} else {
-						running = false; 
-					}
-				} else if (isAlphanum(currentChar) || currentChar == '-') { //hyphen's ok in domain label 
-					nextState = 2; 
-					emailSize++;
-				} else {
-					otherChar = true;
-					running = false; 
-				}
-				break;
-				
-			case 3: // last dot state -> 4
-				// After '.', requires alphabetic char 
-				if (isAlpha (currentChar)) { 
-					nextState = 4; 
-					emailSize++; 
-				} else { 
-					running = false; 
-				}
-				break;
-				
-			case 4: // **Final accepting     TLD state -> 3 or 4
-				// Continue accepting until a non-alphabetic char is entered
-				if (currentChar == '-') { 
-					if (input.length() == emailSize + 1) {
-						badHyphen = true;
-						running = false;
-						break;
-					}
-				
-				}
-				if (isAlpha(currentChar) || currentChar == '-') { 
-					nextState = 4; 
-					emailSize++; 
-				} else {
-					running = false; 
-				}
-				break;
+
+		int state = LOCAL_START;
+		for (int currentCharNdx = 0; currentCharNdx < input.length(); currentCharNdx++) {
+			int next = TRANSITIONS[state][classOf(input.charAt(currentCharNdx))];
+			if (next == DOMAIN_DOT) {
+				next = currentCharNdx == lastDot ? LAST_DOT : AFTER_DOMAIN_DOT;
+			} else if (next == TLD_HYPHEN) {
+				next = currentCharNdx == input.length() - 1 ? -ENDS_WITH_HYPHEN : TLD;
 			}
-			
-			
-			if (running) {
-			    displayDebuggingInfo();
-			    moveToNextCharacter();        // <<< ADDED: advance character
-			    state = nextState;            // <<< ADDED: commit transition
-			    finalState = (state == 4);    // <<< ADDED: accepting if in state 4
-			    nextState = -1;               // <<< ADDED: reset
+			if (next < 0) {
+				return ValidationResult.of(-next, currentCharNdx);
 			}
+			state = next;
 		}
-				
-			// After loop
-			displayDebuggingInfo();
-			if(debugMode) {
-				System.out.println("The loop has ended.");
-			}
-			emailValidatorIndexofError = currentCharNdx; 
-			emailValidatorErrorMessage = "\nEMAIL ERROR: ";
 
-			// Valid if accepting and input fully consumed
-			if (finalState && currentCharNdx >= input.length()) {
-			    emailValidatorIndexofError = -1; 
-			    emailValidatorErrorMessage = ""; 
-			    return emailValidatorErrorMessage; 
-			}
+		// Valid if the whole input was consumed in the accepting state
+		int error = END_OF_INPUT_ERRORS[state];
+		return error == 0 ? ValidationResult.VALID : ValidationResult.of(error, input.length());
+	}
+
+	// The error message of a result of validate; empty when it is valid.
+	public static String errorMessage(ValidationResult result) {
+		return MESSAGES[result.getCode()];
+	}
 
-			// Otherwise, report specific error
-			switch (state) {                                                                                       
-			    case 0: // Local part errors
-			    	if (otherChar) {
-			    		return emailValidatorErrorMessage + "Invalid character in local part of email.";	
-			    	}
-			    	if (currentChar == '@' && (!validLocal)) {
-			    		return emailValidatorErrorMessage + "Email can't start with '@'.";	
-			    	}
-			    	if (currentChar == '.' && (!validLocal)) {
-			    		return emailValidatorErrorMessage + "Email can't start with '.'.";	
-			    	}
-			    	return emailValidatorErrorMessage + "Missing '@' to transition from local part to domain.";
-			    case 1: // Invalid character after any dot in local
-			    	return emailValidatorErrorMessage + "Only alphanumeric or \"~`!#$%^&*_-+{}|'?/\" are allowed between '.' in the local part of email.";
-			    		
-			    case 2: // Domain errors                                                                                           
-			        if (prevChar == '@') { 
-			        		if (badHyphen) {
-			        			return emailValidatorErrorMessage + "Domain can't start with a hyphen.";
-			        		}			   
-			        } else if (currentChar == '-' && prevChar == '.') {
-			        	return emailValidatorErrorMessage + "A hyphen can not follow a '.' in the domain."; 
-			        } else if (otherChar) {
-			        	return emailValidatorErrorMessage + "Invalid char in the domain."; 
-			        } else {
-			            return emailValidatorErrorMessage + "The character immediately before '.' must be alphanumeric."; 
-			        }
-			        return emailValidatorErrorMessage + "Domain must start with a letter or digit.";
-			        
-			    case 3: // No valid TLD                                                                                          
-			        return emailValidatorErrorMessage + "The character immediately after the last '.' must be alphabetic (A-Z or a-z)."; 
-			    case 4: // Accepting state but problem with TLD
-			    	if (currentChar == '-') {
-			    		return emailValidatorErrorMessage + "Email can not end with hyphen.";			    		
-			    	}
-			        return emailValidatorErrorMessage + "Only alphabetic characters or hyphens are allowed in TLD.";			    
-			    default:                                                                                          
-			        return emailValidatorErrorMessage + "Invalid email format.";                                 
-			}        
-			
+	/**
+	 * Checks an email address and describes the first problem found.
+	 *
+	 * @param input		The input string for the Finite State Machine
+	 * @return			An output string that is empty if the email is valid, otherwise a
+	 * 					helpful description of the error
+	 */
+	public static String checkForValidEmail(String input) {
+		ValidationResult result = validate(input);
+		String message = errorMessage(result);
+		emailValidatorInput = input;
+		emailValidatorIndexofError = result.getErrorIndex();
+		emailValidatorErrorMessage = message;
+		return message;
 	}
 }
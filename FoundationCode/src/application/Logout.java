@@ -19,6 +19,8 @@ public final class Logout {
         logoutBtn.setOnAction(e -> {
             try {
                 databaseHelper.setCurrentUserName(null); 
+                // Cached screens belong to the user logging out
+                NavigationController.of(stage).reset();
             	new SetupLoginSelectionPage(databaseHelper).show(stage);
                 stage.setTitle("Login / Create Account");
             } catch (Exception ex) {
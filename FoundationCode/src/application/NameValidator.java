@@ -4,151 +4,141 @@ public class NameValidator {
 /**
  * <p> Title: FSM based Name Validator. </p>
  * <p> Description: A Java class that validates full name based on Finite State Machine (FSM).
- * The code is designed to follow a clear, state transition model within a while loop. It checks for
- * valid characters, proper structure, and length constraint.</p>
- * 
+ * The FSM is compiled into a transition table indexed by state and character class, and a
+ * validation run keeps its state in local variables, so names can be checked from any number
+ * of threads at once. It checks for valid characters, proper structure, and length constraint.</p>
+ *
  * @author Ashenafi Teressa
  * @version 1.00 2025-09-15 Initial implementation of the FSM name validator.
- * 
+ * @version 2.00 2026-10-18 Table-driven and reentrant; validate returns an immutable ValidationResult.
+ *
  */
-	
-	
-	/********************************************************************************************
-	 *  * Result attributes to be used for GUI applications where a detailed error message will
-	 *  enhance the user experience. 
-	 */
-	public static String nameErrorMessage = ""; 	// The error message text
-	public static String nameInput = "";			// The input being processed 
-	
-	
+
+
 	/********************************************************************************************
-	 * 	* The private attributes to manage the FSM execution. 
+	 *  * Result attributes of the last validateName call, kept for existing GUI code. With
+	 *  concurrent callers they describe whichever call finished last; use validate instead.
 	 */
-	
-	private static String inputLine;		// The input line being processed
-	private static int charCounter;			// The index of the current char
-	private static char currentChar;		// The current character in the line
-	private static boolean running;			// A boolean flag to control the FSM loop
-	
-	
-	
-	// State variables and constants
-	private static int currentState;		// The current state of the FSM
+	public static volatile String nameErrorMessage = ""; 	// The error message text
+	public static volatile String nameInput = "";			// The input being processed
+
+
+	// Error codes of the ValidationResult returned by validate
+	public static final int EMPTY = 1;
+	public static final int BAD_LENGTH = 2;				// Shorter than 2 or longer than 100
+	public static final int BAD_FIRST_CHARACTER = 3;
+	public static final int INVALID_CHARACTER = 4;
+	public static final int DOUBLE_SEPARATOR = 5;		// A separator not followed by a letter
+	public static final int BAD_LAST_CHARACTER = 6;		// Ends with a separator
+
+	private static final int MIN_LENGTH = 2;
+	private static final int MAX_LENGTH = 100;
+
+	// Error messages, indexed by error code; INVALID_CHARACTER also names the character
+	private static final String[] MESSAGES = {
+		"",
+		"\nNAME ERROR: Name cannot be empty.",
+		"\nNAME ERROR: Name must be between 2 and 100 characters long.",
+		"\nNAME ERROR: Name must start with a letter.",
+		"\nNAME ERROR: Name contains invalid character: '",
+		"\nNAME ERROR: A space, hyphen or apostrophe must be followed by a letter.",
+		"\nNAME ERROR: Name cannot end with a space, hyphen or apostrophe.",
+	};
+
+	// Character classes; letters beyond ASCII are found with Character.isLetter
+	private static final int LETTER = 0;
+	private static final int SEPARATOR = 1;		// space, hyphen, apostrophe
+	private static final int OTHER = 2;
+	private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+	// FSM states
 	private static final int STATE_START = 0;
 	private static final int STATE_IN_LETTER = 1;
 	private static final int STATE_IN_SEPARATOR = 2;
-	private static final int STATE_INVALID = 3;
-	
+
+	// TRANSITIONS[state][character class] is the next state, or minus the error code when
+	// the character is not allowed there
+	private static final int[][] TRANSITIONS = {
+		//                       LETTER            SEPARATOR             OTHER
+		/* START */        { STATE_IN_LETTER, -BAD_FIRST_CHARACTER, -BAD_FIRST_CHARACTER },
+		/* IN_LETTER */    { STATE_IN_LETTER, STATE_IN_SEPARATOR,   -INVALID_CHARACTER },
+		/* IN_SEPARATOR */ { STATE_IN_LETTER, -DOUBLE_SEPARATOR,    -INVALID_CHARACTER },
+	};
+
+	static {
+		java.util.Arrays.fill(CHARACTER_CLASSES, (byte) OTHER);
+		for (char c = 'A'; c <= 'Z'; c++) CHARACTER_CLASSES[c] = LETTER;
+		for (char c = 'a'; c <= 'z'; c++) CHARACTER_CLASSES[c] = LETTER;
+		CHARACTER_CLASSES[' '] = SEPARATOR;
+		CHARACTER_CLASSES['-'] = SEPARATOR;
+		CHARACTER_CLASSES['\''] = SEPARATOR;
+	}
+
+	private static int classOf(char c) {
+		if (c < CHARACTER_CLASSES.length) {
+			return CHARACTER_CLASSES[c];
+		}
+		return Character.isLetter(c) ? LETTER : OTHER;
+	}
+
 	/***********
-	 * This method is a mechanical transformation of the Name Validator FSM diagram into a Java method.
-	 * 
+	 * Runs the Name Validator FSM over the input, stopping at the first character that is
+	 * not allowed in the current state.
+	 *
 	 * @param input		The input string for FSM processing.
-	 * @return			An empty string if the name is valid, otherwise a string with a helpful description of the error.
+	 * @return			ValidationResult.VALID, or the error code and the index of the offending
+	 * 					character.
 	 */
-	public static String validateName(String input) 
+	public static ValidationResult validate(String input)
 	{
-		
-		// Initialize the FSM for a new validation run
-		nameInput = input;
-		inputLine = input;
-		charCounter = 0;
-		
-		
-		// Check for empty input after trimming 
-		if(inputLine.isEmpty())
+		if(input.isEmpty())
 		{
-			nameErrorMessage = "\nNAME ERROR: Name cannot be empty.";
-			return nameErrorMessage;
+			return ValidationResult.of(EMPTY, 0);
 		}
-		
-		// Check length constraints
-		if(inputLine.length() < 2 || inputLine.length() > 100)
+		if(input.length() < MIN_LENGTH || input.length() > MAX_LENGTH)
 		{
-			nameErrorMessage = "\nNAME ERROR: Name must be between 2 and 100 characters long.";
-			return nameErrorMessage;
+			return ValidationResult.of(BAD_LENGTH, Math.min(input.length(), MAX_LENGTH));
 		}
-		
-		// Initialize FSM state and start the loop
-		currentState = STATE_START;
-		running = true;
-		
-		while(running) 
+
+		int currentState = STATE_START;
+		for(int charCounter = 0; charCounter < input.length(); charCounter++)
 		{
-			
-			// get the character for the current position 
-			currentChar =inputLine.charAt(charCounter);
-			
-			switch(currentState)
-			{
-			
-			case STATE_START: // initial state
-				if(Character.isLetter(currentChar)) {
-					currentState = STATE_IN_LETTER; // First char is a letter, valid transition 
-				}else {
-					currentState = STATE_INVALID; // First char is not a letter, invalid
-					nameErrorMessage = "\nNAME ERROR: Name must start with a letter.";
-				}
-				break;
-			case STATE_IN_LETTER: // the state when the previous char was a letter
-				if(Character.isLetter(currentChar)) 
-				{
-					currentState = STATE_IN_LETTER; // loop back to this state. valid state
-				}else if(currentChar == ' ' || currentChar == '-' || currentChar == '\'')
-				{
-					currentState = STATE_IN_SEPARATOR; // transition to separator state
-				}else {
-					currentState = STATE_INVALID; // an invalid character found
-					nameErrorMessage = "\nNAME ERROR: Name contains invalid character: '" + currentChar + "'";
-				}
-				break;
-				
-			case STATE_IN_SEPARATOR: // state when the previous char was a separator 
-				if(Character.isLetter(currentChar)) {
-					currentState = STATE_IN_LETTER; // separator must be followed by letter, valid
-				}else {
-					currentState = STATE_INVALID; // consecutive separators of invalid character
-					if(currentChar == ' ' || currentChar == '-' || currentChar == '\'')
-					{
-						nameErrorMessage = "\nNAME ERROR: A space, hyphen or apostrophe must be followed by a letter.";
-					}else {
-						nameErrorMessage = "\nNAME ERROR: Name contains invalid character: '" + currentChar + "'";
-					}
-				}
-				break;
-			case STATE_INVALID:		
-				running = false; // exit the while loop to start processing 
-				break;	
-				
-			}
-			
-			
-			if(currentState == STATE_INVALID) {
-				running = false; // stop processing, if in invalid state
+			int next = TRANSITIONS[currentState][classOf(input.charAt(charCounter))];
+			if(next < 0) {
+				return ValidationResult.of(-next, charCounter);
 			}
-			
-			charCounter++; // move to the next character
-			
-			if(charCounter >= inputLine.length()) {
-				running = false; // end of the input string
-			}
-			
-		}
-		
-		// If the FSM ended in on invalid state, return the specific error message
-		if(currentState == STATE_INVALID) {
-			return nameErrorMessage;
+			currentState = next;
 		}
-		
-		// A valid name must end in a letter 
+
+		// A valid name must end in a letter
 		if(currentState != STATE_IN_LETTER)
 		{
-			nameErrorMessage = "\nNAME ERROR: Name cannot end with a space, hyphen or apostrophe.";
-			return nameErrorMessage;
+			return ValidationResult.of(BAD_LAST_CHARACTER, input.length() - 1);
+		}
+		return ValidationResult.VALID;
+	}
+
+	// The error message of a result of validate on input; empty when it is valid.
+	public static String errorMessage(String input, ValidationResult result)
+	{
+		if(result.getCode() == INVALID_CHARACTER) {
+			return MESSAGES[INVALID_CHARACTER] + input.charAt(result.getErrorIndex()) + "'";
 		}
-		
-		// If all checks pass, the name is valid
-		nameErrorMessage = "";
-		
-		return nameErrorMessage;
+		return MESSAGES[result.getCode()];
+	}
+
+	/***********
+	 * Checks a full name and describes the first problem found.
+	 *
+	 * @param input		The input string for FSM processing.
+	 * @return			An empty string if the name is valid, otherwise a string with a helpful description of the error.
+	 */
+	public static String validateName(String input)
+	{
+		ValidationResult result = validate(input);
+		String message = errorMessage(input, result);
+		nameInput = input;
+		nameErrorMessage = message;
+		return message;
 	}
 }
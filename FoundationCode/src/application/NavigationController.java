@@ -0,0 +1,177 @@
+package application;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+
+ // Keeps the screens a user moves between alive, so going back shows the same Scene with its
+ // data, filters and scroll position instead of building and querying everything again.
+ // Each Stage has one controller holding a bounded stack of screens, most recent on top.
+ // A screen shown again is asked to refresh whatever may have changed while it was hidden.
+
+public class NavigationController {
+
+    // A view the controller can keep alive between visits.
+    public interface Screen {
+        Scene getScene();
+
+        String getTitle();
+
+        // Called when the cached screen is shown again; should only update what may have changed.
+        void refresh();
+
+        // Called once the controller drops the screen, e.g. to cancel its event subscriptions.
+        default void dispose() {
+        }
+    }
+
+    // Live screens kept per stage; the oldest is dropped beyond this
+    static final int MAX_SCREENS = 6;
+
+    private static final String STAGE_KEY = NavigationController.class.getName();
+
+    private final Stage stage;
+    private final int maxScreens;
+    private final Deque<Entry> stack = new ArrayDeque<>();
+
+    // Instrumentation counters
+    private final AtomicLong navigationCount = new AtomicLong();
+    private final AtomicLong reuseCount = new AtomicLong();
+    private final AtomicLong buildCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private volatile long lastNanos;
+
+    private record Entry(String key, Screen screen) { }
+
+    NavigationController(Stage stage, int maxScreens) {
+        this.stage = stage;
+        this.maxScreens = maxScreens;
+    }
+
+    // The controller of the stage, created on first use.
+    public static NavigationController of(Stage stage) {
+        return (NavigationController) stage.getProperties()
+                .computeIfAbsent(STAGE_KEY, k -> new NavigationController(stage, MAX_SCREENS));
+    }
+
+    // Shows the live screen with this key, refreshed, or builds it with the factory.
+    // Either way it becomes the top of the stack. Returns the screen shown.
+    @SuppressWarnings("unchecked")
+    public <S extends Screen> S open(String key, Supplier<S> factory) {
+        long start = System.nanoTime();
+        Entry cached = remove(key);
+        Screen screen;
+        if (cached != null) {
+            reuseCount.incrementAndGet();
+            screen = cached.screen();
+            stack.push(cached);
+            display(screen);
+            screen.refresh();
+        } else {
+            buildCount.incrementAndGet();
+            screen = factory.get();
+            stack.push(new Entry(key, screen));
+            while (stack.size() > maxScreens) {
+                stack.removeLast().screen().dispose();
+                evictionCount.incrementAndGet();
+            }
+            display(screen);
+        }
+        record(start);
+        return (S) screen;
+    }
+
+    // Drops the top screen and shows the one under it, refreshed.
+    // Returns false if there is none, so the caller can build its target instead.
+    public boolean back() {
+        long start = System.nanoTime();
+        if (stack.size() < 2) {
+            reset();
+            return false;
+        }
+        stack.pop().screen().dispose();
+        Screen screen = stack.peek().screen();
+        reuseCount.incrementAndGet();
+        display(screen);
+        screen.refresh();
+        record(start);
+        return true;
+    }
+
+    // Forgets a screen whose data is gone, e.g. a deleted question.
+    public void evict(String key) {
+        Entry entry = remove(key);
+        if (entry != null) {
+            entry.screen().dispose();
+        }
+    }
+
+    // Forgets every live screen, e.g. when the user logs out.
+    public void reset() {
+        stack.forEach(entry -> entry.screen().dispose());
+        stack.clear();
+    }
+
+    public boolean isLive(String key) {
+        return stack.stream().anyMatch(entry -> entry.key().equals(key));
+    }
+
+    public int size() {
+        return stack.size();
+    }
+
+    private Entry remove(String key) {
+        for (Iterator<Entry> it = stack.iterator(); it.hasNext(); ) {
+            Entry entry = it.next();
+            if (entry.key().equals(key)) {
+                it.remove();
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void display(Screen screen) {
+        if (stage != null) {
+            stage.setScene(screen.getScene());
+            stage.setTitle(screen.getTitle());
+        }
+    }
+
+    private void record(long start) {
+        long nanos = System.nanoTime() - start;
+        navigationCount.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+        lastNanos = nanos;
+    }
+
+    public long getNavigationCount() { return navigationCount.get(); }
+    // Navigations that showed a live screen instead of building one
+    public long getReuseCount() { return reuseCount.get(); }
+    public long getBuildCount() { return buildCount.get(); }
+    public long getEvictionCount() { return evictionCount.get(); }
+
+    // Time from the navigation call until the scene was set, excluding data loaded in the background
+    public double getAverageMillis() {
+        long count = navigationCount.get();
+        return count == 0 ? 0 : totalNanos.get() / 1e6 / count;
+    }
+
+    public double getLastMillis() { return lastNanos / 1e6; }
+    public double getMaxMillis() { return maxNanos.get() / 1e6; }
+
+    public String describe() {
+        return String.format("navigation[screens=%d, navigations=%d, reused=%d, built=%d, evicted=%d, avg=%.2fms, max=%.2fms]",
+                size(), getNavigationCount(), getReuseCount(), getBuildCount(), getEvictionCount(),
+                getAverageMillis(), getMaxMillis());
+    }
+}
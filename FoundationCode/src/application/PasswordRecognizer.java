@@ -1,148 +1,138 @@
-package application;
-
-
-public class PasswordRecognizer {
-	/**
-	 * <p> Title: Directed Graph-translated Password Assessor. </p>
-	 * 
-	 * <p> Description: A demonstration of the mechanical translation of Directed Graph 
-	 * diagram into an executable Java program using the Password Evaluator Directed Graph. 
-	 * The code detailed design is based on a while loop with a cascade of if statements</p>
-	 * 
-	 * <p> Copyright: Lynn Robert Carter © 2022 </p>
-	 * 
-	 * @author Lynn Robert Carter
-	 * 
-	 * @version 0.00		2018-02-22	Initial baseline
-	 * @version 0.10        2025-08-29  Modify to match updated FSM and application functionality
-	 * 
-	 */
-
-	/**********************************************************************************************
-	 * 
-	 * Result attributes to be used for GUI applications where a detailed error message
-	 * will enhance the user experience.
-	 * 
-	 */
-
-	public static String passwordErrorMessage = "";		// The error message text
-	public static String passwordInput = "";			// The input being processed
-	private static String inputLine = "";				// The input line
-	private static boolean running;						// The flag that specifies if the FSM is 
-														// running
-	private static int charCounter;						// The index of the current character
-	private static char currentChar;					// The current character in the line
-	
-	private static boolean upperCase;					// The flag specifies upper case was found
-	private static boolean lowerCase;					// The flag specifies lower case was found
-	private static boolean numericChar;					// The flag specifies number was found
-	private static boolean specialChar;					// The flag specifies special char was found
-	private static boolean longEnough;					// The flag specifies input is >= 8 digits
-	private static boolean otherChar;					// The flag specifies invalid character
-														// was found
-	private static boolean debug = false; 				// quiets the FSM text output. Toggle to 'TRUE' if you want to see it. 
-	
-	/**********
-	 * This method is a mechanical transformation of a Directed Graph diagram into a Java
-	 * method.
-	 * 
-	 * @param input		The input string for directed graph processing
-	 * @return			An output string that is empty if every things is okay or it will be
-	 * 					a string with a helpful description of the error.
-	 */
-	public static String evaluatePassword(String input) {
-		// The following are the local variable used to perform the Directed Graph simulation
-		passwordErrorMessage = "";
-		inputLine = input;					// Save the reference to the input line as a global
-		charCounter = 0;					// The index of the current character
-		
-		if(input.length() <= 0) return "\nPASSWORD ERROR: Password cannot be empty";
-		
-		// The input is not empty, so we can access the first character
-		currentChar = input.charAt(0);		// The current character from the above indexed position
-
-		// The Directed Graph simulation continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-		passwordInput = input;				// Save a copy of the input
-		upperCase = false;                  // Reset the boolean flag
-		lowerCase = false;                  // Reset the boolean flag
-		numericChar = false;                // Reset the boolean flag
-		specialChar = false;                // Reset the boolean flag
-		longEnough = false;                 // Reset the boolean flag
-		otherChar = false;                  // Reset the boolean flag
-		running = true;						// Start the loop
-		
-		
-		while (running) {
-			// The cascading if statement sequentially tries the current character against all of the
-			// valid transitions
-			if (currentChar >= 'A' && currentChar <= 'Z') {
-				if (debug) System.out.println("Upper case letter found");
-				charCounter++;
-				upperCase = true;
-			} else if (currentChar >= 'a' && currentChar <= 'z') {
-				if (debug) System.out.println("Lower case letter found");
-				charCounter++;
-				lowerCase = true;
-			} else if (currentChar >= '0' && currentChar <= '9') {
-				if (debug) System.out.println("Digit found");
-				charCounter++;
-				numericChar = true;
-			} else if ("~`!@#$%^&*()_-+{}[]|:,.?/".indexOf(currentChar) >= 0) {
-				if (debug) System.out.println("Special character found");
-				charCounter++;
-				specialChar = true;
-			} else {
-				otherChar = true;
-				running = false;
-				break;
-			}
-			if (charCounter >= 8) {
-				if (debug) System.out.println("At least 8 characters found");
-				longEnough = true;
-			}
-			
-			// Go to the next character if there is one
-			if (charCounter >= inputLine.length())
-				running = false;
-			else
-				currentChar = input.charAt(charCounter);
-			
-			if (debug) System.out.println();
-		}
-		
-		String errMessage = "";
-		
-		// If password contains invalid char, error message should only include that
-		if (otherChar) {
-			errMessage += "\nPASSWORD ERROR: Password contains invalid character: " + currentChar;
-			return errMessage;
-		}
-		
-		// If any required character type is missing, add note to error message
-		boolean missing = !(upperCase && lowerCase && numericChar && specialChar);
-		
-		if (missing) {
-			errMessage += "\nPASSWORD ERROR: Password must include at least ";
-			if (!upperCase)
-				errMessage += "1 upper case letter, ";
-			
-			if (!lowerCase)
-				errMessage += "1 lower case letter, ";
-			
-			if (!numericChar)
-				errMessage += "1 numeric digit, ";
-				
-			if (!specialChar) 
-				errMessage += "1 special character, ";
-			
-			errMessage = errMessage.substring(0, errMessage.length() - 2);
-		}
-		
-		// If password is not long enough, add note to error message
-		if (!longEnough)
-			errMessage += "\nPASSWORD ERROR: Password must be at least 8 characters long";
-		
-		return errMessage;
-	}
-}
\ No newline at end of file
+package application;
+
+
+public class PasswordRecognizer {
+	/**
+	 * <p> Title: Directed Graph-translated Password Assessor. </p>
+	 *
+	 * <p> Description: A demonstration of the mechanical translation of Directed Graph
+	 * diagram into an executable Java program using the Password Evaluator Directed Graph.
+	 * Each character is looked up in a precompiled table of character classes, and the
+	 * classes seen are collected in local variables, so the assessor can be called from any
+	 * number of threads at once.</p>
+	 *
+	 * <p> Copyright: Lynn Robert Carter © 2022 </p>
+	 *
+	 * @author Lynn Robert Carter
+	 *
+	 * @version 0.00		2018-02-22	Initial baseline
+	 * @version 0.10        2025-08-29  Modify to match updated FSM and application functionality
+	 * @version 1.00        2026-10-18  Table-driven and reentrant; validate returns an immutable
+	 *                                  ValidationResult and evaluatePassword wraps it
+	 *
+	 */
+
+	/**********************************************************************************************
+	 *
+	 * Result attributes of the last evaluatePassword call, kept for existing GUI code. With
+	 * concurrent callers they describe whichever call finished last; use validate instead.
+	 *
+	 */
+
+	public static volatile String passwordErrorMessage = "";		// The error message text
+	public static volatile String passwordInput = "";				// The input being processed
+
+	// Error codes of the ValidationResult returned by validate. Codes below EMPTY combine the
+	// MISSING_* and TOO_SHORT bits of every rule the password breaks.
+	public static final int MISSING_UPPER_CASE = 1;
+	public static final int MISSING_LOWER_CASE = 2;
+	public static final int MISSING_DIGIT = 4;
+	public static final int MISSING_SPECIAL = 8;
+	public static final int TOO_SHORT = 16;				// Fewer than MIN_LENGTH characters
+	public static final int EMPTY = 32;
+	public static final int INVALID_CHARACTER = 33;		// Reported alone, at the character's index
+
+	private static final int MIN_LENGTH = 8;
+	private static final String SPECIAL_CHARACTERS = "~`!@#$%^&*()_-+{}[]|:,.?/";
+
+	// Messages for every combination of broken rules, indexed by error code
+	private static final String[] MESSAGES = new String[EMPTY];
+
+	// CLASS_BITS[c] is the MISSING_* bit an ASCII character satisfies, or 0 if it is not allowed
+	private static final byte[] CLASS_BITS = new byte[128];
+
+	static {
+		for (char c = 'A'; c <= 'Z'; c++) CLASS_BITS[c] = MISSING_UPPER_CASE;
+		for (char c = 'a'; c <= 'z'; c++) CLASS_BITS[c] = MISSING_LOWER_CASE;
+		for (char c = '0'; c <= '9'; c++) CLASS_BITS[c] = MISSING_DIGIT;
+		for (char c : SPECIAL_CHARACTERS.toCharArray()) CLASS_BITS[c] = MISSING_SPECIAL;
+
+		for (int code = 0; code < EMPTY; code++) {
+			String errMessage = "";
+			// If any required character type is missing, add note to error message
+			if ((code & (MISSING_UPPER_CASE | MISSING_LOWER_CASE | MISSING_DIGIT | MISSING_SPECIAL)) != 0) {
+				errMessage += "\nPASSWORD ERROR: Password must include at least ";
+				if ((code & MISSING_UPPER_CASE) != 0)
+					errMessage += "1 upper case letter, ";
+				if ((code & MISSING_LOWER_CASE) != 0)
+					errMessage += "1 lower case letter, ";
+				if ((code & MISSING_DIGIT) != 0)
+					errMessage += "1 numeric digit, ";
+				if ((code & MISSING_SPECIAL) != 0)
+					errMessage += "1 special character, ";
+				errMessage = errMessage.substring(0, errMessage.length() - 2);
+			}
+			// If password is not long enough, add note to error message
+			if ((code & TOO_SHORT) != 0)
+				errMessage += "\nPASSWORD ERROR: Password must be at least 8 characters long";
+			MESSAGES[code] = errMessage;
+		}
+	}
+
+	/**********
+	 * Walks the Directed Graph over the input. An invalid character stops the walk and is the
+	 * only error reported; otherwise every missing character type and a short length are.
+	 *
+	 * @param input		The input string for directed graph processing
+	 * @return			ValidationResult.VALID, or the error code with the index of the invalid
+	 * 					character (or the input length when the rules are broken overall)
+	 */
+	public static ValidationResult validate(String input) {
+		if (input.length() <= 0) {
+			return ValidationResult.of(EMPTY, 0);
+		}
+
+		int found = 0;
+		for (int i = 0; i < input.length(); i++) {
+			char c = input.charAt(i);
+			int bit = c < CLASS_BITS.length ? CLASS_BITS[c] : 0;
+			if (bit == 0) {
+				return ValidationResult.of(INVALID_CHARACTER, i);
+			}
+			found |= bit;
+		}
+
+		int missing = ~found & (MISSING_UPPER_CASE | MISSING_LOWER_CASE | MISSING_DIGIT | MISSING_SPECIAL);
+		if (input.length() < MIN_LENGTH) {
+			missing |= TOO_SHORT;
+		}
+		return missing == 0 ? ValidationResult.VALID : ValidationResult.of(missing, input.length());
+	}
+
+	// The error message of a result of validate on input; empty when it is valid.
+	public static String errorMessage(String input, ValidationResult result) {
+		switch (result.getCode()) {
+		case EMPTY:
+			return "\nPASSWORD ERROR: Password cannot be empty";
+		case INVALID_CHARACTER:
+			return "\nPASSWORD ERROR: Password contains invalid character: " + input.charAt(result.getErrorIndex());
+		default:
+			return MESSAGES[result.getCode()];
+		}
+	}
+
+	/**********
+	 * Checks a password and describes every problem found.
+	 *
+	 * @param input		The input string for directed graph processing
+	 * @return			An output string that is empty if every things is okay or it will be
+	 * 					a string with a helpful description of the error.
+	 */
+	public static String evaluatePassword(String input) {
+		ValidationResult result = validate(input);
+		String message = errorMessage(input, result);
+		passwordInput = input;
+		passwordErrorMessage = message;
+		return message;
+	}
+}
@@ -3,7 +3,6 @@ package application;
 import application.Authorization;
 import application.Role; 
 
-import java.sql.SQLException;
 import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
@@ -11,7 +10,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import databasePart1.AsyncDatabaseHelper;
 import databasePart1.DatabaseHelper;
+import databasePart1.DomainEvent;
+import databasePart1.DomainEventBus;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
@@ -21,7 +24,8 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ButtonType;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.Separator;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextInputDialog;
@@ -38,10 +42,109 @@ import javafx.scene.layout.StackPane; // Used for overlaying solved badge on acc
 
 
 // Builds and displays the UI for a single question, including answers and comments.
-public class QuestionDetailView {
+// A thread stays alive in the NavigationController, so opening it again refreshes it in place.
+public class QuestionDetailView implements NavigationController.Screen {
 
     private final DatabaseHelper databaseHelper;
     private final boolean adminFlag; 
+    // Async channel for loading a thread; opening another question cancels the pending load
+    private static final String LOAD_CHANNEL = "question-detail";
+    // Answers fetched per page; more are loaded as the user scrolls down
+    private static final int ANSWER_PAGE_SIZE = 20;
+    // Left padding added per level of comment nesting
+    private static final int INDENT = 20;
+    // Most write events queued for an open thread before it reloads instead
+    private static final int EVENT_QUEUE_CAPACITY = 256;
+
+    private ListView<ThreadRow> threadList;
+    private final MoreAnswersRow moreAnswersRow = new MoreAnswersRow();
+    // Where the next page of answers starts (null when all are loaded)
+    private AnswerPage.Cursor nextAnswers;
+    private boolean loadingAnswers;
+    // Whether the viewer may delete others' posts; false until the roles lookup returns
+    private boolean adminPowers;
+    private int answerCount;
+    private Scene scene;
+    private Question question;
+    private DomainEventBus.Subscription eventSubscription;
+
+    // One row of the thread list. Rows hold the state that must survive cell recycling;
+    // depth is 0 for the post and answers and grows by one per level of comments.
+    private abstract static class ThreadRow {
+        final int depth;
+
+        ThreadRow(int depth) {
+            this.depth = depth;
+        }
+    }
+
+    private static final class PostRow extends ThreadRow {
+        PostRow() { super(0); }
+    }
+
+    // Stands in for the answers not loaded yet; showing it loads the next page.
+    private static final class MoreAnswersRow extends ThreadRow {
+        boolean failed;
+        MoreAnswersRow() { super(0); }
+    }
+
+    // Keeps its node, so a half-typed answer survives scrolling.
+    private static final class ComposerRow extends ThreadRow {
+        Node node;
+        ComposerRow() { super(0); }
+    }
+
+    // An answer or comment whose children are collapsed until expanded.
+    private abstract static class ExpandableRow extends ThreadRow {
+        boolean expanded;
+        boolean loading;
+
+        ExpandableRow(int depth) {
+            super(depth);
+        }
+
+        abstract Answer answer();
+
+        abstract int childCount();
+    }
+
+    private static final class AnswerRow extends ExpandableRow {
+        // Replaced when the answer is edited or its comment count changes
+        AnswerSummary summary;
+
+        AnswerRow(AnswerSummary summary) {
+            super(0);
+            this.summary = summary;
+        }
+
+        @Override Answer answer() { return summary.getAnswer(); }
+        @Override int childCount() { return summary.getCommentCount(); }
+    }
+
+    private static final class CommentRow extends ExpandableRow {
+        CommentSummary summary;
+        final Answer answer;
+
+        CommentRow(CommentSummary summary, int depth, Answer answer) {
+            super(depth);
+            this.summary = summary;
+            this.answer = answer;
+        }
+
+        @Override Answer answer() { return answer; }
+        @Override int childCount() { return summary.getReplyCount(); }
+    }
+
+    // An open comment or reply box under its owner row; keeps its node like the composer.
+    private static final class ReplyInputRow extends ThreadRow {
+        final ExpandableRow owner;
+        Node node;
+
+        ReplyInputRow(ExpandableRow owner) {
+            super(owner.depth + 1);
+            this.owner = owner;
+        }
+    }
 
     public QuestionDetailView(DatabaseHelper databaseHelper, boolean adminFlag) {
         this.databaseHelper = databaseHelper;
@@ -52,45 +155,374 @@ public class QuestionDetailView {
         // Increment view count if the current user is not the author.
         if (user != null && !user.getUserName().equals(question.getAuthor().getUserName())) {
             question.incrementViewCount();
-            try {
-                this.databaseHelper.updateQuestionViewCount(question);
-            } catch (SQLException e) {
-                e.printStackTrace(); // Log if the update fails
-            }
+            // Buffered and written in batches, so opening a question never waits on the database
+            this.databaseHelper.recordQuestionView(question);
         }
+        NavigationController.of(primaryStage).open(screenKey(user, question), () -> {
+            build(primaryStage, user, question);
+            return this;
+        });
+    }
 
-        // Load all answers and comments from the database.
-        try {
-            question.setPotentialAnswers(new ArrayList<>());
-            databaseHelper.loadAnswersAndCommentsForQuestion(question);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            VBox errorBox = new VBox(new Label("Error: Could not load question details."));
-            primaryStage.getScene().setRoot(errorBox);
-            return;
+    static String screenKey(User user, Question question) {
+        return "question:" + (user == null ? "" : user.getUserName()) + ":" + question.getQuestionId();
+    }
+
+    @Override
+    public Scene getScene() {
+        return scene;
+    }
+
+    @Override
+    public String getTitle() {
+        return "Question Details";
+    }
+
+    // Shown again, e.g. after editing an answer. Writes already reached the list as events,
+    // so only the relative times are redrawn.
+    @Override
+    public void refresh() {
+        threadList.refresh();
+    }
+
+    @Override
+    public void dispose() {
+        if (eventSubscription != null) {
+            eventSubscription.close();
         }
+    }
 
-        VBox postContent = createFullQuestionPostView(primaryStage, user, question);
+    private void build(Stage primaryStage, User user, Question question) {
+        this.question = question;
+
+        // The whole thread is one virtualized list: the post, then a row per answer and per
+        // expanded comment. Cells are recycled while scrolling, so only visible rows have nodes.
+        threadList = new ListView<>();
+        threadList.setPlaceholder(new Label("Loading..."));
+        threadList.setStyle("-fx-background-color: white; -fx-background-insets: 0;");
+        threadList.setFocusTraversable(false);
+        threadList.setCellFactory(list -> new ListCell<>() {
+            {
+                // Rows take the list's width, so long text wraps instead of scrolling sideways
+                setPrefWidth(0);
+                setStyle("-fx-background-color: transparent; -fx-padding: 0;");
+            }
 
-        ScrollPane scrollPane = new ScrollPane(postContent);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background-color: transparent;");
+            @Override
+            protected void updateItem(ThreadRow row, boolean empty) {
+                super.updateItem(row, empty);
+                // The field, as an edit of the question replaces it
+                setGraphic(empty || row == null ? null : renderRow(primaryStage, user, QuestionDetailView.this.question, row));
+                if (row instanceof MoreAnswersRow) {
+                    loadAnswerPage(QuestionDetailView.this.question);
+                }
+            }
+        });
 
         Button backButton = new Button("← Back to Discussion Board");
-        backButton.setOnAction(e -> new DiscussionBoardView(databaseHelper, adminFlag).show(primaryStage, user));
+        backButton.setOnAction(e -> {
+            databaseHelper.async().cancel(LOAD_CHANNEL);
+            // The board is normally still alive underneath, with its filters and scroll position
+            if (!NavigationController.of(primaryStage).back()) {
+                new DiscussionBoardView(databaseHelper, adminFlag).show(primaryStage, user);
+            }
+        });
 
-        VBox container = new VBox(10, backButton, scrollPane);
+        VBox container = new VBox(10, backButton, threadList);
         container.setPadding(new Insets(10));
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
+        VBox.setVgrow(threadList, Priority.ALWAYS);
+
+        scene = new Scene(container, 800, 700);
+
+        // Writes to this thread, from this view or any other, are applied to the loaded rows
+        String questionId = question.getQuestionId().toString();
+        eventSubscription = databaseHelper.getEvents().subscribeAsync(DomainEvent.QuestionEvent.class,
+            event -> {
+                if (event.questionId().equals(questionId)) {
+                    onEvent(event);
+                }
+            },
+            this::reload, Platform::runLater, EVENT_QUEUE_CAPACITY);
+        reload();
+        resolveAdminPowers(user);
+    }
+
+    // Looks up the viewer's roles once, off the FX thread, rather than while rendering rows.
+    // Delete buttons on others' posts appear when it returns.
+    private void resolveAdminPowers(User user) {
+        if (!adminFlag) {
+            return;
+        }
+        databaseHelper.async()
+            .submit(db -> Authorization.hasAdminPowers(user, db, adminFlag))
+            .whenComplete((powers, error) -> {
+                adminPowers = error == null && powers;
+                threadList.refresh();
+            });
+    }
+
+    // Applies one committed write to the rows loaded so far. Rows not loaded yet come from
+    // the database when they are, so only counts change for them.
+    private void onEvent(DomainEvent.QuestionEvent event) {
+        List<ThreadRow> items = threadList.getItems();
+        if (event instanceof DomainEvent.QuestionUpdated updated) {
+            question = updated.question();
+            threadList.refresh();
+        } else if (event instanceof DomainEvent.QuestionDeleted deleted) {
+            databaseHelper.async().cancel(LOAD_CHANNEL);
+            nextAnswers = null;
+            items.clear();
+            threadList.setPlaceholder(new Label("This question has been deleted."));
+        } else if (event instanceof DomainEvent.AnswerAdded added) {
+            answerCount++;
+            String answerId = added.answer().getAnswerId().toString();
+            // New answers sort last; while pages are missing, the last page brings it
+            if (nextAnswers == null && !loadingAnswers && findAnswerRow(answerId) == null) {
+                int composer = items.size() - 1;
+                if (composer >= 0 && items.get(composer) instanceof ComposerRow) {
+                    items.add(composer, new AnswerRow(new AnswerSummary(added.answer(), 0)));
+                }
+            }
+            threadList.refresh();
+        } else if (event instanceof DomainEvent.AnswerUpdated updated) {
+            AnswerRow row = findAnswerRow(updated.answer().getAnswerId().toString());
+            if (row != null) {
+                row.summary = new AnswerSummary(updated.answer(), row.summary.getCommentCount());
+                threadList.refresh();
+            }
+        } else if (event instanceof DomainEvent.AnswerDeleted deleted) {
+            answerCount--;
+            AnswerRow row = findAnswerRow(deleted.answerId());
+            if (row != null) {
+                removeChildRows(row, true);
+                items.remove(row);
+            }
+            threadList.refresh();
+        } else if (event instanceof DomainEvent.AnswerResolved) {
+            // Accepted answers sort first, so the order changes
+            reload();
+        } else if (event instanceof DomainEvent.CommentAdded added) {
+            Comment comment = added.comment();
+            String commentId = comment.getCommentId().toString();
+            ExpandableRow owner = comment.getParentComment() == null
+                    ? findAnswerRow(comment.getParentAnswer().getAnswerId().toString())
+                    : findCommentRow(comment.getParentComment().getCommentId().toString());
+            if (owner == null || findCommentRow(commentId) != null) {
+                return;
+            }
+            adjustChildCount(owner, 1);
+            // An expanded owner shows it last among its children, as they sort oldest first
+            if (owner.expanded) {
+                int end = items.indexOf(owner) + 1;
+                while (end < items.size() && items.get(end).depth > owner.depth) {
+                    end++;
+                }
+                items.add(end, new CommentRow(new CommentSummary(comment, 0), owner.depth + 1, owner.answer()));
+            }
+            threadList.refresh();
+        } else if (event instanceof DomainEvent.CommentUpdated updated) {
+            CommentRow row = findCommentRow(updated.comment().getCommentId().toString());
+            if (row != null) {
+                row.summary = new CommentSummary(updated.comment(), row.summary.getReplyCount());
+                threadList.refresh();
+            }
+        } else if (event instanceof DomainEvent.CommentDeleted deleted) {
+            CommentRow row = findCommentRow(deleted.commentId());
+            if (row != null) {
+                removeChildRows(row, true);
+                items.remove(row);
+            }
+            ExpandableRow owner = deleted.parentCommentId() == null
+                    ? findAnswerRow(deleted.answerId())
+                    : findCommentRow(deleted.parentCommentId());
+            if (owner != null) {
+                adjustChildCount(owner, -1);
+            }
+            threadList.refresh();
+        }
+        // Created events carry a new question id, which never matches an open thread
+    }
+
+    private AnswerRow findAnswerRow(String answerId) {
+        for (ThreadRow row : threadList.getItems()) {
+            if (row instanceof AnswerRow answerRow && answerRow.answer().getAnswerId().toString().equals(answerId)) {
+                return answerRow;
+            }
+        }
+        return null;
+    }
+
+    private CommentRow findCommentRow(String commentId) {
+        for (ThreadRow row : threadList.getItems()) {
+            if (row instanceof CommentRow commentRow && commentRow.summary.getComment().getCommentId().toString().equals(commentId)) {
+                return commentRow;
+            }
+        }
+        return null;
+    }
+
+    private void adjustChildCount(ExpandableRow owner, int delta) {
+        if (owner instanceof AnswerRow answerRow) {
+            AnswerSummary summary = answerRow.summary;
+            answerRow.summary = new AnswerSummary(summary.getAnswer(), Math.max(0, summary.getCommentCount() + delta));
+        } else if (owner instanceof CommentRow commentRow) {
+            CommentSummary summary = commentRow.summary;
+            commentRow.summary = new CommentSummary(summary.getComment(), Math.max(0, summary.getReplyCount() + delta));
+        }
+        if (owner.childCount() == 0) {
+            owner.expanded = false;
+        }
+    }
+
+    // Loads the first page of answers into the list, replacing what it shows.
+    // Only the first page is loaded up front; comments stay collapsed.
+    private void reload() {
+        nextAnswers = null;
+        moreAnswersRow.failed = false;
+        loadingAnswers = true;
+        databaseHelper.async()
+            .submitLatest(LOAD_CHANNEL, db -> db.getAnswerPage(question, null, ANSWER_PAGE_SIZE))
+            .whenComplete((page, error) -> {
+                if (AsyncDatabaseHelper.isCancellation(error)) {
+                    return;
+                }
+                loadingAnswers = false;
+                if (error != null) {
+                    error.printStackTrace();
+                    threadList.setPlaceholder(new Label("Error: Could not load question details."));
+                    return;
+                }
+                answerCount = page.getTotalCount();
+                List<ThreadRow> rows = new ArrayList<>();
+                rows.add(new PostRow());
+                page.getAnswers().forEach(answer -> rows.add(new AnswerRow(answer)));
+                nextAnswers = page.getNextCursor();
+                if (page.hasMore()) {
+                    rows.add(moreAnswersRow);
+                }
+                rows.add(new ComposerRow());
+                threadList.getItems().setAll(rows);
+            });
+    }
+
+    // Appends the next page of answers once the row standing in for them is shown.
+    private void loadAnswerPage(Question question) {
+        if (nextAnswers == null || loadingAnswers) {
+            return;
+        }
+        loadingAnswers = true;
+        AnswerPage.Cursor after = nextAnswers;
+        databaseHelper.async()
+            .submitLatest(LOAD_CHANNEL, db -> db.getAnswerPage(question, after, ANSWER_PAGE_SIZE))
+            .whenComplete((page, error) -> {
+                if (AsyncDatabaseHelper.isCancellation(error)) {
+                    return;
+                }
+                loadingAnswers = false;
+                List<ThreadRow> items = threadList.getItems();
+                if (error != null) {
+                    error.printStackTrace();
+                    nextAnswers = null;
+                    moreAnswersRow.failed = true;
+                    threadList.refresh();
+                    return;
+                }
+                List<ThreadRow> rows = new ArrayList<>();
+                page.getAnswers().forEach(answer -> rows.add(new AnswerRow(answer)));
+                items.addAll(items.indexOf(moreAnswersRow), rows);
+                nextAnswers = page.getNextCursor();
+                if (!page.hasMore()) {
+                    items.remove(moreAnswersRow);
+                }
+            });
+    }
+
+    // Expands or collapses the comments under an answer or the replies under a comment.
+    // Each expansion fetches just the next level; collapsing drops every row below it.
+    private void toggleChildren(ExpandableRow row) {
+        List<ThreadRow> items = threadList.getItems();
+        if (row.loading) {
+            return;
+        }
+        if (row.expanded) {
+            row.expanded = false;
+            removeChildRows(row, false);
+            threadList.refresh();
+            return;
+        }
+        row.loading = true;
+        threadList.refresh();
+        Comment parent = row instanceof CommentRow commentRow ? commentRow.summary.getComment() : null;
+        databaseHelper.async()
+            .submit(db -> db.getComments(row.answer(), parent))
+            .whenComplete((comments, error) -> {
+                row.loading = false;
+                int index = items.indexOf(row);
+                if (error != null || index < 0) {
+                    if (error != null) {
+                        error.printStackTrace();
+                    }
+                    threadList.refresh();
+                    return;
+                }
+                row.expanded = true;
+                List<ThreadRow> rows = new ArrayList<>();
+                comments.forEach(comment -> rows.add(new CommentRow(comment, row.depth + 1, row.answer())));
+                // After the row and a reply box it may have open
+                int insertAt = index + 1;
+                while (insertAt < items.size() && items.get(insertAt) instanceof ReplyInputRow input && input.owner == row) {
+                    insertAt++;
+                }
+                items.addAll(insertAt, rows);
+                threadList.refresh();
+            });
+    }
+
+    // Removes the rows nested under row: all of them, or only its expanded comments.
+    private void removeChildRows(ThreadRow row, boolean includeInput) {
+        List<ThreadRow> items = threadList.getItems();
+        int from = items.indexOf(row) + 1;
+        int to = from;
+        while (to < items.size() && items.get(to).depth > row.depth) {
+            to++;
+        }
+        if (!includeInput) {
+            while (from < to && items.get(from) instanceof ReplyInputRow input && input.owner == row) {
+                from++;
+            }
+        }
+        items.subList(from, to).clear();
+    }
 
-        Scene scene = new Scene(container, 800, 700);
-        primaryStage.setScene(scene);
-        primaryStage.setTitle("Question Details");
+    // Builds the node of a row that has just become visible.
+    private Node renderRow(Stage primaryStage, User user, Question question, ThreadRow row) {
+        Node node;
+        if (row instanceof PostRow) {
+            node = createFullQuestionPostView(primaryStage, user, question);
+        } else if (row instanceof AnswerRow answerRow) {
+            node = createAnswerNode(primaryStage, user, question, answerRow);
+        } else if (row instanceof CommentRow commentRow) {
+            node = createCommentNode(primaryStage, user, question, commentRow);
+        } else if (row instanceof ReplyInputRow input) {
+            node = input.node;
+        } else if (row instanceof ComposerRow composer) {
+            if (composer.node == null) {
+                composer.node = createAnswerSubmissionNode(primaryStage, user, question);
+            }
+            node = composer.node;
+        } else {
+            node = new Label(moreAnswersRow.failed ? "Error: Could not load more answers." : "Loading more answers...");
+        }
+        VBox wrapper = new VBox(node);
+        wrapper.setPadding(new Insets(0, 15, 15, 15 + INDENT * row.depth));
+        if (row instanceof PostRow) {
+            wrapper.setPadding(new Insets(15, 15, 0, 15));
+        }
+        return wrapper;
     }
 
     private VBox createFullQuestionPostView(Stage primaryStage, User user, Question question) {
         VBox postBox = new VBox(15);
-        postBox.setPadding(new Insets(15));
         postBox.setStyle("-fx-background-color: white;");
 
         Label titleLabel = new Label(question.getTitle());
@@ -105,7 +537,7 @@ public class QuestionDetailView {
 
         // admin/owner controls
         boolean showEdit = Authorization.canEditQuestion(user, databaseHelper, question);
-        boolean showDelete = Authorization.canDeleteQuestion(user, databaseHelper, question, adminFlag);
+        boolean showDelete = Authorization.canDeleteQuestion(user, question, adminPowers);
 
         HBox ownerControls = new HBox(10);
         ownerControls.setAlignment(Pos.CENTER_RIGHT);
@@ -119,7 +551,7 @@ public class QuestionDetailView {
         if (showDelete) {
             Button deleteButton = new Button("Delete");
             deleteButton.setStyle("-fx-background-color: #FFCDD2;");
-            deleteButton.setOnAction(e -> handleDeleteQuestionAction(primaryStage, user, question));
+            deleteButton.setOnAction(e -> handleDeleteQuestionAction(primaryStage, user, question, deleteButton));
             ownerControls.getChildren().add(deleteButton);
         }
 
@@ -163,36 +595,13 @@ public class QuestionDetailView {
             "-fx-border-color: #E5E7EB;" +
             "-fx-border-width: 1;"
         );
-        // ANSWERS SECTION
-        // Loads and displays all answers below the question, including accepted-answer highlighting and nested comments.
-        VBox answersSection = createAnswersSection(primaryStage, user, question);
-        postBox.getChildren().addAll(titleBar, metadataPane, new Separator(), bodyContainer, new Separator(), answersSection);
-        return postBox;
-    }
-
-    private VBox createAnswersSection(Stage primaryStage, User user, Question question) {
-        VBox sectionVBox = new VBox(15);
-        List<Answer> answers = question.getPotentialAnswers();
-        // Sort so that accepted answers appear first
-        answers.sort((a, b) -> Boolean.compare(!a.getResolvesQuestion(), !b.getResolvesQuestion()));
-
-
-        Label answersHeader = new Label();
+        // ANSWERS HEADER
+        // The answers follow as their own rows, accepted answers first.
+        Label answersHeader = new Label(answerCount == 0 ? "No Answers Yet"
+                : answerCount + (answerCount == 1 ? " Answer" : " Answers"));
         answersHeader.setFont(Font.font("System", FontWeight.BOLD, 18));
-        sectionVBox.getChildren().add(answersHeader);
-
-        if (answers.isEmpty()) {
-            answersHeader.setText("No Answers Yet");
-        } else {
-            answersHeader.setText(answers.size() + (answers.size() == 1 ? " Answer" : " Answers"));
-            VBox answersContainer = new VBox(15);
-            for (Answer answer : answers) {
-                answersContainer.getChildren().add(createAnswerNode(primaryStage, user, question, answer));
-            }
-            sectionVBox.getChildren().add(answersContainer);
-        }
-        sectionVBox.getChildren().add(createAnswerSubmissionNode(primaryStage, user, question));
-        return sectionVBox;
+        postBox.getChildren().addAll(titleBar, metadataPane, new Separator(), bodyContainer, new Separator(), answersHeader);
+        return postBox;
     }
 
     private Node createAnswerSubmissionNode(Stage primaryStage, User user, Question question) {
@@ -208,21 +617,17 @@ public class QuestionDetailView {
             String answerText = answerArea.getText().trim();
             if (!answerText.isEmpty()) {
                 Answer newAnswer = new Answer(question, user, answerText);
-                try {
-                    databaseHelper.addAnswer(newAnswer);
-                    // Refresh the view to show the new answer
-                    this.show(primaryStage, user, question);
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    new Alert(Alert.AlertType.ERROR, "Could not save your answer.").showAndWait();
-                }
+                // The new answer reaches the list as an event
+                runWrite(submitAnswerButton, db -> db.addAnswer(newAnswer), "Could not save your answer.",
+                        answerArea::clear);
             }
         });
         submissionBox.getChildren().addAll(answerPromptLabel, answerArea, submitAnswerButton);
         return submissionBox;
     }
 
-    private Node createAnswerNode(Stage primaryStage, User user, Question question, Answer answer) {
+    private Node createAnswerNode(Stage primaryStage, User user, Question question, AnswerRow row) {
+        Answer answer = row.summary.getAnswer();
         // ANSWER CARD
         // Card with border, shadow, and padding for each answer.
         VBox answerBox = new VBox();
@@ -247,14 +652,6 @@ public class QuestionDetailView {
         infoLabel.setTextFill(Color.web("#6B7280"));
         infoLabel.setStyle("-fx-font-size: 12px;");
 
-        VBox commentsContainer = new VBox(10);
-        commentsContainer.setPadding(new Insets(5, 0, 0, 20));
-        for (Comment comment : answer.getComments()) {
-            if (comment.getParentComment() == null) {
-                commentsContainer.getChildren().add(createCommentNode(primaryStage, user, question, comment));
-            }
-        }
-        
         // COMMENT BUTTON
         // Style for comment button
         Button commentOnAnswerButton = new Button("Comment");
@@ -266,16 +663,19 @@ public class QuestionDetailView {
         );
         commentOnAnswerButton.setCursor(Cursor.HAND);
 
-        VBox commentInputContainer = new VBox(5);
-        commentInputContainer.setManaged(false);
-        commentOnAnswerButton.setOnAction(e -> toggleCommentInput(primaryStage, user, question, commentInputContainer, answer, null));
+        commentOnAnswerButton.setOnAction(e -> toggleCommentInput(primaryStage, user, question, row));
 
         HBox footer = new HBox(10, commentOnAnswerButton);
+        Button commentsToggle = createExpandButton(row, "comment", "comments");
+        if (commentsToggle != null) {
+            commentsToggle.setStyle(commentOnAnswerButton.getStyle());
+            footer.getChildren().add(commentsToggle);
+        }
         footer.setAlignment(Pos.CENTER_LEFT);
 
         // admin/owner controls
         boolean showEdit = Authorization.canEditAnswer(user, databaseHelper, answer);
-        boolean showDelete = Authorization.canDeleteAnswer(user, databaseHelper, answer, adminFlag);
+        boolean showDelete = Authorization.canDeleteAnswer(user, answer, adminPowers);
 
         Pane spacer = new Pane();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -296,7 +696,7 @@ public class QuestionDetailView {
                 "-fx-font-size: 12px;" +
                 "-fx-background-radius: 5;"
             );
-            deleteButton.setOnAction(e -> handleDeleteAnswerAction(primaryStage, user, question, answer));
+            deleteButton.setOnAction(e -> handleDeleteAnswerAction(primaryStage, user, question, answer, deleteButton));
             footer.getChildren().add(deleteButton);
         }
 
@@ -338,20 +738,15 @@ public class QuestionDetailView {
                     "-fx-font-size: 12px;" +
                     "-fx-underline: true;"
                 );
-                unmarkButton.setOnAction(e -> {
-                    try {
-                        databaseHelper.updateAnswerResolutionStatus(answer.getAnswerId().toString(), false);
-                        new Alert(Alert.AlertType.INFORMATION, "Answer unmarked as accepted.").showAndWait();
-                        this.show(primaryStage, user, question);
-                    } catch (SQLException ex) {
-                        ex.printStackTrace();
-                        new Alert(Alert.AlertType.ERROR, "Failed to unmark accepted answer.").showAndWait();
-                    }
-                });
+                // The thread reorders when the change arrives as an event
+                unmarkButton.setOnAction(e -> runWrite(unmarkButton,
+                        db -> db.updateAnswerResolutionStatus(answer.getAnswerId().toString(), false),
+                        "Failed to unmark accepted answer.",
+                        () -> new Alert(Alert.AlertType.INFORMATION, "Answer unmarked as accepted.").showAndWait()));
                 footer.getChildren().add(unmarkButton);
             }
 
-            answerBox.getChildren().addAll(answerBody, infoLabel, footer, commentInputContainer, commentsContainer, new Separator());
+            answerBox.getChildren().addAll(answerBody, infoLabel, footer);
             return badgeContainer;
         }
         // MARK ANSWER AS ACCEPTED
@@ -365,24 +760,19 @@ public class QuestionDetailView {
                 "-fx-font-size: 12px;" +
                 "-fx-underline: true;"
             );
-            markAsResolutionButton.setOnAction(e -> {
-                try {
-                    databaseHelper.updateAnswerResolutionStatus(answer.getAnswerId().toString(), true);
-                    new Alert(Alert.AlertType.INFORMATION, "Marked as accepted answer!").showAndWait();
-                    this.show(primaryStage, user, question);
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    new Alert(Alert.AlertType.ERROR, "Failed to mark answer as accepted.").showAndWait();
-                }
-            });
+            markAsResolutionButton.setOnAction(e -> runWrite(markAsResolutionButton,
+                    db -> db.updateAnswerResolutionStatus(answer.getAnswerId().toString(), true),
+                    "Failed to mark answer as accepted.",
+                    () -> new Alert(Alert.AlertType.INFORMATION, "Marked as accepted answer!").showAndWait()));
             footer.getChildren().add(markAsResolutionButton);
         }
 
-        answerBox.getChildren().addAll(answerBody, infoLabel, footer, commentInputContainer, commentsContainer, new Separator());
+        answerBox.getChildren().addAll(answerBody, infoLabel, footer);
         return answerBox;
     }
 
-    private Node createCommentNode(Stage primaryStage, User user, Question question, Comment comment) {
+    private Node createCommentNode(Stage primaryStage, User user, Question question, CommentRow row) {
+        Comment comment = row.summary.getComment();
         VBox commentBox = new VBox(5);
 
         Label commentBody = new Label(comment.getBody());
@@ -399,10 +789,15 @@ public class QuestionDetailView {
 
         HBox footer = new HBox(10, replyButton);
         footer.setAlignment(Pos.CENTER_LEFT);
+        Button repliesToggle = createExpandButton(row, "reply", "replies");
+        if (repliesToggle != null) {
+            repliesToggle.setFont(Font.font(11));
+            footer.getChildren().add(repliesToggle);
+        }
 
         // owner/admin controls
         boolean showEdit = Authorization.canEditComment(user, databaseHelper, comment);
-        boolean showDelete = Authorization.canDeleteComment(user, databaseHelper, comment, adminFlag);
+        boolean showDelete = Authorization.canDeleteComment(user, comment, adminPowers);
 
         Pane spacer = new Pane();
         HBox.setHgrow(spacer, Priority.ALWAYS);
@@ -418,26 +813,38 @@ public class QuestionDetailView {
             Button deleteButton = new Button("Delete");
             deleteButton.setFont(Font.font(11));
             deleteButton.setStyle("-fx-background-color: #FFCDD2;");
-            deleteButton.setOnAction(e -> handleDeleteCommentAction(primaryStage, user, question, comment));
+            deleteButton.setOnAction(e -> handleDeleteCommentAction(primaryStage, user, question, comment, deleteButton));
             footer.getChildren().add(deleteButton);
         }
 
-        VBox repliesContainer = new VBox(10);
-        repliesContainer.setPadding(new Insets(5, 0, 0, 20));
-        for (Comment reply : comment.getReplies()) {
-            repliesContainer.getChildren().add(createCommentNode(primaryStage, user, question, reply));
-        }
-
-        VBox replyInputContainer = new VBox(5);
-        replyInputContainer.setManaged(false); 
-        replyButton.setOnAction(e -> toggleCommentInput(primaryStage, user, question, replyInputContainer, null, comment));
+        replyButton.setOnAction(e -> toggleCommentInput(primaryStage, user, question, row));
 
-        commentBox.getChildren().addAll(commentBody, infoLabel, footer, replyInputContainer, repliesContainer);
+        commentBox.getChildren().addAll(commentBody, infoLabel, footer);
         return commentBox;
     }
 
-    private void handleDeleteQuestionAction(Stage primaryStage, User user, Question question) {
-        if (!Authorization.canDeleteQuestion(user, databaseHelper, question, adminFlag)) {
+    // Show/hide button for the collapsed children of a row, or null if it has none.
+    private Button createExpandButton(ExpandableRow row, String singular, String plural) {
+        int count = row.childCount();
+        if (count == 0) {
+            return null;
+        }
+        String text;
+        if (row.loading) {
+            text = "Loading...";
+        } else if (row.expanded) {
+            text = "Hide " + plural;
+        } else {
+            text = "Show " + count + " " + (count == 1 ? singular : plural);
+        }
+        Button button = new Button(text);
+        button.setCursor(Cursor.HAND);
+        button.setOnAction(e -> toggleChildren(row));
+        return button;
+    }
+
+    private void handleDeleteQuestionAction(Stage primaryStage, User user, Question question, Button deleteButton) {
+        if (!Authorization.canDeleteQuestion(user, question, adminPowers)) {
         	new Alert(Alert.AlertType.ERROR, "You do not have permission to delete this question.").showAndWait();
         	return;
         }
@@ -448,18 +855,18 @@ public class QuestionDetailView {
         Optional<ButtonType> result = confirmation.showAndWait();
 
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                databaseHelper.deleteQuestion(question.getQuestionId().toString());
-                new DiscussionBoardView(databaseHelper, adminFlag).show(primaryStage, user);
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                new Alert(Alert.AlertType.ERROR, "Failed to delete the question.").showAndWait();
-            }
+            runWrite(deleteButton, db -> db.deleteQuestion(question.getQuestionId().toString()),
+                    "Failed to delete the question.", () -> {
+                        // Back to the board, which drops the deleted row when it refreshes
+                        if (!NavigationController.of(primaryStage).back()) {
+                            new DiscussionBoardView(databaseHelper, adminFlag).show(primaryStage, user);
+                        }
+                    });
         }
     }
 
-    private void handleDeleteAnswerAction(Stage primaryStage, User user, Question question, Answer answer) {
-    	if (!Authorization.canDeleteAnswer(user, databaseHelper, answer, adminFlag)) {
+    private void handleDeleteAnswerAction(Stage primaryStage, User user, Question question, Answer answer, Button deleteButton) {
+    	if (!Authorization.canDeleteAnswer(user, answer, adminPowers)) {
         	new Alert(Alert.AlertType.ERROR, "You do not have permission to delete this answer.").showAndWait();
         	return;
         }
@@ -470,18 +877,13 @@ public class QuestionDetailView {
         Optional<ButtonType> result = confirmation.showAndWait();
 
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                databaseHelper.deleteAnswer(answer.getAnswerId().toString());
-                this.show(primaryStage, user, question); // Refresh view
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                new Alert(Alert.AlertType.ERROR, "Failed to delete the answer.").showAndWait();
-            }
+            // The row goes away when the deletion arrives as an event
+            runWrite(deleteButton, db -> db.deleteAnswer(answer.getAnswerId().toString()), "Failed to delete the answer.", null);
         }
     }
 
-    private void handleDeleteCommentAction(Stage primaryStage, User user, Question question, Comment comment) {
-    	if (!Authorization.canDeleteComment(user, databaseHelper, comment, adminFlag)) {
+    private void handleDeleteCommentAction(Stage primaryStage, User user, Question question, Comment comment, Button deleteButton) {
+    	if (!Authorization.canDeleteComment(user, comment, adminPowers)) {
         	new Alert(Alert.AlertType.ERROR, "You do not have permission to delete this comment.").showAndWait();
         	return;
         }
@@ -492,13 +894,7 @@ public class QuestionDetailView {
         Optional<ButtonType> result = confirmation.showAndWait();
 
         if (result.isPresent() && result.get() == ButtonType.OK) {
-            try {
-                databaseHelper.deleteComment(comment.getCommentId().toString());
-                this.show(primaryStage, user, question); // Refresh view
-            } catch (SQLException ex) {
-                ex.printStackTrace();
-                new Alert(Alert.AlertType.ERROR, "Failed to delete comment.").showAndWait();
-            }
+            runWrite(deleteButton, db -> db.deleteComment(comment.getCommentId().toString()), "Failed to delete comment.", null);
         }
     }
 
@@ -512,50 +908,65 @@ public class QuestionDetailView {
         result.ifPresent(newText -> {
             if (!newText.trim().isEmpty()) {
                 comment.setBody(newText.trim());
-                try {
-                    databaseHelper.updateComment(comment);
-                    this.show(primaryStage, user, question); // Refresh view
-                } catch (SQLException ex) {
-                    ex.printStackTrace();
-                    new Alert(Alert.AlertType.ERROR, "Failed to update comment.").showAndWait();
-                }
+                runWrite(null, db -> db.updateComment(comment), "Failed to update comment.", null);
             }
         });
     }
 
-    private void toggleCommentInput(Stage primaryStage, User user, Question question, VBox inputContainer, Answer parentAnswer, Comment parentComment) {
-        if (inputContainer.isManaged()) {
-            inputContainer.getChildren().clear();
-            inputContainer.setManaged(false);
-        } else {
-            TextArea commentArea = new TextArea();
-            commentArea.setPromptText("Write a reply...");
-            commentArea.setPrefHeight(60);
-            Button postButton = new Button("Post");
-
-            postButton.setOnAction(event -> {
-                String commentText = commentArea.getText().trim();
-                if (!commentText.isEmpty()) {
-                    Comment newComment;
-                    if (parentComment != null) {
-                        newComment = new Comment(parentComment, user, commentText);
-                    } else {
-                        newComment = new Comment(parentAnswer, user, commentText);
-                    }
-                    try {
-                        databaseHelper.addComment(newComment);
-                        this.show(primaryStage, user, question); // Refresh view
-                    } catch (SQLException e) {
-                        e.printStackTrace();
-                        new Alert(Alert.AlertType.ERROR, "Could not save your comment.").showAndWait();
-                    }
+    // Runs a write off the FX thread with its button (if any) disabled until it finishes,
+    // then runs onDone (if any) on the FX thread. Failures are shown in an alert.
+    private void runWrite(Button button, AsyncDatabaseHelper.Update write, String failedMessage, Runnable onDone) {
+        if (button != null) {
+            button.setDisable(true);
+        }
+        databaseHelper.async()
+            .execute(write)
+            .whenComplete((done, error) -> {
+                if (button != null) {
+                    button.setDisable(false);
+                }
+                if (error != null) {
+                    error.printStackTrace();
+                    new Alert(Alert.AlertType.ERROR, failedMessage).showAndWait();
+                } else if (onDone != null) {
+                    onDone.run();
                 }
             });
+    }
 
-            inputContainer.getChildren().addAll(commentArea, postButton);
-            inputContainer.setManaged(true);
+    // Opens or closes the comment box under an answer, or the reply box under a comment.
+    private void toggleCommentInput(Stage primaryStage, User user, Question question, ExpandableRow owner) {
+        List<ThreadRow> items = threadList.getItems();
+        int index = items.indexOf(owner);
+        if (index + 1 < items.size() && items.get(index + 1) instanceof ReplyInputRow input && input.owner == owner) {
+            items.remove(index + 1);
+            return;
         }
-    }    
+        ReplyInputRow input = new ReplyInputRow(owner);
+        TextArea commentArea = new TextArea();
+        commentArea.setPromptText("Write a reply...");
+        commentArea.setPrefHeight(60);
+        Button postButton = new Button("Post");
+
+        postButton.setOnAction(event -> {
+            String commentText = commentArea.getText().trim();
+            if (!commentText.isEmpty()) {
+                Comment newComment;
+                if (owner instanceof CommentRow commentRow) {
+                    newComment = new Comment(commentRow.summary.getComment(), user, commentText);
+                } else {
+                    newComment = new Comment(owner.answer(), user, commentText);
+                }
+                // The comment itself arrives as an event
+                runWrite(postButton, db -> db.addComment(newComment), "Could not save your comment.",
+                        () -> items.remove(input));
+            }
+        });
+
+        input.node = new VBox(5, commentArea, postButton);
+        items.add(index + 1, input);
+    }
+
     private String formatTimeSince(ZonedDateTime time) {
         if (time == null) return "some time ago";
         Duration duration = Duration.between(time, ZonedDateTime.now());
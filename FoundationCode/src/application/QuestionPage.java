@@ -0,0 +1,53 @@
+package application;
+
+import java.time.OffsetDateTime;
+import java.util.Collections;
+import java.util.List;
+
+
+ // One page of discussion board summaries plus the keyset cursor of the next page.
+ // The cursor is the (creationTimestamp, id) of the last row, so the next page starts
+ // right after it regardless of how many questions were added in the meantime.
+
+public class QuestionPage {
+
+    // Position after which the next page starts. Only DatabaseHelper creates these.
+    public static final class Cursor {
+        private final OffsetDateTime creationTimestamp;
+        private final String questionId;
+
+        public Cursor(OffsetDateTime creationTimestamp, String questionId) {
+            this.creationTimestamp = creationTimestamp;
+            this.questionId = questionId;
+        }
+
+        public OffsetDateTime getCreationTimestamp() {
+            return creationTimestamp;
+        }
+
+        public String getQuestionId() {
+            return questionId;
+        }
+    }
+
+    private final List<QuestionSummary> summaries;
+    private final Cursor nextCursor;
+
+    public QuestionPage(List<QuestionSummary> summaries, Cursor nextCursor) {
+        this.summaries = Collections.unmodifiableList(summaries);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<QuestionSummary> getSummaries() {
+        return summaries;
+    }
+
+    // Cursor for the following page, or null if this is the last one.
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
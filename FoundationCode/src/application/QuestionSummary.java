@@ -0,0 +1,40 @@
+package application;
+
+
+ // Read-only board projection of a question: the question row plus the answer count,
+ // resolved flag and the viewing user's unseen answer count, loaded in a single query.
+
+public class QuestionSummary {
+
+    private final Question question;
+    private final int answerCount;
+    private final boolean resolved;
+    private final int unseenAnswerCount;
+
+    public QuestionSummary(Question question, int answerCount, boolean resolved, int unseenAnswerCount) {
+        this.question = question;
+        this.answerCount = answerCount;
+        this.resolved = resolved;
+        this.unseenAnswerCount = unseenAnswerCount;
+    }
+
+    public Question getQuestion() {
+        return question;
+    }
+
+    public int getAnswerCount() {
+        return answerCount;
+    }
+
+    public boolean isAnswered() {
+        return answerCount > 0;
+    }
+
+    public boolean isResolved() {
+        return resolved;
+    }
+
+    public int getUnseenAnswerCount() {
+        return unseenAnswerCount;
+    }
+}
@@ -0,0 +1,168 @@
+package application;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Cursor;
+import javafx.scene.control.ContentDisplay;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+
+
+ // One row of the discussion board list. The ListView only creates enough cells to fill
+ // the viewport and reuses them while scrolling, so the nodes are built once per cell and
+ // updateItem just rebinds them to the summary now shown.
+
+public final class QuestionSummaryCell extends ListCell<QuestionSummary> {
+
+    private static final String NORMAL_STYLE = "-fx-background-color: white; -fx-border-color: #E0E0E0; -fx-border-width: 1; -fx-border-radius: 5;";
+    private static final String HOVER_STYLE = "-fx-background-color: #F5F5F5; -fx-border-color: #CCCCCC; -fx-border-width: 1; -fx-border-radius: 5;";
+    private static final String TAG_STYLE = "-fx-background-radius: 10; -fx-font-weight: 600;";
+    private static final Color TEXT_COLOR = Color.web("#1F2937");
+
+    private final VBox summaryBox = new VBox(5);
+    private final Label titleLabel = new Label();
+    private final Label statusLabel = new Label();
+    private final Label tagLabel = new Label();
+    private final Label authorLabel = new Label();
+    private final Label timeLabel = new Label();
+    private final Text answersText = new Text();
+    private final Text newText = new Text();
+
+    // Called with the row index whenever a row is shown, so the board can load more near the end
+    private final IntConsumer onShown;
+
+    public QuestionSummaryCell(Consumer<QuestionSummary> onOpen, IntConsumer onShown) {
+        this.onShown = onShown;
+
+        summaryBox.setPadding(new Insets(10));
+        summaryBox.setStyle(NORMAL_STYLE);
+        summaryBox.setCursor(Cursor.HAND);
+        summaryBox.setOnMouseEntered(e -> summaryBox.setStyle(HOVER_STYLE));
+        summaryBox.setOnMouseExited(e -> summaryBox.setStyle(NORMAL_STYLE));
+
+        // Navigate to the detail view when clicked
+        summaryBox.setOnMouseClicked(e -> {
+            if (getItem() != null) {
+                onOpen.accept(getItem());
+            }
+        });
+
+        titleLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
+        tagLabel.setFont(Font.font("System", 12));
+        tagLabel.setPadding(new Insets(3, 10, 3, 10));
+        authorLabel.setTextFill(Color.GRAY);
+        timeLabel.setTextFill(Color.GRAY);
+        answersText.setFill(TEXT_COLOR);
+        newText.setStyle("-fx-font-weight: bold;");
+
+        TextFlow answersFlow = new TextFlow(answersText, newText);
+        answersFlow.setLineSpacing(0);
+
+        // Combine title and status
+        HBox headerRow = new HBox(10, titleLabel, statusLabel);
+        headerRow.setAlignment(Pos.CENTER_LEFT);
+
+        HBox metadataBox = new HBox(15, tagLabel, authorLabel, timeLabel, answersFlow);
+        metadataBox.setAlignment(Pos.CENTER_LEFT);
+
+        summaryBox.getChildren().addAll(headerRow, metadataBox);
+
+        // Gap between rows, as the cell itself draws nothing
+        setPadding(new Insets(0, 0, 10, 0));
+        setStyle("-fx-background-color: transparent;");
+        setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+    }
+
+    @Override
+    protected void updateItem(QuestionSummary summary, boolean empty) {
+        super.updateItem(summary, empty);
+        if (empty || summary == null) {
+            setGraphic(null);
+            return;
+        }
+        Question question = summary.getQuestion();
+
+        titleLabel.setText(question.getTitle());
+
+        // Tag colors
+        Tags tag = question.getTag();
+        String tagColor = tagColor(tag);
+        String tagTextFill = switch (tag) {
+            case QUIZZES, EXAMS, TEAM_FORMATION -> "#1F2937";
+            default -> "white";
+        };
+        tagLabel.setText(tag.toString());
+        tagLabel.setStyle(TAG_STYLE + "-fx-background-color: " + tagColor + "; -fx-text-fill: " + tagTextFill + ";");
+
+        String author = question.isAnonymous() ? "Anonymous" : question.getAuthor().getName();
+        authorLabel.setText("by " + author);
+        timeLabel.setText("• " + formatTimeSince(question.getCreationTimestamp()));
+
+        // Combine answers and "new" count, coloring "new" based on tag
+        int answerCount = summary.getAnswerCount();
+        int unseenCount = summary.getUnseenAnswerCount();
+        answersText.setText("• " + answerCount + (answerCount == 1 ? " answer" : " answers"));
+        newText.setText(unseenCount > 0 ? " (" + unseenCount + " new)" : "");
+        newText.setFill(Color.web(tagColor));
+
+        // Resolution status label
+        if (summary.isResolved()) {
+            statusLabel.setText("Resolved");
+            statusLabel.setTextFill(Color.web("#388E3C"));
+            statusLabel.setStyle("-fx-font-weight: bold; -fx-font-size: 12px;");
+        } else {
+            statusLabel.setText("Unresolved");
+            statusLabel.setTextFill(Color.web("#9E9E9E"));
+            statusLabel.setStyle("-fx-font-size: 12px;");
+        }
+
+        // A recycled cell may still carry the hover style of the row it showed before
+        summaryBox.setStyle(isHover() ? HOVER_STYLE : NORMAL_STYLE);
+        setGraphic(summaryBox);
+        onShown.accept(getIndex());
+    }
+
+    private static String tagColor(Tags tag) {
+        switch (tag) {
+            case GENERAL: return "#6C63AC";
+            case HOMEWORK: return "#EF7FAF";
+            case TEAM_PROJECT: return "#EC6A5C";
+            case QUIZZES: return "#F89963";
+            case EXAMS: return "#F5C46D";
+            case TEAM_FORMATION: return "#9BC48C";
+            default: return "#6B7280";
+        }
+    }
+
+    // Creates time since
+    private static String formatTimeSince(ZonedDateTime time) {
+        if (time == null) return "some time ago";
+        Duration duration = Duration.between(time, ZonedDateTime.now());
+        long seconds = duration.getSeconds();
+
+        if (seconds < 60) return "just now";
+        long minutes = seconds / 60;
+        if (minutes < 60) return minutes + (minutes == 1 ? " minute ago" : " minutes ago");
+        long hours = minutes / 60;
+        if (hours < 24) return hours + (hours == 1 ? " hour ago" : " hours ago");
+        long days = hours / 24;
+        if (days < 30) return days + (days == 1 ? " day ago" : " days ago");
+        long months = days / 30;
+        if (months < 12) return months + (months == 1 ? " month ago" : " months ago");
+
+        long years = months / 12;
+        return years + (years == 1 ? " year ago" : " years ago");
+    }
+}
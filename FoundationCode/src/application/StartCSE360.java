@@ -31,6 +31,12 @@ public class StartCSE360 extends Application {
         	System.out.println(e.getMessage());
         }
     }
+
+	// Writes buffered view counts and closes the connection pool on exit.
+	@Override
+	public void stop() {
+		databaseHelper.closeConnection();
+	}
 	
 
 }
@@ -8,7 +8,6 @@ import javafx.stage.Stage;
 import javafx.geometry.Pos;
 import javafx.scene.layout.Priority;
 
-import java.sql.SQLException;
 import java.util.ArrayList;
 
 import databasePart1.*;
@@ -22,6 +21,9 @@ public class UserLoginPage {
 	
     private final DatabaseHelper databaseHelper;
 
+    // Outcome of the background credential check
+    private enum LoginResult { SUCCESS, FAILED, NO_ACCOUNT }
+
     public UserLoginPage(DatabaseHelper databaseHelper) {
         this.databaseHelper = databaseHelper;
     }
@@ -80,87 +82,96 @@ public class UserLoginPage {
             String userName = userNameField.getText();
             String password = passwordField.getText();
 
+            // Database lookups run off the FX thread; the button stays disabled until they finish
+            loginButton.setDisable(true);
+
             // Check if user has had one time pw set
-            try {
-                    if (databaseHelper.isOtpUser(userName)) {
-                            errorLabel.setText("ERROR: Admin has set a one time password for your account. Please navigate to reset password page");
-                            return;
-                    }
-            } catch (SQLException e) {
-                    e.printStackTrace();
+            databaseHelper.async().submit(db -> db.isOtpUser(userName)).whenComplete((isOtpUser, otpError) -> {
+                if (otpError != null) {
+                    otpError.printStackTrace();
+                    loginButton.setDisable(false);
+                    return;
+                }
+                if (isOtpUser) {
+                    errorLabel.setText("ERROR: Admin has set a one time password for your account. Please navigate to reset password page");
+                    loginButton.setDisable(false);
                     return;
-            }
-            // Validate userName input
-            String usernameErrMsg = UserNameRecognizer.checkForValidUserName(userName);
-            if (usernameErrMsg.isEmpty()) {
-                userNameCheck.setText("✅");
-                userNameCheck.setStyle("-fx-text-fill: green;");
-            } else {
-                userNameCheck.setText("❌ ");
-                userNameCheck.setStyle("-fx-text-fill: red;");
-            }
-            // Validate password input
-            String passwordErrMsg = PasswordRecognizer.evaluatePassword(password);
-            if (passwordErrMsg.isEmpty()) {
-                passwordCheck.setText("✅");
-                passwordCheck.setStyle("-fx-text-fill: green;");
-            } else {
-                passwordCheck.setText("❌ ");
-                passwordCheck.setStyle("-fx-text-fill: red;");
-            }
-            
-            // Construct multi-line error message to indicate if
-            // username/password are invalid
-            String errMsg = usernameErrMsg + passwordErrMsg;
-            
-            if (!errMsg.isEmpty()) {
-            	// Set Error label to contain error message(s)
-            	errorLabel.setText(errMsg);
-			} else {
-				try {
-					databaseHelper.verifyConnection(); //  checks if connected -C. Looney
-          
-          User user = new User(userName, "", "", password, new ArrayList<>());
-
-					WelcomeLoginPage welcomeLoginPage = new WelcomeLoginPage(databaseHelper);
-
-					// Retrieve user's roles, name, email from the database using userName
-					ArrayList<Role> roles = databaseHelper.getUserRoles(userName);
-                                        String name = databaseHelper.getUserNameField(userName);
-                                        String email = databaseHelper.getUserEmail(userName);
-
-					if ((!roles.isEmpty()) && (name != null) && (email != null)) {
-						user.setRoles(roles);
-                                                user.setName(name);
-                                                user.setEmail(email);
-						if (databaseHelper.login(user)) {
-                                                        // If user has multiple roles, go to role selection page
-														databaseHelper.setCurrentUserName(user.getUserName());
-                                                        if (roles.size() > 1) {
-                                                                welcomeLoginPage.show(primaryStage, user);
-                                                        } else {
-                                                                // Only has 1 role, immediately go there
-                                                                Role r = roles.get(0);
-                                                                if (r == Role.ADMIN) {
-                                                                        new AdminHomePage(databaseHelper).show(primaryStage, user);
-                                                                } else if (r == Role.BASIC_USER) {
-                                                                        new UserHomePage(databaseHelper).show(primaryStage, user);
-                                                                }
-                                                        }
-						} else {
-							// Display an error if the login fails
-							errorLabel.setText("Error logging in");
-						}
-					} else {
-						// Display an error if the account does not exist
-						errorLabel.setText("User account doesn't exist!");
-					}
-
-				} catch (SQLException e) {
-					System.err.println("Database error: " + e.getMessage());
-					e.printStackTrace();
-				}
-			}
+                }
+                // Validate userName input
+                String usernameErrMsg = UserNameRecognizer.checkForValidUserName(userName);
+                if (usernameErrMsg.isEmpty()) {
+                    userNameCheck.setText("✅");
+                    userNameCheck.setStyle("-fx-text-fill: green;");
+                } else {
+                    userNameCheck.setText("❌ ");
+                    userNameCheck.setStyle("-fx-text-fill: red;");
+                }
+                // Validate password input
+                String passwordErrMsg = PasswordRecognizer.evaluatePassword(password);
+                if (passwordErrMsg.isEmpty()) {
+                    passwordCheck.setText("✅");
+                    passwordCheck.setStyle("-fx-text-fill: green;");
+                } else {
+                    passwordCheck.setText("❌ ");
+                    passwordCheck.setStyle("-fx-text-fill: red;");
+                }
+
+                // Construct multi-line error message to indicate if
+                // username/password are invalid
+                String errMsg = usernameErrMsg + passwordErrMsg;
+
+                if (!errMsg.isEmpty()) {
+                    // Set Error label to contain error message(s)
+                    errorLabel.setText(errMsg);
+                    loginButton.setDisable(false);
+                    return;
+                }
+
+                User user = new User(userName, "", "", password, new ArrayList<>());
+                databaseHelper.async().submit(db -> {
+                    db.verifyConnection(); //  checks if connected -C. Looney
+
+                    // Retrieve user's roles, name, email from the database using userName
+                    ArrayList<Role> roles = db.getUserRoles(userName);
+                    String name = db.getUserNameField(userName);
+                    String email = db.getUserEmail(userName);
+                    if (roles.isEmpty() || name == null || email == null) {
+                        return LoginResult.NO_ACCOUNT;
+                    }
+                    user.setRoles(roles);
+                    user.setName(name);
+                    user.setEmail(email);
+                    return db.login(user) ? LoginResult.SUCCESS : LoginResult.FAILED;
+                }).whenComplete((result, error) -> {
+                    loginButton.setDisable(false);
+                    if (error != null) {
+                        System.err.println("Database error: " + error.getMessage());
+                        error.printStackTrace();
+                        return;
+                    }
+                    switch (result) {
+                        case SUCCESS -> {
+                            databaseHelper.setCurrentUserName(user.getUserName());
+                            // If user has multiple roles, go to role selection page
+                            if (user.getRoles().size() > 1) {
+                                new WelcomeLoginPage(databaseHelper).show(primaryStage, user);
+                            } else {
+                                // Only has 1 role, immediately go there
+                                Role r = user.getRoles().get(0);
+                                if (r == Role.ADMIN) {
+                                    new AdminHomePage(databaseHelper).show(primaryStage, user);
+                                } else if (r == Role.BASIC_USER) {
+                                    new UserHomePage(databaseHelper).show(primaryStage, user);
+                                }
+                            }
+                        }
+                        // Display an error if the login fails
+                        case FAILED -> errorLabel.setText("Error logging in");
+                        // Display an error if the account does not exist
+                        case NO_ACCOUNT -> errorLabel.setText("User account doesn't exist!");
+                    }
+                });
+            });
         });
         Button returnButton = Logout.LogoutButton(primaryStage, databaseHelper); //return button added to go back if needed 
         returnButton.setCancelButton(true); // 'ESC' will trigger
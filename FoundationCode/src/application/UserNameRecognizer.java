@@ -1,278 +1,167 @@
-package application;
-
-
-public class UserNameRecognizer {
-	/**
-	 * <p> Title: FSM-translated UserNameRecognizer. </p>
-	 * 
-	 * <p> Description: A demonstration of the mechanical translation of Finite State Machine 
-	 * diagram into an executable Java program using the UserName Recognizer. The code 
-	 * detailed design is based on a while loop with a select list</p>
-	 * 
-	 * <p> Copyright: Lynn Robert Carter © 2024 </p>
-	 * 
-	 * @author Lynn Robert Carter
-	 * 
-	 * @version 1.00		2024-09-13	Initial baseline derived from the Even Recognizer
-	 * @version 1.01		2024-09-17	Correction to address UNChar coding error, improper error
-	 * 									message, and improve internal documentation
-	 * @version 1.02		2025-08-28	Update checkForValidUserName method to align with the new
-	 *                                  FSM diagram and update the corresponding documentation
-	 *                                  and error messages
-	 * 
-	 */
-
-	/**********************************************************************************************
-	 * 
-	 * Result attributes to be used for GUI applications where a detailed error message and a 
-	 * pointer to the character of the error will enhance the user experience.
-	 * 
-	 */
-
-	public static String userNameRecognizerErrorMessage = "";	// The error message text
-	public static String userNameRecognizerInput = "";			// The input being processed
-	public static int userNameRecognizerIndexofError = -1;		// The index of error location
-	private static int state = 0;						// The current state value
-	private static int nextState = 0;					// The next state value
-	private static boolean finalState = false;			// Is this state a final state?
-	private static String inputLine = "";				// The input line
-	private static char currentChar;					// The current character in the line
-	private static int currentCharNdx;					// The index of the current character
-	private static boolean running;						// The flag that specifies if the FSM is 
-														// running
-	private static int userNameSize = 0;			// A numeric value may not exceed 16 characters
-	private static boolean debug = false; 				// Quiets FSM on console. TOGGLE TO 'TRUE' IF YOU WANT TO SEE IT.  
-
-	// Private method to display debugging data
-	private static void displayDebuggingInfo() {
-		if (!debug) return; // quiets the FSM. 
-		// Display the current state of the FSM as part of an execution trace
-		if (currentCharNdx >= inputLine.length())
-			// display the line with the current state numbers aligned
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
-					((finalState) ? "       F   " : "           ") + "None");
-		else
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
-				((finalState) ? "       F   " : "           ") + "  " + currentChar + " " + 
-				((nextState > 99) ? "" : (nextState > 9) || (nextState == -1) ? "   " : "    ") + 
-				nextState + "     " + userNameSize);
-	}
-	
-	// Private method to move to the next character within the limits of the input line
-	private static void moveToNextCharacter() {
-		currentCharNdx++;
-		if (currentCharNdx < inputLine.length())
-			currentChar = inputLine.charAt(currentCharNdx);
-		else {
-			currentChar = ' ';
-			running = false;
-		}
-	}
-
-	/**********
-	 * This method is a mechanical transformation of a Finite State Machine diagram into a Java
-	 * method.
-	 * 
-	 * @param input		The input string for the Finite State Machine
-	 * @return			An output string that is empty if every things is okay or it is a String
-	 * 						with a helpful description of the error
-	 */
-	public static String checkForValidUserName(String input) {
-		// Check to ensure that there is input to process
-		if(input.length() <= 0) {
-			userNameRecognizerIndexofError = 0;	// Error at first character;
-			return "\nUSERNAME ERROR: The input is empty";
-		}
-		
-		// The local variables used to perform the Finite State Machine simulation
-		state = 0;							// This is the FSM state number
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-		currentChar = input.charAt(0);		// The current character from above indexed position
-
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-
-		userNameRecognizerInput = input;	// Save a copy of the input
-		running = true;						// Start the loop
-		nextState = -1;						// There is no next state
-		if (debug) {
-			System.out.println("\nCurrent Final Input  Next  Date\nState   State Char  State  Size");
-		}
-		
-		// This is the place where semantic actions for a transition to the initial state occur
-		
-		userNameSize = 0;					// Initialize the UserName size
-
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-		while (running) {
-			// The switch statement takes the execution to the code for the current state, where
-			// that code sees whether or not the current character is valid to transition to a
-			// next state
-			switch (state) {
-			case 0: 
-				// State 0 has 1 valid transition that is addressed by an if statement.
-				
-				// The current character is checked against A-Z, a-z. If any are matched
-				// the FSM goes to state 1
-				
-				// A-Z, a-z -> State 1
-				if ((currentChar >= 'A' && currentChar <= 'Z' ) ||		    // Check for A-Z
-							(currentChar >= 'a' && currentChar <= 'z' )) {	// Check for a-z
-					
-					nextState = 1;
-					
-					// Count the character 
-					userNameSize++;
-					
-					// This only occurs once, so there is no need to check for the size getting
-					// too large.
-				}
-				// If it is none of those characters, the FSM halts
-				else 
-					running = false;
-				
-				// The execution of this state is finished
-				break;
-			
-			case 1: 
-				// State 1 has two valid transitions,
-				//  1: a A-Z, a-z, 0-9 that transitions back to state 1
-				//  2: a . - _ that transitions to state 2
-
-				// A-Z, a-z, 0-9 -> State 1
-				if ((currentChar >= 'A' && currentChar <= 'Z' ) ||		// Check for A-Z
-						(currentChar >= 'a' && currentChar <= 'z' ) ||	// Check for a-z
-						(currentChar >= '0' && currentChar <= '9' )) {	// Check for 0-9
-					nextState = 1;
-					
-					// Count the character
-					userNameSize++;
-				}
-				// . - _ -> State 2
-				else if ((currentChar == '.') ||                        // Check for .
-						(currentChar == '-') ||                         // Check for -
-						(currentChar == '_')) {							// Check for _
-					nextState = 2;
-					
-					// Count the .
-					userNameSize++;
-				}				
-				// If it is none of those characters, the FSM halts
-				else
-					running = false;
-				
-				// The execution of this state is finished
-				// If the size is larger than 16, the loop must stop
-				if (userNameSize > 16)
-					running = false;
-				break;			
-				
-			case 2: 
-				// State 2 deals with a character after a . - _ in the name.
-				
-				// A-Z, a-z, 0-9 -> State 1
-				if ((currentChar >= 'A' && currentChar <= 'Z' ) ||		// Check for A-Z
-						(currentChar >= 'a' && currentChar <= 'z' ) ||	// Check for a-z
-						(currentChar >= '0' && currentChar <= '9' )) {	// Check for 0-9
-					nextState = 1;
-					
-					// Count the odd digit
-					userNameSize++;
-					
-				}
-				// If it is none of those characters, the FSM halts
-				else 
-					running = false;
-
-				// The execution of this state is finished
-				// If the size is larger than 16, the loop must stop
-				if (userNameSize > 16)
-					running = false;
-				break;			
-			}
-			
-			if (running) {
-				displayDebuggingInfo();
-				// When the processing of a state has finished, the FSM proceeds to the next
-				// character in the input and if there is one, it fetches that character and
-				// updates the currentChar.  If there is no next character the currentChar is
-				// set to a blank.
-				moveToNextCharacter();
-
-				// Move to the next state
-				state = nextState;
-				
-				// Is the new state a final state?  If so, signal this fact.
-				if (state == 1) finalState = true;
-
-				// Ensure that one of the cases sets this to a valid value
-				nextState = -1;
-			}
-			// Should the FSM get here, the loop starts again
-	
-		}
-		if (debug) {
-			displayDebuggingInfo();
-			System.out.println("The loop has ended.");
-		}
-		
-		
-		
-		// When the FSM halts, we must determine if the situation is an error or not.  That depends
-		// of the current state of the FSM and whether or not the whole string has been consumed.
-		// This switch directs the execution to separate code for each of the FSM states and that
-		// makes it possible for this code to display a very specific error message to improve the
-		// user experience.
-		userNameRecognizerIndexofError = currentCharNdx;	// Set index of a possible error;
-		userNameRecognizerErrorMessage = "\nUSERNAME ERROR: ";
-		
-		// The following code is a slight variation to support just console output.
-		switch (state) {
-		case 0:
-			// State 0 is not a final state, so we can return a very specific error message
-			userNameRecognizerErrorMessage += "A UserName must start with A-Z or a-z";
-			return userNameRecognizerErrorMessage;
-
-		case 1:
-			// State 1 is a final state.  Check to see if the UserName length is valid.  If so we
-			// we must ensure the whole string has been consumed.
-
-			if (userNameSize < 4) {
-				// UserName is too small
-				userNameRecognizerErrorMessage += "A UserName must have at least 4 characters.";
-				return userNameRecognizerErrorMessage;
-			}
-			else if (userNameSize > 16) {
-				// UserName is too long
-				userNameRecognizerErrorMessage += 
-					"A UserName must have no more than 16 characters.";
-				return userNameRecognizerErrorMessage;
-			}
-			else if (currentCharNdx < input.length()) {
-				// There are characters remaining in the input, so the input is not valid
-				userNameRecognizerErrorMessage += 
-					"A UserName may only contain the characters A-Z, a-z, 0-9, period, minus sign, or underscore";
-				return userNameRecognizerErrorMessage;
-			}
-			else {
-					// UserName is valid
-					userNameRecognizerIndexofError = -1;
-					userNameRecognizerErrorMessage = "";
-					return userNameRecognizerErrorMessage;
-			}
-
-		case 2:
-			// State 2 is not a final state, so we can return a very specific error message
-			userNameRecognizerErrorMessage +=
-				"A UserName character after a period, minus sign, or underscore must be A-Z, a-z, 0-9.";
-			return userNameRecognizerErrorMessage;
-			
-		default:
-			// This is for the case where we have a state that is outside of the valid range.
-			// This should not happen
-			return "";
-		}
-	}
-}
\ No newline at end of file
+package application;
+
+
+public class UserNameRecognizer {
+	/**
+	 * <p> Title: FSM-translated UserNameRecognizer. </p>
+	 *
+	 * <p> Description: A demonstration of the mechanical translation of Finite State Machine
+	 * diagram into an executable Java program using the UserName Recognizer. The FSM diagram
+	 * is compiled into a transition table indexed by state and character class; the
+	 * recognizer keeps all of its working state in local variables, so it can be called from
+	 * any number of threads at once.</p>
+	 *
+	 * <p> Copyright: Lynn Robert Carter © 2024 </p>
+	 *
+	 * @author Lynn Robert Carter
+	 *
+	 * @version 1.00		2024-09-13	Initial baseline derived from the Even Recognizer
+	 * @version 1.01		2024-09-17	Correction to address UNChar coding error, improper error
+	 * 									message, and improve internal documentation
+	 * @version 1.02		2025-08-28	Update checkForValidUserName method to align with the new
+	 *                                  FSM diagram and update the corresponding documentation
+	 *                                  and error messages
+	 * @version 2.00		2026-10-18	Table-driven and reentrant; validate returns an immutable
+	 *                                  ValidationResult and checkForValidUserName wraps it
+	 *
+	 */
+
+	/**********************************************************************************************
+	 *
+	 * Result attributes of the last checkForValidUserName call, kept for existing GUI code.
+	 * With concurrent callers they describe whichever call finished last; use validate instead.
+	 *
+	 */
+
+	public static volatile String userNameRecognizerErrorMessage = "";	// The error message text
+	public static volatile String userNameRecognizerInput = "";			// The input being processed
+	public static volatile int userNameRecognizerIndexofError = -1;		// The index of error location
+
+	// Error codes of the ValidationResult returned by validate
+	public static final int EMPTY = 1;					// The input is empty
+	public static final int BAD_FIRST_CHARACTER = 2;	// Does not start with A-Z or a-z
+	public static final int TOO_SHORT = 3;				// Fewer than MIN_SIZE characters
+	public static final int TOO_LONG = 4;				// More than MAX_SIZE characters
+	public static final int INVALID_CHARACTER = 5;		// A character outside the allowed set
+	public static final int BAD_AFTER_SEPARATOR = 6;	// . - _ not followed by A-Z, a-z, 0-9
+
+	private static final int MIN_SIZE = 4;
+	private static final int MAX_SIZE = 16;
+
+	// Error messages, indexed by error code
+	private static final String[] MESSAGES = {
+		"",
+		"\nUSERNAME ERROR: The input is empty",
+		"\nUSERNAME ERROR: A UserName must start with A-Z or a-z",
+		"\nUSERNAME ERROR: A UserName must have at least 4 characters.",
+		"\nUSERNAME ERROR: A UserName must have no more than 16 characters.",
+		"\nUSERNAME ERROR: A UserName may only contain the characters A-Z, a-z, 0-9, period, minus sign, or underscore",
+		"\nUSERNAME ERROR: A UserName character after a period, minus sign, or underscore must be A-Z, a-z, 0-9.",
+	};
+
+	// Character classes. Characters outside ASCII are always OTHER.
+	private static final int LETTER = 0;				// A-Z, a-z
+	private static final int DIGIT = 1;					// 0-9
+	private static final int SEPARATOR = 2;				// . - _
+	private static final int OTHER = 3;
+	private static final byte[] CHARACTER_CLASSES = new byte[128];
+
+	// FSM states. State 1 is the only final state.
+	private static final int START = 0;
+	private static final int IN_NAME = 1;
+	private static final int AFTER_SEPARATOR = 2;
+	private static final int HALT = -1;
+
+	// TRANSITIONS[state][character class] is the next state, or HALT when the character has
+	// no valid transition
+	private static final int[][] TRANSITIONS = {
+		//            LETTER    DIGIT     SEPARATOR        OTHER
+		/* 0 */ {     IN_NAME,  HALT,     HALT,            HALT },
+		/* 1 */ {     IN_NAME,  IN_NAME,  AFTER_SEPARATOR, HALT },
+		/* 2 */ {     IN_NAME,  IN_NAME,  HALT,            HALT },
+	};
+
+	static {
+		java.util.Arrays.fill(CHARACTER_CLASSES, (byte) OTHER);
+		for (char c = 'A'; c <= 'Z'; c++) CHARACTER_CLASSES[c] = LETTER;
+		for (char c = 'a'; c <= 'z'; c++) CHARACTER_CLASSES[c] = LETTER;
+		for (char c = '0'; c <= '9'; c++) CHARACTER_CLASSES[c] = DIGIT;
+		for (char c : ".-_".toCharArray()) CHARACTER_CLASSES[c] = SEPARATOR;
+	}
+
+	private static int classOf(char c) {
+		return c < CHARACTER_CLASSES.length ? CHARACTER_CLASSES[c] : OTHER;
+	}
+
+	/**********
+	 * Runs the FSM over the input. The machine halts at the first character without a valid
+	 * transition, or when the UserName grows past its maximum size; the state it halted in
+	 * then selects the error.
+	 *
+	 * @param input		The input string for the Finite State Machine
+	 * @return			ValidationResult.VALID, or the error code and the index of the character
+	 * 						where the FSM halted
+	 */
+	public static ValidationResult validate(String input) {
+		// Check to ensure that there is input to process
+		if (input.length() <= 0) {
+			return ValidationResult.of(EMPTY, 0);
+		}
+
+		int state = START;
+		int currentCharNdx = 0;
+		int userNameSize = 0;
+		while (currentCharNdx < input.length()) {
+			int nextState = TRANSITIONS[state][classOf(input.charAt(currentCharNdx))];
+			if (nextState == HALT) {
+				break;
+			}
+			// Count the character; a 17th character stops the FSM before it is taken
+			if (++userNameSize > MAX_SIZE) {
+				break;
+			}
+			state = nextState;
+			currentCharNdx++;
+		}
+
+		switch (state) {
+		case START:
+			return ValidationResult.of(BAD_FIRST_CHARACTER, currentCharNdx);
+		case IN_NAME:
+			if (userNameSize < MIN_SIZE) {
+				return ValidationResult.of(TOO_SHORT, currentCharNdx);
+			}
+			if (userNameSize > MAX_SIZE) {
+				return ValidationResult.of(TOO_LONG, currentCharNdx);
+			}
+			if (currentCharNdx < input.length()) {
+				// There are characters remaining in the input, so the input is not valid
+				return ValidationResult.of(INVALID_CHARACTER, currentCharNdx);
+			}
+			return ValidationResult.VALID;
+		default:
+			return ValidationResult.of(BAD_AFTER_SEPARATOR, currentCharNdx);
+		}
+	}
+
+	// The error message of a result of validate; empty when it is valid.
+	public static String errorMessage(ValidationResult result) {
+		return MESSAGES[result.getCode()];
+	}
+
+	/**********
+	 * Checks a UserName and describes the first problem found.
+	 *
+	 * @param input		The input string for the Finite State Machine
+	 * @return			An output string that is empty if every things is okay or it is a String
+	 * 						with a helpful description of the error
+	 */
+	public static String checkForValidUserName(String input) {
+		ValidationResult result = validate(input);
+		String message = errorMessage(result);
+		userNameRecognizerInput = input;
+		userNameRecognizerIndexofError = result.getErrorIndex();
+		userNameRecognizerErrorMessage = message;
+		return message;
+	}
+}
@@ -0,0 +1,71 @@
+package application;
+
+
+ // Verdict of one of the input validators (UserNameRecognizer, PasswordRecognizer,
+ // EmailValidator, NameValidator): an error code defined by that validator, 0 when the
+ // input is valid, and the index of the character where validation stopped, -1 when valid.
+ // Results are immutable and shared, so validating never allocates for short inputs; the
+ // validator turns a result into its error message only when one is shown.
+
+public final class ValidationResult {
+
+    public static final ValidationResult VALID = new ValidationResult(0, -1);
+
+    // Results for small codes and indexes are created once and reused
+    private static final int CACHED_CODES = 64;
+    private static final int CACHED_INDEXES = 128;
+    private static final ValidationResult[] CACHE = new ValidationResult[CACHED_CODES * CACHED_INDEXES];
+
+    private final int code;
+    private final int errorIndex;
+
+    private ValidationResult(int code, int errorIndex) {
+        this.code = code;
+        this.errorIndex = errorIndex;
+    }
+
+    // The result for an error code (never 0) found at errorIndex.
+    public static ValidationResult of(int code, int errorIndex) {
+        if (code <= 0 || errorIndex < 0) {
+            throw new IllegalArgumentException("An error needs a positive code and an index");
+        }
+        if (code >= CACHED_CODES || errorIndex >= CACHED_INDEXES) {
+            return new ValidationResult(code, errorIndex);
+        }
+        // Racing threads may each create the entry; the fields are final, so either copy is safe to share
+        int slot = code * CACHED_INDEXES + errorIndex;
+        ValidationResult result = CACHE[slot];
+        if (result == null) {
+            result = new ValidationResult(code, errorIndex);
+            CACHE[slot] = result;
+        }
+        return result;
+    }
+
+    public boolean isValid() {
+        return code == 0;
+    }
+
+    public int getCode() {
+        return code;
+    }
+
+    public int getErrorIndex() {
+        return errorIndex;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ValidationResult other && code == other.code && errorIndex == other.errorIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * code + errorIndex;
+    }
+
+    @Override
+    public String toString() {
+        return isValid() ? "ValidationResult[valid]" : "ValidationResult[code=" + code + ", errorIndex=" + errorIndex + "]";
+    }
+}
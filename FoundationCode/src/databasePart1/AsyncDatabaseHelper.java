@@ -0,0 +1,144 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javafx.application.Platform;
+
+/**
+ * Runs {@link DatabaseHelper} calls off the JavaFX application thread.
+ *
+ * Each call runs on one of a fixed set of daemon worker threads, as many as the
+ * connection pool has connections, and its future is completed on the FX thread
+ * (via {@link Platform#runLater}), so callbacks such as {@code whenComplete} may touch
+ * the scene graph directly. A failed call completes the future with the original
+ * {@link SQLException}.
+ *
+ * {@link #submitLatest(String, Query)} keeps one request per channel: submitting a new
+ * one cancels the previous, whose result is then dropped. Cancellation never interrupts
+ * the worker, because interrupting H2 during file I/O closes the database; a superseded
+ * query simply runs to completion and is discarded, or is skipped if it has not started.
+ */
+public class AsyncDatabaseHelper {
+
+	// A unit of database work run on a worker thread.
+	@FunctionalInterface
+	public interface Query<T> {
+		T run(DatabaseHelper db) throws SQLException;
+	}
+
+	// A write with no result, e.g. db -> db.deleteAnswer(id).
+	@FunctionalInterface
+	public interface Update {
+		void run(DatabaseHelper db) throws SQLException;
+	}
+
+	private final DatabaseHelper db;
+	private final ExecutorService workers;
+	private final Executor callbackExecutor;
+	private final Map<String, CompletableFuture<?>> latestByChannel = new ConcurrentHashMap<>();
+
+	// Instrumentation counters
+	private final AtomicLong submittedCount = new AtomicLong();
+	private final AtomicLong completedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong cancelledCount = new AtomicLong();
+	private final AtomicLong skippedCount = new AtomicLong();
+
+	// workerCount threads, normally the size of the connection pool, so workers never
+	// wait on each other for a connection.
+	public AsyncDatabaseHelper(DatabaseHelper db, int workerCount) {
+		this(db, workerPool(workerCount), Platform::runLater);
+	}
+
+	// Lets tests run callbacks without a JavaFX toolkit.
+	public AsyncDatabaseHelper(DatabaseHelper db, ExecutorService workers, Executor callbackExecutor) {
+		this.db = db;
+		this.workers = workers;
+		this.callbackExecutor = callbackExecutor;
+	}
+
+	// Runs the query on a worker thread and completes the returned future on the FX thread.
+	public <T> CompletableFuture<T> submit(Query<T> query) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		submittedCount.incrementAndGet();
+		workers.execute(() -> {
+			if (result.isCancelled()) {
+				skippedCount.incrementAndGet();
+				return;
+			}
+			try {
+				T value = query.run(db);
+				callbackExecutor.execute(() -> {
+					if (result.complete(value)) {
+						completedCount.incrementAndGet();
+					}
+				});
+			} catch (SQLException | RuntimeException e) {
+				failedCount.incrementAndGet();
+				callbackExecutor.execute(() -> result.completeExceptionally(e));
+			}
+		});
+		return result;
+	}
+
+	// Runs a write on a worker thread; the returned future completes on the FX thread.
+	public CompletableFuture<Void> execute(Update update) {
+		return submit(db -> {
+			update.run(db);
+			return null;
+		});
+	}
+
+	// Like submit, but cancels the channel's previous request if it is still pending.
+	// Must be called from one thread per channel (normally the FX thread).
+	public <T> CompletableFuture<T> submitLatest(String channel, Query<T> query) {
+		cancel(channel);
+		CompletableFuture<T> result = submit(query);
+		latestByChannel.put(channel, result);
+		result.whenComplete((value, error) -> latestByChannel.remove(channel, result));
+		return result;
+	}
+
+	// Cancels the channel's pending request, if any.
+	public void cancel(String channel) {
+		CompletableFuture<?> previous = latestByChannel.remove(channel);
+		if (previous != null && previous.cancel(false)) {
+			cancelledCount.incrementAndGet();
+		}
+	}
+
+	// True if the exception only means the request was superseded.
+	public static boolean isCancellation(Throwable error) {
+		return error instanceof CancellationException;
+	}
+
+	private static ExecutorService workerPool(int workerCount) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newFixedThreadPool(workerCount, r -> {
+			Thread t = new Thread(r, "db-async-" + threadNumber.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	public void shutdown() {
+		latestByChannel.keySet().forEach(this::cancel);
+		workers.shutdown();
+	}
+
+	public long getSubmittedCount() { return submittedCount.get(); }
+	public long getCompletedCount() { return completedCount.get(); }
+	public long getFailedCount() { return failedCount.get(); }
+	public long getCancelledCount() { return cancelledCount.get(); }
+	// Cancelled requests that were dropped before they reached the database
+	public long getSkippedCount() { return skippedCount.get(); }
+}
@@ -0,0 +1,238 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import application.BoardQuery;
+import application.Question;
+
+/**
+ * A bounded, thread-safe cache of the ordered question ids matching a {@link BoardQuery}.
+ *
+ * {@link DatabaseHelper#getPublicQuestionPage} pages through a cached list and reads only
+ * the rows of the page, so flipping between filter combinations the user already visited
+ * costs one primary-key lookup instead of re-running the filters. Entries are keyed by the
+ * normalized query, expire after a time to live (covering writes made outside the helper,
+ * such as the stats reconciler's), and the least recently used one is evicted when the
+ * cache is full. Queries matching more than {@code maxIds} questions are remembered as
+ * too large and go to the database directly.
+ *
+ * {@link #apply(DomainEvent)} drops exactly the entries a committed write can change: a
+ * new question only affects queries whose author, tag and status filters it passes, an
+ * answer only affects answered/unanswered and resolved/unresolved filters, and edits of
+ * answers and comments affect none.
+ */
+public class BoardQueryCache {
+
+	// Produces the ids matching a query in board order, at most limit of them.
+	@FunctionalInterface
+	public interface Loader {
+		List<String> load(BoardQuery query, int limit) throws SQLException;
+	}
+
+	// The cached result of one query.
+	public static final class Ids {
+		private final List<String> ids;
+		private final Map<String, Integer> positions = new HashMap<>();
+		// More than maxIds matched; nothing is kept and the database is queried directly
+		private final boolean tooLarge;
+		private final long loadedAtNanos;
+
+		private Ids(List<String> ids, boolean tooLarge, long loadedAtNanos) {
+			this.ids = Collections.unmodifiableList(ids);
+			this.tooLarge = tooLarge;
+			this.loadedAtNanos = loadedAtNanos;
+			for (int i = 0; i < ids.size(); i++) {
+				positions.put(ids.get(i), i);
+			}
+		}
+
+		public List<String> getIds() {
+			return ids;
+		}
+
+		// Index of the first id after questionId, or -1 if it is not listed.
+		public int positionAfter(String questionId) {
+			Integer position = positions.get(questionId);
+			return position == null ? -1 : position + 1;
+		}
+
+		boolean contains(String questionId) {
+			return positions.containsKey(questionId);
+		}
+	}
+
+	private final int capacity;
+	private final long ttlNanos;
+	private final int maxIds;
+	private final LinkedHashMap<BoardQuery, Ids> entries;
+	// Bumped by every write that can change a board, so a load that raced with it is not cached.
+	private long generation = 0;
+
+	// Instrumentation counters, guarded by this
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+	private long expirations = 0;
+	private long invalidations = 0;
+
+	public BoardQueryCache(int capacity, long ttlMillis, int maxIds) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Board query cache capacity must be at least 1");
+		}
+		this.capacity = capacity;
+		this.ttlNanos = ttlMillis * 1_000_000L;
+		this.maxIds = maxIds;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<BoardQuery, Ids> eldest) {
+				if (size() > BoardQueryCache.this.capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// Returns the cached ids of the query or loads them, or null if the query matches too
+	// many questions to cache. The loader runs outside the lock.
+	public Ids get(BoardQuery query, Loader loader) throws SQLException {
+		long loadGeneration;
+		synchronized (this) {
+			Ids cached = entries.get(query);
+			if (cached != null && System.nanoTime() - cached.loadedAtNanos > ttlNanos) {
+				entries.remove(query);
+				expirations++;
+				cached = null;
+			}
+			if (cached != null) {
+				hits++;
+				return cached.tooLarge ? null : cached;
+			}
+			misses++;
+			loadGeneration = generation;
+		}
+		List<String> loaded = loader.load(query, maxIds + 1);
+		boolean tooLarge = loaded.size() > maxIds;
+		Ids ids = new Ids(tooLarge ? List.of() : loaded, tooLarge, System.nanoTime());
+		synchronized (this) {
+			if (loadGeneration == generation) {
+				entries.put(query, ids);
+			}
+		}
+		return tooLarge ? null : ids;
+	}
+
+	// Drops the entries a committed write can change.
+	public synchronized void apply(DomainEvent event) {
+		if (!changesBoards(event)) {
+			return;
+		}
+		generation++;
+		for (Iterator<Map.Entry<BoardQuery, Ids>> it = entries.entrySet().iterator(); it.hasNext(); ) {
+			Map.Entry<BoardQuery, Ids> entry = it.next();
+			if (!entry.getValue().tooLarge && affects(entry.getKey(), entry.getValue(), event)) {
+				it.remove();
+				invalidations++;
+			}
+		}
+	}
+
+	public synchronized void invalidateAll() {
+		generation++;
+		invalidations += entries.size();
+		entries.clear();
+	}
+
+	private static boolean changesBoards(DomainEvent event) {
+		return !(event instanceof DomainEvent.AnswerUpdated
+				|| event instanceof DomainEvent.CommentAdded
+				|| event instanceof DomainEvent.CommentUpdated
+				|| event instanceof DomainEvent.CommentDeleted);
+	}
+
+	private static boolean affects(BoardQuery query, Ids ids, DomainEvent event) {
+		BoardQuery.StatusFilter status = query.getStatus();
+		// New questions are unanswered and unresolved
+		if (event instanceof DomainEvent.QuestionCreated created) {
+			return !created.question().isPrivate()
+					&& status != BoardQuery.StatusFilter.ANSWERED && status != BoardQuery.StatusFilter.RESOLVED
+					&& couldMatch(query, created.question());
+		}
+		// The old tag and privacy are unknown; it may leave a list it was on or join another
+		if (event instanceof DomainEvent.QuestionUpdated updated) {
+			return ids.contains(updated.questionId())
+					|| (!updated.question().isPrivate() && couldMatch(query, updated.question()));
+		}
+		if (event instanceof DomainEvent.QuestionDeleted deleted) {
+			return ids.contains(deleted.questionId());
+		}
+		if (event instanceof DomainEvent.UserDeleted deleted) {
+			return deleted.userName().equals(query.getAuthorUserName())
+					|| deleted.questionIds().stream().anyMatch(ids::contains);
+		}
+		if (event instanceof DomainEvent.AnswerAdded added) {
+			boolean listed = ids.contains(added.questionId());
+			return (status == BoardQuery.StatusFilter.ANSWERED && !listed)
+					|| (status == BoardQuery.StatusFilter.UNANSWERED && listed);
+		}
+		// The question may have lost its last or its accepted answer
+		if (event instanceof DomainEvent.AnswerDeleted deleted) {
+			boolean listed = ids.contains(deleted.questionId());
+			return switch (status) {
+				case ANSWERED, RESOLVED -> listed;
+				case UNANSWERED, UNRESOLVED -> !listed;
+				case ALL -> false;
+			};
+		}
+		// Unmarking one answer may leave the question resolved by another, so both ways are checked
+		if (event instanceof DomainEvent.AnswerResolved resolved) {
+			boolean listed = ids.contains(resolved.questionId());
+			return switch (status) {
+				case RESOLVED -> resolved.resolvesQuestion() ? !listed : listed;
+				case UNRESOLVED -> resolved.resolvesQuestion() ? listed : !listed;
+				default -> false;
+			};
+		}
+		return false;
+	}
+
+	// Whether the question passes the author and tag filters. Search text is left to the
+	// index, so a query with text is dropped whenever its other filters pass.
+	private static boolean couldMatch(BoardQuery query, Question question) {
+		if (query.getAuthorUserName() != null && !query.getAuthorUserName().equals(question.getAuthor().getUserName())) {
+			return false;
+		}
+		return query.getTag() == null || query.getTag() == question.getTag();
+	}
+
+	synchronized boolean contains(BoardQuery query) {
+		return entries.containsKey(query);
+	}
+
+	public int getCapacity() { return capacity; }
+	public int getMaxIds() { return maxIds; }
+	public synchronized int size() { return entries.size(); }
+	public synchronized long getHits() { return hits; }
+	public synchronized long getMisses() { return misses; }
+	public synchronized long getEvictions() { return evictions; }
+	public synchronized long getExpirations() { return expirations; }
+	// Entries dropped because a write changed (or may have changed) their result
+	public synchronized long getInvalidations() { return invalidations; }
+
+	public synchronized double getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	public synchronized String describe() {
+		return String.format("boardQueries[size=%d, capacity=%d, hits=%d, misses=%d, evictions=%d, expirations=%d, invalidations=%d, hitRatio=%.3f]",
+				entries.size(), capacity, hits, misses, evictions, expirations, invalidations, getHitRatio());
+	}
+}
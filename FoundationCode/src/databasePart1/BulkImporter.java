@@ -0,0 +1,824 @@
+package databasePart1;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * Batched bulk import of users, questions, answers, comments and viewed markers, e.g. a
+ * semester of data migrated from another course forum.
+ *
+ * Input is streamed one record at a time, either as JSON lines (one flat object per line
+ * with a {@code type} field), as CSV with a header row (one record type per file), or in
+ * the binary format of {@link ForumExporter}. Rows are written with JDBC batches of
+ * {@code batchSize} on a single connection and committed every {@code commitInterval}
+ * rows, instead of one auto-committed INSERT per row.
+ *
+ * Every record is checked before it is batched: required fields, column lengths, ids,
+ * enum values and timestamps, and that the rows it references exist, either earlier in
+ * the same input or already in the database. A record that fails is skipped and reported
+ * with its line number. Reference checks use the ids of the current batch plus bounded
+ * LRU caches, falling back to a primary key lookup, so memory stays constant however
+ * large the input. Comments get their materialized paths here (see {@link CommentPaths}),
+ * numbered in input order under their parent.
+ *
+ * Rows are written around the per-row {@link DatabaseHelper} methods, so no events are
+ * published; {@link DatabaseHelper#rebuildDerivedState()} runs once at the end instead,
+ * also when an import fails after some of its rows were committed.
+ * Run imports while nothing else writes to the forum. Not thread safe.
+ */
+public class BulkImporter {
+
+	static final int DEFAULT_BATCH_SIZE = 1_000;
+	static final int DEFAULT_COMMIT_INTERVAL = 10_000;
+	// Known ids per record type, comment paths and last reply ordinals kept for reference checks
+	static final int ID_CACHE_SIZE = 50_000;
+	// Rejected records beyond this are counted but not described
+	static final int MAX_REPORTED_REJECTIONS = 100;
+
+	/** The kinds of record, in the order their batches are written. */
+	public enum RecordType {
+		USER("user", "INSERT INTO cse360users (userName, password, name, email, roles) VALUES (?, ?, ?, ?, ?)",
+				"SELECT 1 FROM cse360users WHERE userName = ?"),
+		QUESTION("question", "INSERT INTO questions (id, title, body, authorUserName, status, creationTimestamp, tag, "
+				+ "isPrivate, isAnonymous, viewCount, lastActivityTimestamp) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+				"SELECT 1 FROM questions WHERE id = ?"),
+		ANSWER("answer", "INSERT INTO answers (id, body, authorUserName, questionId, creationTimestamp, resolvesQuestion) "
+				+ "VALUES (?, ?, ?, ?, ?, ?)",
+				"SELECT 1 FROM answers WHERE id = ?"),
+		COMMENT("comment", "INSERT INTO comments (id, body, authorUserName, answerId, parentCommentId, creationTimestamp, path) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)",
+				"SELECT 1 FROM comments WHERE id = ?"),
+		VIEWED("viewed", "MERGE INTO viewed_answers (user_id, question_id, last_viewed) KEY (user_id, question_id) VALUES (?, ?, ?)",
+				null);
+
+		private final String label;
+		private final String insertSql;
+		private final String lookupSql;
+
+		RecordType(String label, String insertSql, String lookupSql) {
+			this.label = label;
+			this.insertSql = insertSql;
+			this.lookupSql = lookupSql;
+		}
+
+		// The value of the type field in JSON lines
+		public String label() {
+			return label;
+		}
+
+		static RecordType fromLabel(String label) {
+			for (RecordType type : values()) {
+				if (type.label.equalsIgnoreCase(label)) {
+					return type;
+				}
+			}
+			throw new IllegalArgumentException("Unknown record type: " + label);
+		}
+	}
+
+	/** A record that was skipped, with the input line it started on. */
+	public record Rejection(long line, String reason) {}
+
+	/** Outcome of one import: rows written per type, rejected records, and timings. */
+	public record ImportReport(Map<RecordType, Long> imported, long rejected, List<Rejection> rejections,
+	                           long loadMillis, long rebuildMillis) {
+
+		public long importedCount(RecordType type) {
+			return imported.getOrDefault(type, 0L);
+		}
+
+		public long importedTotal() {
+			return imported.values().stream().mapToLong(Long::longValue).sum();
+		}
+
+		// Rows written per second while loading, not counting the rebuild at the end
+		public double rowsPerSecond() {
+			return loadMillis == 0 ? importedTotal() : importedTotal() * 1000.0 / loadMillis;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("imported %d rows %s, rejected %d, %.0f rows/s (load %d ms, rebuild %d ms)",
+					importedTotal(), imported, rejected, rowsPerSecond(), loadMillis, rebuildMillis);
+		}
+	}
+
+	private final DatabaseHelper db;
+	private final int batchSize;
+	private final int commitInterval;
+
+	public BulkImporter(DatabaseHelper db) {
+		this(db, DEFAULT_BATCH_SIZE, DEFAULT_COMMIT_INTERVAL);
+	}
+
+	// batchSize rows go to the database per JDBC batch; commitInterval rows per commit
+	public BulkImporter(DatabaseHelper db, int batchSize, int commitInterval) {
+		if (batchSize < 1 || commitInterval < 1) {
+			throw new IllegalArgumentException("Batch size and commit interval must be positive");
+		}
+		this.db = db;
+		this.batchSize = batchSize;
+		this.commitInterval = commitInterval;
+	}
+
+	// Imports JSON lines, e.g. {"type":"question","id":"...","title":"...","author":"alice"}.
+	// Field names match the CSV headers of each type.
+	public ImportReport importJsonLines(Reader in) throws IOException, SQLException {
+		BufferedReader reader = buffered(in);
+		long[] line = {0};
+		return run(new RecordReader() {
+			@Override
+			public Map<String, String> next() throws IOException {
+				String text;
+				do {
+					text = reader.readLine();
+					if (text == null) {
+						return null;
+					}
+					line[0]++;
+				} while (text.isBlank());
+				return parseJsonObject(text);
+			}
+
+			@Override
+			public long line() {
+				return line[0];
+			}
+		}, fields -> RecordType.fromLabel(fields.getOrDefault("type", "")));
+	}
+
+	// Imports CSV records of one type. The header row names the fields; quoted fields may
+	// contain commas, doubled quotes and line breaks.
+	//   user:     userName, password, name, email, roles ("1,3" as stored)
+	//   question: id, title, body, author, tag, isPrivate, isAnonymous, status, createdAt, viewCount
+	//   answer:   id, questionId, author, body, createdAt, resolvesQuestion
+	//   comment:  id, answerId, parentCommentId, author, body, createdAt
+	//   viewed:   userName, questionId, lastViewed
+	// Timestamps are ISO-8601 instants; a missing one means now.
+	public ImportReport importCsv(Reader in, RecordType type) throws IOException, SQLException {
+		CsvReader csv = new CsvReader(buffered(in));
+		List<String> header = csv.readRecord();
+		return run(new CsvRecords(csv, header == null ? List.of() : header), fields -> type);
+	}
+
+	// Imports the binary format of ForumExporter, already decompressed. Rejections give the
+	// record number instead of a line.
+	public ImportReport importBinary(InputStream in) throws IOException, SQLException {
+		ForumExporter.BinaryRecords records = new ForumExporter.BinaryRecords(
+				in instanceof BufferedInputStream b ? b : new BufferedInputStream(in));
+		return run(new RecordReader() {
+			@Override
+			public Map<String, String> next() throws IOException {
+				return records.next();
+			}
+
+			@Override
+			public long line() {
+				return records.record();
+			}
+		}, fields -> RecordType.fromLabel(fields.get("type")));
+	}
+
+	private static BufferedReader buffered(Reader in) {
+		return in instanceof BufferedReader b ? b : new BufferedReader(in);
+	}
+
+	private ImportReport run(RecordReader reader, Function<Map<String, String>, RecordType> typeOf)
+			throws IOException, SQLException {
+		long start = System.nanoTime();
+		Session session = null;
+		try (Connection conn = db.getConnection()) {
+			session = new Session(conn);
+			conn.setAutoCommit(false);
+			try {
+				while (true) {
+					Map<String, String> fields;
+					try {
+						fields = reader.next();
+						if (fields == null) {
+							break;
+						}
+						session.add(typeOf.apply(fields), fields);
+					} catch (IllegalArgumentException e) {
+						session.reject(reader.line(), e.getMessage());
+					}
+				}
+				session.commit();
+			} catch (SQLException | IOException | RuntimeException e) {
+				conn.rollback();
+				if (e instanceof SQLException) {
+					throw new SQLException("Import failed near line " + reader.line() + " after "
+							+ session.committed + " committed rows: " + e.getMessage(), e);
+				}
+				throw e;
+			} finally {
+				session.close();
+				conn.setAutoCommit(true);
+			}
+		} catch (SQLException | IOException | RuntimeException e) {
+			// Chunks committed before the failure stay, so the indexes and caches must still see them
+			if (session != null && session.committed > 0) {
+				try {
+					db.rebuildDerivedState();
+				} catch (SQLException | RuntimeException rebuildError) {
+					e.addSuppressed(rebuildError);
+				}
+			}
+			throw e;
+		}
+		long loaded = System.nanoTime();
+		if (session.total() > 0) {
+			db.rebuildDerivedState();
+		}
+		long rebuilt = System.nanoTime();
+		return new ImportReport(Collections.unmodifiableMap(session.imported), session.rejected,
+				List.copyOf(session.rejections), (loaded - start) / 1_000_000, (rebuilt - loaded) / 1_000_000);
+	}
+
+	// Source of raw records; next() throws IllegalArgumentException for a malformed one,
+	// which is then skipped.
+	private interface RecordReader {
+		Map<String, String> next() throws IOException;
+		long line();
+	}
+
+	// The answer and path of a comment that exists or is batched.
+	private record CommentRef(String answerId, String path) {}
+
+	// State of one import on its connection.
+	private final class Session {
+		private final Connection conn;
+		private final Map<RecordType, PreparedStatement> inserts = new EnumMap<>(RecordType.class);
+		// Keys batched since the last flush, which a lookup cannot see yet
+		private final Map<RecordType, Set<String>> pending = new EnumMap<>(RecordType.class);
+		private final Map<RecordType, Map<String, Boolean>> known = new EnumMap<>(RecordType.class);
+		private final Map<String, CommentRef> comments = lru(ID_CACHE_SIZE);
+		// answerId + "/" + parent path -> ordinal of its last reply, -1 for none
+		private final Map<String, Integer> lastChild = lru(ID_CACHE_SIZE);
+		private int batched = 0;
+		private int uncommitted = 0;
+
+		final Map<RecordType, Long> imported = new EnumMap<>(RecordType.class);
+		final List<Rejection> rejections = new ArrayList<>();
+		long rejected = 0;
+		long committed = 0;
+
+		Session(Connection conn) throws SQLException {
+			this.conn = conn;
+			for (RecordType type : RecordType.values()) {
+				inserts.put(type, conn.prepareStatement(type.insertSql));
+				pending.put(type, new HashSet<>());
+				known.put(type, lru(ID_CACHE_SIZE));
+			}
+		}
+
+		void close() throws SQLException {
+			for (PreparedStatement pstmt : inserts.values()) {
+				pstmt.close();
+			}
+		}
+
+		long total() {
+			return imported.values().stream().mapToLong(Long::longValue).sum();
+		}
+
+		void reject(long line, String reason) {
+			rejected++;
+			if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+				rejections.add(new Rejection(line, reason));
+			}
+		}
+
+		// Validates a record and adds it to its batch; IllegalArgumentException rejects it.
+		void add(RecordType type, Map<String, String> f) throws SQLException {
+			PreparedStatement pstmt = inserts.get(type);
+			String key;
+			switch (type) {
+				case USER -> {
+					key = required(f, "userName", 255);
+					requireNew(type, key);
+					String roles = f.getOrDefault("roles", "").isBlank()
+							? String.valueOf(Role.STUDENT.toInt()) : required(f, "roles", 20);
+					User.rolesFromString(roles); // rejects unknown role codes
+					pstmt.setString(1, key);
+					pstmt.setString(2, optional(f, "password", 255, ""));
+					pstmt.setString(3, optional(f, "name", 255, ""));
+					pstmt.setString(4, optional(f, "email", 255, ""));
+					pstmt.setString(5, roles);
+				}
+				case QUESTION -> {
+					key = uuid(f, "id");
+					requireNew(type, key);
+					Timestamp created = timestamp(f, "createdAt");
+					pstmt.setString(1, key);
+					pstmt.setString(2, required(f, "title", 255));
+					pstmt.setString(3, optional(f, "body", Integer.MAX_VALUE, ""));
+					pstmt.setString(4, reference(RecordType.USER, f, "author"));
+					pstmt.setString(5, enumValue(QuestionStatus.class, f, "status", QuestionStatus.OPEN).name());
+					pstmt.setTimestamp(6, created);
+					pstmt.setString(7, enumValue(Tags.class, f, "tag", Tags.GENERAL).name());
+					pstmt.setBoolean(8, bool(f, "isPrivate"));
+					pstmt.setBoolean(9, bool(f, "isAnonymous"));
+					pstmt.setInt(10, count(f, "viewCount"));
+					pstmt.setTimestamp(11, created);
+				}
+				case ANSWER -> {
+					key = uuid(f, "id");
+					requireNew(type, key);
+					pstmt.setString(1, key);
+					pstmt.setString(2, optional(f, "body", Integer.MAX_VALUE, ""));
+					pstmt.setString(3, reference(RecordType.USER, f, "author"));
+					pstmt.setString(4, reference(RecordType.QUESTION, f, "questionId"));
+					pstmt.setTimestamp(5, timestamp(f, "createdAt"));
+					pstmt.setBoolean(6, bool(f, "resolvesQuestion"));
+					lastChild.put(key + "/", -1);
+				}
+				case COMMENT -> {
+					key = uuid(f, "id");
+					requireNew(type, key);
+					String answerId = reference(RecordType.ANSWER, f, "answerId");
+					String parentId = f.getOrDefault("parentCommentId", "").isBlank() ? null : uuid(f, "parentCommentId");
+					String author = reference(RecordType.USER, f, "author");
+					String body = optional(f, "body", Integer.MAX_VALUE, "");
+					Timestamp created = timestamp(f, "createdAt");
+					// Last, since it may flush the batches and claims the sibling ordinal
+					String path = nextPath(answerId, parentId);
+					pstmt.setString(1, key);
+					pstmt.setString(2, body);
+					pstmt.setString(3, author);
+					pstmt.setString(4, answerId);
+					pstmt.setString(5, parentId);
+					pstmt.setTimestamp(6, created);
+					pstmt.setString(7, path);
+					comments.put(key, new CommentRef(answerId, path));
+					lastChild.put(answerId + "/" + path, -1);
+				}
+				case VIEWED -> {
+					String userName = reference(RecordType.USER, f, "userName");
+					String questionId = reference(RecordType.QUESTION, f, "questionId");
+					key = userName + "/" + questionId;
+					pstmt.setString(1, userName);
+					pstmt.setString(2, questionId);
+					pstmt.setTimestamp(3, timestamp(f, "lastViewed"));
+				}
+				default -> throw new IllegalStateException("Unhandled record type " + type);
+			}
+			pstmt.addBatch();
+			pending.get(type).add(key);
+			imported.merge(type, 1L, Long::sum);
+			if (++batched >= batchSize) {
+				flush();
+			}
+			if (++uncommitted >= commitInterval) {
+				commit();
+			}
+		}
+
+		void commit() throws SQLException {
+			flush();
+			conn.commit();
+			committed += uncommitted;
+			uncommitted = 0;
+		}
+
+		// Executes every batch, parents before children, and remembers the keys as known.
+		void flush() throws SQLException {
+			for (RecordType type : RecordType.values()) {
+				inserts.get(type).executeBatch();
+				Map<String, Boolean> knownKeys = known.get(type);
+				for (String key : pending.get(type)) {
+					knownKeys.put(key, Boolean.TRUE);
+				}
+				pending.get(type).clear();
+			}
+			batched = 0;
+		}
+
+		private void requireNew(RecordType type, String key) throws SQLException {
+			if (exists(type, key)) {
+				throw new IllegalArgumentException("Duplicate " + type.label() + " " + key);
+			}
+		}
+
+		// The referenced key, which must exist in the input so far or the database.
+		private String reference(RecordType type, Map<String, String> f, String field) throws SQLException {
+			String key = type == RecordType.USER ? required(f, field, 255) : uuid(f, field);
+			if (!exists(type, key)) {
+				throw new IllegalArgumentException(field + " refers to unknown " + type.label() + " " + key);
+			}
+			return key;
+		}
+
+		private boolean exists(RecordType type, String key) throws SQLException {
+			if (pending.get(type).contains(key) || known.get(type).get(key) != null) {
+				return true;
+			}
+			try (PreparedStatement pstmt = conn.prepareStatement(type.lookupSql)) {
+				pstmt.setString(1, key);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) {
+						return false;
+					}
+				}
+			}
+			known.get(type).put(key, Boolean.TRUE);
+			return true;
+		}
+
+		// The path of a new comment: after the last reply already under its parent.
+		private String nextPath(String answerId, String parentId) throws SQLException {
+			String parentPath = "";
+			if (parentId != null) {
+				CommentRef parent = comment(parentId);
+				if (parent == null) {
+					throw new IllegalArgumentException("parentCommentId refers to unknown comment " + parentId);
+				}
+				if (!parent.answerId().equals(answerId)) {
+					throw new IllegalArgumentException("Parent comment " + parentId + " belongs to another answer");
+				}
+				if (CommentPaths.depth(parent.path()) >= CommentPaths.MAX_DEPTH) {
+					throw new IllegalArgumentException("Comment thread is nested deeper than " + CommentPaths.MAX_DEPTH + " levels");
+				}
+				parentPath = parent.path();
+			}
+			String parentKey = answerId + "/" + parentPath;
+			Integer last = lastChild.get(parentKey);
+			if (last == null) {
+				// Replies still batched are not visible to the query yet
+				flush();
+				last = CommentPaths.lastChildOrdinal(conn, answerId, parentPath);
+			}
+			if (last + 1 >= CommentPaths.MAX_SIBLINGS) {
+				throw new IllegalArgumentException("Too many replies under one parent in answer " + answerId);
+			}
+			String path = CommentPaths.child(parentPath, last + 1);
+			lastChild.put(parentKey, last + 1);
+			return path;
+		}
+
+		private CommentRef comment(String commentId) throws SQLException {
+			CommentRef cached = comments.get(commentId);
+			if (cached != null) {
+				return cached;
+			}
+			if (pending.get(RecordType.COMMENT).contains(commentId)) {
+				flush();
+			}
+			try (PreparedStatement pstmt = conn.prepareStatement("SELECT answerId, path FROM comments WHERE id = ?")) {
+				pstmt.setString(1, commentId);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) {
+						return null;
+					}
+					CommentRef ref = new CommentRef(rs.getString(1), rs.getString(2));
+					comments.put(commentId, ref);
+					return ref;
+				}
+			}
+		}
+	}
+
+	// Field parsing; each failure rejects the record.
+
+	private static String required(Map<String, String> f, String field, int maxLength) {
+		String value = f.get(field);
+		if (value == null || value.isBlank()) {
+			throw new IllegalArgumentException("Missing " + field);
+		}
+		return checkLength(field, value, maxLength);
+	}
+
+	private static String optional(Map<String, String> f, String field, int maxLength, String fallback) {
+		String value = f.get(field);
+		return value == null ? fallback : checkLength(field, value, maxLength);
+	}
+
+	private static String checkLength(String field, String value, int maxLength) {
+		if (value.length() > maxLength) {
+			throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+		}
+		return value;
+	}
+
+	// Ids are UUIDs, as the application parses them when reading rows back.
+	private static String uuid(Map<String, String> f, String field) {
+		String value = required(f, field, 36);
+		try {
+			return UUID.fromString(value).toString();
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(field + " is not a UUID: " + value);
+		}
+	}
+
+	private static boolean bool(Map<String, String> f, String field) {
+		String value = f.getOrDefault(field, "").trim();
+		if (value.isEmpty() || value.equalsIgnoreCase("false")) {
+			return false;
+		}
+		if (value.equalsIgnoreCase("true")) {
+			return true;
+		}
+		throw new IllegalArgumentException(field + " is not true or false: " + value);
+	}
+
+	private static int count(Map<String, String> f, String field) {
+		String value = f.getOrDefault(field, "").trim();
+		if (value.isEmpty()) {
+			return 0;
+		}
+		int n = Integer.parseInt(value); // NumberFormatException is an IllegalArgumentException
+		if (n < 0) {
+			throw new IllegalArgumentException(field + " is negative: " + value);
+		}
+		return n;
+	}
+
+	private static Timestamp timestamp(Map<String, String> f, String field) {
+		String value = f.getOrDefault(field, "").trim();
+		if (value.isEmpty()) {
+			return Timestamp.from(Instant.now());
+		}
+		try {
+			return Timestamp.from(Instant.parse(value));
+		} catch (DateTimeParseException e) {
+			throw new IllegalArgumentException(field + " is not an ISO-8601 instant: " + value);
+		}
+	}
+
+	// Enum constants by name, ignoring case, with spaces for underscores ("Team Project").
+	private static <E extends Enum<E>> E enumValue(Class<E> type, Map<String, String> f, String field, E fallback) {
+		String value = f.getOrDefault(field, "").trim();
+		if (value.isEmpty()) {
+			return fallback;
+		}
+		try {
+			return Enum.valueOf(type, value.toUpperCase().replace(' ', '_'));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException(field + " is not a known " + type.getSimpleName() + ": " + value);
+		}
+	}
+
+	private static <K, V> Map<K, V> lru(int capacity) {
+		return new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	// Parses one flat JSON object; values are strings, numbers, booleans or null (omitted).
+	static Map<String, String> parseJsonObject(String text) {
+		JsonCursor c = new JsonCursor(text);
+		Map<String, String> fields = new HashMap<>();
+		c.expect('{');
+		if (!c.consume('}')) {
+			do {
+				String name = c.string();
+				c.expect(':');
+				String value = c.scalar();
+				if (value != null) {
+					fields.put(name, value);
+				}
+			} while (c.consume(','));
+			c.expect('}');
+		}
+		c.end();
+		return fields;
+	}
+
+	private static final class JsonCursor {
+		private final String text;
+		private int pos = 0;
+
+		JsonCursor(String text) {
+			this.text = text;
+		}
+
+		private void skipSpace() {
+			while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+				pos++;
+			}
+		}
+
+		boolean consume(char ch) {
+			skipSpace();
+			if (pos < text.length() && text.charAt(pos) == ch) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		void expect(char ch) {
+			if (!consume(ch)) {
+				throw error("expected '" + ch + "'");
+			}
+		}
+
+		void end() {
+			skipSpace();
+			if (pos != text.length()) {
+				throw error("unexpected text after the object");
+			}
+		}
+
+		// A string, number or boolean as text; null for a JSON null.
+		String scalar() {
+			skipSpace();
+			if (pos >= text.length()) {
+				throw error("missing value");
+			}
+			char ch = text.charAt(pos);
+			if (ch == '"') {
+				return string();
+			}
+			if (ch == '{' || ch == '[') {
+				throw error("nested values are not supported");
+			}
+			int start = pos;
+			while (pos < text.length() && ",}".indexOf(text.charAt(pos)) < 0 && !Character.isWhitespace(text.charAt(pos))) {
+				pos++;
+			}
+			String literal = text.substring(start, pos);
+			if (literal.equals("null")) {
+				return null;
+			}
+			if (literal.equals("true") || literal.equals("false") || literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) {
+				return literal;
+			}
+			throw error("invalid value " + literal);
+		}
+
+		String string() {
+			skipSpace();
+			if (pos >= text.length() || text.charAt(pos) != '"') {
+				throw error("expected a string");
+			}
+			pos++;
+			StringBuilder sb = new StringBuilder();
+			while (pos < text.length()) {
+				char ch = text.charAt(pos++);
+				if (ch == '"') {
+					return sb.toString();
+				}
+				if (ch != '\\') {
+					sb.append(ch);
+					continue;
+				}
+				if (pos >= text.length()) {
+					break;
+				}
+				char escaped = text.charAt(pos++);
+				switch (escaped) {
+					case '"', '\\', '/' -> sb.append(escaped);
+					case 'b' -> sb.append('\b');
+					case 'f' -> sb.append('\f');
+					case 'n' -> sb.append('\n');
+					case 'r' -> sb.append('\r');
+					case 't' -> sb.append('\t');
+					case 'u' -> {
+						if (pos + 4 > text.length()) {
+							throw error("truncated \\u escape");
+						}
+						sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+						pos += 4;
+					}
+					default -> throw error("invalid escape \\" + escaped);
+				}
+			}
+			throw error("unterminated string");
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException("Malformed JSON at column " + (pos + 1) + ": " + message);
+		}
+	}
+
+	// Header-mapped records of a CSV file.
+	private static final class CsvRecords implements RecordReader {
+		private final CsvReader csv;
+		private final List<String> header;
+
+		CsvRecords(CsvReader csv, List<String> header) {
+			this.csv = csv;
+			this.header = header;
+		}
+
+		@Override
+		public Map<String, String> next() throws IOException {
+			List<String> values = csv.readRecord();
+			if (values == null) {
+				return null;
+			}
+			if (values.size() != header.size()) {
+				throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + values.size());
+			}
+			Map<String, String> fields = new HashMap<>();
+			for (int i = 0; i < values.size(); i++) {
+				fields.put(header.get(i).trim(), values.get(i));
+			}
+			return fields;
+		}
+
+		@Override
+		public long line() {
+			return csv.recordLine;
+		}
+	}
+
+	// Streaming RFC 4180 reader: one record at a time, quoted fields may span lines.
+	private static final class CsvReader {
+		private final BufferedReader in;
+		private long line = 1;
+		long recordLine = 0;
+
+		CsvReader(BufferedReader in) {
+			this.in = in;
+		}
+
+		// The next non-empty record, or null at the end of the input.
+		List<String> readRecord() throws IOException {
+			int ch = in.read();
+			while (ch == '\r' || ch == '\n') {
+				endLine(ch);
+				ch = in.read();
+			}
+			if (ch < 0) {
+				return null;
+			}
+			recordLine = line;
+			List<String> fields = new ArrayList<>();
+			StringBuilder field = new StringBuilder();
+			boolean quoted = false;
+			while (true) {
+				if (quoted) {
+					if (ch < 0) {
+						throw new IllegalArgumentException("Unterminated quoted field");
+					}
+					if (ch == '"') {
+						ch = in.read();
+						if (ch != '"') {
+							quoted = false;
+							continue;
+						}
+					} else if (ch == '\n') {
+						line++;
+					}
+					field.append((char) ch);
+				} else if (ch == '"' && field.length() == 0) {
+					quoted = true;
+				} else if (ch == ',') {
+					fields.add(field.toString());
+					field.setLength(0);
+				} else if (ch < 0 || ch == '\r' || ch == '\n') {
+					fields.add(field.toString());
+					if (ch >= 0) {
+						endLine(ch);
+					}
+					return fields;
+				} else {
+					field.append((char) ch);
+				}
+				ch = in.read();
+			}
+		}
+
+		// Finishes the line break that started with ch, taking the '\n' of a "\r\n".
+		private void endLine(int ch) throws IOException {
+			line++;
+			if (ch == '\r') {
+				in.mark(1);
+				if (in.read() != '\n') {
+					in.reset();
+				}
+			}
+		}
+	}
+}
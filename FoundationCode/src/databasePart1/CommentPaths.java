@@ -0,0 +1,173 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Materialized paths of comments within their answer's thread.
+ *
+ * A comment's path is its parent's path followed by one fixed-width base-36 segment
+ * numbering it among its siblings in creation order, so a top-level comment has one
+ * segment and a reply to it two. Sorting an answer's comments by path lists the thread
+ * depth first with every parent before its replies; the comments below a comment are the
+ * paths it prefixes; and a comment's depth is its path length over
+ * {@value #SEGMENT_LENGTH}. With the (answerId, path) index, reading, counting or deleting
+ * a subtree is one range scan instead of a walk over parentCommentId.
+ *
+ * {@link DatabaseHelper#addComment} assigns the path on insert and the V8 migration
+ * backfills comments written before paths existed.
+ */
+final class CommentPaths {
+
+	static final int SEGMENT_LENGTH = 5;
+	private static final int RADIX = 36;
+	// 36^5 siblings per parent
+	static final int MAX_SIBLINGS = 60_466_176;
+	// Keeps paths within the VARCHAR(4000) column
+	static final int MAX_DEPTH = 800;
+	private static final int BATCH_SIZE = 1_000;
+
+	private CommentPaths() {}
+
+	// The path of the ordinal-th child (from 0) of parentPath; "" is the answer itself.
+	static String child(String parentPath, int ordinal) {
+		if (ordinal < 0 || ordinal >= MAX_SIBLINGS) {
+			throw new IllegalArgumentException("Sibling ordinal out of range: " + ordinal);
+		}
+		String segment = Integer.toString(ordinal, RADIX);
+		return parentPath + "0".repeat(SEGMENT_LENGTH - segment.length()) + segment;
+	}
+
+	// Position of the comment among its siblings, decoded from its last segment.
+	static int ordinal(String path) {
+		return Integer.parseInt(path.substring(path.length() - SEGMENT_LENGTH), RADIX);
+	}
+
+	// 1 for a top-level comment, 2 for a reply to one, and so on.
+	static int depth(String path) {
+		return path.length() / SEGMENT_LENGTH;
+	}
+
+	// Exclusive upper bound of the paths below path: every path it prefixes sorts before it,
+	// since '{' follows the base-36 digits. Queries select a subtree as the range
+	// path >= ? AND path < ? (path > ? for the replies only) rather than with LIKE, which H2
+	// cannot plan as an index range when the pattern is a parameter.
+	static String upperBound(String path) {
+		return path + "{";
+	}
+
+	// Chooses the path of a new comment under parentCommentId, or at the top of the answer
+	// when it is null. The parent row is locked for the rest of the caller's transaction, so
+	// concurrent replies to the same parent take turns and never share a path.
+	static String next(Connection conn, String answerId, String parentCommentId) throws SQLException {
+		String parentPath = "";
+		if (parentCommentId == null) {
+			try (PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM answers WHERE id = ? FOR UPDATE")) {
+				pstmt.setString(1, answerId);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) {
+						throw new SQLException("Answer " + answerId + " does not exist");
+					}
+				}
+			}
+		} else {
+			try (PreparedStatement pstmt = conn.prepareStatement("SELECT path FROM comments WHERE id = ? FOR UPDATE")) {
+				pstmt.setString(1, parentCommentId);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) {
+						throw new SQLException("Parent comment " + parentCommentId + " does not exist");
+					}
+					parentPath = rs.getString(1);
+				}
+			}
+			if (depth(parentPath) >= MAX_DEPTH) {
+				throw new SQLException("Comment thread is nested deeper than " + MAX_DEPTH + " levels");
+			}
+		}
+
+		return child(parentPath, lastChildOrdinal(conn, answerId, parentPath) + 1);
+	}
+
+	// Ordinal of the last reply under parentPath ("" for the answer's top-level comments),
+	// or -1 when it has none.
+	static int lastChildOrdinal(Connection conn, String answerId, String parentPath) throws SQLException {
+		try (PreparedStatement pstmt = conn.prepareStatement(
+				"SELECT MAX(path) FROM comments WHERE answerId = ? AND path > ? AND path < ? AND LENGTH(path) = ?")) {
+			pstmt.setString(1, answerId);
+			pstmt.setString(2, parentPath);
+			pstmt.setString(3, upperBound(parentPath));
+			pstmt.setInt(4, parentPath.length() + SEGMENT_LENGTH);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				rs.next();
+				String lastChild = rs.getString(1);
+				return lastChild == null ? -1 : ordinal(lastChild);
+			}
+		}
+	}
+
+	// Gives every comment its path, numbering siblings by (creationTimestamp, id). Reads the
+	// comments one answer at a time in a single ordered pass, so only one thread is held in
+	// memory. Used by the backfill migration.
+	static void backfill(Connection conn) throws SQLException {
+		try (PreparedStatement select = conn.prepareStatement(
+				"SELECT id, answerId, parentCommentId FROM comments ORDER BY answerId, creationTimestamp, id");
+		     PreparedStatement update = conn.prepareStatement("UPDATE comments SET path = ? WHERE id = ?");
+		     ResultSet rs = select.executeQuery()) {
+			String answerId = null;
+			Map<String, String> parents = new LinkedHashMap<>();
+			int[] pending = {0};
+			while (rs.next()) {
+				if (!rs.getString("answerId").equals(answerId)) {
+					assign(parents, update, pending);
+					parents.clear();
+					answerId = rs.getString("answerId");
+				}
+				parents.put(rs.getString("id"), rs.getString("parentCommentId"));
+			}
+			assign(parents, update, pending);
+			update.executeBatch();
+		}
+	}
+
+	// Numbers one answer's comments, given in creation order as id -> parent id. A comment
+	// whose parent is not in the same answer is treated as top-level.
+	private static void assign(Map<String, String> parents, PreparedStatement update, int[] pending) throws SQLException {
+		Map<String, List<String>> children = new HashMap<>();
+		List<String> roots = new ArrayList<>();
+		parents.forEach((id, parent) -> {
+			if (parent == null || !parents.containsKey(parent)) {
+				roots.add(id);
+			} else {
+				children.computeIfAbsent(parent, k -> new ArrayList<>()).add(id);
+			}
+		});
+
+		Deque<Map.Entry<String, String>> queue = new ArrayDeque<>(); // id, path
+		for (int i = 0; i < roots.size(); i++) {
+			queue.add(Map.entry(roots.get(i), child("", i)));
+		}
+		while (!queue.isEmpty()) {
+			Map.Entry<String, String> next = queue.poll();
+			update.setString(1, next.getValue());
+			update.setString(2, next.getKey());
+			update.addBatch();
+			if (++pending[0] == BATCH_SIZE) {
+				update.executeBatch();
+				pending[0] = 0;
+			}
+			List<String> replies = children.getOrDefault(next.getKey(), List.of());
+			for (int i = 0; i < replies.size(); i++) {
+				queue.add(Map.entry(replies.get(i), child(next.getValue(), i)));
+			}
+		}
+	}
+}
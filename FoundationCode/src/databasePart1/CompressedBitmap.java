@@ -0,0 +1,366 @@
+package databasePart1;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A compressed set of non-negative ints in the style of a Roaring bitmap.
+ *
+ * Values are split by their high 16 bits into chunks of 65536. Each chunk present is a
+ * container of the low 16 bits: a sorted array while it holds at most
+ * {@value #ARRAY_MAX} values, otherwise a 65536-bit bitmap. Sparse chunks then cost two
+ * bytes per value and dense ones at most 8 KB, and intersections work a chunk at a time,
+ * with whole words ANDed when both sides are dense.
+ *
+ * Not thread-safe; {@link QuestionFacetIndex} guards its bitmaps with its own lock.
+ */
+public final class CompressedBitmap {
+
+	// Largest array container; past this a bitmap is smaller
+	static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1024;
+
+	private char[] keys = new char[4];
+	private Container[] containers = new Container[4];
+	private int size;
+
+	// Low 16 bits of the values of one chunk.
+	private abstract static class Container {
+		int cardinality;
+
+		abstract Container add(char value);
+
+		abstract Container remove(char value);
+
+		abstract boolean contains(char value);
+
+		abstract void forEach(int high, IntConsumer action);
+
+		abstract Container copy();
+	}
+
+	private static final class ArrayContainer extends Container {
+		char[] values;
+
+		ArrayContainer(int capacity) {
+			values = new char[Math.max(capacity, 4)];
+		}
+
+		@Override
+		Container add(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				return this;
+			}
+			if (cardinality == ARRAY_MAX) {
+				return toBitmap().add(value);
+			}
+			i = -i - 1;
+			if (cardinality == values.length) {
+				values = Arrays.copyOf(values, Math.min(values.length * 2, ARRAY_MAX));
+			}
+			System.arraycopy(values, i, values, i + 1, cardinality - i);
+			values[i] = value;
+			cardinality++;
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			int i = Arrays.binarySearch(values, 0, cardinality, value);
+			if (i >= 0) {
+				System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+				cardinality--;
+			}
+			return this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+		}
+
+		@Override
+		void forEach(int high, IntConsumer action) {
+			for (int i = 0; i < cardinality; i++) {
+				action.accept(high | values[i]);
+			}
+		}
+
+		@Override
+		Container copy() {
+			ArrayContainer copy = new ArrayContainer(0);
+			copy.values = Arrays.copyOf(values, Math.max(cardinality, 4));
+			copy.cardinality = cardinality;
+			return copy;
+		}
+
+		BitmapContainer toBitmap() {
+			BitmapContainer bitmap = new BitmapContainer();
+			for (int i = 0; i < cardinality; i++) {
+				bitmap.words[values[i] >>> 6] |= 1L << values[i];
+			}
+			bitmap.cardinality = cardinality;
+			return bitmap;
+		}
+	}
+
+	private static final class BitmapContainer extends Container {
+		final long[] words = new long[BITMAP_WORDS];
+
+		@Override
+		Container add(char value) {
+			long before = words[value >>> 6];
+			words[value >>> 6] = before | (1L << value);
+			if (before != words[value >>> 6]) {
+				cardinality++;
+			}
+			return this;
+		}
+
+		@Override
+		Container remove(char value) {
+			long before = words[value >>> 6];
+			words[value >>> 6] = before & ~(1L << value);
+			if (before != words[value >>> 6]) {
+				cardinality--;
+			}
+			return cardinality <= ARRAY_MAX ? toArray() : this;
+		}
+
+		@Override
+		boolean contains(char value) {
+			return (words[value >>> 6] & (1L << value)) != 0;
+		}
+
+		@Override
+		void forEach(int high, IntConsumer action) {
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				long word = words[w];
+				while (word != 0) {
+					action.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+					word &= word - 1;
+				}
+			}
+		}
+
+		@Override
+		Container copy() {
+			BitmapContainer copy = new BitmapContainer();
+			System.arraycopy(words, 0, copy.words, 0, BITMAP_WORDS);
+			copy.cardinality = cardinality;
+			return copy;
+		}
+
+		ArrayContainer toArray() {
+			ArrayContainer array = new ArrayContainer(cardinality);
+			forEach(0, value -> array.values[array.cardinality++] = (char) value);
+			return array;
+		}
+	}
+
+	public void add(int value) {
+		char high = (char) (value >>> 16);
+		int i = find(high);
+		if (i < 0) {
+			i = -i - 1;
+			insert(i, high, new ArrayContainer(4));
+		}
+		containers[i] = containers[i].add((char) value);
+	}
+
+	public void remove(int value) {
+		int i = find((char) (value >>> 16));
+		if (i < 0) {
+			return;
+		}
+		containers[i] = containers[i].remove((char) value);
+		if (containers[i].cardinality == 0) {
+			System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+			System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+			containers[--size] = null;
+		}
+	}
+
+	public boolean contains(int value) {
+		int i = find((char) (value >>> 16));
+		return i >= 0 && containers[i].contains((char) value);
+	}
+
+	public int getCardinality() {
+		int cardinality = 0;
+		for (int i = 0; i < size; i++) {
+			cardinality += containers[i].cardinality;
+		}
+		return cardinality;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	// Visits every value in ascending order.
+	public void forEach(IntConsumer action) {
+		for (int i = 0; i < size; i++) {
+			containers[i].forEach(keys[i] << 16, action);
+		}
+	}
+
+	// The values in ascending order.
+	public int[] toArray() {
+		int[] values = new int[getCardinality()];
+		int[] next = {0};
+		forEach(value -> values[next[0]++] = value);
+		return values;
+	}
+
+	public CompressedBitmap copy() {
+		CompressedBitmap copy = new CompressedBitmap();
+		copy.keys = Arrays.copyOf(keys, keys.length);
+		copy.containers = new Container[containers.length];
+		for (int i = 0; i < size; i++) {
+			copy.containers[i] = containers[i].copy();
+		}
+		copy.size = size;
+		return copy;
+	}
+
+	// Values in both bitmaps.
+	public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+		CompressedBitmap result = new CompressedBitmap();
+		int i = 0, j = 0;
+		while (i < a.size && j < b.size) {
+			if (a.keys[i] < b.keys[j]) {
+				i++;
+			} else if (a.keys[i] > b.keys[j]) {
+				j++;
+			} else {
+				Container c = and(a.containers[i], b.containers[j]);
+				if (c.cardinality > 0) {
+					result.insert(result.size, a.keys[i], c);
+				}
+				i++;
+				j++;
+			}
+		}
+		return result;
+	}
+
+	// Values in a but not in b.
+	public static CompressedBitmap andNot(CompressedBitmap a, CompressedBitmap b) {
+		CompressedBitmap result = new CompressedBitmap();
+		int j = 0;
+		for (int i = 0; i < a.size; i++) {
+			while (j < b.size && b.keys[j] < a.keys[i]) {
+				j++;
+			}
+			Container c = j < b.size && b.keys[j] == a.keys[i]
+					? andNot(a.containers[i], b.containers[j])
+					: a.containers[i].copy();
+			if (c.cardinality > 0) {
+				result.insert(result.size, a.keys[i], c);
+			}
+		}
+		return result;
+	}
+
+	// Size of the intersection, without building it.
+	public static int andCardinality(CompressedBitmap a, CompressedBitmap b) {
+		int cardinality = 0;
+		int i = 0, j = 0;
+		while (i < a.size && j < b.size) {
+			if (a.keys[i] < b.keys[j]) {
+				i++;
+			} else if (a.keys[i] > b.keys[j]) {
+				j++;
+			} else {
+				Container x = a.containers[i], y = b.containers[j];
+				if (x instanceof BitmapContainer bx && y instanceof BitmapContainer by) {
+					for (int w = 0; w < BITMAP_WORDS; w++) {
+						cardinality += Long.bitCount(bx.words[w] & by.words[w]);
+					}
+				} else {
+					ArrayContainer array = (ArrayContainer) (x instanceof ArrayContainer ? x : y);
+					Container other = array == x ? y : x;
+					for (int k = 0; k < array.cardinality; k++) {
+						if (other.contains(array.values[k])) {
+							cardinality++;
+						}
+					}
+				}
+				i++;
+				j++;
+			}
+		}
+		return cardinality;
+	}
+
+	private static Container and(Container x, Container y) {
+		if (x instanceof BitmapContainer bx && y instanceof BitmapContainer by) {
+			BitmapContainer result = new BitmapContainer();
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				result.words[w] = bx.words[w] & by.words[w];
+				result.cardinality += Long.bitCount(result.words[w]);
+			}
+			return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+		}
+		// At least one side is an array, so the result fits in one
+		ArrayContainer array = (ArrayContainer) (x instanceof ArrayContainer ? x : y);
+		Container other = array == x ? y : x;
+		ArrayContainer result = new ArrayContainer(array.cardinality);
+		for (int k = 0; k < array.cardinality; k++) {
+			if (other.contains(array.values[k])) {
+				result.values[result.cardinality++] = array.values[k];
+			}
+		}
+		return result;
+	}
+
+	private static Container andNot(Container x, Container y) {
+		if (x instanceof ArrayContainer ax) {
+			ArrayContainer result = new ArrayContainer(ax.cardinality);
+			for (int k = 0; k < ax.cardinality; k++) {
+				if (!y.contains(ax.values[k])) {
+					result.values[result.cardinality++] = ax.values[k];
+				}
+			}
+			return result;
+		}
+		BitmapContainer bx = (BitmapContainer) x;
+		BitmapContainer result = new BitmapContainer();
+		if (y instanceof BitmapContainer by) {
+			for (int w = 0; w < BITMAP_WORDS; w++) {
+				result.words[w] = bx.words[w] & ~by.words[w];
+				result.cardinality += Long.bitCount(result.words[w]);
+			}
+		} else {
+			System.arraycopy(bx.words, 0, result.words, 0, BITMAP_WORDS);
+			result.cardinality = bx.cardinality;
+			ArrayContainer ay = (ArrayContainer) y;
+			for (int k = 0; k < ay.cardinality; k++) {
+				char value = ay.values[k];
+				if ((result.words[value >>> 6] & (1L << value)) != 0) {
+					result.words[value >>> 6] &= ~(1L << value);
+					result.cardinality--;
+				}
+			}
+		}
+		return result.cardinality <= ARRAY_MAX ? result.toArray() : result;
+	}
+
+	private int find(char high) {
+		return Arrays.binarySearch(keys, 0, size, high);
+	}
+
+	private void insert(int i, char high, Container container) {
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size * 2);
+			containers = Arrays.copyOf(containers, size * 2);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(containers, i, containers, i + 1, size - i);
+		keys[i] = high;
+		containers[i] = container;
+		size++;
+	}
+}
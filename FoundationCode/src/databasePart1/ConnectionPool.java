@@ -0,0 +1,303 @@
+package databasePart1;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A small bounded pool of JDBC connections used by {@link DatabaseHelper}.
+ *
+ * Callers borrow a connection with {@link #borrow()} and give it back by closing it,
+ * so the usual try-with-resources blocks work unchanged. Connections are validated
+ * on borrow and replaced when broken, and connections held longer than the leak
+ * threshold are reported once on stderr together with what the borrowing thread is doing.
+ * Each physical connection keeps a {@link StatementCache}, so
+ * {@code prepareStatement(sql)} on a borrowed connection reuses statements.
+ */
+public final class ConnectionPool {
+
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+	private final String url;
+	private final String user;
+	private final String password;
+	private final int maxSize;
+	private final long borrowTimeoutMillis;
+	private final long leakThresholdMillis;
+	private final int statementCacheSize;
+
+	private final Semaphore permits;
+	private final ConcurrentLinkedDeque<Slot> idle = new ConcurrentLinkedDeque<>();
+	private final Map<Lease, Boolean> leased = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService leakDetector;
+	private volatile boolean closed = false;
+
+	// Instrumentation counters
+	private final AtomicLong borrowCount = new AtomicLong();
+	private final AtomicLong createdCount = new AtomicLong();
+	private final AtomicLong replacedCount = new AtomicLong();
+	private final AtomicLong timeoutCount = new AtomicLong();
+	private final AtomicLong leakCount = new AtomicLong();
+	private final AtomicLong waitNanos = new AtomicLong();
+	private final AtomicLong statementHits = new AtomicLong();
+	private final AtomicLong statementMisses = new AtomicLong();
+	private final AtomicLong statementEvictions = new AtomicLong();
+
+	public ConnectionPool(String url, String user, String password, int maxSize,
+	                      long borrowTimeoutMillis, long leakThresholdMillis) {
+		this(url, user, password, maxSize, borrowTimeoutMillis, leakThresholdMillis, 0);
+	}
+
+	// statementCacheSize is the number of prepared statements kept per connection; 0 disables caching
+	public ConnectionPool(String url, String user, String password, int maxSize,
+	                      long borrowTimeoutMillis, long leakThresholdMillis, int statementCacheSize) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Pool size must be at least 1");
+		}
+		this.url = url;
+		this.user = user;
+		this.password = password;
+		this.maxSize = maxSize;
+		this.borrowTimeoutMillis = borrowTimeoutMillis;
+		this.leakThresholdMillis = leakThresholdMillis;
+		this.statementCacheSize = statementCacheSize;
+		this.permits = new Semaphore(maxSize, true);
+
+		this.leakDetector = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "db-pool-leak-detector");
+			t.setDaemon(true);
+			return t;
+		});
+		long period = Math.max(leakThresholdMillis / 2, 100);
+		leakDetector.scheduleAtFixedRate(this::detectLeaks, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	// Borrows a validated connection, waiting up to the borrow timeout when all are in use.
+	// Closing the returned connection hands it back to the pool.
+	public Connection borrow() throws SQLException {
+		if (closed) {
+			throw new SQLException("Connection pool is closed");
+		}
+		long start = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				timeoutCount.incrementAndGet();
+				throw new SQLException("Timed out after " + borrowTimeoutMillis + " ms waiting for a database connection ("
+						+ maxSize + " in use)");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection", e);
+		}
+		waitNanos.addAndGet(System.nanoTime() - start);
+
+		try {
+			Slot slot = takeValidConnection();
+			Lease lease = new Lease(slot);
+			leased.put(lease, Boolean.TRUE);
+			borrowCount.incrementAndGet();
+			return lease.proxy;
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	// Reuses the most recently returned connection if it is still valid, otherwise opens a new one.
+	private Slot takeValidConnection() throws SQLException {
+		Slot slot;
+		while ((slot = idle.pollFirst()) != null) {
+			if (isUsable(slot.physical)) {
+				return slot;
+			}
+			slot.discard();
+			replacedCount.incrementAndGet();
+		}
+		Connection created = DriverManager.getConnection(url, user, password);
+		createdCount.incrementAndGet();
+		return new Slot(created);
+	}
+
+	private boolean isUsable(Connection physical) {
+		try {
+			return !physical.isClosed() && physical.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	// Called when a borrowed connection is closed by its user.
+	private void release(Lease lease) {
+		leased.remove(lease);
+		Slot slot = lease.slot;
+		Connection physical = slot.physical;
+		try {
+			if (closed || physical.isClosed()) {
+				slot.discard();
+				return;
+			}
+			// Undo any transaction the borrower left open before someone else gets the connection.
+			if (!physical.getAutoCommit()) {
+				physical.rollback();
+				physical.setAutoCommit(true);
+			}
+			idle.offerFirst(slot);
+		} catch (SQLException e) {
+			slot.discard();
+			replacedCount.incrementAndGet();
+		} finally {
+			permits.release();
+		}
+	}
+
+	// Reports connections that have been borrowed for longer than the leak threshold.
+	// Each lease is reported once. Returns the number of newly reported leaks.
+	int detectLeaks() {
+		long now = System.currentTimeMillis();
+		int reported = 0;
+		for (Lease lease : leased.keySet()) {
+			long heldFor = now - lease.borrowedAt;
+			if (heldFor >= leakThresholdMillis && lease.reported.compareAndSet(false, true)) {
+				leakCount.incrementAndGet();
+				reported++;
+				System.err.println("Possible connection leak: connection borrowed on thread '" + lease.borrower.getName()
+						+ "' has been held for " + heldFor + " ms. Borrowing thread is at:");
+				// Capturing a stack on every borrow is too slow, so show where the borrower is now
+				for (StackTraceElement frame : lease.borrower.getStackTrace()) {
+					System.err.println("\tat " + frame);
+				}
+			}
+		}
+		return reported;
+	}
+
+	// Closes idle connections and refuses further borrows. Connections still
+	// borrowed are closed when they are returned.
+	public void close() {
+		closed = true;
+		leakDetector.shutdownNow();
+		Slot slot;
+		while ((slot = idle.pollFirst()) != null) {
+			slot.discard();
+		}
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public int getMaxSize() { return maxSize; }
+	public int getActiveCount() { return leased.size(); }
+	public int getIdleCount() { return idle.size(); }
+	public long getBorrowCount() { return borrowCount.get(); }
+	public long getCreatedCount() { return createdCount.get(); }
+	public long getReplacedCount() { return replacedCount.get(); }
+	public long getTimeoutCount() { return timeoutCount.get(); }
+	public long getLeakCount() { return leakCount.get(); }
+	public long getStatementCacheHits() { return statementHits.get(); }
+	public long getStatementCacheMisses() { return statementMisses.get(); }
+	public long getStatementCacheEvictions() { return statementEvictions.get(); }
+
+	public double getStatementCacheHitRatio() {
+		long lookups = statementHits.get() + statementMisses.get();
+		return lookups == 0 ? 0 : (double) statementHits.get() / lookups;
+	}
+
+	public double getAverageWaitMillis() {
+		long borrows = borrowCount.get();
+		return borrows == 0 ? 0 : waitNanos.get() / 1e6 / borrows;
+	}
+
+	// One-line summary of the pool counters, handy for logging.
+	public String describe() {
+		return String.format("pool[active=%d, idle=%d, max=%d, borrows=%d, created=%d, replaced=%d, timeouts=%d, leaks=%d, avgWaitMs=%.3f, "
+				+ "stmtHits=%d, stmtMisses=%d, stmtEvictions=%d]",
+				getActiveCount(), getIdleCount(), maxSize, getBorrowCount(), getCreatedCount(),
+				getReplacedCount(), getTimeoutCount(), getLeakCount(), getAverageWaitMillis(),
+				getStatementCacheHits(), getStatementCacheMisses(), getStatementCacheEvictions());
+	}
+
+	// A physical connection together with its statement cache.
+	private final class Slot {
+		private final Connection physical;
+		private final StatementCache statements;
+
+		Slot(Connection physical) {
+			this.physical = physical;
+			this.statements = new StatementCache(physical, statementCacheSize,
+					statementHits, statementMisses, statementEvictions);
+		}
+
+		void discard() {
+			statements.clear();
+			try {
+				physical.close();
+			} catch (SQLException ignore) {
+			}
+		}
+	}
+
+	// One borrow of a physical connection. The proxy handed to the caller returns the
+	// connection to the pool on close() and refuses to be used afterwards.
+	private final class Lease implements InvocationHandler {
+		private final Slot slot;
+		private final Connection physical;
+		private final Connection proxy;
+		private final long borrowedAt = System.currentTimeMillis();
+		private final Thread borrower = Thread.currentThread();
+		private final AtomicBoolean returned = new AtomicBoolean(false);
+		private final AtomicBoolean reported = new AtomicBoolean(false);
+
+		Lease(Slot slot) {
+			this.slot = slot;
+			this.physical = slot.physical;
+			this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] {Connection.class}, this);
+		}
+
+		@Override
+		public Object invoke(Object proxyObject, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (returned.compareAndSet(false, true)) {
+						release(this);
+					}
+					return null;
+				case "isClosed":
+					return returned.get() || physical.isClosed();
+				case "equals":
+					return proxyObject == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxyObject);
+				case "toString":
+					return "PooledConnection[" + physical + "]";
+				default:
+					break;
+			}
+			if (returned.get()) {
+				throw new SQLException("Connection has already been returned to the pool");
+			}
+			if (method.getName().equals("prepareStatement") && args.length == 1) {
+				return slot.statements.prepare((String) args[0]);
+			}
+			try {
+				return method.invoke(physical, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
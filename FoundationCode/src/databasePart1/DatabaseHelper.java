@@ -1,14 +1,23 @@
 package databasePart1;
 import java.sql.*;
+import java.time.Instant;
+import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
 
 import application.User;
 import application.Answer;
+import application.AnswerPage;
+import application.AnswerSummary;
+import application.BoardFacetCounts;
+import application.BoardQuery;
 import application.Comment;
+import application.CommentSummary;
 import application.Question;
+import application.QuestionPage;
 import application.QuestionStatus;
+import application.QuestionSummary;
 import application.Role;
 import application.Tags;
 
@@ -26,12 +35,154 @@ public class DatabaseHelper {
 	static final String USER = "sa"; 
 	static final String PASS = ""; 
 
-	private Connection connection = null;
-	private Statement statement = null; 
-	//	PreparedStatement pstmt
+	// Pool sizing: how many connections may be borrowed at once, how long a borrower
+	// waits for one, and how long a connection may be held before it is reported as leaked
+	static final int POOL_SIZE = 8;
+	static final long BORROW_TIMEOUT_MILLIS = 10_000;
+	static final long LEAK_THRESHOLD_MILLIS = 30_000;
+	// Prepared statements kept per pooled connection (LRU), so repeated SQL is parsed once
+	static final int STATEMENT_CACHE_SIZE = 64;
+	// Users kept in the identity cache (LRU); authors are resolved through it
+	static final int USER_CACHE_SIZE = 1024;
+	// How often the background reconciler re-checks the denormalized answer stats
+	static final long STATS_RECONCILE_PERIOD_MINUTES = 10;
+	// How often buffered question views are written to the database
+	static final long VIEW_FLUSH_INTERVAL_MILLIS = 5_000;
+	// How long a writer waits for room in a slow event subscriber's queue before it overflows
+	static final long EVENT_BLOCK_TIMEOUT_MILLIS = 250;
+	// Board filter combinations whose matching ids are cached (LRU), for how long, and
+	// the most ids kept per combination; larger results are paged in SQL instead
+	static final int BOARD_CACHE_SIZE = 32;
+	static final long BOARD_CACHE_TTL_MILLIS = 60_000;
+	static final int BOARD_CACHE_MAX_IDS = 20_000;
+
+	private volatile ConnectionPool pool = null;
+	
+	private final String dbUrl;
+	private final int poolSize;
+	private final int statementCacheSize;
+	private final UserCache userCache = new UserCache(USER_CACHE_SIZE);
+	// Bound on the first connect, so the constructor never hands out 'this' half-built
+	private final ConnectionSource connections = new ConnectionSource();
+	private final QuestionStatsReconciler statsReconciler = new QuestionStatsReconciler(connections);
+	private final ViewCountBuffer viewCounts = new ViewCountBuffer(connections);
+	private final QuestionSearchIndex searchIndex = new QuestionSearchIndex();
+	private final QuestionTermIndex termIndex = new QuestionTermIndex();
+	private final QuestionFacetIndex facetIndex = new QuestionFacetIndex();
+	private final ThreadLoadStats threadLoadStats = new ThreadLoadStats();
+	private final DomainEventBus events = new DomainEventBus(EVENT_BLOCK_TIMEOUT_MILLIS);
+	private final BoardQueryCache boardQueries = new BoardQueryCache(BOARD_CACHE_SIZE, BOARD_CACHE_TTL_MILLIS, BOARD_CACHE_MAX_IDS);
+	private AsyncDatabaseHelper async; // created on first use
+	// The startup index builds, joined before a rebuild so their older snapshot cannot win
+	private volatile Thread searchIndexBuilder;
+	private volatile Thread facetIndexBuilder;
 	
 	private String currentUserName; // allows tracking of logged in user 
 	
+	public DatabaseHelper() {
+		this(DB_URL);
+	}
+	
+	// Allows pointing the helper at another database, e.g. an in-memory H2 for benchmarks
+	public DatabaseHelper(String dbUrl) {
+		this(dbUrl, POOL_SIZE, STATEMENT_CACHE_SIZE);
+	}
+	
+	// Also sets the pool size and per-connection statement cache size (0 disables the cache)
+	public DatabaseHelper(String dbUrl, int poolSize, int statementCacheSize) {
+		this.dbUrl = dbUrl;
+		this.poolSize = poolSize;
+		this.statementCacheSize = statementCacheSize;
+	}
+
+	// Borrows from the helper's pool for the background components, once it is connected.
+	private static final class ConnectionSource implements Callable<Connection> {
+		private volatile DatabaseHelper helper;
+
+		@Override
+		public Connection call() throws SQLException {
+			DatabaseHelper connected = helper;
+			if (connected == null) {
+				throw new SQLException("Database is not connected");
+			}
+			return connected.getConnection();
+		}
+	}
+
+	// Runs once, on the first connect, before any view can subscribe and so before its handlers.
+	private void subscribeIndexes() {
+		subscribeSearchIndex();
+		subscribeFacetIndex();
+		// After the indexes, so a board reloaded on invalidation already sees the write
+		events.subscribe(DomainEvent.class, boardQueries::apply);
+	}
+
+	// Keeps the in-memory search index in step with every committed question write.
+	private void subscribeSearchIndex() {
+		events.subscribe(DomainEvent.QuestionCreated.class, e -> indexIfPublic(e.question()));
+		events.subscribe(DomainEvent.QuestionUpdated.class, e -> indexIfPublic(e.question()));
+		events.subscribe(DomainEvent.QuestionDeleted.class, e -> searchIndex.remove(e.questionId()));
+		events.subscribe(DomainEvent.UserDeleted.class, e -> e.questionIds().forEach(searchIndex::remove));
+	}
+
+	// Keeps the facet bitmaps in step with every committed write that changes a facet.
+	private void subscribeFacetIndex() {
+		events.subscribe(DomainEvent.QuestionCreated.class, e -> facetIndex.put(facetsOf(e.question())));
+		events.subscribe(DomainEvent.QuestionUpdated.class, e -> facetIndex.putQuestion(facetsOf(e.question())));
+		events.subscribe(DomainEvent.QuestionDeleted.class, e -> facetIndex.remove(e.questionId()));
+		events.subscribe(DomainEvent.UserDeleted.class, e -> e.questionIds().forEach(facetIndex::remove));
+		events.subscribe(DomainEvent.AnswerAdded.class, e -> facetIndex.markAnswered(e.questionId()));
+		// Whether the question is still answered or resolved is only known to the database
+		events.subscribe(DomainEvent.AnswerDeleted.class, e -> reloadFacets(e.questionId()));
+		events.subscribe(DomainEvent.AnswerResolved.class, e -> reloadFacets(e.questionId()));
+	}
+
+	private void reloadFacets(String questionId) {
+		try {
+			facetIndex.reload(questionId, this::loadFacets);
+		} catch (SQLException e) {
+			// The write already committed; the next rebuild corrects the index
+			System.err.println("Could not refresh facets of question " + questionId + ": " + e.getMessage());
+		}
+	}
+
+	// Facets of a question that was just written, before it has answers.
+	private static QuestionFacetIndex.FacetedQuestion facetsOf(Question question) {
+		return new QuestionFacetIndex.FacetedQuestion(question.getQuestionId().toString(),
+				question.getAuthor().getUserName(), question.getTag(), question.isPrivate(), false, false,
+				toMicros(question.getCreationTimestamp().toInstant()));
+	}
+
+	// Timestamps are stored with microsecond precision, rounded half up.
+	private static long toMicros(Instant instant) {
+		return instant.getEpochSecond() * 1_000_000L + (instant.getNano() + 500) / 1000;
+	}
+
+	private static final String FACET_COLUMNS = "SELECT id, authorUserName, tag, isPrivate, answerCount > 0 AS answered, "
+			+ "acceptedAnswerId IS NOT NULL AS resolved, creationTimestamp FROM questions";
+
+	private QuestionFacetIndex.FacetedQuestion loadFacets(String questionId) throws SQLException {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(FACET_COLUMNS + " WHERE id = ?")) {
+			pstmt.setString(1, questionId);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				return rs.next() ? mapFacets(rs) : null;
+			}
+		}
+	}
+
+	private static QuestionFacetIndex.FacetedQuestion mapFacets(ResultSet rs) throws SQLException {
+		return new QuestionFacetIndex.FacetedQuestion(rs.getString("id"), rs.getString("authorUserName"),
+				Tags.valueOf(rs.getString("tag")), rs.getBoolean("isPrivate"), rs.getBoolean("answered"),
+				rs.getBoolean("resolved"), toMicros(rs.getTimestamp("creationTimestamp").toInstant()));
+	}
+
+	private void indexIfPublic(Question question) {
+		if (!question.isPrivate()) {
+			searchIndex.put(question.getQuestionId().toString(), question.getTitle(), question.getBody());
+		}
+	}
+	
 	public void setCurrentUserName(String userName) { //setter
 		this.currentUserName = userName;
 	}
@@ -40,124 +191,231 @@ public class DatabaseHelper {
 		return this.currentUserName;
 	}
 
-	public void connectToDatabase() throws SQLException {
+	public synchronized void connectToDatabase() throws SQLException {
 		try {
-			if (connection != null && !connection.isClosed()) return; // do not act if connection is established -C Looney 
+			if (pool != null && !pool.isClosed()) return; // do not act if connection is established -C Looney 
+			if (connections.helper == null) {
+				connections.helper = this;
+				subscribeIndexes();
+			}
 			Class.forName(JDBC_DRIVER); // Load the JDBC driver
 			System.out.println("Connecting to database...");
-			connection = DriverManager.getConnection(DB_URL, USER, PASS);
-			System.out.println("Database connection successful!");
-			statement = connection.createStatement(); 
-			// You can use this command to clear the database and restart from fresh.
-			//statement.execute("DROP ALL OBJECTS");
-			createTables();  // Create the necessary tables if they don't exist
+			pool = new ConnectionPool(dbUrl, USER, PASS, poolSize, BORROW_TIMEOUT_MILLIS, LEAK_THRESHOLD_MILLIS, statementCacheSize);
+			try (Connection conn = pool.borrow()) {
+				System.out.println("Database connection successful!");
+				// You can use this command to clear the database and restart from fresh.
+				//conn.createStatement().execute("DROP ALL OBJECTS");
+				createTables(conn);  // Create the necessary tables if they don't exist
+			}
 		} catch (SQLException e) {
 			System.err.println("Failed to connect to the database: " + e.getMessage());
+			closeConnection();
+			pool = null; // retry on the next verifyConnection()
 		} catch (ClassNotFoundException e) {
 			System.err.println("JDBC Driver not found: " + e.getMessage());
 		}
 	}
 	
 	// below method by C. Looney  to guard against lost connections 
+	// The pool validates each connection on borrow and replaces broken ones,
+	// so this only needs to make sure the pool exists.
 	public void verifyConnection() throws SQLException {
-		if (connection == null || connection.isClosed()) {
+		if (pool == null || pool.isClosed()) {
 			connectToDatabase(); 
 		}
 	}
+	
+	// Borrows a connection from the pool. Closing it returns it to the pool,
+	// so always use it in a try-with-resources block.
+	public Connection getConnection() throws SQLException {
+		verifyConnection();
+		if (pool == null) {
+			throw new SQLException("Database is not connected");
+		}
+		return pool.borrow();
+	}
+	
+	// Connection pool counters, e.g. for logging or benchmarks
+	public ConnectionPool getConnectionPool() {
+		return pool;
+	}
+
+	// Cached users and hit counters
+	public UserCache getUserCache() {
+		return userCache;
+	}
+
+	public QuestionStatsReconciler getStatsReconciler() {
+		return statsReconciler;
+	}
+
+	public ViewCountBuffer getViewCountBuffer() {
+		return viewCounts;
+	}
+
+	public QuestionSearchIndex getSearchIndex() {
+		return searchIndex;
+	}
+
+	public QuestionTermIndex getTermIndex() {
+		return termIndex;
+	}
+
+	public QuestionFacetIndex getFacetIndex() {
+		return facetIndex;
+	}
+
+	public ThreadLoadStats getThreadLoadStats() {
+		return threadLoadStats;
+	}
+
+	public BoardQueryCache getBoardQueryCache() {
+		return boardQueries;
+	}
+
+	// Every committed write is published here; caches and open views subscribe.
+	public DomainEventBus getEvents() {
+		return events;
+	}
+
+	// Asynchronous facade for calls made from JavaFX event handlers; results arrive on the FX thread.
+	public synchronized AsyncDatabaseHelper async() {
+		if (async == null) {
+			async = new AsyncDatabaseHelper(this, poolSize);
+		}
+		return async;
+	}
 
-	private void createTables() throws SQLException {
-		try (Statement statement = connection.createStatement()) {
-		String userTable = "CREATE TABLE IF NOT EXISTS cse360users ("
-				+ "id INT AUTO_INCREMENT PRIMARY KEY, "
-				+ "userName VARCHAR(255) UNIQUE, "
-				+ "password VARCHAR(255), "
-				+ "name VARCHAR(255), "
-				+ "email VARCHAR(255), "
-				// Roles stored as "1,2", convert to/from int on read/write
-				+ "roles VARCHAR(20))";
-		statement.execute(userTable);
-		
-		// Create the invitation codes table including expiration
-	    String invitationCodesTable = "CREATE TABLE IF NOT EXISTS InvitationCodes ("
-	            + "code VARCHAR(10) PRIMARY KEY, "
-	            + "isUsed BOOLEAN DEFAULT FALSE, "
-		    + "expiration BIGINT)";
-	    statement.execute(invitationCodesTable);
-
-	    // Table of users with a one time password set
-	    String otpUserTable = "CREATE TABLE IF NOT EXISTS cse360otpusers ("
-		    + "id INT AUTO_INCREMENT PRIMARY KEY, "
-		    + "userName VARCHAR(255) UNIQUE)";
-	    statement.execute(otpUserTable);
-	    
-	    
-	    //newly added database tables 
-	    
-        String questionsTable = "CREATE TABLE IF NOT EXISTS questions ("
-                + "    id              VARCHAR(36) PRIMARY KEY,"
-                + "    title           VARCHAR(255),"
-                + "    body            TEXT,"
-                + "    authorUserName  VARCHAR(255),"
-                + "    status          VARCHAR(50),"
-                + "    creationTimestamp TIMESTAMP WITH TIME ZONE,"
-                + "    tag             VARCHAR(50),"
-                + "    isPrivate       BOOLEAN,"
-                + "    isAnonymous     BOOLEAN,"
-                + "    viewCount       INT,"
-                + "    FOREIGN KEY (authorUserName) REFERENCES cse360users(userName) ON DELETE CASCADE"
-                + ")";
-            statement.execute(questionsTable);
-
-            String answersTable = "CREATE TABLE IF NOT EXISTS answers ("
-                + "    id              VARCHAR(36) PRIMARY KEY,"
-                + "    body            TEXT,"
-                + "    authorUserName  VARCHAR(255),"
-                + "    questionId      VARCHAR(36),"
-                + "    creationTimestamp TIMESTAMP WITH TIME ZONE,"
-		+ "    resolvesQuestion BOOLEAN DEFAULT FALSE,"
-                + "    FOREIGN KEY (authorUserName) REFERENCES cse360users(userName) ON DELETE CASCADE,"
-                + "    FOREIGN KEY (questionId) REFERENCES questions(id) ON DELETE CASCADE"
-                + ")";
-            statement.execute(answersTable);
-
-            String commentsTable = "CREATE TABLE IF NOT EXISTS comments ("
-                + "    id              VARCHAR(36) PRIMARY KEY,"
-                + "    body            TEXT,"
-                + "    authorUserName  VARCHAR(255),"
-                + "    answerId        VARCHAR(36),"
-                + "    parentCommentId VARCHAR(36),"
-                + "    creationTimestamp TIMESTAMP WITH TIME ZONE,"
-                + "    FOREIGN KEY (authorUserName) REFERENCES cse360users(userName) ON DELETE CASCADE,"
-                + "    FOREIGN KEY (answerId) REFERENCES answers(id) ON DELETE CASCADE,"
-                + "    FOREIGN KEY (parentCommentId) REFERENCES comments(id) ON DELETE CASCADE"
-                + ")";
-            statement.execute(commentsTable);
-
-	    // Tracks when each user last viewed a question’s answers
-	    String viewedAnswersTable = """
-	    CREATE TABLE IF NOT EXISTS viewed_answers (
-	        user_id VARCHAR(255),
-	        question_id VARCHAR(255),
-	        last_viewed TIMESTAMP,
-	        PRIMARY KEY (user_id, question_id),
-	        FOREIGN KEY (user_id) REFERENCES cse360users(userName) ON DELETE CASCADE,
-	        FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
-	    )
-	    """;
-	    statement.execute(viewedAnswersTable);
-
-            System.out.println("Tables created or already exist.");
+	// Work run by inTransaction on a single connection.
+	@FunctionalInterface
+	private interface TransactionWork {
+		void run(Connection conn) throws SQLException;
+	}
+
+	// Runs work on one connection and commits it atomically, rolling back on any failure.
+	private void inTransaction(TransactionWork work) throws SQLException {
+		try (Connection conn = getConnection()) {
+			conn.setAutoCommit(false);
+			try {
+				work.run(conn);
+				conn.commit();
+			} catch (SQLException | RuntimeException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
 		}
 	}
 
+	// Applies any pending schema migrations. When the schema is already current this is a
+	// single SELECT on schema_version; index builds run on a background thread.
+	private void createTables(Connection conn) throws SQLException {
+		SchemaMigrator migrator = new SchemaMigrator(Migrations.all());
+		int applied = migrator.migrate(conn);
+		System.out.println(applied == 0
+				? "Schema is up to date (version " + migrator.getLatestVersion() + ")."
+				: "Applied " + applied + " schema migration(s).");
+		migrator.startBackgroundMigrations(this::getConnection);
+		statsReconciler.start(STATS_RECONCILE_PERIOD_MINUTES);
+		viewCounts.start(VIEW_FLUSH_INTERVAL_MILLIS);
+		startSearchIndexBuild();
+		startFacetIndexBuild();
+	}
+
+	// Loads the facets of every question into the bitmap index on a daemon thread. Board
+	// filters use SQL until it is ready; questions written meanwhile are re-read afterwards.
+	private void startFacetIndexBuild() {
+		Thread builder = new Thread(() -> {
+			try {
+				buildFacetIndex();
+			} catch (SQLException e) {
+				System.err.println("Facet index build failed, board filters stay on SQL: " + e.getMessage());
+			}
+		}, "facet-index-builder");
+		builder.setDaemon(true);
+		facetIndexBuilder = builder;
+		builder.start();
+	}
+
+	private void buildFacetIndex() throws SQLException {
+		List<QuestionFacetIndex.FacetedQuestion> questions = new ArrayList<>();
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(FACET_COLUMNS + " ORDER BY creationTimestamp, id");
+		     ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				questions.add(mapFacets(rs));
+			}
+		}
+		facetIndex.rebuild(questions, this::loadFacets);
+	}
+
+	// Loads every public question into the search index on a daemon thread. Searches use
+	// SQL until it is ready; writes made in the meantime are queued by the index itself.
+	private void startSearchIndexBuild() {
+		Thread builder = new Thread(() -> {
+			try {
+				buildSearchIndex();
+			} catch (SQLException e) {
+				System.err.println("Search index build failed, search stays on SQL: " + e.getMessage());
+			}
+		}, "search-index-builder");
+		builder.setDaemon(true);
+		searchIndexBuilder = builder;
+		builder.start();
+	}
+
+	private void buildSearchIndex() throws SQLException {
+		String sql = "SELECT id, title, body FROM questions WHERE isPrivate = FALSE ORDER BY creationTimestamp, id";
+		List<QuestionSearchIndex.IndexedQuestion> questions = new ArrayList<>();
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(sql);
+		     ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				questions.add(new QuestionSearchIndex.IndexedQuestion(
+						rs.getString("id"), rs.getString("title"), rs.getString("body")));
+			}
+		}
+		searchIndex.rebuild(questions);
+	}
+
+	// Brings everything derived from the tables back in step after rows were written
+	// around the methods below, e.g. by a bulk load: the denormalized answer stats, the
+	// similar question term statistics, both in-memory indexes and the caches. Writes
+	// made while it runs may be missed by the indexes, so call it once the load is done.
+	public void rebuildDerivedState() throws SQLException {
+		awaitStartupBuild(searchIndexBuilder);
+		awaitStartupBuild(facetIndexBuilder);
+		statsReconciler.reconcile();
+		inTransaction(termIndex::rebuild);
+		buildSearchIndex();
+		buildFacetIndex();
+		userCache.invalidateAll();
+		boardQueries.invalidateAll();
+	}
+
+	private static void awaitStartupBuild(Thread builder) throws SQLException {
+		if (builder == null) {
+			return;
+		}
+		try {
+			builder.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for the startup index build", e);
+		}
+	}
 
 
 	// Check if the database is empty
 	public boolean isDatabaseEmpty() throws SQLException {
 		String query = "SELECT COUNT(*) AS count FROM cse360users";
-		ResultSet resultSet = statement.executeQuery(query);
-		if (resultSet.next()) {
-			return resultSet.getInt("count") == 0;
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(query);
+		     ResultSet resultSet = pstmt.executeQuery()) {
+			if (resultSet.next()) {
+				return resultSet.getInt("count") == 0;
+			}
 		}
 		return true;
 	}
@@ -165,20 +423,24 @@ public class DatabaseHelper {
 	// Registers a new user in the database.
 	public void register(User user) throws SQLException {
 		String insertUser = "INSERT INTO cse360users (userName, password, name, email, roles) VALUES (?, ?, ?, ?, ?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(insertUser)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			pstmt.setString(3, user.getName());
 			pstmt.setString(4, user.getEmail());
 			pstmt.setString(5, user.rolesToString());
 			pstmt.executeUpdate();
+		} finally {
+			userCache.invalidate(user.getUserName());
 		}
 	}
 
 	// Validates a user's login credentials
 	public boolean login(User user) throws SQLException {
 		String query = "SELECT * FROM cse360users WHERE userName = ? AND password = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, user.getUserName());
 			pstmt.setString(2, user.getPassword());
 			try (ResultSet rs = pstmt.executeQuery()) {
@@ -190,7 +452,8 @@ public class DatabaseHelper {
 	// Checks if a user already exists in the database based on their userName.
 	public boolean doesUserExist(String userName) {
 	    String query = "SELECT COUNT(*) FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = getConnection();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        
 	        pstmt.setString(1, userName);
 	        ResultSet rs = pstmt.executeQuery();
@@ -208,7 +471,8 @@ public class DatabaseHelper {
 	// Add user to table containing usernames with 1 time password set
 	public void addOtpUser(String userName) throws SQLException {
 		String sql = "INSERT INTO cse360otpusers (userName) VALUES (?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(sql)) {
 			pstmt.setString(1, userName);
 			pstmt.executeUpdate();
 		}
@@ -217,7 +481,8 @@ public class DatabaseHelper {
 	// Remove a user from being marked as having 1 time password set
 	public void removeOtpUser(String userName) throws SQLException {
 		String sql = "DELETE FROM cse360otpusers WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(sql)) {
 			pstmt.setString(1, userName);
 			pstmt.executeUpdate();
 		}
@@ -226,7 +491,8 @@ public class DatabaseHelper {
 	// Check if a user has 1 time password set
 	public boolean isOtpUser(String userName) throws SQLException {
 		String sql = "SELECT 1 FROM cse360otpusers WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(sql)) {
 			pstmt.setString(1, userName);
 			try (ResultSet rs = pstmt.executeQuery()) {
 				return rs.next();
@@ -248,7 +514,8 @@ public class DatabaseHelper {
 		// Updating user
 		String q = "UPDATE cse360users SET userName = ?, password = ?, name = ?, email = ?, roles = ? WHERE userName = ?";
 
-		try (PreparedStatement pstmt = connection.prepareStatement(q)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement pstmt = conn.prepareStatement(q)) {
 			pstmt.setString(1, userName);
 			pstmt.setString(2, newUser.getPassword());
 			pstmt.setString(3, newUser.getName());
@@ -260,7 +527,9 @@ public class DatabaseHelper {
 		} catch (SQLException e) {
 	                e.printStackTrace();
 			return "Error: SQL error";
-	        }
+	        } finally {
+			userCache.invalidate(userName);
+		}
 
 		// Empty string to indicate success
 		return "";
@@ -268,55 +537,33 @@ public class DatabaseHelper {
 	
 	// Retrieves the roles of a user from the database using their UserName.
 	public ArrayList<Role> getUserRoles(String userName) {
-	    String query = "SELECT roles FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, userName);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-		    String rolesStr = rs.getString("roles");
-		    ArrayList<Role> roles = User.rolesFromString(rolesStr);
-		    return roles;
-	        }
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
+	    User user = findCachedUser(userName);
 	    // If no user exists or an error occurs
-	    return new ArrayList<>();
+	    return user == null ? new ArrayList<>() : new ArrayList<>(user.getRoles());
 	}
 	
 	// Retrieves the name of a user from the database using their UserName.
 	public String getUserNameField(String userName) {
-	    String query = "SELECT name FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, userName);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-		    return rs.getString("name");
-	        }
-	    } catch (SQLException e) {
-	        e.printStackTrace();
-	    }
+	    User user = findCachedUser(userName);
 	    // If no user exists or an error occurs
-	    return null;
+	    return user == null ? null : user.getName();
 	}
 	
 	// Retrieves the email of a user from the database using their UserName.
 	public String getUserEmail(String userName) {
-	    String query = "SELECT email FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-	        pstmt.setString(1, userName);
-	        ResultSet rs = pstmt.executeQuery();
-	        
-	        if (rs.next()) {
-		    return rs.getString("email");
-	        }
+	    User user = findCachedUser(userName);
+	    // If no user exists or an error occurs
+	    return user == null ? null : user.getEmail();
+	}
+	
+	// getUserByUserName for the lookups above, which report errors as "no user"
+	private User findCachedUser(String userName) {
+	    try {
+	        return getUserByUserName(userName);
 	    } catch (SQLException e) {
 	        e.printStackTrace();
+	        return null;
 	    }
-	    // If no user exists or an error occurs
-	    return null;
 	}
 	
 	// Generates a new invitation code and inserts it into the database,
@@ -329,7 +576,8 @@ public class DatabaseHelper {
 	    long expiration = now + (10L * 24 * 60 * 60);
 	    String query = "INSERT INTO InvitationCodes (code, expiration) VALUES (?, ?)";
 
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = getConnection();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 		pstmt.setLong(2, expiration);
 	        pstmt.executeUpdate();
@@ -343,7 +591,8 @@ public class DatabaseHelper {
 	// Validates an invitation code to check if it is unused and not expired
 	public boolean validateInvitationCode(String code) {
 	    String query = "SELECT * FROM InvitationCodes WHERE code = ? AND isUsed = FALSE";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (Connection conn = getConnection();
+	         PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 	        ResultSet rs = pstmt.executeQuery();
 	        if (rs.next()) {
@@ -352,7 +601,7 @@ public class DatabaseHelper {
 
 			if (now <= expiration) {
 				// Mark the code as used
-				markInvitationCodeAsUsed(code);
+				markInvitationCodeAsUsed(conn, code);
 				return true;
 			} else {
 				System.out.println("Invitation code expired");
@@ -366,9 +615,9 @@ public class DatabaseHelper {
 	}
 	
 	// Marks the invitation code as used in the database.
-	private void markInvitationCodeAsUsed(String code) {
+	private void markInvitationCodeAsUsed(Connection conn, String code) {
 	    String query = "UPDATE InvitationCodes SET isUsed = TRUE WHERE code = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+	    try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 	        pstmt.setString(1, code);
 	        pstmt.executeUpdate();
 	    } catch (SQLException e) {
@@ -376,26 +625,21 @@ public class DatabaseHelper {
 	    }
 	}
 
-	// Closes the database connection and statement.
+	// Closes the connection pool and every idle connection in it.
 	public void closeConnection() {
-		try{ 
-			if(statement!=null) statement.close(); 
-		} catch(SQLException se2) { 
-			se2.printStackTrace();
-		} 
-		try { 
-			if(connection!=null) connection.close(); 
-		} catch(SQLException se){ 
-			se.printStackTrace(); 
-		} 
+		statsReconciler.stop();
+		viewCounts.stop(); // writes buffered views while the pool is still open
+		if (pool != null) {
+			pool.close();
+		}
 	}
 	
 	// Returns all users
 	public List<User> getAllUsers() throws SQLException {
-	    verifyConnection();
 	    String q = "SELECT userName, password, name, email, roles FROM cse360users ORDER BY userName ASC";
 	    List<User> users = new ArrayList<>();
-	    try (PreparedStatement pstmt = connection.prepareStatement(q);
+	    try (Connection conn = getConnection();
+	         PreparedStatement pstmt = conn.prepareStatement(q);
 	         ResultSet rs = pstmt.executeQuery()) {
 	        while (rs.next()) {
 	            String userName = rs.getString("userName");
@@ -412,10 +656,16 @@ public class DatabaseHelper {
 	    return users;
 	}
 
+	// Returns the user with this userName, or null. Served from the user cache when possible.
 	public User getUserByUserName(String userName) throws SQLException {
-	    verifyConnection();
+	    return userCache.get(userName, this::loadUser);
+	}
+
+	// Cache loader: reads one user row.
+	private User loadUser(String userName) throws SQLException {
 	    String q = "SELECT userName, password, name, email, roles FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(q)) {
+	    try (Connection conn = getConnection();
+	         PreparedStatement pstmt = conn.prepareStatement(q)) {
 	        pstmt.setString(1, userName);
 	        try (ResultSet rs = pstmt.executeQuery()) {
 	            if (rs.next()) {
@@ -436,24 +686,48 @@ public class DatabaseHelper {
 	// Deletes a user from the database by userName
 	public boolean deleteUser(String userName) {
 		String deleteQuery = "DELETE FROM cse360users WHERE userName = ?";
-	    try (PreparedStatement pstmt = connection.prepareStatement(deleteQuery)) {
-	        pstmt.setString(1, userName);
-	        int rowsAffected = pstmt.executeUpdate();
-	        return rowsAffected > 0; // true if at least one row was deleted
+		String questionsQuery = "SELECT id FROM questions WHERE authorUserName = ?";
+	    try {
+	        // The user's questions go with them, so drop them from the search indexes too.
+	        List<String> questionIds = new ArrayList<>();
+	        int[] rowsAffected = {0};
+	        inTransaction(conn -> {
+	            try (PreparedStatement select = conn.prepareStatement(questionsQuery)) {
+	                select.setString(1, userName);
+	                try (ResultSet rs = select.executeQuery()) {
+	                    while (rs.next()) {
+	                        questionIds.add(rs.getString("id"));
+	                    }
+	                }
+	            }
+	            for (String questionId : questionIds) {
+	                termIndex.remove(conn, questionId);
+	            }
+	            try (PreparedStatement pstmt = conn.prepareStatement(deleteQuery)) {
+	                pstmt.setString(1, userName);
+	                rowsAffected[0] = pstmt.executeUpdate();
+	            }
+	        });
+	        if (rowsAffected[0] > 0) {
+	            events.publish(new DomainEvent.UserDeleted(userName, questionIds));
+	        }
+	        return rowsAffected[0] > 0; // true if at least one row was deleted
 	    } catch (SQLException e) {
 	        System.err.println("Error deleting user: " + e.getMessage());
 	        e.printStackTrace();
+	    } finally {
+	        userCache.invalidate(userName);
 	    }
 	    return false; // If an error occurs, assume deletion did not work
 	}
 		
 	
 	public boolean isLastAdmin(String userName) throws SQLException { 
-		verifyConnection();
 		
 		final String q = "SELECT roles FROM cse360users WHERE userName = ?";
 		boolean isUserAdmin = false; 
-		try (PreparedStatement ps = connection.prepareStatement(q)) {
+		try (Connection conn = getConnection();
+		     PreparedStatement ps = conn.prepareStatement(q)) {
 			ps.setString(1, userName);
 			
 			try (ResultSet rs = ps.executeQuery()) {
@@ -479,8 +753,9 @@ public class DatabaseHelper {
 		
 		int adminCount = 0; 
 		
-		try (Statement st = connection.createStatement();
-				ResultSet rs = st.executeQuery(qAdminCount)) {
+		try (Connection conn = getConnection();
+				PreparedStatement st = conn.prepareStatement(qAdminCount);
+				ResultSet rs = st.executeQuery()) {
 					if (rs.next()) {
 						adminCount = rs.getInt(1); // get value 
 					}
@@ -498,34 +773,49 @@ public class DatabaseHelper {
 
      // inserts a new question into the database.
     public void addQuestion(Question question) throws SQLException {
-        String sql = "INSERT INTO questions (id, title, body, authorUserName, status, creationTimestamp, tag, isPrivate, isAnonymous, viewCount) "
-                   + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, question.getQuestionId().toString());
-            pstmt.setString(2, question.getTitle());
-            pstmt.setString(3, question.getBody());
-            pstmt.setString(4, question.getAuthor().getUserName());
-            pstmt.setString(5, question.getStatus().name());
-            pstmt.setTimestamp(6, Timestamp.from(question.getCreationTimestamp().toInstant()));
-            pstmt.setString(7, question.getTag().name());
-            pstmt.setBoolean(8, question.isPrivate());
-            pstmt.setBoolean(9, question.isAnonymous());
-            pstmt.setInt(10, question.getViewCount());
-            pstmt.executeUpdate();
-        }
+        String sql = "INSERT INTO questions (id, title, body, authorUserName, status, creationTimestamp, tag, isPrivate, isAnonymous, viewCount, lastActivityTimestamp) "
+                   + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        String questionId = question.getQuestionId().toString();
+        inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, questionId);
+                pstmt.setString(2, question.getTitle());
+                pstmt.setString(3, question.getBody());
+                pstmt.setString(4, question.getAuthor().getUserName());
+                pstmt.setString(5, question.getStatus().name());
+                pstmt.setTimestamp(6, Timestamp.from(question.getCreationTimestamp().toInstant()));
+                pstmt.setString(7, question.getTag().name());
+                pstmt.setBoolean(8, question.isPrivate());
+                pstmt.setBoolean(9, question.isAnonymous());
+                pstmt.setInt(10, question.getViewCount());
+                pstmt.setTimestamp(11, Timestamp.from(question.getCreationTimestamp().toInstant()));
+                pstmt.executeUpdate();
+            }
+            if (!question.isPrivate()) {
+                termIndex.index(conn, questionId, question.getTitle(), question.getBody());
+            }
+        });
+        events.publish(new DomainEvent.QuestionCreated(question));
     }
     
 
     // Updates an existing question in the database.
     public void updateQuestion(Question question) throws SQLException {
         String sql = "UPDATE questions SET title = ?, body = ?, tag = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, question.getTitle());
-            pstmt.setString(2, question.getBody());
-            pstmt.setString(3, question.getTag().name());
-            pstmt.setString(4, question.getQuestionId().toString());
-            pstmt.executeUpdate();
-        }
+        String questionId = question.getQuestionId().toString();
+        inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, question.getTitle());
+                pstmt.setString(2, question.getBody());
+                pstmt.setString(3, question.getTag().name());
+                pstmt.setString(4, questionId);
+                pstmt.executeUpdate();
+            }
+            if (!question.isPrivate()) {
+                termIndex.index(conn, questionId, question.getTitle(), question.getBody());
+            }
+        });
+        events.publish(new DomainEvent.QuestionUpdated(question));
     }
     
 
@@ -533,17 +823,31 @@ public class DatabaseHelper {
 
     public void deleteQuestion(String questionId) throws SQLException {
         String sql = "DELETE FROM questions WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, questionId);
-            pstmt.executeUpdate();
-        }
+        inTransaction(conn -> {
+            termIndex.remove(conn, questionId);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, questionId);
+                pstmt.executeUpdate();
+            }
+        });
+        events.publish(new DomainEvent.QuestionDeleted(questionId));
     }
     
 
+     // Counts one view of the question. The view is buffered and added to viewCount by the
+     // next periodic flush, so this never blocks on the database.
+    public void recordQuestionView(Question question) {
+        viewCounts.record(question.getQuestionId().toString());
+    }
+
+
      // Updates only the view count for a specific question.
+     // Writes the absolute in-memory value; prefer recordQuestionView, which cannot lose
+     // concurrent views.
     public void updateQuestionViewCount(Question question) throws SQLException {
         String sql = "UPDATE questions SET viewCount = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, question.getViewCount());
             pstmt.setString(2, question.getQuestionId().toString());
             pstmt.executeUpdate();
@@ -555,52 +859,382 @@ public class DatabaseHelper {
 
     public List<Question> getAllPublicQuestions() throws SQLException {
         List<Question> questions = new ArrayList<>();
-        Map<String, User> userMap = getAllUsers().stream()
-                .collect(Collectors.toMap(User::getUserName, user -> user));
-
-        String sql = "SELECT * FROM questions WHERE isPrivate = FALSE ORDER BY creationTimestamp DESC";
-        try (Statement stmt = connection.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
+        String sql = "SELECT q.*, u.name AS authorName, u.email AS authorEmail, "
+                   + "u.password AS authorPassword, u.roles AS authorRoles "
+                   + "FROM questions q JOIN cse360users u ON u.userName = q.authorUserName "
+                   + "WHERE q.isPrivate = FALSE ORDER BY q.creationTimestamp DESC";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
             while (rs.next()) {
-                String authorUserName = rs.getString("authorUserName");
-                User author = userMap.get(authorUserName);
-                if (author != null) {
-                    Question q = new Question(
-                        UUID.fromString(rs.getString("id")),
-                        rs.getString("title"),
-                        rs.getString("body"),
-                        author,
-                        QuestionStatus.valueOf(rs.getString("status")),
-                        rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault()),
-                        Tags.valueOf(rs.getString("tag")),
-                        rs.getBoolean("isPrivate"),
-                        rs.getBoolean("isAnonymous"),
-                        rs.getInt("viewCount")
-                    );
-                    questions.add(q);
+                questions.add(mapQuestion(rs, authorFromRow(rs)));
+            }
+        }
+        return questions;
+    }
+
+
+     // Retrieves the k public questions most similar to the text, best first, ranked by BM25
+     // over title and body terms. Any shared term is enough to match, so reworded duplicates
+     // are found; only the postings of the text's own terms are read.
+
+    public List<Question> findSimilarQuestions(String text, int k) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (Connection conn = getConnection()) {
+            for (QuestionTermIndex.ScoredQuestion match : termIndex.topK(conn, text, k)) {
+                ids.add(match.questionId());
+            }
+        }
+        return getPublicQuestionsInOrder(ids);
+    }
+
+    // Loads the public questions with the given ids, in the order given.
+    private List<Question> getPublicQuestionsInOrder(List<String> ids) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        if (ids.isEmpty()) {
+            return questions;
+        }
+        String sql = "SELECT q.*, u.name AS authorName, u.email AS authorEmail, "
+                   + "u.password AS authorPassword, u.roles AS authorRoles "
+                   + "FROM questions q JOIN cse360users u ON u.userName = q.authorUserName "
+                   + "WHERE q.isPrivate = FALSE AND q.id = ANY(?)";
+        Map<String, Question> byId = new HashMap<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setObject(1, ids.toArray(new String[0]));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    byId.put(rs.getString("id"), mapQuestion(rs, authorFromRow(rs)));
                 }
             }
         }
+        for (String id : ids) {
+            Question question = byId.get(id);
+            if (question != null) {
+                questions.add(question);
+            }
+        }
         return questions;
     }
 
 
+     // Retrieves the discussion board projection of every public question, ordered by most recent.
+     // Answer count and resolved flag are columns of the question row; the user's unseen answer
+     // count comes from one grouped query instead of a lookup per question.
+
+    public List<QuestionSummary> getPublicQuestionSummaries(String userName) throws SQLException {
+        List<QuestionSummary> summaries = new ArrayList<>();
+        String sql = """
+            SELECT q.*,
+                   u.name AS authorName, u.email AS authorEmail,
+                   u.password AS authorPassword, u.roles AS authorRoles,
+                   q.acceptedAnswerId IS NOT NULL AS resolved,
+                   COALESCE(s.unseenCount, 0) AS unseenCount
+            FROM questions q
+            JOIN cse360users u ON u.userName = q.authorUserName
+            LEFT JOIN (
+                SELECT a.questionId,
+                       SUM(CASE WHEN v.last_viewed IS NULL OR a.creationTimestamp > v.last_viewed THEN 1 ELSE 0 END) AS unseenCount
+                FROM answers a
+                LEFT JOIN viewed_answers v ON v.question_id = a.questionId AND v.user_id = ?
+                GROUP BY a.questionId
+            ) s ON s.questionId = q.id
+            WHERE q.isPrivate = FALSE
+            ORDER BY q.creationTimestamp DESC
+        """;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, userName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(new QuestionSummary(
+                        mapQuestion(rs, authorFromRow(rs)),
+                        rs.getInt("answerCount"),
+                        rs.getBoolean("resolved"),
+                        rs.getInt("unseenCount")
+                    ));
+                }
+            }
+        }
+        return summaries;
+    }
+
+
+     // Re-reads the board projection of the given questions, e.g. to refresh rows a cached board
+     // shows. Questions that were deleted or made private are missing from the result.
+    public List<QuestionSummary> getPublicQuestionSummaries(String userName, Collection<String> questionIds) throws SQLException {
+        List<QuestionSummary> summaries = new ArrayList<>();
+        if (questionIds.isEmpty()) {
+            return summaries;
+        }
+        String sql = """
+            SELECT q.*,
+                   u.name AS authorName, u.email AS authorEmail,
+                   u.password AS authorPassword, u.roles AS authorRoles,
+                   q.acceptedAnswerId IS NOT NULL AS resolved,
+                   (SELECT COUNT(*) FROM answers a
+                    LEFT JOIN viewed_answers v ON v.question_id = a.questionId AND v.user_id = ?
+                    WHERE a.questionId = q.id
+                      AND (v.last_viewed IS NULL OR a.creationTimestamp > v.last_viewed)) AS unseenCount
+            FROM questions q
+            JOIN cse360users u ON u.userName = q.authorUserName
+            WHERE q.isPrivate = FALSE AND q.id = ANY(?)
+        """;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, userName);
+            pstmt.setObject(2, questionIds.toArray(new String[0]));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    summaries.add(new QuestionSummary(
+                        mapQuestion(rs, authorFromRow(rs)),
+                        rs.getInt("answerCount"),
+                        rs.getBoolean("resolved"),
+                        rs.getInt("unseenCount")
+                    ));
+                }
+            }
+        }
+        return summaries;
+    }
+
+
+     // Retrieves one page of the discussion board, keyed on (creationTimestamp, id) in the
+     // query's sort order. Pass null as the cursor for the first page. Every filter is a SQL
+     // predicate and authors are joined in, so the cost depends on the page size rather than
+     // on the number of questions or users.
+     // The ids matching each filter combination are cached, so going back to a combination
+     // only reads the rows of the page.
+
+    public QuestionPage getPublicQuestionPage(String userName, BoardQuery query,
+                                              QuestionPage.Cursor after, int pageSize) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        // Title matches found before the search index is built are not worth caching
+        if (query.getSearchText().isEmpty() || searchIndex.isReady()) {
+            BoardQueryCache.Ids ids = boardQueries.get(query, this::getPublicQuestionIds);
+            int from = ids == null ? -1 : after == null ? 0 : ids.positionAfter(after.getQuestionId());
+            if (from >= 0) {
+                QuestionPage page = getPublicQuestionPage(userName, ids.getIds(), from, pageSize);
+                if (page != null) {
+                    return page;
+                }
+            }
+        }
+
+        String direction = query.isNewestFirst() ? "DESC" : "ASC";
+        String comparison = query.isNewestFirst() ? "<" : ">";
+        List<Object> params = new ArrayList<>();
+        params.add(userName);
+
+        StringBuilder sql = new StringBuilder("""
+            SELECT q.*,
+                   u.name AS authorName, u.email AS authorEmail,
+                   u.password AS authorPassword, u.roles AS authorRoles,
+                   q.acceptedAnswerId IS NOT NULL AS resolved,
+                   (SELECT COUNT(*) FROM answers a
+                    LEFT JOIN viewed_answers v ON v.question_id = a.questionId AND v.user_id = ?
+                    WHERE a.questionId = q.id
+                      AND (v.last_viewed IS NULL OR a.creationTimestamp > v.last_viewed)) AS unseenCount
+            FROM questions q
+            JOIN cse360users u ON u.userName = q.authorUserName
+            WHERE q.isPrivate = FALSE
+        """);
+        if (!appendBoardFilters(sql, params, query)) {
+            return new QuestionPage(new ArrayList<>(), null);
+        }
+        if (after != null) {
+            sql.append(" AND (q.creationTimestamp ").append(comparison)
+               .append(" ? OR (q.creationTimestamp = ? AND q.id ").append(comparison).append(" ?))");
+            params.add(after.getCreationTimestamp());
+            params.add(after.getCreationTimestamp());
+            params.add(after.getQuestionId());
+        }
+        // One extra row tells us whether another page follows.
+        sql.append(" ORDER BY q.creationTimestamp ").append(direction).append(", q.id ").append(direction)
+           .append(" LIMIT ?");
+        params.add(pageSize + 1);
+
+        List<QuestionSummary> summaries = new ArrayList<>();
+        QuestionPage.Cursor next = null;
+        OffsetDateTime lastTimestamp = null;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (summaries.size() == pageSize) {
+                        Question last = summaries.get(pageSize - 1).getQuestion();
+                        next = new QuestionPage.Cursor(lastTimestamp, last.getQuestionId().toString());
+                        break;
+                    }
+                    lastTimestamp = rs.getObject("creationTimestamp", OffsetDateTime.class);
+                    summaries.add(new QuestionSummary(
+                        mapQuestion(rs, authorFromRow(rs)),
+                        rs.getInt("answerCount"),
+                        rs.getBoolean("resolved"),
+                        rs.getInt("unseenCount")
+                    ));
+                }
+            }
+        }
+        return new QuestionPage(summaries, next);
+    }
+
+    // The page of a cached id list starting at index from. Returns null if a listed question
+    // is gone, so the caller falls back to the keyset query.
+    private QuestionPage getPublicQuestionPage(String userName, List<String> ids, int from, int pageSize) throws SQLException {
+        List<String> pageIds = ids.subList(Math.min(from, ids.size()), Math.min(from + pageSize, ids.size()));
+        Map<String, QuestionSummary> byId = new HashMap<>();
+        for (QuestionSummary summary : getPublicQuestionSummaries(userName, pageIds)) {
+            byId.put(summary.getQuestion().getQuestionId().toString(), summary);
+        }
+        if (byId.size() != pageIds.size()) {
+            return null;
+        }
+        List<QuestionSummary> summaries = new ArrayList<>();
+        pageIds.forEach(id -> summaries.add(byId.get(id)));
+        QuestionPage.Cursor next = null;
+        if (from + pageSize < ids.size()) {
+            Question last = summaries.get(summaries.size() - 1).getQuestion();
+            next = new QuestionPage.Cursor(last.getCreationTimestamp().toOffsetDateTime(), last.getQuestionId().toString());
+        }
+        return new QuestionPage(summaries, next);
+    }
+
+    // The ids of the public questions matching the query in board order, at most limit of them.
+    // Answered from the facet bitmaps once they are built.
+    private List<String> getPublicQuestionIds(BoardQuery query, int limit) throws SQLException {
+        boolean hasText = !query.getSearchText().isEmpty();
+        if (facetIndex.isReady() && (!hasText || searchIndex.isReady())) {
+            return facetIndex.find(query, hasText ? searchIndex.findAll(query.getSearchText()) : null, limit);
+        }
+        List<String> ids = new ArrayList<>();
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT q.id FROM questions q WHERE q.isPrivate = FALSE");
+        if (!appendBoardFilters(sql, params, query)) {
+            return ids;
+        }
+        String direction = query.isNewestFirst() ? "DESC" : "ASC";
+        sql.append(" ORDER BY q.creationTimestamp ").append(direction).append(", q.id ").append(direction)
+           .append(" LIMIT ?");
+        params.add(limit);
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getString(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    // How many questions each board filter option would show next to the query's other
+    // filters, for labelling the filter choices. Null until the facet index is built.
+    public BoardFacetCounts getBoardFacetCounts(String userName, BoardQuery query) {
+        boolean hasText = !query.getSearchText().isEmpty();
+        if (!facetIndex.isReady() || (hasText && !searchIndex.isReady())) {
+            return null;
+        }
+        return facetIndex.count(query, hasText ? searchIndex.findAll(query.getSearchText()) : null, userName);
+    }
+
+    // Appends the query's filters as predicates on questions q. Returns false if the search
+    // index already knows nothing matches.
+    private boolean appendBoardFilters(StringBuilder sql, List<Object> params, BoardQuery query) {
+        if (!query.getSearchText().isEmpty()) {
+            if (searchIndex.isReady()) {
+                // The index finds the matching ids; the page itself keeps the board's order.
+                List<String> ids = searchIndex.findAll(query.getSearchText());
+                if (ids.isEmpty()) {
+                    return false;
+                }
+                sql.append(" AND q.id = ANY(?)");
+                params.add(ids.toArray(new String[0]));
+            } else {
+                sql.append(" AND LOWER(q.title) LIKE ? ESCAPE '\\'");
+                params.add("%" + escapeLike(query.getSearchText().toLowerCase()) + "%");
+            }
+        }
+        if (query.getAuthorUserName() != null) {
+            sql.append(" AND q.authorUserName = ?");
+            params.add(query.getAuthorUserName());
+        }
+        if (query.getTag() != null) {
+            sql.append(" AND q.tag = ?");
+            params.add(query.getTag().name());
+        }
+        switch (query.getStatus()) {
+            case RESOLVED -> sql.append(" AND q.acceptedAnswerId IS NOT NULL");
+            case UNRESOLVED -> sql.append(" AND q.acceptedAnswerId IS NULL");
+            case ANSWERED -> sql.append(" AND q.answerCount > 0");
+            case UNANSWERED -> sql.append(" AND q.answerCount = 0");
+            case ALL -> { }
+        }
+        return true;
+    }
+
+    // Escapes LIKE wildcards so user input only matches literally.
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+
+     // Builds a Question from the current row of a questions result set.
+
+    private Question mapQuestion(ResultSet rs, User author) throws SQLException {
+        return new Question(
+            UUID.fromString(rs.getString("id")),
+            rs.getString("title"),
+            rs.getString("body"),
+            author,
+            QuestionStatus.valueOf(rs.getString("status")),
+            rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault()),
+            Tags.valueOf(rs.getString("tag")),
+            rs.getBoolean("isPrivate"),
+            rs.getBoolean("isAnonymous"),
+            // include views that are still buffered
+            rs.getInt("viewCount") + (int) viewCounts.getPendingViews(rs.getString("id"))
+        );
+    }
+
+
     
     // Answer Methods
     
 
-     // Inserts a new answer into the database.
+     // Inserts a new answer into the database and bumps the question's answer stats
+     // in the same transaction.
 
     public void addAnswer(Answer answer) throws SQLException {
         String sql = "INSERT INTO answers (id, body, authorUserName, questionId, creationTimestamp) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, answer.getAnswerId().toString());
-            pstmt.setString(2, answer.getBody());
-            pstmt.setString(3, answer.getAuthor().getUserName());
-            pstmt.setString(4, answer.getParentQuestion().getQuestionId().toString());
-            pstmt.setTimestamp(5, Timestamp.from(answer.getCreationTimestamp().toInstant()));
-            pstmt.executeUpdate();
-        }
+        String stats = "UPDATE questions SET answerCount = answerCount + 1, "
+                     + "lastActivityTimestamp = GREATEST(COALESCE(lastActivityTimestamp, creationTimestamp), ?) WHERE id = ?";
+        String questionId = answer.getParentQuestion().getQuestionId().toString();
+        Timestamp created = Timestamp.from(answer.getCreationTimestamp().toInstant());
+        inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, answer.getAnswerId().toString());
+                pstmt.setString(2, answer.getBody());
+                pstmt.setString(3, answer.getAuthor().getUserName());
+                pstmt.setString(4, questionId);
+                pstmt.setTimestamp(5, created);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(stats)) {
+                pstmt.setTimestamp(1, created);
+                pstmt.setString(2, questionId);
+                pstmt.executeUpdate();
+            }
+        });
+        events.publish(new DomainEvent.AnswerAdded(answer));
     }
     
 
@@ -608,30 +1242,63 @@ public class DatabaseHelper {
 
     public void updateAnswer(Answer answer) throws SQLException {
         String sql = "UPDATE answers SET body = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, answer.getBody());
             pstmt.setString(2, answer.getAnswerId().toString());
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() == 0) {
+                return;
+            }
         }
+        events.publish(new DomainEvent.AnswerUpdated(answer));
     }
 
 
-     // Deletes an answer and its related comments from the database.
+     // Deletes an answer and its related comments from the database, and updates the
+     // question's answer count and accepted answer in the same transaction.
 
     public void deleteAnswer(String answerId) throws SQLException {
+        String find = "SELECT questionId FROM answers WHERE id = ?";
         String sql = "DELETE FROM answers WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, answerId);
-            pstmt.executeUpdate();
+        String stats = "UPDATE questions SET answerCount = answerCount - 1, " + ACCEPTED_ANSWER_ASSIGNMENT + " WHERE id = ?";
+        String[] questionId = {null};
+        inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(find)) {
+                pstmt.setString(1, answerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return;
+                    }
+                    questionId[0] = rs.getString("questionId");
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, answerId);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(stats)) {
+                pstmt.setString(1, questionId[0]);
+                pstmt.executeUpdate();
+            }
+        });
+        if (questionId[0] != null) {
+            events.publish(new DomainEvent.AnswerDeleted(questionId[0], answerId));
         }
     }
 
+     // SET clause pointing acceptedAnswerId at the earliest answer marked as resolving the
+     // question being updated, or null if there is none.
+    private static final String ACCEPTED_ANSWER_ASSIGNMENT =
+            "acceptedAnswerId = (SELECT a.id FROM answers a WHERE a.questionId = questions.id "
+          + "AND a.resolvesQuestion ORDER BY a.creationTimestamp, a.id LIMIT 1)";
+
     
      // Gets the number of answers for a specific question.
 
     public int getAnswerCountForQuestion(String questionId) {
-        String sql = "SELECT COUNT(*) FROM answers WHERE questionId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        String sql = "SELECT answerCount FROM questions WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, questionId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
@@ -646,62 +1313,351 @@ public class DatabaseHelper {
     
 
      // Fetches all answers for a given question and populates their full comment threads.
+     // Runs two forward-only queries (answers, then every comment under those answers) no matter
+     // how many answers there are, and resolves authors from the joined user columns. Comments
+     // come in path order, so every reply is read after its parent.
     public void loadAnswersAndCommentsForQuestion(Question question) throws SQLException {
-    	Map<String, User> userMap = getAllUsers().stream()
-                .collect(Collectors.toMap(User::getUserName, user -> user));
-
+        String questionId = question.getQuestionId().toString();
+        Map<String, Answer> answersById = new HashMap<>();
 
-        String answersSql = "SELECT * FROM answers WHERE questionId = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(answersSql)) {
-            pstmt.setString(1, question.getQuestionId().toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                while (rs.next()) {
-                	User author = userMap.get(rs.getString("authorUserName"));
-                    if (author != null) {
+        String answersSql = """
+            SELECT a.*, u.name AS authorName, u.email AS authorEmail, u.password AS authorPassword, u.roles AS authorRoles
+            FROM answers a
+            JOIN cse360users u ON u.userName = a.authorUserName
+            WHERE a.questionId = ?
+            ORDER BY a.creationTimestamp
+        """;
+        String commentsSql = """
+            SELECT c.*, u.name AS authorName, u.email AS authorEmail, u.password AS authorPassword, u.roles AS authorRoles
+            FROM comments c
+            JOIN answers a ON a.id = c.answerId
+            JOIN cse360users u ON u.userName = c.authorUserName
+            WHERE a.questionId = ?
+            ORDER BY c.answerId, c.path
+        """;
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(answersSql)) {
+                pstmt.setString(1, questionId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
                         Answer answer = new Answer(
                             UUID.fromString(rs.getString("id")),
                             question, 
-                            author, 
+                            authorFromRow(rs), 
                             rs.getString("body"),
                             rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault()),
-			    rs.getBoolean("resolvesQuestion")
+                            rs.getBoolean("resolvesQuestion")
                         );
-                        loadCommentTreeForAnswer(answer, userMap);
+                        answersById.put(rs.getString("id"), answer);
                         question.addAnswer(answer);
                     }
                 }
             }
+            if (answersById.isEmpty()) {
+                return;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(commentsSql)) {
+                pstmt.setString(1, questionId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    buildCommentTrees(rs, answersById);
+                }
+            }
         }
     }
 
+     // Builds the reply trees in a single pass over a comments result set in path order.
+    private void buildCommentTrees(ResultSet rs, Map<String, Answer> answersById) throws SQLException {
+        Map<String, Comment> commentsById = new HashMap<>();
+
+        while (rs.next()) {
+            Answer answer = answersById.get(rs.getString("answerId"));
+            if (answer == null) {
+                continue;
+            }
+            String commentId = rs.getString("id");
+            Comment comment = new Comment(
+                UUID.fromString(commentId),
+                answer,
+                null, // Parent comment is linked below once it has been read.
+                authorFromRow(rs),
+                rs.getString("body"),
+                rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault())
+            );
+            commentsById.put(commentId, comment);
+
+            Comment parent = commentsById.get(rs.getString("parentCommentId"));
+            if (parent == null) {
+                answer.addComment(comment);
+            } else {
+                parent.addReply(comment);
+                comment.setParentComment(parent);
+            }
+        }
+    }
+
+     // Fetches one page of a question's answers, accepted answers first and then oldest first,
+     // each with its number of top-level comments. Comments themselves are left unloaded.
+    public AnswerPage getAnswerPage(Question question, AnswerPage.Cursor after, int pageSize) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        long start = System.nanoTime();
+        StringBuilder sql = new StringBuilder("""
+            SELECT a.*, u.name AS authorName, u.email AS authorEmail, u.password AS authorPassword, u.roles AS authorRoles,
+                   q.answerCount AS totalAnswers,
+                   (SELECT COUNT(*) FROM comments c WHERE c.answerId = a.id AND c.parentCommentId IS NULL) AS commentCount
+            FROM answers a
+            JOIN questions q ON q.id = a.questionId
+            JOIN cse360users u ON u.userName = a.authorUserName
+            WHERE a.questionId = ?
+        """);
+        if (after != null) {
+            sql.append(" AND (a.resolvesQuestion < ? OR (a.resolvesQuestion = ? AND (a.creationTimestamp > ?")
+               .append(" OR (a.creationTimestamp = ? AND a.id > ?))))");
+        }
+        // One extra row tells us whether another page follows.
+        sql.append(" ORDER BY a.resolvesQuestion DESC, a.creationTimestamp, a.id LIMIT ?");
+
+        List<AnswerSummary> answers = new ArrayList<>();
+        int totalCount = 0;
+        AnswerPage.Cursor next = null;
+        OffsetDateTime lastTimestamp = null;
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int i = 1;
+            pstmt.setString(i++, question.getQuestionId().toString());
+            if (after != null) {
+                pstmt.setBoolean(i++, after.getResolvesQuestion());
+                pstmt.setBoolean(i++, after.getResolvesQuestion());
+                pstmt.setObject(i++, after.getCreationTimestamp());
+                pstmt.setObject(i++, after.getCreationTimestamp());
+                pstmt.setString(i++, after.getAnswerId());
+            }
+            pstmt.setInt(i, pageSize + 1);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    if (answers.size() == pageSize) {
+                        Answer last = answers.get(pageSize - 1).getAnswer();
+                        next = new AnswerPage.Cursor(last.getResolvesQuestion(), lastTimestamp, last.getAnswerId().toString());
+                        break;
+                    }
+                    totalCount = rs.getInt("totalAnswers");
+                    lastTimestamp = rs.getObject("creationTimestamp", OffsetDateTime.class);
+                    Answer answer = new Answer(
+                        UUID.fromString(rs.getString("id")),
+                        question,
+                        authorFromRow(rs),
+                        rs.getString("body"),
+                        lastTimestamp.atZoneSameInstant(ZoneId.systemDefault()),
+                        rs.getBoolean("resolvesQuestion")
+                    );
+                    answers.add(new AnswerSummary(answer, rs.getInt("commentCount")));
+                }
+            }
+        }
+        threadLoadStats.recordAnswerPage(System.nanoTime() - start, answers.size());
+        return new AnswerPage(answers, totalCount, next);
+    }
+
+     // Fetches one level of a comment thread: the top-level comments of the answer when parent
+     // is null, otherwise the direct replies to parent. Each comes with its own reply count,
+     // so deeper levels are only read when they are expanded.
+    public List<CommentSummary> getComments(Answer answer, Comment parent) throws SQLException {
+        long start = System.nanoTime();
+        String sql = """
+            SELECT c.*, u.name AS authorName, u.email AS authorEmail, u.password AS authorPassword, u.roles AS authorRoles,
+                   (SELECT COUNT(*) FROM comments r WHERE r.parentCommentId = c.id) AS replyCount
+            FROM comments c
+            JOIN cse360users u ON u.userName = c.authorUserName
+            WHERE c.answerId = ? AND
+        """ + (parent == null ? " c.parentCommentId IS NULL" : " c.parentCommentId = ?")
+             + " ORDER BY c.creationTimestamp, c.id";
+        List<CommentSummary> comments = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, answer.getAnswerId().toString());
+            if (parent != null) {
+                pstmt.setString(2, parent.getCommentId().toString());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Comment comment = new Comment(
+                        UUID.fromString(rs.getString("id")),
+                        answer,
+                        parent,
+                        authorFromRow(rs),
+                        rs.getString("body"),
+                        rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault())
+                    );
+                    comments.add(new CommentSummary(comment, rs.getInt("replyCount")));
+                }
+            }
+        }
+        threadLoadStats.recordCommentSubtree(System.nanoTime() - start, comments.size());
+        return comments;
+    }
+
+     // Fetches the comments below root (the whole thread of the answer when root is null) down
+     // to maxDepth levels under it, in thread order: each comment is followed by its replies,
+     // oldest first. One range scan over the comment paths, however deep the thread is. Each
+     // comment carries its direct reply count, so the levels past maxDepth can be expanded later.
+    public List<CommentSummary> getCommentSubtree(Answer answer, Comment root, int maxDepth) throws SQLException {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("maxDepth must be positive");
+        }
+        long start = System.nanoTime();
+        String sql = """
+            SELECT c.*, u.name AS authorName, u.email AS authorEmail, u.password AS authorPassword, u.roles AS authorRoles,
+                   (SELECT COUNT(*) FROM comments r WHERE r.parentCommentId = c.id) AS replyCount
+            FROM comments c
+            JOIN cse360users u ON u.userName = c.authorUserName
+            WHERE c.answerId = ? AND c.path > ? AND c.path < ? AND LENGTH(c.path) <= ?
+            ORDER BY c.path
+        """;
+        List<CommentSummary> comments = new ArrayList<>();
+        try (Connection conn = getConnection()) {
+            String rootPath = root == null ? "" : getCommentPath(conn, root.getCommentId().toString());
+            if (rootPath == null) {
+                return comments;
+            }
+            Map<String, Comment> commentsById = new HashMap<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, answer.getAnswerId().toString());
+                pstmt.setString(2, rootPath);
+                pstmt.setString(3, CommentPaths.upperBound(rootPath));
+                pstmt.setInt(4, rootPath.length() + maxDepth * CommentPaths.SEGMENT_LENGTH);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        String parentCommentId = rs.getString("parentCommentId");
+                        Comment comment = new Comment(
+                            UUID.fromString(rs.getString("id")),
+                            answer,
+                            commentsById.getOrDefault(parentCommentId, root),
+                            authorFromRow(rs),
+                            rs.getString("body"),
+                            rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault())
+                        );
+                        commentsById.put(rs.getString("id"), comment);
+                        comments.add(new CommentSummary(comment, rs.getInt("replyCount")));
+                    }
+                }
+            }
+        }
+        threadLoadStats.recordCommentSubtree(System.nanoTime() - start, comments.size());
+        return comments;
+    }
+
+     // Counts every reply below a comment, at any depth, with one range scan over the paths.
+    public int countReplies(String commentId) throws SQLException {
+        try (Connection conn = getConnection()) {
+            String answerId;
+            String path;
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT answerId, path FROM comments WHERE id = ?")) {
+                pstmt.setString(1, commentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return 0;
+                    }
+                    answerId = rs.getString(1);
+                    path = rs.getString(2);
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT COUNT(*) FROM comments WHERE answerId = ? AND path > ? AND path < ?")) {
+                pstmt.setString(1, answerId);
+                pstmt.setString(2, path);
+                pstmt.setString(3, CommentPaths.upperBound(path));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    rs.next();
+                    return rs.getInt(1);
+                }
+            }
+        }
+    }
+
+     // The materialized path of a comment, or null when it does not exist.
+    private String getCommentPath(Connection conn, String commentId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT path FROM comments WHERE id = ?")) {
+            pstmt.setString(1, commentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getString(1) : null;
+            }
+        }
+    }
+
+     // Returns the author of the current row through the user cache. On a miss the User is
+     // built from the joined author columns, so resolving authors never costs another query.
+    private User authorFromRow(ResultSet rs) throws SQLException {
+        return userCache.get(rs.getString("authorUserName"), userName -> {
+            String rolesStr = rs.getString("authorRoles");
+            ArrayList<Role> roles = (rolesStr == null || rolesStr.isEmpty())
+                    ? new ArrayList<>()
+                    : User.rolesFromString(rolesStr);
+            return new User(userName, rs.getString("authorName"), rs.getString("authorEmail"),
+                    rs.getString("authorPassword"), roles);
+        });
+    }
+
     // Updates an answer as resolution / not resolution
+    // The question's acceptedAnswerId and last activity are updated in the same transaction.
     public void updateAnswerResolutionStatus(String answerId, boolean resolvesQuestion) throws SQLException {
         String sql = "UPDATE answers SET resolvesQuestion = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setBoolean(1, resolvesQuestion);
-            pstmt.setString(2, answerId);
-            pstmt.executeUpdate();
+        String stats = "UPDATE questions SET " + ACCEPTED_ANSWER_ASSIGNMENT + ", lastActivityTimestamp = CURRENT_TIMESTAMP "
+                     + "WHERE id = (SELECT questionId FROM answers WHERE id = ?)";
+        String find = "SELECT questionId FROM answers WHERE id = ?";
+        String[] questionId = {null};
+        inTransaction(conn -> {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setBoolean(1, resolvesQuestion);
+                pstmt.setString(2, answerId);
+                if (pstmt.executeUpdate() == 0) {
+                    return;
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(stats)) {
+                pstmt.setString(1, answerId);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(find)) {
+                pstmt.setString(1, answerId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        questionId[0] = rs.getString(1);
+                    }
+                }
+            }
+        });
+        if (questionId[0] != null) {
+            events.publish(new DomainEvent.AnswerResolved(questionId[0], answerId, resolvesQuestion));
         }
     }
     
     // Comment Methods
 
-     // Inserts a new comment into the database.
+     // Inserts a new comment into the database, at the end of its parent's replies
+     // (see CommentPaths).
     public void addComment(Comment comment) throws SQLException {
-        String sql = "INSERT INTO comments (id, body, authorUserName, answerId, parentCommentId, creationTimestamp) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, comment.getCommentId().toString());
-            pstmt.setString(2, comment.getBody());
-            pstmt.setString(3, comment.getAuthor().getUserName());
-            pstmt.setString(4, comment.getParentAnswer().getAnswerId().toString());
-            if (comment.getParentComment() != null) {
-                pstmt.setString(5, comment.getParentComment().getCommentId().toString());
-            } else {
-                pstmt.setNull(5, java.sql.Types.VARCHAR);
+        String sql = "INSERT INTO comments (id, body, authorUserName, answerId, parentCommentId, creationTimestamp, path) VALUES (?, ?, ?, ?, ?, ?, ?)";
+        String answerId = comment.getParentAnswer().getAnswerId().toString();
+        String parentCommentId = comment.getParentComment() == null ? null : comment.getParentComment().getCommentId().toString();
+        inTransaction(conn -> {
+            String path = CommentPaths.next(conn, answerId, parentCommentId);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, comment.getCommentId().toString());
+                pstmt.setString(2, comment.getBody());
+                pstmt.setString(3, comment.getAuthor().getUserName());
+                pstmt.setString(4, answerId);
+                if (parentCommentId != null) {
+                    pstmt.setString(5, parentCommentId);
+                } else {
+                    pstmt.setNull(5, java.sql.Types.VARCHAR);
+                }
+                pstmt.setTimestamp(6, Timestamp.from(comment.getCreationTimestamp().toInstant()));
+                pstmt.setString(7, path);
+                pstmt.executeUpdate();
             }
-            pstmt.setTimestamp(6, Timestamp.from(comment.getCreationTimestamp().toInstant()));
-            pstmt.executeUpdate();
-        }
+        });
+        events.publish(new DomainEvent.CommentAdded(comment));
     }
     
 
@@ -709,83 +1665,61 @@ public class DatabaseHelper {
 
     public void updateComment(Comment comment) throws SQLException {
         String sql = "UPDATE comments SET body = ? WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, comment.getBody());
             pstmt.setString(2, comment.getCommentId().toString());
-            pstmt.executeUpdate();
+            if (pstmt.executeUpdate() == 0) {
+                return;
+            }
         }
+        events.publish(new DomainEvent.CommentUpdated(comment));
     }
     
 
-     // Deletes a comment from the database. This will also delete all replies.
+     // Deletes a comment from the database. This will also delete all replies, as one range
+     // of the comment paths rather than a cascade from each reply to the next.
+     // Where the comment sat in its thread is read first, for the published event.
     public void deleteComment(String commentId) throws SQLException {
-        String sql = "DELETE FROM comments WHERE id = ?";
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
-            pstmt.setString(1, commentId);
-            pstmt.executeUpdate();
-        }
-    }
-
-
-     // Helper method to fetch all comments for an answer and build the nested reply tree.
-    private void loadCommentTreeForAnswer(Answer answer, Map<String, User> userMap) throws SQLException {
-        String commentsSql = "SELECT * FROM comments WHERE answerId = ?";
-        Map<String, Comment> commentMap = new HashMap<>();
-        List<Comment> topLevelComments = new ArrayList<>();
-
-        try (PreparedStatement pstmt = connection.prepareStatement(commentsSql,
-                                                               ResultSet.TYPE_SCROLL_INSENSITIVE,
-                                                               ResultSet.CONCUR_READ_ONLY)) {
-            
-            pstmt.setString(1, answer.getAnswerId().toString());
-            try (ResultSet rs = pstmt.executeQuery()) {
-                // first pass: create all comment objects and put them in a map for easy lookup.
-                while (rs.next()) {
-                    User author = userMap.get(rs.getString("authorUserName"));
-                    Comment comment = new Comment(
-                        UUID.fromString(rs.getString("id")),
-                        answer,
-                        null, // Parent comment is linked in the second pass.
-                        author,
-                        rs.getString("body"),
-                        rs.getTimestamp("creationTimestamp").toInstant().atZone(ZoneId.systemDefault())
-                    );
-                    commentMap.put(rs.getString("id"), comment);
-                }
-                
-                // second pass: link replies to their parents.
-                rs.beforeFirst(); 
-                while(rs.next()) {
-                    String commentId = rs.getString("id");
-                    String parentCommentId = rs.getString("parentCommentId");
-                    Comment child = commentMap.get(commentId);
-
-                    if (parentCommentId != null) {
-                        Comment parent = commentMap.get(parentCommentId);
-                        if (parent != null) {
-                            parent.addReply(child);
-                            child.setParentComment(parent);
-                        }
-                    } else {
-                        topLevelComments.add(child);
+        String find = "SELECT a.questionId, c.answerId, c.parentCommentId, c.path FROM comments c "
+                    + "JOIN answers a ON a.id = c.answerId WHERE c.id = ?";
+        // The subquery makes H2 plan the path range; a plain DELETE picks the answerId index
+        String sql = "DELETE FROM comments WHERE id IN (SELECT id FROM comments WHERE answerId = ? AND path >= ? AND path < ?)";
+        DomainEvent.CommentDeleted[] deleted = {null};
+        inTransaction(conn -> {
+            String path;
+            try (PreparedStatement pstmt = conn.prepareStatement(find)) {
+                pstmt.setString(1, commentId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (!rs.next()) {
+                        return;
                     }
+                    deleted[0] = new DomainEvent.CommentDeleted(rs.getString(1), rs.getString(2), rs.getString(3), commentId);
+                    path = rs.getString(4);
                 }
             }
-        }
-        
-        // Add the fully constructed comment threads to the answer object.
-        for (Comment comment : topLevelComments) {
-            answer.addComment(comment);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, deleted[0].answerId());
+                pstmt.setString(2, path);
+                pstmt.setString(3, CommentPaths.upperBound(path));
+                pstmt.executeUpdate();
+            }
+        });
+        if (deleted[0] != null) {
+            events.publish(deleted[0]);
         }
     }
+
+
     // Checks whether a given question has an accepted (resolved) answer.
     public boolean hasAcceptedAnswer(String questionId) throws SQLException {
-        String query = "SELECT COUNT(*) FROM answers WHERE questionId = ? AND resolvesQuestion = TRUE";
-        try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+        String query = "SELECT acceptedAnswerId FROM questions WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, questionId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return rs.getInt(1) > 0;
+                    return rs.getString(1) != null;
                 }
             }
         }
@@ -794,13 +1728,13 @@ public class DatabaseHelper {
     
     // Updates or inserts the timestamp when a user last viewed a question’s answers
     public void updateLastViewed(String userId, String questionId) throws SQLException {
-        verifyConnection();
         String sql = """
             MERGE INTO viewed_answers (user_id, question_id, last_viewed)
             KEY (user_id, question_id)
             VALUES (?, ?, CURRENT_TIMESTAMP)
         """;
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, userId);
             pstmt.setString(2, questionId);
             pstmt.executeUpdate();
@@ -809,7 +1743,6 @@ public class DatabaseHelper {
 
     // Returns the count of answers that were added after the user last viewed the question
     public int getUnseenAnswerCount(String userId, String questionId) throws SQLException {
-        verifyConnection();
         String sql = """
             SELECT COUNT(*) FROM answers a
             LEFT JOIN viewed_answers v
@@ -817,7 +1750,8 @@ public class DatabaseHelper {
             WHERE a.questionId = ?
             AND (v.last_viewed IS NULL OR a.creationTimestamp > v.last_viewed)
         """;
-        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, userId);
             pstmt.setString(2, questionId);
             try (ResultSet rs = pstmt.executeQuery()) {
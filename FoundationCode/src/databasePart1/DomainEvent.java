@@ -0,0 +1,58 @@
+package databasePart1;
+
+import java.util.List;
+
+import application.Answer;
+import application.Comment;
+import application.Question;
+
+/**
+ * A change committed by {@link DatabaseHelper}, published on its {@link DomainEventBus}
+ * after the write's transaction commits.
+ *
+ * Events carry the ids a subscriber needs to find what it shows, plus the written object
+ * where the write had one, so most updates can be applied without another query.
+ */
+public sealed interface DomainEvent {
+
+	// Events about one question's thread; views of a question filter on questionId.
+	sealed interface QuestionEvent extends DomainEvent {
+		String questionId();
+	}
+
+	record QuestionCreated(Question question) implements QuestionEvent {
+		public String questionId() { return question.getQuestionId().toString(); }
+	}
+
+	record QuestionUpdated(Question question) implements QuestionEvent {
+		public String questionId() { return question.getQuestionId().toString(); }
+	}
+
+	record QuestionDeleted(String questionId) implements QuestionEvent { }
+
+	record AnswerAdded(Answer answer) implements QuestionEvent {
+		public String questionId() { return answer.getParentQuestion().getQuestionId().toString(); }
+	}
+
+	record AnswerUpdated(Answer answer) implements QuestionEvent {
+		public String questionId() { return answer.getParentQuestion().getQuestionId().toString(); }
+	}
+
+	record AnswerDeleted(String questionId, String answerId) implements QuestionEvent { }
+
+	record AnswerResolved(String questionId, String answerId, boolean resolvesQuestion) implements QuestionEvent { }
+
+	record CommentAdded(Comment comment) implements QuestionEvent {
+		public String questionId() { return comment.getParentAnswer().getParentQuestion().getQuestionId().toString(); }
+	}
+
+	record CommentUpdated(Comment comment) implements QuestionEvent {
+		public String questionId() { return comment.getParentAnswer().getParentQuestion().getQuestionId().toString(); }
+	}
+
+	// parentCommentId is null for a top-level comment
+	record CommentDeleted(String questionId, String answerId, String parentCommentId, String commentId) implements QuestionEvent { }
+
+	// The user's questions were deleted with them
+	record UserDeleted(String userName, List<String> questionIds) implements DomainEvent { }
+}
@@ -0,0 +1,207 @@
+package databasePart1;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Typed publish/subscribe of {@link DomainEvent}s, so caches and open views can apply
+ * small updates instead of re-querying after every write.
+ *
+ * {@link #subscribe} listeners run on the publishing thread right after the write commits;
+ * they suit in-memory caches that must never lag behind the database. {@link #subscribeAsync}
+ * listeners get their own bounded queue, drained in batches on an executor such as the FX
+ * thread. When that queue is full the publisher waits for room for a while (backpressure),
+ * unless it is the thread that drains the queue, e.g. the FX thread writing from a handler,
+ * which could only deadlock. A publisher that cannot wait, or waited in vain, marks the
+ * subscriber overflowed instead: its queued events are dropped and its overflow handler
+ * runs once, so it can reload in full.
+ */
+public class DomainEventBus {
+
+	// Cancels a subscription; idempotent.
+	public interface Subscription extends AutoCloseable {
+		@Override
+		void close();
+	}
+
+	// Events applied per executor task, so a backlog does not hog the FX thread
+	static final int DRAIN_BATCH = 64;
+
+	private final List<Subscriber<?>> subscribers = new CopyOnWriteArrayList<>();
+	private final long blockTimeoutMillis;
+
+	// Instrumentation counters
+	private final AtomicLong publishedCount = new AtomicLong();
+	private final AtomicLong deliveredCount = new AtomicLong();
+	private final AtomicLong blockedCount = new AtomicLong();
+	private final AtomicLong overflowCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	// blockTimeoutMillis bounds how long a publisher waits for room in a full queue.
+	public DomainEventBus(long blockTimeoutMillis) {
+		this.blockTimeoutMillis = blockTimeoutMillis;
+	}
+
+	// Runs listener on the publishing thread for every event of the type.
+	public <E extends DomainEvent> Subscription subscribe(Class<E> type, Consumer<? super E> listener) {
+		return add(new Subscriber<>(type, listener));
+	}
+
+	// Queues events of the type (at most capacity) and applies them on executor in order.
+	// onOverflow runs on executor instead of the events lost when the queue overflowed.
+	public <E extends DomainEvent> Subscription subscribeAsync(Class<E> type, Consumer<? super E> listener,
+	                                                          Runnable onOverflow, Executor executor, int capacity) {
+		return add(new AsyncSubscriber<>(type, listener, onOverflow, executor, capacity));
+	}
+
+	public void publish(DomainEvent event) {
+		publishedCount.incrementAndGet();
+		for (Subscriber<?> subscriber : subscribers) {
+			if (subscriber.type.isInstance(event)) {
+				subscriber.offer(event);
+			}
+		}
+	}
+
+	public int getSubscriberCount() {
+		return subscribers.size();
+	}
+
+	private Subscription add(Subscriber<?> subscriber) {
+		subscribers.add(subscriber);
+		return () -> {
+			subscriber.closed = true;
+			subscribers.remove(subscriber);
+		};
+	}
+
+	private class Subscriber<E extends DomainEvent> {
+		final Class<E> type;
+		final Consumer<? super E> listener;
+		// Set on close, so events still queued for it are not applied
+		volatile boolean closed;
+
+		Subscriber(Class<E> type, Consumer<? super E> listener) {
+			this.type = type;
+			this.listener = listener;
+		}
+
+		void offer(DomainEvent event) {
+			deliver(type.cast(event));
+		}
+
+		// A failing listener is logged and skipped; it never fails the write that published.
+		void deliver(E event) {
+			if (closed) {
+				return;
+			}
+			try {
+				listener.accept(event);
+				deliveredCount.incrementAndGet();
+			} catch (RuntimeException e) {
+				failedCount.incrementAndGet();
+				System.err.println("Event listener failed on " + event + ": " + e);
+			}
+		}
+	}
+
+	private class AsyncSubscriber<E extends DomainEvent> extends Subscriber<E> {
+		private final BlockingQueue<E> queue;
+		private final Runnable onOverflow;
+		private final Executor executor;
+		private final AtomicBoolean drainScheduled = new AtomicBoolean();
+		private final AtomicBoolean overflowed = new AtomicBoolean();
+		// Thread of the last drain; it must never wait for its own queue
+		private volatile Thread drainThread;
+
+		AsyncSubscriber(Class<E> type, Consumer<? super E> listener, Runnable onOverflow, Executor executor, int capacity) {
+			super(type, listener);
+			this.queue = new ArrayBlockingQueue<>(capacity);
+			this.onOverflow = onOverflow;
+			this.executor = executor;
+		}
+
+		@Override
+		void offer(DomainEvent event) {
+			if (overflowed.get()) {
+				droppedCount.incrementAndGet(); // the pending reload covers it
+				return;
+			}
+			E typed = type.cast(event);
+			if (!queue.offer(typed) && !waitForRoom(typed)) {
+				overflowed.set(true);
+				overflowCount.incrementAndGet();
+				droppedCount.addAndGet(queue.size() + 1);
+				queue.clear();
+			}
+			scheduleDrain();
+		}
+
+		private boolean waitForRoom(E event) {
+			if (blockTimeoutMillis <= 0 || Thread.currentThread() == drainThread) {
+				return false;
+			}
+			blockedCount.incrementAndGet();
+			try {
+				return queue.offer(event, blockTimeoutMillis, TimeUnit.MILLISECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+
+		private void scheduleDrain() {
+			if (drainScheduled.compareAndSet(false, true)) {
+				executor.execute(this::drain);
+			}
+		}
+
+		// Runs one task at a time: the flag is only cleared at the end, and work that arrived
+		// meanwhile schedules the next task.
+		private void drain() {
+			drainThread = Thread.currentThread();
+			if (overflowed.getAndSet(false)) {
+				queue.clear();
+				try {
+					onOverflow.run();
+				} catch (RuntimeException e) {
+					failedCount.incrementAndGet();
+					System.err.println("Event overflow handler failed: " + e);
+				}
+			}
+			E event;
+			int applied = 0;
+			while (applied < DRAIN_BATCH && (event = queue.poll()) != null) {
+				deliver(event);
+				applied++;
+			}
+			drainScheduled.set(false);
+			if (!queue.isEmpty() || overflowed.get()) {
+				scheduleDrain();
+			}
+		}
+	}
+
+	public long getPublishedCount() { return publishedCount.get(); }
+	public long getDeliveredCount() { return deliveredCount.get(); }
+	// Publishes that had to wait for room in a subscriber's queue
+	public long getBlockedCount() { return blockedCount.get(); }
+	public long getOverflowCount() { return overflowCount.get(); }
+	// Events not delivered because their subscriber had overflowed
+	public long getDroppedCount() { return droppedCount.get(); }
+	public long getFailedCount() { return failedCount.get(); }
+
+	public String describe() {
+		return String.format("events[subscribers=%d, published=%d, delivered=%d, blocked=%d, overflows=%d, dropped=%d, failed=%d]",
+				getSubscriberCount(), getPublishedCount(), getDeliveredCount(), getBlockedCount(),
+				getOverflowCount(), getDroppedCount(), getFailedCount());
+	}
+}
@@ -0,0 +1,439 @@
+package databasePart1;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import databasePart1.BulkImporter.RecordType;
+
+/**
+ * Streaming export of the whole forum: users, questions, answers, comments and viewed
+ * markers, gzip-compressed as JSON lines or in a compact binary format.
+ *
+ * Each table is read with one forward-only, read-only query and a fixed fetch size,
+ * ordered by an index so nothing is sorted in memory, and each row is written out before
+ * the next is read. Heap use does not grow with the size of the database.
+ *
+ * All tables are read in one transaction at H2's SNAPSHOT isolation, so the export is a
+ * consistent copy of the forum as of its first query: rows written meanwhile are left out
+ * of every table, and the writers are not blocked.
+ *
+ * Records use the field names of {@link BulkImporter}, parents before children, so an
+ * export imports back with {@link BulkImporter#importJsonLines} or
+ * {@link BulkImporter#importBinary} after decompressing. Comments are written in thread
+ * order and get their paths again on import.
+ */
+public class ForumExporter {
+
+	static final int FETCH_SIZE = 1_000;
+	// Not a java.sql.Connection constant; H2 reads all tables from one snapshot at this level
+	static final int TRANSACTION_SNAPSHOT = 6;
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	// Binary format: MAGIC, then records of a type byte (ordinal + 1) and the columns of the
+	// type in order, then a 0 byte. Varints are unsigned LEB128. Strings are varint(length + 1)
+	// and UTF-8 bytes, booleans one byte, integers varint(value + 1), timestamps
+	// varint(zigzag(epoch microseconds) + 1); 0 is null for each except booleans, where it is 2.
+	static final byte[] MAGIC = {'C', 'S', 'E', '3', '6', '0', 'F', 1};
+
+	/** Output format, always gzip-compressed. */
+	public enum Format {
+		JSON_LINES,
+		BINARY
+	}
+
+	/** Outcome of one export: rows written per type, compressed size, and time taken. */
+	public record ExportReport(Map<RecordType, Long> exported, long bytes, long millis) {
+
+		public long exportedCount(RecordType type) {
+			return exported.getOrDefault(type, 0L);
+		}
+
+		public long exportedTotal() {
+			return exported.values().stream().mapToLong(Long::longValue).sum();
+		}
+
+		public double rowsPerSecond() {
+			return millis == 0 ? exportedTotal() : exportedTotal() * 1000.0 / millis;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("exported %d rows %s, %d bytes, %.0f rows/s (%d ms)",
+					exportedTotal(), exported, bytes, rowsPerSecond(), millis);
+		}
+	}
+
+	private enum Kind {
+		STRING, BOOLEAN, INT, TIMESTAMP
+	}
+
+	private record Column(String field, Kind kind) {}
+
+	// One table per record type, in import order. Columns are aliased to the import field names.
+	private enum Source {
+		USERS(RecordType.USER, "SELECT userName, password, name, email, roles FROM cse360users ORDER BY userName",
+				string("userName"), string("password"), string("name"), string("email"), string("roles")),
+		QUESTIONS(RecordType.QUESTION, "SELECT id, title, body, authorUserName AS author, tag, isPrivate, isAnonymous, "
+				+ "status, creationTimestamp AS createdAt, viewCount FROM questions ORDER BY id",
+				string("id"), string("title"), string("body"), string("author"), string("tag"),
+				new Column("isPrivate", Kind.BOOLEAN), new Column("isAnonymous", Kind.BOOLEAN), string("status"),
+				new Column("createdAt", Kind.TIMESTAMP), new Column("viewCount", Kind.INT)),
+		ANSWERS(RecordType.ANSWER, "SELECT id, questionId, authorUserName AS author, body, "
+				+ "creationTimestamp AS createdAt, resolvesQuestion FROM answers ORDER BY id",
+				string("id"), string("questionId"), string("author"), string("body"),
+				new Column("createdAt", Kind.TIMESTAMP), new Column("resolvesQuestion", Kind.BOOLEAN)),
+		// Thread order (the answerId, path index), so a parent always precedes its replies
+		COMMENTS(RecordType.COMMENT, "SELECT id, answerId, parentCommentId, authorUserName AS author, body, "
+				+ "creationTimestamp AS createdAt FROM comments ORDER BY answerId, path",
+				string("id"), string("answerId"), string("parentCommentId"), string("author"), string("body"),
+				new Column("createdAt", Kind.TIMESTAMP)),
+		VIEWED(RecordType.VIEWED, "SELECT user_id AS userName, question_id AS questionId, last_viewed AS lastViewed "
+				+ "FROM viewed_answers ORDER BY user_id, question_id",
+				string("userName"), string("questionId"), new Column("lastViewed", Kind.TIMESTAMP));
+
+		private final RecordType type;
+		private final String sql;
+		private final List<Column> columns;
+
+		Source(RecordType type, String sql, Column... columns) {
+			this.type = type;
+			this.sql = sql;
+			this.columns = List.of(columns);
+		}
+
+		static Source of(RecordType type) {
+			return values()[type.ordinal()];
+		}
+	}
+
+	private static Column string(String field) {
+		return new Column(field, Kind.STRING);
+	}
+
+	private final DatabaseHelper db;
+
+	public ForumExporter(DatabaseHelper db) {
+		this.db = db;
+	}
+
+	// Writes the whole forum to out as gzip. out is finished but not closed, so the caller
+	// can keep using it.
+	public ExportReport export(OutputStream out, Format format) throws IOException, SQLException {
+		long start = System.nanoTime();
+		CountingOutputStream counted = new CountingOutputStream(out);
+		GZIPOutputStream gzip = new GZIPOutputStream(counted, BUFFER_SIZE);
+		RecordWriter writer = format == Format.BINARY
+				? new BinaryWriter(new BufferedOutputStream(gzip, BUFFER_SIZE))
+				: new JsonLinesWriter(new BufferedOutputStream(gzip, BUFFER_SIZE));
+		Map<RecordType, Long> exported = new EnumMap<>(RecordType.class);
+		try (Connection conn = db.getConnection()) {
+			int isolation = conn.getTransactionIsolation();
+			conn.setAutoCommit(false);
+			conn.setTransactionIsolation(TRANSACTION_SNAPSHOT);
+			try {
+				for (Source source : Source.values()) {
+					exported.put(source.type, exportTable(conn, source, writer));
+				}
+			} finally {
+				// Nothing was written; ending the transaction releases the snapshot
+				conn.rollback();
+				conn.setTransactionIsolation(isolation);
+				conn.setAutoCommit(true);
+			}
+		}
+		writer.finish();
+		gzip.finish();
+		counted.flush();
+		return new ExportReport(Collections.unmodifiableMap(exported), counted.count,
+				(System.nanoTime() - start) / 1_000_000);
+	}
+
+	private static long exportTable(Connection conn, Source source, RecordWriter writer)
+			throws IOException, SQLException {
+		List<Column> columns = source.columns;
+		Object[] values = new Object[columns.size()];
+		long rows = 0;
+		try (PreparedStatement pstmt = conn.prepareStatement(source.sql, ResultSet.TYPE_FORWARD_ONLY,
+				ResultSet.CONCUR_READ_ONLY)) {
+			pstmt.setFetchSize(FETCH_SIZE);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					for (int i = 0; i < values.length; i++) {
+						values[i] = read(rs, i + 1, columns.get(i).kind());
+					}
+					writer.write(source.type, columns, values);
+					rows++;
+				}
+			}
+		}
+		return rows;
+	}
+
+	private static Object read(ResultSet rs, int index, Kind kind) throws SQLException {
+		Object value = switch (kind) {
+			case STRING -> rs.getString(index);
+			case BOOLEAN -> rs.getBoolean(index);
+			case INT -> rs.getInt(index);
+			case TIMESTAMP -> {
+				Timestamp ts = rs.getTimestamp(index);
+				yield ts == null ? null : ts.toInstant();
+			}
+		};
+		return rs.wasNull() ? null : value;
+	}
+
+	private interface RecordWriter {
+		void write(RecordType type, List<Column> columns, Object[] values) throws IOException;
+
+		// Writes out anything buffered; the underlying stream is left open.
+		void finish() throws IOException;
+	}
+
+	// {"type":"question","id":"...",...} per line; null columns are left out.
+	private static final class JsonLinesWriter implements RecordWriter {
+		private final OutputStream out;
+		private final StringBuilder line = new StringBuilder(256);
+
+		JsonLinesWriter(OutputStream out) {
+			this.out = out;
+		}
+
+		@Override
+		public void write(RecordType type, List<Column> columns, Object[] values) throws IOException {
+			line.setLength(0);
+			line.append("{\"type\":\"").append(type.label()).append('"');
+			for (int i = 0; i < values.length; i++) {
+				Object value = values[i];
+				if (value == null) {
+					continue;
+				}
+				line.append(",\"").append(columns.get(i).field()).append("\":");
+				if (value instanceof String || value instanceof Instant) {
+					appendString(line, value.toString());
+				} else {
+					line.append(value);
+				}
+			}
+			line.append("}\n");
+			out.write(line.toString().getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public void finish() throws IOException {
+			out.flush();
+		}
+
+		private static void appendString(StringBuilder sb, String s) {
+			sb.append('"');
+			for (int i = 0; i < s.length(); i++) {
+				char ch = s.charAt(i);
+				switch (ch) {
+					case '"' -> sb.append("\\\"");
+					case '\\' -> sb.append("\\\\");
+					case '\n' -> sb.append("\\n");
+					case '\r' -> sb.append("\\r");
+					case '\t' -> sb.append("\\t");
+					default -> {
+						if (ch < 0x20) {
+							sb.append(String.format("\\u%04x", (int) ch));
+						} else {
+							sb.append(ch);
+						}
+					}
+				}
+			}
+			sb.append('"');
+		}
+	}
+
+	private static final class BinaryWriter implements RecordWriter {
+		private final OutputStream out;
+
+		BinaryWriter(OutputStream out) throws IOException {
+			this.out = out;
+			out.write(MAGIC);
+		}
+
+		@Override
+		public void write(RecordType type, List<Column> columns, Object[] values) throws IOException {
+			out.write(type.ordinal() + 1);
+			for (int i = 0; i < values.length; i++) {
+				Object value = values[i];
+				switch (columns.get(i).kind()) {
+					case STRING -> {
+						if (value == null) {
+							writeVarint(0);
+						} else {
+							byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+							writeVarint(bytes.length + 1L);
+							out.write(bytes);
+						}
+					}
+					case BOOLEAN -> out.write(value == null ? 2 : (Boolean) value ? 1 : 0);
+					case INT -> writeVarint(value == null ? 0 : (Integer) value + 1L);
+					case TIMESTAMP -> {
+						if (value == null) {
+							writeVarint(0);
+						} else {
+							Instant instant = (Instant) value;
+							long micros = Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L),
+									instant.getNano() / 1_000);
+							writeVarint(((micros << 1) ^ (micros >> 63)) + 1);
+						}
+					}
+				}
+			}
+		}
+
+		@Override
+		public void finish() throws IOException {
+			out.write(0);
+			out.flush();
+		}
+
+		private void writeVarint(long value) throws IOException {
+			while ((value & ~0x7FL) != 0) {
+				out.write((int) ((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			out.write((int) value);
+		}
+	}
+
+	// Reads the binary format back as the field maps BulkImporter takes, one record at a time.
+	static final class BinaryRecords {
+		private final InputStream in;
+		private long record = 0;
+
+		BinaryRecords(InputStream in) throws IOException {
+			this.in = in;
+			byte[] magic = in.readNBytes(MAGIC.length);
+			if (!Arrays.equals(magic, MAGIC)) {
+				throw new IOException("Not a forum export in the binary format");
+			}
+		}
+
+		// The next record's fields, with its type under "type", or null after the last one.
+		Map<String, String> next() throws IOException {
+			int tag = in.read();
+			if (tag <= 0) {
+				if (tag < 0) {
+					throw new EOFException("Export ends without its end marker");
+				}
+				return null;
+			}
+			record++;
+			if (tag > RecordType.values().length) {
+				throw new IOException("Unknown record type " + tag + " in record " + record);
+			}
+			RecordType type = RecordType.values()[tag - 1];
+			Map<String, String> fields = new HashMap<>();
+			fields.put("type", type.label());
+			for (Column column : Source.of(type).columns) {
+				String value = switch (column.kind()) {
+					case STRING -> {
+						long length = readVarint();
+						yield length == 0 ? null : new String(readBytes(length - 1), StandardCharsets.UTF_8);
+					}
+					case BOOLEAN -> {
+						int b = readByte();
+						yield b == 2 ? null : String.valueOf(b == 1);
+					}
+					case INT -> {
+						long v = readVarint();
+						yield v == 0 ? null : String.valueOf(v - 1);
+					}
+					case TIMESTAMP -> {
+						long v = readVarint();
+						if (v == 0) {
+							yield null;
+						}
+						long zigzag = v - 1;
+						long micros = (zigzag >>> 1) ^ -(zigzag & 1);
+						yield Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+								Math.floorMod(micros, 1_000_000L) * 1_000).toString();
+					}
+				};
+				if (value != null) {
+					fields.put(column.field(), value);
+				}
+			}
+			return fields;
+		}
+
+		// Records read so far, which stand in for line numbers in rejections.
+		long record() {
+			return record;
+		}
+
+		private int readByte() throws IOException {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Export is truncated in record " + record);
+			}
+			return b;
+		}
+
+		private byte[] readBytes(long length) throws IOException {
+			if (length > Integer.MAX_VALUE) {
+				throw new IOException("Field of " + length + " bytes in record " + record);
+			}
+			byte[] bytes = in.readNBytes((int) length);
+			if (bytes.length != length) {
+				throw new EOFException("Export is truncated in record " + record);
+			}
+			return bytes;
+		}
+
+		private long readVarint() throws IOException {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift += 7) {
+				int b = readByte();
+				value |= (long) (b & 0x7F) << shift;
+				if ((b & 0x80) == 0) {
+					return value;
+				}
+			}
+			throw new IOException("Malformed varint in record " + record);
+		}
+	}
+
+	// Counts the compressed bytes passed on to the caller's stream.
+	private static final class CountingOutputStream extends FilterOutputStream {
+		long count = 0;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
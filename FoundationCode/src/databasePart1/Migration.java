@@ -0,0 +1,87 @@
+package databasePart1;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * One numbered schema change applied by {@link SchemaMigrator}.
+ *
+ * A migration is either a list of SQL statements or a piece of Java code for data
+ * fixes that SQL cannot express. The checksum is recorded in {@code schema_version}
+ * when the migration is applied, so a migration that is edited afterwards is caught
+ * on the next startup instead of silently diverging between databases.
+ * Background migrations (e.g. index builds) run after startup on their own thread,
+ * so the UI does not wait for them; nothing may depend on them being finished.
+ */
+public final class Migration {
+
+	// Code run by a migration. It gets a connection with auto-commit turned off.
+	@FunctionalInterface
+	public interface Step {
+		void apply(Connection conn) throws SQLException;
+	}
+
+	private final int version;
+	private final String description;
+	private final Step step;
+	private final String checksum;
+	private final boolean background;
+
+	private Migration(int version, String description, Step step, String checksum, boolean background) {
+		if (version < 1) {
+			throw new IllegalArgumentException("Migration versions start at 1");
+		}
+		this.version = version;
+		this.description = description;
+		this.step = step;
+		this.checksum = checksum;
+		this.background = background;
+	}
+
+	// A migration made of SQL statements, checksummed over the statement text.
+	public static Migration sql(int version, String description, String... statements) {
+		List<String> sql = List.of(statements);
+		return new Migration(version, description, conn -> {
+			try (Statement st = conn.createStatement()) {
+				for (String s : sql) {
+					st.execute(s);
+				}
+			}
+		}, crc(String.join(";\n", sql)), false);
+	}
+
+	// A Java migration. Bump codeRevision whenever the code changes in a way that
+	// would produce different data, so already-migrated databases are flagged.
+	public static Migration code(int version, String description, int codeRevision, Step step) {
+		return new Migration(version, description, step, crc(description + "#" + codeRevision), false);
+	}
+
+	// The same migration, but run on a background thread after startup.
+	public Migration inBackground() {
+		return new Migration(version, description, step, checksum, true);
+	}
+
+	private static String crc(String text) {
+		CRC32 crc = new CRC32();
+		crc.update(text.getBytes(StandardCharsets.UTF_8));
+		return Long.toHexString(crc.getValue());
+	}
+
+	public int getVersion() { return version; }
+	public String getDescription() { return description; }
+	public String getChecksum() { return checksum; }
+	public boolean isBackground() { return background; }
+
+	void apply(Connection conn) throws SQLException {
+		step.apply(conn);
+	}
+
+	@Override
+	public String toString() {
+		return "V" + version + " (" + description + ")";
+	}
+}
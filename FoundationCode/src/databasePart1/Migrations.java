@@ -0,0 +1,163 @@
+package databasePart1;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Every schema migration of the application database, in version order.
+ *
+ * Never edit a migration that has shipped; add a new one with the next version
+ * number instead. {@link SchemaMigrator} refuses to start if an applied
+ * migration's checksum no longer matches.
+ */
+public final class Migrations {
+
+	private Migrations() {}
+
+	// V1: the original tables. IF NOT EXISTS lets databases created before
+	// schema_version existed adopt this version without changes.
+	static final Migration V1_BASELINE = Migration.sql(1, "baseline tables",
+			"CREATE TABLE IF NOT EXISTS cse360users ("
+				+ "id INT AUTO_INCREMENT PRIMARY KEY, "
+				+ "userName VARCHAR(255) UNIQUE, "
+				+ "password VARCHAR(255), "
+				+ "name VARCHAR(255), "
+				+ "email VARCHAR(255), "
+				// Roles stored as "1,2", convert to/from int on read/write
+				+ "roles VARCHAR(20))",
+
+			// Invitation codes including expiration
+			"CREATE TABLE IF NOT EXISTS InvitationCodes ("
+				+ "code VARCHAR(10) PRIMARY KEY, "
+				+ "isUsed BOOLEAN DEFAULT FALSE, "
+				+ "expiration BIGINT)",
+
+			// Users with a one time password set
+			"CREATE TABLE IF NOT EXISTS cse360otpusers ("
+				+ "id INT AUTO_INCREMENT PRIMARY KEY, "
+				+ "userName VARCHAR(255) UNIQUE)",
+
+			"CREATE TABLE IF NOT EXISTS questions ("
+				+ "    id              VARCHAR(36) PRIMARY KEY,"
+				+ "    title           VARCHAR(255),"
+				+ "    body            TEXT,"
+				+ "    authorUserName  VARCHAR(255),"
+				+ "    status          VARCHAR(50),"
+				+ "    creationTimestamp TIMESTAMP WITH TIME ZONE,"
+				+ "    tag             VARCHAR(50),"
+				+ "    isPrivate       BOOLEAN,"
+				+ "    isAnonymous     BOOLEAN,"
+				+ "    viewCount       INT,"
+				+ "    FOREIGN KEY (authorUserName) REFERENCES cse360users(userName) ON DELETE CASCADE"
+				+ ")",
+
+			"CREATE TABLE IF NOT EXISTS answers ("
+				+ "    id              VARCHAR(36) PRIMARY KEY,"
+				+ "    body            TEXT,"
+				+ "    authorUserName  VARCHAR(255),"
+				+ "    questionId      VARCHAR(36),"
+				+ "    creationTimestamp TIMESTAMP WITH TIME ZONE,"
+				+ "    resolvesQuestion BOOLEAN DEFAULT FALSE,"
+				+ "    FOREIGN KEY (authorUserName) REFERENCES cse360users(userName) ON DELETE CASCADE,"
+				+ "    FOREIGN KEY (questionId) REFERENCES questions(id) ON DELETE CASCADE"
+				+ ")",
+
+			"CREATE TABLE IF NOT EXISTS comments ("
+				+ "    id              VARCHAR(36) PRIMARY KEY,"
+				+ "    body            TEXT,"
+				+ "    authorUserName  VARCHAR(255),"
+				+ "    answerId        VARCHAR(36),"
+				+ "    parentCommentId VARCHAR(36),"
+				+ "    creationTimestamp TIMESTAMP WITH TIME ZONE,"
+				+ "    FOREIGN KEY (authorUserName) REFERENCES cse360users(userName) ON DELETE CASCADE,"
+				+ "    FOREIGN KEY (answerId) REFERENCES answers(id) ON DELETE CASCADE,"
+				+ "    FOREIGN KEY (parentCommentId) REFERENCES comments(id) ON DELETE CASCADE"
+				+ ")",
+
+			// Tracks when each user last viewed a question’s answers
+			"""
+			CREATE TABLE IF NOT EXISTS viewed_answers (
+			    user_id VARCHAR(255),
+			    question_id VARCHAR(255),
+			    last_viewed TIMESTAMP,
+			    PRIMARY KEY (user_id, question_id),
+			    FOREIGN KEY (user_id) REFERENCES cse360users(userName) ON DELETE CASCADE,
+			    FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
+			)
+			""");
+
+	// V2: indexes for the board and question detail queries. Built in the background
+	// because H2 has no concurrent index build and large databases would stall startup.
+	static final Migration V2_READ_INDEXES = Migration.sql(2, "indexes for board and detail reads",
+			"CREATE INDEX IF NOT EXISTS idx_answers_question ON answers(questionId)",
+			"CREATE INDEX IF NOT EXISTS idx_comments_answer ON comments(answerId)",
+			"CREATE INDEX IF NOT EXISTS idx_questions_public_recent ON questions(isPrivate, creationTimestamp)",
+			"CREATE INDEX IF NOT EXISTS idx_viewed_answers_question ON viewed_answers(question_id, user_id)")
+			.inBackground();
+
+	// V3: the board pages on (creationTimestamp, id), so the tie-breaker joins the index.
+	// It covers every query the V2 board index served, which is dropped.
+	static final Migration V3_BOARD_KEYSET_INDEX = Migration.sql(3, "keyset index for board pages",
+			"CREATE INDEX IF NOT EXISTS idx_questions_board_keyset ON questions(isPrivate, creationTimestamp, id)",
+			"DROP INDEX IF EXISTS idx_questions_public_recent")
+			.inBackground();
+
+	// V4: answer stats kept on the question row so the board reads columns instead of
+	// aggregating answers. Backfilled here; DatabaseHelper maintains them on every answer
+	// write and QuestionStatsReconciler repairs drift.
+	static final Migration V4_QUESTION_ANSWER_STATS = Migration.sql(4, "denormalized answer stats on questions",
+			"ALTER TABLE questions ADD COLUMN IF NOT EXISTS answerCount INT DEFAULT 0 NOT NULL",
+			"ALTER TABLE questions ADD COLUMN IF NOT EXISTS acceptedAnswerId VARCHAR(36)",
+			"ALTER TABLE questions ADD COLUMN IF NOT EXISTS lastActivityTimestamp TIMESTAMP WITH TIME ZONE",
+			"UPDATE questions q SET "
+				+ "answerCount = (SELECT COUNT(*) FROM answers a WHERE a.questionId = q.id), "
+				+ "acceptedAnswerId = (SELECT a.id FROM answers a WHERE a.questionId = q.id AND a.resolvesQuestion "
+				+ "ORDER BY a.creationTimestamp, a.id LIMIT 1), "
+				+ "lastActivityTimestamp = GREATEST(q.creationTimestamp, "
+				+ "(SELECT MAX(a.creationTimestamp) FROM answers a WHERE a.questionId = q.id))");
+
+	// V5: term statistics for BM25 ranking of similar questions (see QuestionTermIndex).
+	// Postings go with their question; term and corpus totals are maintained on write.
+	static final Migration V5_SEARCH_TERM_TABLES = Migration.sql(5, "term statistics for similar question ranking",
+			"""
+			CREATE TABLE IF NOT EXISTS search_postings (
+			    term VARCHAR(64),
+			    question_id VARCHAR(36),
+			    tf INT NOT NULL,
+			    doc_length INT NOT NULL,
+			    PRIMARY KEY (term, question_id),
+			    FOREIGN KEY (question_id) REFERENCES questions(id) ON DELETE CASCADE
+			)
+			""",
+			"CREATE INDEX IF NOT EXISTS idx_search_postings_question ON search_postings(question_id)",
+			// Covers the top postings query, so a lookup reads only the strongest postings of a term
+			"CREATE INDEX IF NOT EXISTS idx_search_postings_impact ON search_postings(term, tf DESC, doc_length, question_id)",
+			"CREATE TABLE IF NOT EXISTS search_terms (term VARCHAR(64) PRIMARY KEY, doc_freq INT NOT NULL)",
+			"CREATE TABLE IF NOT EXISTS search_corpus (id INT PRIMARY KEY, doc_count BIGINT NOT NULL, total_length BIGINT NOT NULL)",
+			"MERGE INTO search_corpus (id, doc_count, total_length) KEY (id) VALUES (1, 0, 0)");
+
+	// V6: fills the V5 tables from the existing public questions in one pass. Runs before
+	// startup completes so no write can interleave with the bulk load.
+	static final Migration V6_SEARCH_TERM_BACKFILL = Migration.code(6, "backfill similar question term statistics", 1,
+			conn -> new QuestionTermIndex().rebuild(conn));
+
+	// V7: materialized comment paths (see CommentPaths), so a subtree is one range of the
+	// (answerId, path) index. Nullable until V8 has filled it in.
+	static final Migration V7_COMMENT_PATHS = Migration.sql(7, "materialized comment paths",
+			"ALTER TABLE comments ADD COLUMN IF NOT EXISTS path VARCHAR(4000)");
+
+	// V8: backfills the V7 paths, then requires them and indexes them. Foreground, since the
+	// unique index is what keeps two new comments from sharing a path.
+	static final Migration V8_COMMENT_PATH_BACKFILL = Migration.code(8, "backfill comment paths", 1, conn -> {
+		CommentPaths.backfill(conn);
+		try (Statement st = conn.createStatement()) {
+			st.execute("ALTER TABLE comments ALTER COLUMN path SET NOT NULL");
+			st.execute("CREATE UNIQUE INDEX IF NOT EXISTS idx_comments_answer_path ON comments(answerId, path)");
+		}
+	});
+
+	public static List<Migration> all() {
+		return List.of(V1_BASELINE, V2_READ_INDEXES, V3_BOARD_KEYSET_INDEX, V4_QUESTION_ANSWER_STATS,
+				V5_SEARCH_TERM_TABLES, V6_SEARCH_TERM_BACKFILL, V7_COMMENT_PATHS, V8_COMMENT_PATH_BACKFILL);
+	}
+}
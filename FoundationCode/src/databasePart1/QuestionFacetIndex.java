@@ -0,0 +1,343 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import application.BoardFacetCounts;
+import application.BoardQuery;
+import application.Tags;
+
+/**
+ * In-memory bitmap index of the discussion board facets of every question: visibility,
+ * author, tag, answered and resolved.
+ *
+ * Each question gets an ordinal, and each facet value a {@link CompressedBitmap} of the
+ * ordinals having it. A filter combination is then an AND of a few bitmaps ("unresolved"
+ * and "unanswered" are AND NOTs), and the count of every filter option is the cardinality
+ * of one more AND. Ordinals are handed out in (creationTimestamp, id) order while questions
+ * arrive in that order, so results come out in board order without sorting; a question
+ * that arrives out of order, e.g. from an import, switches {@link #find} to sorting.
+ *
+ * Updates are idempotent: a question's facets are put whole, and the facets that depend on
+ * its answers are set from the event or re-read from the database. Until the startup build
+ * finishes, changed question ids are journaled and re-read once the snapshot is loaded.
+ */
+public class QuestionFacetIndex {
+
+	// The facets of one question as stored in the database.
+	public record FacetedQuestion(String questionId, String authorUserName, Tags tag, boolean isPrivate,
+	                              boolean answered, boolean resolved, long createdMicros) {}
+
+	// Reads the current facets of one question, or null if it no longer exists.
+	@FunctionalInterface
+	public interface Loader {
+		FacetedQuestion load(String questionId) throws SQLException;
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<String, Integer> ordinalById = new HashMap<>();
+	// Per ordinal; entries of removed questions stay until the next rebuild
+	private final List<FacetedQuestion> questionByOrdinal = new ArrayList<>();
+	private CompressedBitmap publicQuestions = new CompressedBitmap();
+	private CompressedBitmap answered = new CompressedBitmap();
+	private CompressedBitmap resolved = new CompressedBitmap();
+	private final Map<Tags, CompressedBitmap> byTag = new EnumMap<>(Tags.class);
+	private final Map<String, CompressedBitmap> byAuthor = new HashMap<>();
+	// True while ordinal order is board order
+	private boolean ordinalOrder = true;
+	private volatile boolean ready = false;
+	private final Set<String> journal = new LinkedHashSet<>();
+
+	// Replaces the whole index with a snapshot, given in (creationTimestamp, id) order, then
+	// re-reads the questions changed while it was being loaded.
+	public void rebuild(Collection<FacetedQuestion> questions, Loader loader) throws SQLException {
+		lock.writeLock().lock();
+		try {
+			ordinalById.clear();
+			questionByOrdinal.clear();
+			publicQuestions = new CompressedBitmap();
+			answered = new CompressedBitmap();
+			resolved = new CompressedBitmap();
+			byTag.clear();
+			byAuthor.clear();
+			ordinalOrder = true;
+			for (FacetedQuestion question : questions) {
+				putLocked(question);
+			}
+			for (String questionId : journal) {
+				reloadLocked(questionId, loader);
+			}
+			journal.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// True once the startup build has finished; until then callers fall back to SQL.
+	public boolean isReady() {
+		return ready;
+	}
+
+	// Adds or replaces a question's facets.
+	public void put(FacetedQuestion question) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(question.questionId());
+				return;
+			}
+			putLocked(question);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Replaces the question's own facets, keeping the answered and resolved flags it has.
+	public void putQuestion(FacetedQuestion question) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(question.questionId());
+				return;
+			}
+			Integer ordinal = ordinalById.get(question.questionId());
+			putLocked(ordinal == null ? question : new FacetedQuestion(question.questionId(), question.authorUserName(),
+					question.tag(), question.isPrivate(), answered.contains(ordinal), resolved.contains(ordinal),
+					question.createdMicros()));
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Marks a question answered; an added answer can never make it unanswered.
+	public void markAnswered(String questionId) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(questionId);
+				return;
+			}
+			Integer ordinal = ordinalById.get(questionId);
+			if (ordinal != null) {
+				answered.add(ordinal);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Re-reads a question whose facets a write changed in a way its event does not tell,
+	// e.g. a deleted answer that may have been its last. The read happens under the write
+	// lock, so a later write's update cannot be overtaken by this older read.
+	public void reload(String questionId, Loader loader) throws SQLException {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(questionId);
+				return;
+			}
+			reloadLocked(questionId, loader);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(String questionId) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(questionId);
+				return;
+			}
+			removeLocked(questionId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Ids of the public questions matching the query in its sort order, at most limit of
+	// them. searchMatches restricts them to the ids the search index found, or is null
+	// when the query has no search text.
+	public List<String> find(BoardQuery query, Collection<String> searchMatches, int limit) {
+		lock.readLock().lock();
+		try {
+			int[] ordinals = match(query, searchMatches, true, true, true).toArray();
+			if (!ordinalOrder) {
+				sortByCreation(ordinals);
+			}
+			List<String> ids = new ArrayList<>(Math.min(limit, ordinals.length));
+			for (int i = 0; i < ordinals.length && ids.size() < limit; i++) {
+				int ordinal = query.isNewestFirst() ? ordinals[ordinals.length - 1 - i] : ordinals[i];
+				ids.add(questionByOrdinal.get(ordinal).questionId());
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// How many questions each tag, status and "show" option would list, each keeping the
+	// query's other filters.
+	public BoardFacetCounts count(BoardQuery query, Collection<String> searchMatches, String userName) {
+		lock.readLock().lock();
+		try {
+			CompressedBitmap anyTag = match(query, searchMatches, false, true, true);
+			Map<Tags, Integer> tagCounts = new EnumMap<>(Tags.class);
+			byTag.forEach((tag, bitmap) -> tagCounts.put(tag, CompressedBitmap.andCardinality(anyTag, bitmap)));
+
+			CompressedBitmap anyStatus = match(query, searchMatches, true, false, true);
+			int all = anyStatus.getCardinality();
+			int resolvedCount = CompressedBitmap.andCardinality(anyStatus, resolved);
+			int answeredCount = CompressedBitmap.andCardinality(anyStatus, answered);
+			Map<BoardQuery.StatusFilter, Integer> statusCounts = new EnumMap<>(BoardQuery.StatusFilter.class);
+			statusCounts.put(BoardQuery.StatusFilter.ALL, all);
+			statusCounts.put(BoardQuery.StatusFilter.RESOLVED, resolvedCount);
+			statusCounts.put(BoardQuery.StatusFilter.UNRESOLVED, all - resolvedCount);
+			statusCounts.put(BoardQuery.StatusFilter.ANSWERED, answeredCount);
+			statusCounts.put(BoardQuery.StatusFilter.UNANSWERED, all - answeredCount);
+
+			CompressedBitmap anyAuthor = match(query, searchMatches, true, true, false);
+			CompressedBitmap mine = byAuthor.get(userName);
+			return new BoardFacetCounts(tagCounts, anyTag.getCardinality(), statusCounts,
+					anyAuthor.getCardinality(), mine == null ? 0 : CompressedBitmap.andCardinality(anyAuthor, mine));
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return ordinalById.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Public questions passing the query's filters; the flags say which filters apply.
+	private CompressedBitmap match(BoardQuery query, Collection<String> searchMatches,
+	                               boolean withTag, boolean withStatus, boolean withAuthor) {
+		CompressedBitmap result = publicQuestions;
+		if (withAuthor && query.getAuthorUserName() != null) {
+			result = and(result, byAuthor.get(query.getAuthorUserName()));
+		}
+		if (withTag && query.getTag() != null) {
+			result = and(result, byTag.get(query.getTag()));
+		}
+		if (withStatus) {
+			result = switch (query.getStatus()) {
+				case RESOLVED -> CompressedBitmap.and(result, resolved);
+				case UNRESOLVED -> CompressedBitmap.andNot(result, resolved);
+				case ANSWERED -> CompressedBitmap.and(result, answered);
+				case UNANSWERED -> CompressedBitmap.andNot(result, answered);
+				case ALL -> result;
+			};
+		}
+		if (searchMatches != null) {
+			CompressedBitmap found = new CompressedBitmap();
+			for (String questionId : searchMatches) {
+				Integer ordinal = ordinalById.get(questionId);
+				if (ordinal != null) {
+					found.add(ordinal);
+				}
+			}
+			result = CompressedBitmap.and(result, found);
+		}
+		// May be a facet bitmap itself; callers only read it under the lock
+		return result;
+	}
+
+	private static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+		return b == null ? new CompressedBitmap() : CompressedBitmap.and(a, b);
+	}
+
+	private void putLocked(FacetedQuestion question) {
+		Integer existing = ordinalById.get(question.questionId());
+		int ordinal;
+		if (existing != null) {
+			ordinal = existing;
+			clearFacets(ordinal);
+			questionByOrdinal.set(ordinal, question);
+		} else {
+			ordinal = questionByOrdinal.size();
+			if (ordinal > 0 && compareCreation(questionByOrdinal.get(ordinal - 1), question) > 0) {
+				ordinalOrder = false;
+			}
+			questionByOrdinal.add(question);
+			ordinalById.put(question.questionId(), ordinal);
+		}
+		if (!question.isPrivate()) {
+			publicQuestions.add(ordinal);
+		}
+		if (question.answered()) {
+			answered.add(ordinal);
+		}
+		if (question.resolved()) {
+			resolved.add(ordinal);
+		}
+		byTag.computeIfAbsent(question.tag(), t -> new CompressedBitmap()).add(ordinal);
+		byAuthor.computeIfAbsent(question.authorUserName(), a -> new CompressedBitmap()).add(ordinal);
+	}
+
+	private void reloadLocked(String questionId, Loader loader) throws SQLException {
+		FacetedQuestion question = loader.load(questionId);
+		if (question == null) {
+			removeLocked(questionId);
+		} else {
+			putLocked(question);
+		}
+	}
+
+	private void removeLocked(String questionId) {
+		Integer ordinal = ordinalById.remove(questionId);
+		if (ordinal != null) {
+			clearFacets(ordinal);
+		}
+	}
+
+	private void clearFacets(int ordinal) {
+		FacetedQuestion old = questionByOrdinal.get(ordinal);
+		publicQuestions.remove(ordinal);
+		answered.remove(ordinal);
+		resolved.remove(ordinal);
+		CompressedBitmap tag = byTag.get(old.tag());
+		if (tag != null) {
+			tag.remove(ordinal);
+		}
+		CompressedBitmap author = byAuthor.get(old.authorUserName());
+		if (author != null) {
+			author.remove(ordinal);
+			if (author.isEmpty()) {
+				byAuthor.remove(old.authorUserName());
+			}
+		}
+	}
+
+	private void sortByCreation(int[] ordinals) {
+		Integer[] boxed = new Integer[ordinals.length];
+		for (int i = 0; i < ordinals.length; i++) {
+			boxed[i] = ordinals[i];
+		}
+		Arrays.sort(boxed, (a, b) -> compareCreation(questionByOrdinal.get(a), questionByOrdinal.get(b)));
+		for (int i = 0; i < ordinals.length; i++) {
+			ordinals[i] = boxed[i];
+		}
+	}
+
+	// Board order: creation time, then id
+	private static int compareCreation(FacetedQuestion a, FacetedQuestion b) {
+		int cmp = Long.compare(a.createdMicros(), b.createdMicros());
+		return cmp != 0 ? cmp : a.questionId().compareTo(b.questionId());
+	}
+}
@@ -0,0 +1,504 @@
+package databasePart1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the titles and bodies of public questions, used for
+ * search-as-you-type on the discussion board.
+ *
+ * Text is split into lowercase letter/digit tokens. A query matches a question when
+ * every query token occurs in its title or body (AND); the last token also matches as
+ * a prefix, so results appear while the user is still typing a word. Matches are
+ * ranked by tf-idf with title hits weighted {@value #TITLE_WEIGHT}x, newest first on ties.
+ *
+ * Every question gets a document number in insertion order. Postings are kept sorted by
+ * document number, so AND queries are linear merges. A removed or replaced question is
+ * only marked deleted; its postings are dropped by a compaction once deleted documents
+ * make up a quarter of the index.
+ */
+public class QuestionSearchIndex {
+
+	static final int TITLE_WEIGHT = 3;
+	private static final double COMPACT_DELETED_RATIO = 0.25;
+	// Prefixes whose postings cover fewer than 1/16 of the documents are merged by sorting
+	private static final int SPARSE_PREFIX_DIVISOR = 16;
+
+	// Document numbers and weights of one term, sorted by document number
+	private static final class Postings {
+		int[] docs = new int[4];
+		int[] weights = new int[4];
+		int size;
+
+		void add(int doc, int weight) {
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+				weights = Arrays.copyOf(weights, size * 2);
+			}
+			docs[size] = doc;
+			weights[size] = weight;
+			size++;
+		}
+	}
+
+	// Documents matching one query token with their partial scores, sorted by document number
+	private static final class Match {
+		final int[] docs;
+		final double[] scores;
+		final int size;
+
+		Match(int[] docs, double[] scores, int size) {
+			this.docs = docs;
+			this.scores = scores;
+			this.size = size;
+		}
+	}
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private final TreeMap<String, Postings> terms = new TreeMap<>();
+	private final Map<String, Integer> docByQuestionId = new HashMap<>();
+	private final List<String> questionIdByDoc = new ArrayList<>();
+	private final BitSet deleted = new BitSet();
+	private volatile boolean ready = false;
+	// Changes made before the first build finished; replayed on top of the loaded snapshot.
+	// A null title marks a removal.
+	private final List<IndexedQuestion> journal = new ArrayList<>();
+
+	// The text of one question as loaded for indexing.
+	public record IndexedQuestion(String questionId, String title, String body) {}
+
+	// Replaces the whole index. Questions should be given oldest first so ties rank newest first.
+	// Changes recorded while the snapshot was being loaded are applied afterwards.
+	public void rebuild(Collection<IndexedQuestion> questions) {
+		lock.writeLock().lock();
+		try {
+			clear();
+			for (IndexedQuestion q : questions) {
+				addLocked(q.questionId(), q.title(), q.body());
+			}
+			for (IndexedQuestion change : journal) {
+				removeLocked(change.questionId());
+				if (change.title() != null) {
+					addLocked(change.questionId(), change.title(), change.body());
+				}
+			}
+			journal.clear();
+			ready = true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// True once the startup build has finished; until then callers fall back to SQL.
+	public boolean isReady() {
+		return ready;
+	}
+
+	// Adds a question, replacing any earlier version of it.
+	public void put(String questionId, String title, String body) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(new IndexedQuestion(questionId, title == null ? "" : title, body));
+				return;
+			}
+			removeLocked(questionId);
+			addLocked(questionId, title, body);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void remove(String questionId) {
+		lock.writeLock().lock();
+		try {
+			if (!ready) {
+				journal.add(new IndexedQuestion(questionId, null, null));
+				return;
+			}
+			removeLocked(questionId);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	// Question ids matching every token of the query, best match first, at most limit of them.
+	// A query without any tokens matches nothing.
+	public List<String> search(String query, int limit) {
+		List<String> tokens = tokenize(query);
+		if (tokens.isEmpty() || limit <= 0) {
+			return new ArrayList<>();
+		}
+		lock.readLock().lock();
+		try {
+			Match match = matchAll(tokens);
+			if (match == null || match.size == 0) {
+				return new ArrayList<>();
+			}
+			return topIds(match, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Every question id matching the query, unranked in index order. Cheaper than search when
+	// the caller imposes its own order, like the board's chronological pages.
+	public List<String> findAll(String query) {
+		List<String> tokens = tokenize(query);
+		if (tokens.isEmpty()) {
+			return new ArrayList<>();
+		}
+		lock.readLock().lock();
+		try {
+			Match match = matchAll(tokens);
+			if (match == null) {
+				return new ArrayList<>();
+			}
+			List<String> ids = new ArrayList<>(match.size);
+			for (int i = 0; i < match.size; i++) {
+				ids.add(questionIdByDoc.get(match.docs[i]));
+			}
+			return ids;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docByQuestionId.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	public int getTermCount() {
+		lock.readLock().lock();
+		try {
+			return terms.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	// Lowercase runs of letters and digits, in order of appearance.
+	static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null) {
+			return tokens;
+		}
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (word && start < 0) {
+				start = i;
+			} else if (!word && start >= 0) {
+				tokens.add(text.substring(start, i).toLowerCase());
+				start = -1;
+			}
+		}
+		return tokens;
+	}
+
+	private void clear() {
+		terms.clear();
+		docByQuestionId.clear();
+		questionIdByDoc.clear();
+		deleted.clear();
+	}
+
+	private void addLocked(String questionId, String title, String body) {
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		for (String t : tokenize(title)) {
+			weights.merge(t, TITLE_WEIGHT, Integer::sum);
+		}
+		for (String t : tokenize(body)) {
+			weights.merge(t, 1, Integer::sum);
+		}
+		int doc = questionIdByDoc.size();
+		questionIdByDoc.add(questionId);
+		docByQuestionId.put(questionId, doc);
+		for (Map.Entry<String, Integer> e : weights.entrySet()) {
+			terms.computeIfAbsent(e.getKey(), k -> new Postings()).add(doc, e.getValue());
+		}
+	}
+
+	private void removeLocked(String questionId) {
+		Integer doc = docByQuestionId.remove(questionId);
+		if (doc == null) {
+			return;
+		}
+		deleted.set(doc);
+		if (deleted.cardinality() > questionIdByDoc.size() * COMPACT_DELETED_RATIO) {
+			compactLocked();
+		}
+	}
+
+	// Drops deleted documents and renumbers the rest, keeping their order.
+	private void compactLocked() {
+		int[] newDoc = new int[questionIdByDoc.size()];
+		List<String> ids = new ArrayList<>();
+		for (int doc = 0; doc < questionIdByDoc.size(); doc++) {
+			if (deleted.get(doc)) {
+				newDoc[doc] = -1;
+			} else {
+				newDoc[doc] = ids.size();
+				ids.add(questionIdByDoc.get(doc));
+			}
+		}
+		for (Postings p : terms.values()) {
+			int kept = 0;
+			for (int i = 0; i < p.size; i++) {
+				int doc = newDoc[p.docs[i]];
+				if (doc >= 0) {
+					p.docs[kept] = doc;
+					p.weights[kept] = p.weights[i];
+					kept++;
+				}
+			}
+			p.size = kept;
+		}
+		terms.values().removeIf(p -> p.size == 0);
+		questionIdByDoc.clear();
+		questionIdByDoc.addAll(ids);
+		docByQuestionId.clear();
+		for (int doc = 0; doc < ids.size(); doc++) {
+			docByQuestionId.put(ids.get(doc), doc);
+		}
+		deleted.clear();
+	}
+
+	// Intersects the matches of every token, smallest first. Null if a token matches nothing.
+	private Match matchAll(List<String> tokens) {
+		List<Match> matches = new ArrayList<>();
+		for (int i = 0; i < tokens.size(); i++) {
+			boolean prefix = i == tokens.size() - 1;
+			Match m = prefix ? matchPrefix(tokens.get(i)) : matchExact(tokens.get(i));
+			if (m == null || m.size == 0) {
+				return null;
+			}
+			matches.add(m);
+		}
+		matches.sort(Comparator.comparingInt(m -> m.size));
+		Match result = matches.get(0);
+		for (int i = 1; i < matches.size() && result.size > 0; i++) {
+			result = intersect(result, matches.get(i));
+		}
+		return result;
+	}
+
+	private Match matchExact(String token) {
+		Postings p = terms.get(token);
+		if (p == null) {
+			return null;
+		}
+		double idf = idf(p);
+		int[] docs = new int[p.size];
+		double[] scores = new double[p.size];
+		boolean anyDeleted = !deleted.isEmpty();
+		int n = 0;
+		for (int i = 0; i < p.size; i++) {
+			if (!anyDeleted || !deleted.get(p.docs[i])) {
+				docs[n] = p.docs[i];
+				scores[n] = p.weights[i] * idf;
+				n++;
+			}
+		}
+		return new Match(docs, scores, n);
+	}
+
+	// Union over every term starting with the prefix; a document scores its best expansion.
+	private Match matchPrefix(String prefix) {
+		SortedMap<String, Postings> expansions = terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+		int total = 0;
+		int count = 0;
+		String first = null;
+		for (Map.Entry<String, Postings> e : expansions.entrySet()) {
+			if (first == null) {
+				first = e.getKey();
+			}
+			total += e.getValue().size;
+			count++;
+		}
+		if (count == 0) {
+			return null;
+		}
+		if (count == 1) {
+			return matchExact(first);
+		}
+		return total < questionIdByDoc.size() / SPARSE_PREFIX_DIVISOR
+				? unionSparse(expansions.values(), total)
+				: unionDense(expansions.values());
+	}
+
+	// Marks every document in an array indexed by document number, then scans it in order.
+	private Match unionDense(Collection<Postings> expansions) {
+		double[] best = new double[questionIdByDoc.size()];
+		int touched = 0;
+		for (Postings p : expansions) {
+			double idf = idf(p);
+			for (int i = 0; i < p.size; i++) {
+				int doc = p.docs[i];
+				double score = p.weights[i] * idf;
+				if (best[doc] == 0) {
+					touched++;
+				}
+				if (score > best[doc]) {
+					best[doc] = score;
+				}
+			}
+		}
+		int[] docs = new int[touched];
+		double[] scores = new double[touched];
+		int n = 0;
+		for (int doc = 0, seen = 0; doc < best.length && seen < touched; doc++) {
+			if (best[doc] > 0) {
+				seen++;
+				if (!deleted.get(doc)) {
+					docs[n] = doc;
+					scores[n] = best[doc];
+					n++;
+				}
+			}
+		}
+		return new Match(docs, scores, n);
+	}
+
+	// Sorts the postings by document number instead, for prefixes that hit few documents.
+	// Each entry packs the document number above the index of its score.
+	private Match unionSparse(Collection<Postings> expansions, int total) {
+		long[] entries = new long[total];
+		double[] candidateScores = new double[total];
+		int e = 0;
+		for (Postings p : expansions) {
+			double idf = idf(p);
+			for (int i = 0; i < p.size; i++) {
+				candidateScores[e] = p.weights[i] * idf;
+				entries[e] = ((long) p.docs[i] << 32) | e;
+				e++;
+			}
+		}
+		Arrays.sort(entries);
+		int[] docs = new int[total];
+		double[] scores = new double[total];
+		int n = 0;
+		for (long entry : entries) {
+			int doc = (int) (entry >>> 32);
+			double score = candidateScores[(int) entry];
+			if (n > 0 && docs[n - 1] == doc) {
+				scores[n - 1] = Math.max(scores[n - 1], score);
+			} else if (!deleted.get(doc)) {
+				docs[n] = doc;
+				scores[n] = score;
+				n++;
+			}
+		}
+		return new Match(docs, scores, n);
+	}
+
+	private static Match intersect(Match a, Match b) {
+		int[] docs = new int[Math.min(a.size, b.size)];
+		double[] scores = new double[docs.length];
+		int n = 0;
+		int i = 0;
+		int j = 0;
+		while (i < a.size && j < b.size) {
+			if (a.docs[i] < b.docs[j]) {
+				i++;
+			} else if (a.docs[i] > b.docs[j]) {
+				j++;
+			} else {
+				docs[n] = a.docs[i];
+				scores[n] = a.scores[i] + b.scores[j];
+				n++;
+				i++;
+				j++;
+			}
+		}
+		return new Match(docs, scores, n);
+	}
+
+	private double idf(Postings p) {
+		return Math.log(1.0 + (double) Math.max(1, docByQuestionId.size()) / p.size);
+	}
+
+	// Best limit documents by score, newest (highest document number) first on ties.
+	// A min-heap of match positions keeps the best seen so far, with the worst at its root.
+	private List<String> topIds(Match match, int limit) {
+		int k = Math.min(limit, match.size);
+		int[] heap = new int[k];
+		int n = 0;
+		// Newest first, so a later candidate only displaces one with a strictly lower score.
+		for (int i = match.size - 1; i >= 0; i--) {
+			if (n < k) {
+				heap[n] = i;
+				siftUp(match, heap, n++);
+			} else if (ranksAbove(match, i, heap[0])) {
+				heap[0] = i;
+				siftDown(match, heap, n);
+			}
+		}
+		// Popping the worst first fills the result from the back.
+		String[] ids = new String[n];
+		while (n > 0) {
+			ids[n - 1] = questionIdByDoc.get(match.docs[heap[0]]);
+			heap[0] = heap[--n];
+			siftDown(match, heap, n);
+		}
+		return new ArrayList<>(Arrays.asList(ids));
+	}
+
+	private static boolean ranksAbove(Match match, int x, int y) {
+		if (match.scores[x] != match.scores[y]) {
+			return match.scores[x] > match.scores[y];
+		}
+		return match.docs[x] > match.docs[y];
+	}
+
+	private static void siftUp(Match match, int[] heap, int pos) {
+		while (pos > 0) {
+			int parent = (pos - 1) / 2;
+			if (!ranksAbove(match, heap[parent], heap[pos])) {
+				return;
+			}
+			int tmp = heap[parent];
+			heap[parent] = heap[pos];
+			heap[pos] = tmp;
+			pos = parent;
+		}
+	}
+
+	private static void siftDown(Match match, int[] heap, int size) {
+		int pos = 0;
+		while (true) {
+			int worst = pos;
+			int left = 2 * pos + 1;
+			int right = left + 1;
+			if (left < size && ranksAbove(match, heap[worst], heap[left])) {
+				worst = left;
+			}
+			if (right < size && ranksAbove(match, heap[worst], heap[right])) {
+				worst = right;
+			}
+			if (worst == pos) {
+				return;
+			}
+			int tmp = heap[worst];
+			heap[worst] = heap[pos];
+			heap[pos] = tmp;
+			pos = worst;
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Persistent term statistics for ranking similar questions with BM25.
+ *
+ * Each public question is stored as a bag of terms in {@code search_postings}, with
+ * title terms counted {@value QuestionSearchIndex#TITLE_WEIGHT} times. The document
+ * frequency of every term ({@code search_terms}) and the corpus size and total length
+ * ({@code search_corpus}) are kept alongside. {@link DatabaseHelper} updates all three in
+ * the same transaction as the question write, so a query only reads the postings of its
+ * own terms and never scans the questions table.
+ *
+ * Unlike the board search, a question matches if it shares any term with the query, so
+ * reworded duplicates are still found; questions sharing rarer terms rank higher. A query
+ * reads at most {@value #POSTINGS_PER_TERM} postings per term, the ones that term scores
+ * highest, which bounds its cost; a common term can then miss weak matches, but those
+ * contribute little to the score anyway.
+ */
+public class QuestionTermIndex {
+
+	// BM25 term frequency saturation and length normalization
+	static final double K1 = 1.2;
+	static final double B = 0.75;
+	// Longer tokens are cut to fit the term column
+	static final int MAX_TERM_LENGTH = 64;
+	// Postings read per query term; see topK
+	static final int POSTINGS_PER_TERM = 500;
+	private static final int BATCH_SIZE = 1_000;
+
+	// Words too common to tell questions apart
+	private static final Set<String> STOP_WORDS = Set.of(
+			"a", "an", "and", "are", "as", "at", "be", "but", "by", "can", "do", "does", "for", "from",
+			"how", "i", "if", "in", "is", "it", "my", "of", "on", "or", "so", "that", "the", "this",
+			"to", "was", "we", "what", "when", "where", "which", "why", "with", "you");
+
+	// A question id with its BM25 score for a query.
+	public record ScoredQuestion(String questionId, double score) {}
+
+	// Instrumentation counters
+	private final AtomicLong queryCount = new AtomicLong();
+	private final AtomicLong postingsRead = new AtomicLong();
+	private final AtomicLong queryNanos = new AtomicLong();
+	private final AtomicLong indexedCount = new AtomicLong();
+
+	// Stores the question's terms, replacing any earlier version. Runs in the caller's
+	// transaction so the statistics change together with the question row.
+	public void index(Connection conn, String questionId, String title, String body) throws SQLException {
+		remove(conn, questionId);
+		Map<String, Integer> tfs = termFrequencies(title, body);
+		if (tfs.isEmpty()) {
+			return;
+		}
+		int length = tfs.values().stream().mapToInt(Integer::intValue).sum();
+		try (PreparedStatement postings = conn.prepareStatement(
+				"INSERT INTO search_postings (term, question_id, tf, doc_length) VALUES (?, ?, ?, ?)");
+		     PreparedStatement terms = conn.prepareStatement(
+				"MERGE INTO search_terms t USING (VALUES (CAST(? AS VARCHAR(64)))) s(term) ON t.term = s.term "
+				+ "WHEN MATCHED THEN UPDATE SET doc_freq = t.doc_freq + 1 "
+				+ "WHEN NOT MATCHED THEN INSERT (term, doc_freq) VALUES (s.term, 1)")) {
+			for (Map.Entry<String, Integer> e : tfs.entrySet()) {
+				postings.setString(1, e.getKey());
+				postings.setString(2, questionId);
+				postings.setInt(3, e.getValue());
+				postings.setInt(4, length);
+				postings.addBatch();
+				terms.setString(1, e.getKey());
+				terms.addBatch();
+			}
+			postings.executeBatch();
+			terms.executeBatch();
+		}
+		updateCorpus(conn, 1, length);
+		indexedCount.incrementAndGet();
+	}
+
+	// Drops the question's terms, if it has any. Runs in the caller's transaction.
+	public void remove(Connection conn, String questionId) throws SQLException {
+		List<String> terms = new ArrayList<>();
+		int length = 0;
+		try (PreparedStatement pstmt = conn.prepareStatement(
+				"SELECT term, doc_length FROM search_postings WHERE question_id = ?")) {
+			pstmt.setString(1, questionId);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					terms.add(rs.getString("term"));
+					length = rs.getInt("doc_length");
+				}
+			}
+		}
+		if (terms.isEmpty()) {
+			return;
+		}
+		try (PreparedStatement decrement = conn.prepareStatement(
+				"UPDATE search_terms SET doc_freq = doc_freq - 1 WHERE term = ?");
+		     PreparedStatement prune = conn.prepareStatement(
+				"DELETE FROM search_terms WHERE term = ? AND doc_freq <= 0");
+		     PreparedStatement postings = conn.prepareStatement(
+				"DELETE FROM search_postings WHERE question_id = ?")) {
+			for (String term : terms) {
+				decrement.setString(1, term);
+				decrement.addBatch();
+				prune.setString(1, term);
+				prune.addBatch();
+			}
+			decrement.executeBatch();
+			prune.executeBatch();
+			postings.setString(1, questionId);
+			postings.executeUpdate();
+		}
+		updateCorpus(conn, -1, -length);
+	}
+
+	// Rebuilds all statistics from the public questions in one pass. Used by the backfill
+	// migration and to repair the tables after writes that bypassed DatabaseHelper.
+	public void rebuild(Connection conn) throws SQLException {
+		try (Statement st = conn.createStatement()) {
+			st.execute("DELETE FROM search_postings");
+			st.execute("DELETE FROM search_terms");
+			st.execute("DELETE FROM search_corpus");
+		}
+		Map<String, Integer> docFreqs = new HashMap<>();
+		long docCount = 0;
+		long totalLength = 0;
+		try (PreparedStatement select = conn.prepareStatement(
+				"SELECT id, title, body FROM questions WHERE isPrivate = FALSE");
+		     PreparedStatement postings = conn.prepareStatement(
+				"INSERT INTO search_postings (term, question_id, tf, doc_length) VALUES (?, ?, ?, ?)");
+		     ResultSet rs = select.executeQuery()) {
+			int pending = 0;
+			while (rs.next()) {
+				Map<String, Integer> tfs = termFrequencies(rs.getString("title"), rs.getString("body"));
+				if (tfs.isEmpty()) {
+					continue;
+				}
+				int length = tfs.values().stream().mapToInt(Integer::intValue).sum();
+				for (Map.Entry<String, Integer> e : tfs.entrySet()) {
+					postings.setString(1, e.getKey());
+					postings.setString(2, rs.getString("id"));
+					postings.setInt(3, e.getValue());
+					postings.setInt(4, length);
+					postings.addBatch();
+					docFreqs.merge(e.getKey(), 1, Integer::sum);
+					if (++pending == BATCH_SIZE) {
+						postings.executeBatch();
+						pending = 0;
+					}
+				}
+				docCount++;
+				totalLength += length;
+			}
+			postings.executeBatch();
+		}
+		try (PreparedStatement terms = conn.prepareStatement(
+				"INSERT INTO search_terms (term, doc_freq) VALUES (?, ?)")) {
+			int pending = 0;
+			for (Map.Entry<String, Integer> e : docFreqs.entrySet()) {
+				terms.setString(1, e.getKey());
+				terms.setInt(2, e.getValue());
+				terms.addBatch();
+				if (++pending == BATCH_SIZE) {
+					terms.executeBatch();
+					pending = 0;
+				}
+			}
+			terms.executeBatch();
+		}
+		try (PreparedStatement corpus = conn.prepareStatement(
+				"INSERT INTO search_corpus (id, doc_count, total_length) VALUES (1, ?, ?)")) {
+			corpus.setLong(1, docCount);
+			corpus.setLong(2, totalLength);
+			corpus.executeUpdate();
+		}
+	}
+
+	// The k best matching questions for the text, highest BM25 score first.
+	public List<ScoredQuestion> topK(Connection conn, String text, int k) throws SQLException {
+		long start = System.nanoTime();
+		List<String> queryTerms = new ArrayList<>(termFrequencies(text, null).keySet());
+		if (queryTerms.isEmpty() || k <= 0) {
+			return new ArrayList<>();
+		}
+		long docCount;
+		double avgLength;
+		try (PreparedStatement pstmt = conn.prepareStatement(
+				"SELECT doc_count, total_length FROM search_corpus WHERE id = 1");
+		     ResultSet rs = pstmt.executeQuery()) {
+			if (!rs.next() || rs.getLong("doc_count") <= 0) {
+				return new ArrayList<>();
+			}
+			docCount = rs.getLong("doc_count");
+			avgLength = (double) rs.getLong("total_length") / docCount;
+		}
+		Object[] termArray = queryTerms.toArray();
+		Map<String, Double> idfs = new HashMap<>();
+		try (PreparedStatement pstmt = conn.prepareStatement(
+				"SELECT term, doc_freq FROM search_terms WHERE term = ANY(?)")) {
+			pstmt.setObject(1, termArray);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					int df = rs.getInt("doc_freq");
+					idfs.put(rs.getString("term"), Math.log(1 + (docCount - df + 0.5) / (df + 0.5)));
+				}
+			}
+		}
+		if (idfs.isEmpty()) {
+			return new ArrayList<>();
+		}
+		Map<String, Double> scores = new HashMap<>();
+		long read = 0;
+		// Only each term's strongest postings are read (highest tf, then shortest question),
+		// so a common term costs at most POSTINGS_PER_TERM rows however large the forum grows.
+		// Ordering by term as well lets H2 stream them from the covering impact index and stop.
+		try (PreparedStatement pstmt = conn.prepareStatement(
+				"SELECT question_id, tf, doc_length FROM search_postings WHERE term = ? "
+				+ "ORDER BY term, tf DESC, doc_length LIMIT " + POSTINGS_PER_TERM)) {
+			for (Map.Entry<String, Double> term : idfs.entrySet()) {
+				pstmt.setString(1, term.getKey());
+				try (ResultSet rs = pstmt.executeQuery()) {
+					while (rs.next()) {
+						int tf = rs.getInt("tf");
+						double norm = K1 * (1 - B + B * rs.getInt("doc_length") / avgLength);
+						scores.merge(rs.getString("question_id"), term.getValue() * tf * (K1 + 1) / (tf + norm), Double::sum);
+						read++;
+					}
+				}
+			}
+		}
+		List<ScoredQuestion> ranked = new ArrayList<>(scores.size());
+		scores.forEach((id, score) -> ranked.add(new ScoredQuestion(id, score)));
+		ranked.sort((a, b) -> {
+			int c = Double.compare(b.score(), a.score());
+			return c != 0 ? c : a.questionId().compareTo(b.questionId());
+		});
+		queryCount.incrementAndGet();
+		postingsRead.addAndGet(read);
+		queryNanos.addAndGet(System.nanoTime() - start);
+		return new ArrayList<>(ranked.subList(0, Math.min(k, ranked.size())));
+	}
+
+	// Term counts of a question: title terms count TITLE_WEIGHT times, stop words are dropped.
+	static Map<String, Integer> termFrequencies(String title, String body) {
+		Map<String, Integer> tfs = new LinkedHashMap<>();
+		for (String t : terms(title)) {
+			tfs.merge(t, QuestionSearchIndex.TITLE_WEIGHT, Integer::sum);
+		}
+		for (String t : terms(body)) {
+			tfs.merge(t, 1, Integer::sum);
+		}
+		return tfs;
+	}
+
+	private static List<String> terms(String text) {
+		List<String> terms = new ArrayList<>();
+		for (String token : QuestionSearchIndex.tokenize(text)) {
+			if (!STOP_WORDS.contains(token)) {
+				terms.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+			}
+		}
+		return terms;
+	}
+
+	private static void updateCorpus(Connection conn, int docDelta, long lengthDelta) throws SQLException {
+		try (PreparedStatement pstmt = conn.prepareStatement(
+				"UPDATE search_corpus SET doc_count = doc_count + ?, total_length = total_length + ? WHERE id = 1")) {
+			pstmt.setInt(1, docDelta);
+			pstmt.setLong(2, lengthDelta);
+			pstmt.executeUpdate();
+		}
+	}
+
+	public long getQueryCount() { return queryCount.get(); }
+	public long getPostingsRead() { return postingsRead.get(); }
+	public long getIndexedCount() { return indexedCount.get(); }
+
+	public double getAverageQueryMillis() {
+		long queries = queryCount.get();
+		return queries == 0 ? 0 : queryNanos.get() / 1e6 / queries;
+	}
+}
@@ -0,0 +1,166 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Brings a database up to the latest schema by applying pending {@link Migration}s
+ * in version order and recording each one in the {@code schema_version} table.
+ *
+ * When every migration has already been applied, {@link #migrate(Connection)} costs
+ * a single SELECT and runs no DDL at all.
+ */
+public class SchemaMigrator {
+
+	static final String VERSION_TABLE = "schema_version";
+
+	private final List<Migration> migrations;
+
+	public SchemaMigrator(List<Migration> migrations) {
+		List<Migration> sorted = new ArrayList<>(migrations);
+		sorted.sort(Comparator.comparingInt(Migration::getVersion));
+		for (int i = 1; i < sorted.size(); i++) {
+			if (sorted.get(i).getVersion() == sorted.get(i - 1).getVersion()) {
+				throw new IllegalArgumentException("Duplicate migration version " + sorted.get(i).getVersion());
+			}
+		}
+		this.migrations = sorted;
+	}
+
+	public int getLatestVersion() {
+		return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+	}
+
+	// Applies every pending foreground migration. Returns how many were applied.
+	// Throws if an applied migration no longer matches its recorded checksum.
+	public synchronized int migrate(Connection conn) throws SQLException {
+		List<Migration> pending = pending(conn, false);
+		if (pending.isEmpty()) {
+			return 0;
+		}
+		ensureVersionTable(conn);
+		for (Migration m : pending) {
+			apply(conn, m);
+		}
+		return pending.size();
+	}
+
+	// Starts a daemon thread that applies the pending background migrations with a
+	// connection from the given source. Returns null when nothing is pending.
+	public Thread startBackgroundMigrations(Callable<Connection> connectionSource) throws SQLException {
+		List<Migration> pending;
+		try (Connection conn = connectionSource.call()) {
+			pending = pending(conn, true);
+		} catch (SQLException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SQLException("Could not open a connection for background migrations", e);
+		}
+		if (pending.isEmpty()) {
+			return null;
+		}
+		Thread worker = new Thread(() -> {
+			for (Migration m : pending) {
+				try (Connection conn = connectionSource.call()) {
+					synchronized (this) {
+						if (!appliedVersions(conn).containsKey(m.getVersion())) {
+							apply(conn, m);
+						}
+					}
+				} catch (Exception e) {
+					System.err.println("Background migration " + m + " failed, will retry on next startup: " + e.getMessage());
+					return;
+				}
+			}
+		}, "schema-background-migrations");
+		worker.setDaemon(true);
+		worker.start();
+		return worker;
+	}
+
+	// Pending migrations of the requested kind, after checking the checksums of applied ones.
+	private List<Migration> pending(Connection conn, boolean background) throws SQLException {
+		Map<Integer, String> applied = appliedVersions(conn);
+		List<Migration> pending = new ArrayList<>();
+		for (Migration m : migrations) {
+			String checksum = applied.get(m.getVersion());
+			if (checksum == null) {
+				if (m.isBackground() == background) {
+					pending.add(m);
+				}
+			} else if (!checksum.equals(m.getChecksum())) {
+				throw new SQLException("Migration " + m + " was changed after it was applied (checksum "
+						+ checksum + " in database, " + m.getChecksum() + " in code)");
+			}
+		}
+		return pending;
+	}
+
+	// version -> checksum of every applied migration; empty if the table does not exist yet
+	private Map<Integer, String> appliedVersions(Connection conn) throws SQLException {
+		Map<Integer, String> applied = new HashMap<>();
+		if (!versionTableExists(conn)) {
+			return applied;
+		}
+		try (PreparedStatement pstmt = conn.prepareStatement("SELECT version, checksum FROM " + VERSION_TABLE);
+		     ResultSet rs = pstmt.executeQuery()) {
+			while (rs.next()) {
+				applied.put(rs.getInt("version"), rs.getString("checksum"));
+			}
+		}
+		return applied;
+	}
+
+	private boolean versionTableExists(Connection conn) throws SQLException {
+		try (ResultSet rs = conn.getMetaData().getTables(null, null, VERSION_TABLE.toUpperCase(), null)) {
+			return rs.next();
+		}
+	}
+
+	private void ensureVersionTable(Connection conn) throws SQLException {
+		try (Statement st = conn.createStatement()) {
+			st.execute("CREATE TABLE IF NOT EXISTS " + VERSION_TABLE + " ("
+					+ "version INT PRIMARY KEY, "
+					+ "description VARCHAR(255), "
+					+ "checksum VARCHAR(16), "
+					+ "installedOn TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+					+ "executionMillis BIGINT)");
+		}
+	}
+
+	// Runs one migration and records it. H2 commits DDL implicitly, so migrations are
+	// written to be safe to re-run (IF NOT EXISTS) in case a crash lands in between.
+	private void apply(Connection conn, Migration m) throws SQLException {
+		ensureVersionTable(conn);
+		long start = System.currentTimeMillis();
+		boolean autoCommit = conn.getAutoCommit();
+		conn.setAutoCommit(false);
+		try {
+			m.apply(conn);
+			try (PreparedStatement pstmt = conn.prepareStatement(
+					"INSERT INTO " + VERSION_TABLE + " (version, description, checksum, executionMillis) VALUES (?, ?, ?, ?)")) {
+				pstmt.setInt(1, m.getVersion());
+				pstmt.setString(2, m.getDescription());
+				pstmt.setString(3, m.getChecksum());
+				pstmt.setLong(4, System.currentTimeMillis() - start);
+				pstmt.executeUpdate();
+			}
+			conn.commit();
+			System.out.println("Applied schema migration " + m + " in " + (System.currentTimeMillis() - start) + " ms");
+		} catch (SQLException | RuntimeException e) {
+			conn.rollback();
+			throw e;
+		} finally {
+			conn.setAutoCommit(autoCommit);
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+
+/**
+ * Turns live-typing input into as few database queries as possible.
+ *
+ * Each {@link #submit(Object)} restarts a debounce timer; only input that stays unchanged
+ * for the debounce period is queried. Queries run through
+ * {@link AsyncDatabaseHelper#submitLatest(String, AsyncDatabaseHelper.Query)} on the
+ * pipeline's channel, so a newer query supersedes one still in flight and its result is
+ * dropped. Results are cached (LRU) by query, so going back to an earlier input, e.g.
+ * deleting the last typed character, is answered without a query. The cache lives as long
+ * as the pipeline, which views create once per visit.
+ *
+ * Queries must have value semantics ({@code equals}/{@code hashCode}); text queries should
+ * be passed through {@link #normalize(String)}. A pipeline is not thread-safe: call it from
+ * the FX thread, where results and errors are also delivered.
+ */
+public class SearchPipeline<Q, R> {
+
+	// The query run for an input that settled.
+	@FunctionalInterface
+	public interface Search<Q, R> {
+		R run(DatabaseHelper db, Q query) throws SQLException;
+	}
+
+	// One daemon thread times the debounce of every pipeline; it only hands work back to the FX thread.
+	private static ScheduledExecutorService sharedTimer;
+
+	private final AsyncDatabaseHelper async;
+	private final String channel;
+	private final long debounceMillis;
+	private final Search<Q, R> search;
+	private final Consumer<R> onResult;
+	private final Consumer<Throwable> onError;
+	private final Executor uiExecutor;
+	private final ScheduledExecutorService timer;
+	private final Map<Q, R> cache;
+
+	private ScheduledFuture<?> pendingTimer;
+	// The most recent input; only its result is delivered
+	private Q latest;
+	private Q inFlight;
+	// Bumped by every input, so a timer started for older input does nothing
+	private long generation;
+
+	// Instrumentation counters
+	private final AtomicLong inputCount = new AtomicLong();
+	private final AtomicLong queryCount = new AtomicLong();
+	private final AtomicLong cacheHitCount = new AtomicLong();
+	private final AtomicLong debouncedCount = new AtomicLong();
+	private final AtomicLong supersededCount = new AtomicLong();
+
+	public SearchPipeline(DatabaseHelper db, String channel, long debounceMillis, int cacheSize,
+	                      Search<Q, R> search, Consumer<R> onResult, Consumer<Throwable> onError) {
+		this(db.async(), channel, debounceMillis, cacheSize, search, onResult, onError, Platform::runLater, sharedTimer());
+	}
+
+	// Lets tests supply their own UI thread and timer.
+	public SearchPipeline(AsyncDatabaseHelper async, String channel, long debounceMillis, int cacheSize,
+	                      Search<Q, R> search, Consumer<R> onResult, Consumer<Throwable> onError,
+	                      Executor uiExecutor, ScheduledExecutorService timer) {
+		this.async = async;
+		this.channel = channel;
+		this.debounceMillis = debounceMillis;
+		this.search = search;
+		this.onResult = onResult;
+		this.onError = onError;
+		this.uiExecutor = uiExecutor;
+		this.timer = timer;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Q, R> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	// Lowercases, trims and collapses whitespace, so inputs that search alike share a cache entry.
+	public static String normalize(String text) {
+		return text == null ? "" : text.trim().replaceAll("\\s+", " ").toLowerCase();
+	}
+
+	// Queries the input once it has been left unchanged for the debounce period.
+	public void submit(Q query) {
+		accept(query, true);
+	}
+
+	// Queries the input right away, e.g. for a filter picked from a list.
+	public void submitNow(Q query) {
+		accept(query, false);
+	}
+
+	// Drops pending input and any query in flight; nothing is delivered for them.
+	public void cancel() {
+		generation++;
+		latest = null;
+		cancelTimer();
+		if (inFlight != null) {
+			async.cancel(channel);
+			inFlight = null;
+		}
+	}
+
+	// Forgets cached results, e.g. after the user changed the data being searched.
+	public void invalidate() {
+		cache.clear();
+	}
+
+	private void accept(Q query, boolean debounce) {
+		inputCount.incrementAndGet();
+		long current = ++generation;
+		latest = query;
+		cancelTimer();
+		R cached = cache.get(query);
+		if (cached != null) {
+			cacheHitCount.incrementAndGet();
+			if (inFlight != null) {
+				async.cancel(channel);
+				inFlight = null;
+			}
+			onResult.accept(cached);
+			return;
+		}
+		if (query.equals(inFlight)) {
+			return; // already on its way
+		}
+		if (!debounce || debounceMillis <= 0) {
+			run(query);
+			return;
+		}
+		pendingTimer = timer.schedule(() -> uiExecutor.execute(() -> {
+			if (current == generation) {
+				pendingTimer = null;
+				run(query);
+			}
+		}), debounceMillis, TimeUnit.MILLISECONDS);
+	}
+
+	private void run(Q query) {
+		if (inFlight != null) {
+			supersededCount.incrementAndGet();
+		}
+		inFlight = query;
+		queryCount.incrementAndGet();
+		async.submitLatest(channel, db -> search.run(db, query)).whenComplete((result, error) -> {
+			if (AsyncDatabaseHelper.isCancellation(error)) {
+				return;
+			}
+			inFlight = null;
+			if (error == null) {
+				cache.put(query, result);
+			}
+			// Input typed meanwhile has its own timer running; keep the result for it in the cache only.
+			if (!query.equals(latest)) {
+				return;
+			}
+			if (error != null) {
+				onError.accept(error);
+			} else {
+				onResult.accept(result);
+			}
+		});
+	}
+
+	private void cancelTimer() {
+		if (pendingTimer != null) {
+			if (pendingTimer.cancel(false)) {
+				debouncedCount.incrementAndGet();
+			}
+			pendingTimer = null;
+		}
+	}
+
+	private static synchronized ScheduledExecutorService sharedTimer() {
+		if (sharedTimer == null) {
+			sharedTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread t = new Thread(r, "search-debounce");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+		return sharedTimer;
+	}
+
+	// Inputs received (normally one per keystroke)
+	public long getInputCount() { return inputCount.get(); }
+	// Queries actually sent to the database
+	public long getQueryCount() { return queryCount.get(); }
+	public long getCacheHitCount() { return cacheHitCount.get(); }
+	// Inputs replaced by newer input before their debounce period ran out
+	public long getDebouncedCount() { return debouncedCount.get(); }
+	// Queries sent but replaced by a newer one before their result arrived
+	public long getSupersededCount() { return supersededCount.get(); }
+
+	public String describe() {
+		return String.format("search[%s: inputs=%d, queries=%d, cacheHits=%d, debounced=%d, superseded=%d]",
+				channel, getInputCount(), getQueryCount(), getCacheHitCount(), getDebouncedCount(), getSupersededCount());
+	}
+}
@@ -0,0 +1,166 @@
+package databasePart1;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of prepared statements for one physical connection, keyed by SQL text.
+ *
+ * The statements handed out are proxies: closing one clears its parameters and
+ * keeps it for the next caller instead of closing it, so H2 does not re-parse and
+ * re-plan the same SQL on every call. A connection is only used by one borrower
+ * at a time, so the cache itself needs no locking; the counters are shared with
+ * the pool and therefore atomic.
+ */
+class StatementCache {
+
+	private final Connection physical;
+	private final int maxSize;
+	private final AtomicLong hits;
+	private final AtomicLong misses;
+	private final AtomicLong evictions;
+	private final LinkedHashMap<String, Entry> entries;
+
+	StatementCache(Connection physical, int maxSize, AtomicLong hits, AtomicLong misses, AtomicLong evictions) {
+		this.physical = physical;
+		this.maxSize = maxSize;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		// access-order so iteration starts at the least recently used statement
+		this.entries = new LinkedHashMap<>(16, 0.75f, true);
+	}
+
+	// Returns a cached statement for the SQL, preparing it on a miss. If the cached
+	// statement is still open in an enclosing call, a plain uncached one is returned.
+	PreparedStatement prepare(String sql) throws SQLException {
+		if (maxSize <= 0) {
+			misses.incrementAndGet();
+			return physical.prepareStatement(sql);
+		}
+		Entry entry = entries.get(sql);
+		if (entry != null) {
+			if (entry.inUse) {
+				misses.incrementAndGet();
+				return physical.prepareStatement(sql);
+			}
+			hits.incrementAndGet();
+			return entry.checkOut();
+		}
+		misses.incrementAndGet();
+		entry = new Entry(physical.prepareStatement(sql));
+		entries.put(sql, entry);
+		evictOverflow();
+		return entry.checkOut();
+	}
+
+	// Closes least recently used statements beyond the size limit. A statement that
+	// is checked out is closed when its borrower gives it back.
+	private void evictOverflow() {
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while (entries.size() > maxSize && it.hasNext()) {
+			Entry eldest = it.next().getValue();
+			it.remove();
+			evictions.incrementAndGet();
+			eldest.evicted = true;
+			if (!eldest.inUse) {
+				eldest.closeQuietly();
+			}
+		}
+	}
+
+	int size() {
+		return entries.size();
+	}
+
+	// Closes every cached statement, e.g. before the physical connection is discarded.
+	void clear() {
+		for (Entry entry : entries.values()) {
+			entry.closeQuietly();
+		}
+		entries.clear();
+	}
+
+	// One cached statement plus the proxy currently handed out for it.
+	private static final class Entry {
+		private final PreparedStatement statement;
+		private boolean inUse = false;
+		private boolean evicted = false;
+
+		Entry(PreparedStatement statement) {
+			this.statement = statement;
+		}
+
+		PreparedStatement checkOut() {
+			inUse = true;
+			return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+					new Class<?>[] {PreparedStatement.class}, new Handle(this));
+		}
+
+		void checkIn() throws SQLException {
+			inUse = false;
+			if (evicted) {
+				statement.close();
+				return;
+			}
+			statement.clearParameters();
+			statement.clearBatch();
+		}
+
+		void closeQuietly() {
+			try {
+				statement.close();
+			} catch (SQLException ignore) {
+			}
+		}
+	}
+
+	// Proxy handler for one checkout; close() returns the statement to the cache.
+	private static final class Handle implements InvocationHandler {
+		private final Entry entry;
+		private boolean returned = false;
+
+		Handle(Entry entry) {
+			this.entry = entry;
+		}
+
+		@Override
+		public Object invoke(Object proxyObject, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+				case "close":
+					if (!returned) {
+						returned = true;
+						entry.checkIn();
+					}
+					return null;
+				case "isClosed":
+					return returned || entry.statement.isClosed();
+				case "equals":
+					return proxyObject == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxyObject);
+				case "toString":
+					return "CachedStatement[" + entry.statement + "]";
+				default:
+					break;
+			}
+			if (returned) {
+				throw new SQLException("Statement has already been closed");
+			}
+			try {
+				return method.invoke(entry.statement, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+		}
+	}
+}
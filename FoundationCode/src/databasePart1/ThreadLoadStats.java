@@ -0,0 +1,65 @@
+package databasePart1;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timings of the lazy loads behind a question's thread.
+ *
+ * {@link DatabaseHelper#getAnswerPage} records every page of answers and
+ * {@link DatabaseHelper#getComments} every comment subtree level fetched when a
+ * collapsed answer or comment is expanded, as does {@link DatabaseHelper#getCommentSubtree}
+ * for multi-level slices. Each kind keeps its load count, rows read,
+ * total and slowest time, so a thread that opens or expands slowly shows up here.
+ */
+public class ThreadLoadStats {
+
+	// Counters of one kind of load.
+	public static final class Timing {
+		private final AtomicLong loads = new AtomicLong();
+		private final AtomicLong rows = new AtomicLong();
+		private final AtomicLong totalNanos = new AtomicLong();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		void record(long nanos, int rowCount) {
+			loads.incrementAndGet();
+			rows.addAndGet(rowCount);
+			totalNanos.addAndGet(nanos);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		public long getLoadCount() { return loads.get(); }
+		public long getRowCount() { return rows.get(); }
+
+		public double getAverageMillis() {
+			long count = loads.get();
+			return count == 0 ? 0 : totalNanos.get() / 1e6 / count;
+		}
+
+		public double getMaxMillis() {
+			return maxNanos.get() / 1e6;
+		}
+
+		private String describe() {
+			return String.format("loads=%d, rows=%d, avg=%.2fms, max=%.2fms",
+					getLoadCount(), getRowCount(), getAverageMillis(), getMaxMillis());
+		}
+	}
+
+	private final Timing answerPages = new Timing();
+	private final Timing commentSubtrees = new Timing();
+
+	void recordAnswerPage(long nanos, int rowCount) {
+		answerPages.record(nanos, rowCount);
+	}
+
+	void recordCommentSubtree(long nanos, int rowCount) {
+		commentSubtrees.record(nanos, rowCount);
+	}
+
+	public Timing getAnswerPages() { return answerPages; }
+	public Timing getCommentSubtrees() { return commentSubtrees; }
+
+	public String describe() {
+		return "thread[answerPages: " + answerPages.describe() + "; commentSubtrees: " + commentSubtrees.describe() + "]";
+	}
+}
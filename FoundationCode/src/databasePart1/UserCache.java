@@ -0,0 +1,107 @@
+package databasePart1;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import application.User;
+
+/**
+ * A bounded, thread-safe identity cache of {@link User}s keyed by user name.
+ *
+ * Loads go through {@link #get(String, Loader)}: a hit returns the cached instance,
+ * a miss runs the loader (a single-row query, or the author columns already joined
+ * into the current row) and keeps the result. The least recently used user is
+ * evicted when the cache is full. Every write to {@code cse360users} must call
+ * {@link #invalidate(String)} so the next read sees the new row.
+ */
+public class UserCache {
+
+	// Produces the user for a cache miss; returns null if the user does not exist.
+	@FunctionalInterface
+	public interface Loader {
+		User load(String userName) throws SQLException;
+	}
+
+	private final int capacity;
+	private final LinkedHashMap<String, User> users;
+	// Bumped on every invalidation so a load that raced with it is not cached.
+	private long generation = 0;
+
+	// Instrumentation counters, guarded by this
+	private long hits = 0;
+	private long misses = 0;
+	private long evictions = 0;
+
+	public UserCache(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("User cache capacity must be at least 1");
+		}
+		this.capacity = capacity;
+		this.users = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, User> eldest) {
+				if (size() > UserCache.this.capacity) {
+					evictions++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	// Returns the cached user or loads it. The loader runs outside the lock, so a slow
+	// query does not block readers of other users.
+	public User get(String userName, Loader loader) throws SQLException {
+		long loadGeneration;
+		synchronized (this) {
+			User cached = users.get(userName);
+			if (cached != null) {
+				hits++;
+				return cached;
+			}
+			misses++;
+			loadGeneration = generation;
+		}
+		User loaded = loader.load(userName);
+		if (loaded == null) {
+			return null;
+		}
+		synchronized (this) {
+			User raced = users.get(userName);
+			if (raced != null) {
+				return raced; // another thread loaded it first; keep one instance
+			}
+			if (loadGeneration == generation) {
+				users.put(userName, loaded);
+			}
+		}
+		return loaded;
+	}
+
+	public synchronized void invalidate(String userName) {
+		generation++;
+		users.remove(userName);
+	}
+
+	public synchronized void invalidateAll() {
+		generation++;
+		users.clear();
+	}
+
+	public int getCapacity() { return capacity; }
+	public synchronized int size() { return users.size(); }
+	public synchronized long getHits() { return hits; }
+	public synchronized long getMisses() { return misses; }
+	public synchronized long getEvictions() { return evictions; }
+
+	public synchronized double getHitRatio() {
+		long total = hits + misses;
+		return total == 0 ? 0.0 : (double) hits / total;
+	}
+
+	public synchronized String describe() {
+		return String.format("users[size=%d, capacity=%d, hits=%d, misses=%d, evictions=%d, hitRatio=%.3f]",
+				users.size(), capacity, hits, misses, evictions, getHitRatio());
+	}
+}
@@ -0,0 +1,200 @@
+package databasePart1;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for question view counts.
+ *
+ * {@link #record(String)} only bumps a per-question {@link LongAdder}, so opening a
+ * question never waits on the database and concurrent viewers never overwrite each
+ * other. A daemon thread periodically writes the accumulated deltas as one batch of
+ * {@code viewCount = viewCount + ?} updates; {@link #stop()} flushes whatever is left.
+ * Deltas of a failed flush are added back and retried on the next one.
+ */
+public class ViewCountBuffer {
+
+	private static final String FLUSH_SQL = "UPDATE questions SET viewCount = viewCount + ? WHERE id = ?";
+
+	private final Callable<Connection> connectionSource;
+	// One adder per question with recent views. A flush resets each adder and removes the
+	// ones that were already empty, so only questions viewed within about one flush
+	// interval keep an entry.
+	private final Map<String, LongAdder> pending = new ConcurrentHashMap<>();
+	// System.nanoTime() of the oldest view not yet flushed, 0 when nothing is pending
+	private final AtomicLong oldestPendingNanos = new AtomicLong();
+	private ScheduledExecutorService scheduler;
+
+	// Instrumentation counters
+	private final LongAdder recordedViews = new LongAdder();
+	private final AtomicLong flushedViews = new AtomicLong();
+	private final AtomicLong flushCount = new AtomicLong();
+	private final AtomicLong failedFlushCount = new AtomicLong();
+	private final AtomicLong rowsWritten = new AtomicLong();
+	private volatile long lastFlushLagMillis = 0;
+	private volatile long maxFlushLagMillis = 0;
+
+	public ViewCountBuffer(Callable<Connection> connectionSource) {
+		this.connectionSource = connectionSource;
+	}
+
+	// Counts one view of the question. Never touches the database.
+	public void record(String questionId) {
+		LongAdder adder = pending.computeIfAbsent(questionId, id -> new LongAdder());
+		adder.increment();
+		if (pending.get(questionId) != adder) {
+			// A flush removed the adder meanwhile; move the view to the current one
+			moveLateViews(questionId, adder);
+		}
+		recordedViews.increment();
+		if (oldestPendingNanos.get() == 0) {
+			oldestPendingNanos.compareAndSet(0, System.nanoTime());
+		}
+	}
+
+	// Views of the question recorded but not yet written.
+	public long getPendingViews(String questionId) {
+		LongAdder adder = pending.get(questionId);
+		return adder == null ? 0 : adder.sum();
+	}
+
+	// Flushes every intervalMillis on a daemon thread.
+	public synchronized void start(long intervalMillis) {
+		if (scheduler != null) {
+			return;
+		}
+		scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "view-count-flusher");
+			t.setDaemon(true);
+			return t;
+		});
+		scheduler.scheduleWithFixedDelay(() -> {
+			try {
+				flush();
+			} catch (SQLException e) {
+				System.err.println("View count flush failed, will retry: " + e.getMessage());
+			}
+		}, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+	}
+
+	// Stops the timer and writes out the remaining views.
+	public void stop() {
+		synchronized (this) {
+			if (scheduler != null) {
+				scheduler.shutdown();
+				try {
+					scheduler.awaitTermination(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				scheduler = null;
+			}
+		}
+		try {
+			flush();
+		} catch (SQLException e) {
+			System.err.println("Final view count flush failed, " + getPendingViews() + " views lost: " + e.getMessage());
+		}
+	}
+
+	// Writes all pending deltas in one batch and returns how many views were written.
+	public synchronized long flush() throws SQLException {
+		long since = oldestPendingNanos.getAndSet(0);
+		List<String> ids = new ArrayList<>();
+		List<Long> deltas = new ArrayList<>();
+		for (Map.Entry<String, LongAdder> e : pending.entrySet()) {
+			LongAdder adder = e.getValue();
+			long delta = adder.sumThenReset();
+			if (delta != 0) {
+				ids.add(e.getKey());
+				deltas.add(delta);
+			} else if (pending.remove(e.getKey(), adder)) {
+				moveLateViews(e.getKey(), adder);
+			}
+		}
+		if (ids.isEmpty()) {
+			return 0;
+		}
+		try (Connection conn = connectionSource.call()) {
+			conn.setAutoCommit(false);
+			try (PreparedStatement pstmt = conn.prepareStatement(FLUSH_SQL)) {
+				for (int i = 0; i < ids.size(); i++) {
+					pstmt.setLong(1, deltas.get(i));
+					pstmt.setString(2, ids.get(i));
+					pstmt.addBatch();
+				}
+				pstmt.executeBatch();
+				conn.commit();
+			} catch (SQLException e) {
+				conn.rollback();
+				throw e;
+			} finally {
+				conn.setAutoCommit(true);
+			}
+		} catch (Exception e) {
+			// Put the deltas back so the next flush retries them.
+			for (int i = 0; i < ids.size(); i++) {
+				pending.computeIfAbsent(ids.get(i), id -> new LongAdder()).add(deltas.get(i));
+			}
+			oldestPendingNanos.compareAndSet(0, since == 0 ? System.nanoTime() : since);
+			failedFlushCount.incrementAndGet();
+			throw e instanceof SQLException sql ? sql : new SQLException("Could not flush view counts", e);
+		}
+
+		long written = deltas.stream().mapToLong(Long::longValue).sum();
+		flushedViews.addAndGet(written);
+		rowsWritten.addAndGet(ids.size());
+		flushCount.incrementAndGet();
+		if (since != 0) {
+			lastFlushLagMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - since);
+			maxFlushLagMillis = Math.max(maxFlushLagMillis, lastFlushLagMillis);
+		}
+		return written;
+	}
+
+	// Moves views counted on an adder after it was removed from the map. Both record and
+	// flush call this, and sumThenReset hands each view to exactly one of them.
+	private void moveLateViews(String questionId, LongAdder removed) {
+		long late = removed.sumThenReset();
+		if (late != 0) {
+			pending.computeIfAbsent(questionId, id -> new LongAdder()).add(late);
+		}
+	}
+
+	public long getRecordedViews() { return recordedViews.sum(); }
+	public long getFlushedViews() { return flushedViews.get(); }
+	public long getFlushCount() { return flushCount.get(); }
+	public long getFailedFlushCount() { return failedFlushCount.get(); }
+	public long getRowsWritten() { return rowsWritten.get(); }
+	// How long the oldest view of the last flush waited before it was written
+	public long getLastFlushLagMillis() { return lastFlushLagMillis; }
+	public long getMaxFlushLagMillis() { return maxFlushLagMillis; }
+
+	// Questions that currently have an entry in the buffer
+	public int getTrackedQuestionCount() { return pending.size(); }
+
+	public long getPendingViews() {
+		long total = 0;
+		for (LongAdder adder : pending.values()) {
+			total += adder.sum();
+		}
+		return total;
+	}
+
+	public String describe() {
+		return String.format("views[recorded=%d, flushed=%d, pending=%d, flushes=%d, failedFlushes=%d, rows=%d, lastLagMs=%d, maxLagMs=%d]",
+				getRecordedViews(), getFlushedViews(), getPendingViews(), getFlushCount(), getFailedFlushCount(),
+				getRowsWritten(), lastFlushLagMillis, maxFlushLagMillis);
+	}
+}
@@ -0,0 +1,81 @@
+package application;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <h2>Benchmark Suite Runner</h2>
+ *
+ * <p>Runs the JMH suites ({@link ValidatorBenchmark}, {@code databasePart1.DataLayerBenchmark}
+ * and {@code databasePart1.StatementCacheBenchmark} by default) with the GC profiler attached, so
+ * every result carries {@code gc.alloc.rate.norm} (bytes per operation) next to ops/s. The
+ * results are also written as JSON to {@value #RESULTS_DIRECTORY}, one timestamped file per
+ * run, so runs can be compared over time.</p>
+ *
+ * <h3>How to Run</h3>
+ * <pre>{@code
+ * Right-click BenchmarkSuite.java -> Run As -> Java Application
+ *
+ * // program arguments are standard JMH options, e.g. one suite with short iterations
+ * Validator -wi 1 -i 3
+ * }</pre>
+ * <p>Requires the JMH core and annotation processor jars on the build path.</p>
+ *
+ * @since HW03
+ */
+public final class BenchmarkSuite {
+
+    static final String RESULTS_DIRECTORY = "bench-results";
+    private static final String DEFAULT_SUITES = "ValidatorBenchmark|DataLayerBenchmark|StatementCacheBenchmark";
+
+    private BenchmarkSuite() {}
+
+    public static void main(String[] args) throws RunnerException {
+        run(null, args);
+    }
+
+    /**
+     * Runs the given suite (every default suite when null) with the GC profiler and JSON
+     * output. JMH command line options in args take precedence, including a pattern of
+     * benchmarks to run instead.
+     *
+     * @param suite the benchmark class to run, or null
+     * @param args JMH command line options
+     * @throws RunnerException if a benchmark fails
+     */
+    public static void run(Class<?> suite, String[] args) throws RunnerException {
+        CommandLineOptions commandLine;
+        try {
+            commandLine = new CommandLineOptions(args);
+        } catch (CommandLineOptionException e) {
+            throw new IllegalArgumentException("Invalid JMH options: " + e.getMessage(), e);
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (commandLine.getIncludes().isEmpty()) {
+            options.include(suite == null ? DEFAULT_SUITES : suite.getSimpleName());
+        }
+        if (commandLine.getProfilers().isEmpty()) {
+            options.addProfiler(GCProfiler.class);
+        }
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            new File(RESULTS_DIRECTORY).mkdirs();
+            String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            options.result(RESULTS_DIRECTORY + File.separator + "jmh-" + stamp + ".json");
+        }
+        new Runner(options.build()).run();
+    }
+}
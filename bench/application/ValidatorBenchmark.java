@@ -0,0 +1,124 @@
+package application;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * <h2>Input Validator Benchmark</h2>
+ *
+ * <p>JMH throughput of the account form validators, both through the static wrappers the
+ * pages call ({@code checkForValidUserName}, {@code evaluatePassword},
+ * {@code checkForValidEmail}, {@code validateName}) and through the table-driven
+ * {@code validate} methods underneath. Each invocation checks the next input of a small
+ * fixed set, so branch prediction cannot learn a single verdict; {@code inputs} picks
+ * valid inputs or inputs with an error part-way through.</p>
+ *
+ * <p>Run through {@link BenchmarkSuite} to get the allocation rate per operation from the
+ * GC profiler: the wrappers allocate only for messages that name a character, and
+ * {@code validate} should stay at zero bytes per operation.</p>
+ *
+ * <h3>How to Run</h3>
+ * <pre>{@code
+ * Right-click ValidatorBenchmark.java -> Run As -> Java Application
+ * }</pre>
+ * <p>Requires the JMH core and annotation processor jars on the build path.</p>
+ *
+ * @since HW03
+ * @see ValidationResult
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+
+    // Must be a power of two; see next()
+    private static final int INPUT_COUNT = 4;
+
+    @Param({"valid", "invalid"})
+    public String inputs;
+
+    private String[] userNames;
+    private String[] passwords;
+    private String[] emails;
+    private String[] names;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        if (inputs.equals("valid")) {
+            userNames = new String[] {"alice", "Bob_Smith-42", "carol.m", "dave2025"};
+            passwords = new String[] {"Passw0rd!", "Zebra#Crossing9", "aA1~`!@#$%^&*()", "Spring-2025"};
+            emails = new String[] {"user@example.com", "john-doe@mail.co", "first.last@asu.edu", "x_y+z@sub.domain.org"};
+            names = new String[] {"Alice", "Jean-Luc O'Malley", "Mary Ann", "Ed"};
+        } else {
+            userNames = new String[] {"al", "alice..smith", "1alice", "aaaabbbbccccddddx"};
+            passwords = new String[] {"short1!", "lowercase1!", "aaaaAAAA1!'", "NoDigitsHere!"};
+            emails = new String[] {"us..er@domain.com", "user@do.-main.com", "user@domain.co-", "a@b@c.com"};
+            names = new String[] {"Mr$Money", "Bad--Format", "InvalidEnd ", "-Start"};
+        }
+    }
+
+    private int next() {
+        next = (next + 1) & (INPUT_COUNT - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String userName() {
+        return UserNameRecognizer.checkForValidUserName(userNames[next()]);
+    }
+
+    @Benchmark
+    public ValidationResult userNameValidate() {
+        return UserNameRecognizer.validate(userNames[next()]);
+    }
+
+    @Benchmark
+    public String password() {
+        return PasswordRecognizer.evaluatePassword(passwords[next()]);
+    }
+
+    @Benchmark
+    public ValidationResult passwordValidate() {
+        return PasswordRecognizer.validate(passwords[next()]);
+    }
+
+    @Benchmark
+    public String email() {
+        return EmailValidator.checkForValidEmail(emails[next()]);
+    }
+
+    @Benchmark
+    public ValidationResult emailValidate() {
+        return EmailValidator.validate(emails[next()]);
+    }
+
+    @Benchmark
+    public String name() {
+        return NameValidator.validateName(names[next()]);
+    }
+
+    @Benchmark
+    public ValidationResult nameValidate() {
+        return NameValidator.validate(names[next()]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(ValidatorBenchmark.class, args);
+    }
+}
@@ -0,0 +1,221 @@
+package databasePart1;
+
+import application.Answer;
+import application.BoardQuery;
+import application.Question;
+import application.QuestionPage;
+import application.QuestionSummary;
+import application.Role;
+import application.Tags;
+import application.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <h2>Discussion Board Summary Benchmark</h2>
+ *
+ * <p>A standalone mainline that compares the two ways of loading the discussion
+ * board against a seeded, in-memory H2 database:</p>
+ *
+ * <ul>
+ *   <li><b>per-question</b> — {@link DatabaseHelper#getAllPublicQuestions()} followed by
+ *       {@code getAnswerCountForQuestion}, {@code getUnseenAnswerCount} and
+ *       {@code hasAcceptedAnswer} for every question (the old board render path).</li>
+ *   <li><b>summary</b> — a single {@link DatabaseHelper#getPublicQuestionSummaries(String)} call.</li>
+ *   <li><b>first-page</b> — the first keyset page the board now renders, via
+ *       {@link DatabaseHelper#getPublicQuestionPage(String, BoardQuery, QuestionPage.Cursor, int)}.</li>
+ *   <li><b>index-search</b> — a search-as-you-type lookup in the in-memory
+ *       {@link QuestionSearchIndex}, which touches no SQL.</li>
+ *   <li><b>search-page</b> — the first board page for a search, with the candidates taken from the index.</li>
+ *   <li><b>similar</b> — the BM25 similar-question lookup of the ask page, via
+ *       {@link DatabaseHelper#findSimilarQuestions(String, int)}.</li>
+ * </ul>
+ *
+ * <p>Each helper call issues exactly one SQL statement, so round trips are counted
+ * per call. Latency is the median of several timed runs after a warm-up.</p>
+ *
+ * <h3>How to Run</h3>
+ * <pre>{@code
+ * // default sizes 1000, 10000 and 100000 questions
+ * Right-click BoardSummaryBenchmark.java -> Run As -> Java Application
+ *
+ * // custom sizes as program arguments, e.g.
+ * 500 5000
+ * }</pre>
+ *
+ * @since HW03
+ * @see DatabaseHelper#getPublicQuestionSummaries(String)
+ */
+public final class BoardSummaryBenchmark {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int TIMED_RUNS = 5;
+    private static final int USER_COUNT = 50;
+    private static final int PAGE_SIZE = 25;
+    // Topic words mixed into titles and bodies so searches have realistic selectivity
+    private static final String[] TOPICS = {"java", "javafx", "generics", "exam", "homework", "database",
+            "threads", "lambda", "streams", "inheritance", "recursion", "sorting"};
+    private static final String SEARCH_TEXT = "java gen";
+    private static final String SIMILAR_TEXT = "Question about generics and lambda";
+
+    private BoardSummaryBenchmark() {}
+
+    /**
+     * Seeds one database per size and prints round trips and median latency of both paths.
+     *
+     * @param args optional question counts; defaults to 1k, 10k and 100k
+     * @throws SQLException if seeding or querying fails
+     */
+    public static void main(String[] args) throws SQLException, InterruptedException {
+        int[] sizes = args.length == 0
+                ? new int[] {1_000, 10_000, 100_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+
+        System.out.printf("%-10s %-14s %12s %12s%n", "questions", "path", "roundTrips", "medianMs");
+        for (int size : sizes) {
+            DatabaseHelper db = new DatabaseHelper("jdbc:h2:mem:board" + size + ";DB_CLOSE_DELAY=-1");
+            db.connectToDatabase();
+            User viewer = seed(db, size);
+            while (!db.getSearchIndex().isReady()) {
+                Thread.sleep(10);
+            }
+
+            long[] legacy = measure(() -> legacyBoard(db, viewer.getUserName()));
+            long[] summary = measure(() -> summaryBoard(db, viewer.getUserName()));
+            long[] firstPage = measure(() -> firstPage(db, viewer.getUserName()));
+            long[] indexSearch = measure(() -> indexSearch(db));
+            long[] searchPage = measure(() -> searchPage(db, viewer.getUserName()));
+            long[] similar = measure(() -> similar(db));
+
+            System.out.printf("%-10d %-14s %12d %12.3f%n", size, "per-question", legacy[0], legacy[1] / 1e6);
+            System.out.printf("%-10d %-14s %12d %12.3f%n", size, "summary", summary[0], summary[1] / 1e6);
+            System.out.printf("%-10d %-14s %12d %12.3f%n", size, "first-page", firstPage[0], firstPage[1] / 1e6);
+            System.out.printf("%-10d %-14s %12d %12.3f%n", size, "index-search", indexSearch[0], indexSearch[1] / 1e6);
+            System.out.printf("%-10d %-14s %12d %12.3f%n", size, "search-page", searchPage[0], searchPage[1] / 1e6);
+            System.out.printf("%-10d %-14s %12d %12.3f%n", size, "similar", similar[0], similar[1] / 1e6);
+            db.closeConnection();
+        }
+    }
+
+    /** A board load that reports how many statements it issued. */
+    private interface BoardLoad {
+        long run() throws SQLException;
+    }
+
+    /**
+     * Runs a board load repeatedly.
+     *
+     * @return {round trips of one run, median nanoseconds}
+     */
+    private static long[] measure(BoardLoad load) throws SQLException {
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            load.run();
+        }
+        long roundTrips = 0;
+        long[] times = new long[TIMED_RUNS];
+        for (int i = 0; i < TIMED_RUNS; i++) {
+            long start = System.nanoTime();
+            roundTrips = load.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return new long[] {roundTrips, times[TIMED_RUNS / 2]};
+    }
+
+    // Old board path: one query for questions (authors joined in), then three per question.
+    private static long legacyBoard(DatabaseHelper db, String userName) throws SQLException {
+        List<Question> questions = db.getAllPublicQuestions();
+        long roundTrips = 1;
+        for (Question q : questions) {
+            String id = q.getQuestionId().toString();
+            db.getAnswerCountForQuestion(id);
+            db.getUnseenAnswerCount(userName, id);
+            db.hasAcceptedAnswer(id);
+            roundTrips += 3;
+        }
+        return roundTrips;
+    }
+
+    // Summary path: one grouped query with the authors joined in.
+    private static long summaryBoard(DatabaseHelper db, String userName) throws SQLException {
+        List<QuestionSummary> summaries = db.getPublicQuestionSummaries(userName);
+        if (summaries.isEmpty()) {
+            throw new IllegalStateException("summary query returned no rows");
+        }
+        return 1;
+    }
+
+    // Paged board: authors are joined in, so one query renders the first screen.
+    private static long firstPage(DatabaseHelper db, String userName) throws SQLException {
+        QuestionPage page = db.getPublicQuestionPage(userName, BoardQuery.all(), null, PAGE_SIZE);
+        if (page.getSummaries().isEmpty()) {
+            throw new IllegalStateException("first page is empty");
+        }
+        return 1;
+    }
+
+    // Search-as-you-type: ranked ids straight from the in-memory index.
+    private static long indexSearch(DatabaseHelper db) {
+        if (db.getSearchIndex().search(SEARCH_TEXT, PAGE_SIZE).isEmpty()) {
+            throw new IllegalStateException("index search found nothing");
+        }
+        return 0;
+    }
+
+    // Searched board: the index supplies the candidate ids, one query renders the page.
+    private static long searchPage(DatabaseHelper db, String userName) throws SQLException {
+        BoardQuery query = new BoardQuery(SEARCH_TEXT, null, BoardQuery.StatusFilter.ALL, null, true);
+        if (db.getPublicQuestionPage(userName, query, null, PAGE_SIZE).getSummaries().isEmpty()) {
+            throw new IllegalStateException("search page is empty");
+        }
+        return 1;
+    }
+
+    // Ask page: corpus and term statistics, the top postings of each of the four query
+    // terms, then the questions themselves.
+    private static long similar(DatabaseHelper db) throws SQLException {
+        if (db.findSimilarQuestions(SIMILAR_TEXT, PAGE_SIZE).isEmpty()) {
+            throw new IllegalStateException("no similar questions found");
+        }
+        return 7;
+    }
+
+    // Fills the database with users, questions (0-4 answers each) and some viewed markers.
+    // Returns the user whose viewed markers were recorded.
+    static User seed(DatabaseHelper db, int questionCount) throws SQLException {
+        Random random = new Random(42);
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            User u = new User("user" + i, "User " + i, "user" + i + "@example.com", "Passw0rd!",
+                    new ArrayList<>(List.of(Role.STUDENT)));
+            db.register(u);
+            users.add(u);
+        }
+        User viewer = users.get(0);
+        Tags[] tags = Tags.values();
+        for (int i = 0; i < questionCount; i++) {
+            User author = users.get(random.nextInt(USER_COUNT));
+            String topic = TOPICS[random.nextInt(TOPICS.length)];
+            String other = TOPICS[random.nextInt(TOPICS.length)];
+            Question q = new Question(author, "Question " + i + " about " + topic, "Body of question " + i + " on " + other,
+                    tags[random.nextInt(tags.length)], random.nextInt(10) == 0, false);
+            db.addQuestion(q);
+            int answers = random.nextInt(5);
+            for (int a = 0; a < answers; a++) {
+                Answer answer = new Answer(q, users.get(random.nextInt(USER_COUNT)), "Answer " + a);
+                db.addAnswer(answer);
+                if (a == 0 && random.nextInt(3) == 0) {
+                    db.updateAnswerResolutionStatus(answer.getAnswerId().toString(), true);
+                }
+            }
+            if (random.nextInt(4) == 0) {
+                db.updateLastViewed(viewer.getUserName(), q.getQuestionId().toString());
+            }
+        }
+        return viewer;
+    }
+}
@@ -0,0 +1,198 @@
+package databasePart1;
+
+import application.Answer;
+import application.AnswerSummary;
+import application.BenchmarkSuite;
+import application.BoardQuery;
+import application.Comment;
+import application.Question;
+import application.Tags;
+import application.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * <h2>Data Layer Benchmark</h2>
+ *
+ * <p>JMH throughput of the {@link DatabaseHelper} read and write paths behind the
+ * discussion board and question pages, against a private in-memory H2 database seeded
+ * with {@link BoardSummaryBenchmark#seed} plus a few comment threads. Reads cover the
+ * board page with and without filters, facet counts, answer pages, comment subtrees,
+ * similar questions and user lookups; writes cover answers, comments, viewed markers and
+ * a question added and deleted again, each with its index and cache maintenance.</p>
+ *
+ * <p>Writes grow the database a little over a run, except the question round trip, which
+ * leaves it as it was. Run through {@link BenchmarkSuite} to get allocation per
+ * operation from the GC profiler.</p>
+ *
+ * <h3>How to Run</h3>
+ * <pre>{@code
+ * Right-click DataLayerBenchmark.java -> Run As -> Java Application
+ * }</pre>
+ * <p>Requires the JMH core and annotation processor jars on the build path.</p>
+ *
+ * @since HW03
+ * @see BoardSummaryBenchmark
+ * @see StatementCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataLayerBenchmark {
+
+    private static final int PAGE_SIZE = 25;
+    private static final int THREADED_ANSWERS = 200;
+    private static final String SIMILAR_TEXT = "Question about generics and lambda";
+
+    @Param({"1000", "10000"})
+    public int questionCount;
+
+    private DatabaseHelper db;
+    private User viewer;
+    private List<Question> questions;
+    private List<Answer> answers;
+    private BoardQuery[] filters;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, InterruptedException {
+        db = new DatabaseHelper("jdbc:h2:mem:datalayer" + questionCount + ";DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        viewer = BoardSummaryBenchmark.seed(db, questionCount);
+        questions = db.getAllPublicQuestions();
+
+        // A reply tree under the first answer of the first few answered questions
+        answers = new ArrayList<>();
+        for (Question q : questions) {
+            List<AnswerSummary> page = db.getAnswerPage(q, null, 1).getAnswers();
+            if (page.isEmpty()) {
+                continue;
+            }
+            Answer answer = page.get(0).getAnswer();
+            for (int t = 0; t < 3; t++) {
+                Comment top = new Comment(answer, viewer, "Comment " + t);
+                db.addComment(top);
+                Comment reply = new Comment(top, viewer, "Reply to " + t);
+                db.addComment(reply);
+                db.addComment(new Comment(reply, viewer, "Nested reply to " + t));
+            }
+            answers.add(answer);
+            if (answers.size() == THREADED_ANSWERS) {
+                break;
+            }
+        }
+
+        filters = new BoardQuery[] {
+                new BoardQuery("", null, BoardQuery.StatusFilter.UNRESOLVED, Tags.HOMEWORK, true),
+                new BoardQuery("", null, BoardQuery.StatusFilter.ANSWERED, null, true),
+                new BoardQuery("", viewer.getUserName(), BoardQuery.StatusFilter.ALL, null, false),
+                new BoardQuery("java", null, BoardQuery.StatusFilter.ALL, Tags.EXAMS, true),
+        };
+        while (!db.getSearchIndex().isReady() || !db.getFacetIndex().isReady()) {
+            Thread.sleep(10);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(db.getConnectionPool().describe());
+        System.out.println(db.getBoardQueryCache().describe());
+        db.closeConnection();
+    }
+
+    private int next(int bound) {
+        next = (next + 1) & Integer.MAX_VALUE;
+        return next % bound;
+    }
+
+    private Question nextQuestion() {
+        return questions.get(next(questions.size()));
+    }
+
+    // Reads
+
+    @Benchmark
+    public Object boardFirstPage() throws SQLException {
+        return db.getPublicQuestionPage(viewer.getUserName(), BoardQuery.all(), null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object boardFilteredPage() throws SQLException {
+        return db.getPublicQuestionPage(viewer.getUserName(), filters[next(filters.length)], null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Object boardFacetCounts() {
+        return db.getBoardFacetCounts(viewer.getUserName(), filters[next(filters.length)]);
+    }
+
+    @Benchmark
+    public Object answerPage() throws SQLException {
+        return db.getAnswerPage(nextQuestion(), null, 10);
+    }
+
+    @Benchmark
+    public Object commentSubtree() throws SQLException {
+        return db.getCommentSubtree(answers.get(next(answers.size())), null, 3);
+    }
+
+    @Benchmark
+    public Object similarQuestions() throws SQLException {
+        return db.findSimilarQuestions(SIMILAR_TEXT, 10);
+    }
+
+    @Benchmark
+    public Object userByName() throws SQLException {
+        return db.getUserByUserName("user" + next(50));
+    }
+
+    // Writes
+
+    @Benchmark
+    public void addAnswer() throws SQLException {
+        db.addAnswer(new Answer(nextQuestion(), viewer, "Benchmark answer"));
+    }
+
+    @Benchmark
+    public void addComment() throws SQLException {
+        db.addComment(new Comment(answers.get(next(answers.size())), viewer, "Benchmark comment"));
+    }
+
+    @Benchmark
+    public void updateLastViewed() throws SQLException {
+        db.updateLastViewed(viewer.getUserName(), nextQuestion().getQuestionId().toString());
+    }
+
+    @Benchmark
+    public void questionRoundTrip() throws SQLException {
+        Question question = new Question(viewer, "Benchmark question about java streams",
+                "Body of a benchmark question", Tags.GENERAL, false, false);
+        db.addQuestion(question);
+        db.deleteQuestion(question.getQuestionId().toString());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        BenchmarkSuite.run(DataLayerBenchmark.class, args);
+    }
+}
@@ -0,0 +1,425 @@
+package databasePart1;
+
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * <h2>Synthetic Forum Data Generator</h2>
+ *
+ * <p>Fills a freshly migrated database with a deterministic, realistically shaped forum:
+ * the same {@link Profile} (including its seed) always produces the same rows. Rows are
+ * written with JDBC batches on one connection and committed every {@code batchSize}
+ * questions, bypassing the per-row {@link DatabaseHelper} write methods, so 100k questions
+ * with 1M answers load in minutes rather than hours.</p>
+ *
+ * <p>The distributions follow what a course forum looks like:</p>
+ * <ul>
+ *   <li><b>tags</b> — Zipf skewed, homework first and team formation last.</li>
+ *   <li><b>authors</b> — Zipf skewed, so a few students ask and answer most of the questions.</li>
+ *   <li><b>answers per question</b> — geometric, so many questions stay unanswered and a few
+ *       collect dozens of answers.</li>
+ *   <li><b>comment threads</b> — a geometric number of top-level comments per answer, each
+ *       continuing as a reply chain with {@code replyProbability} per level and
+ *       occasionally branching, up to {@code maxReplyDepth}.</li>
+ *   <li><b>private, anonymous and resolved questions</b> and <b>viewed markers</b> at the
+ *       configured ratios.</li>
+ * </ul>
+ *
+ * <p>Each question is written with its answer stats already filled in and each comment with
+ * its materialized path; {@link DatabaseHelper#rebuildDerivedState()} then brings the term
+ * statistics, in-memory indexes and caches in step.</p>
+ *
+ * @since HW03
+ * @see ScaleScenarioRunner
+ */
+public final class ForumDataGenerator {
+
+    /**
+     * Shape of the generated forum.
+     *
+     * @param userCount users to register; user0 is an admin, the rest students
+     * @param questionCount questions to ask
+     * @param answersPerQuestion mean answers per question
+     * @param commentsPerAnswer mean top-level comments per answer
+     * @param replyProbability chance that a comment gets a reply, per level
+     * @param maxReplyDepth deepest reply level generated
+     * @param tagSkew Zipf exponent of the tag popularity
+     * @param authorSkew Zipf exponent of the author activity
+     * @param privateRatio share of private questions
+     * @param anonymousRatio share of anonymous questions
+     * @param resolvedRatio share of answered questions with an accepted answer
+     * @param viewedRatio share of questions user0 has viewed
+     * @param seed seed of the random generator
+     */
+    public record Profile(int userCount, int questionCount, double answersPerQuestion, double commentsPerAnswer,
+                          double replyProbability, int maxReplyDepth, double tagSkew, double authorSkew,
+                          double privateRatio, double anonymousRatio, double resolvedRatio, double viewedRatio,
+                          long seed) {
+
+        public Profile {
+            if (userCount < 1 || questionCount < 0) {
+                throw new IllegalArgumentException("Need at least one user and no negative question count");
+            }
+            // Each comment gets a reply with probability p and a second one with p / 4; above
+            // 1.25 p = 1 threads would grow without bound until maxReplyDepth
+            if (replyProbability < 0 || replyProbability >= 0.8) {
+                throw new IllegalArgumentException("replyProbability must be in [0, 0.8): " + replyProbability);
+            }
+            if (maxReplyDepth < 1 || maxReplyDepth > CommentPaths.MAX_DEPTH) {
+                throw new IllegalArgumentException("maxReplyDepth must be in [1, " + CommentPaths.MAX_DEPTH + "]");
+            }
+        }
+
+        /**
+         * The default shape for a forum of the given size: about ten answers per question
+         * (100k questions give 1M answers) and one user per twenty questions.
+         *
+         * @param questionCount questions to ask
+         * @return the default profile with seed 42
+         */
+        public static Profile forQuestions(int questionCount) {
+            return new Profile(Math.max(50, questionCount / 20), questionCount, 10.0, 0.6, 0.55, 40,
+                    1.1, 0.9, 0.08, 0.15, 0.35, 0.3, 42L);
+        }
+
+        public Profile withSeed(long seed) {
+            return new Profile(userCount, questionCount, answersPerQuestion, commentsPerAnswer, replyProbability,
+                    maxReplyDepth, tagSkew, authorSkew, privateRatio, anonymousRatio, resolvedRatio, viewedRatio, seed);
+        }
+    }
+
+    /**
+     * Rows written by one run and how long it took, including the derived state rebuild.
+     */
+    public record Result(int users, int questions, int answers, int comments, int viewedMarkers,
+                         int deepestReply, long millis) {
+
+        public long rows() {
+            return (long) users + questions + answers + comments + viewedMarkers;
+        }
+
+        public double rowsPerSecond() {
+            return millis == 0 ? rows() : rows() * 1000.0 / millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d users, %d questions, %d answers, %d comments (deepest reply %d), "
+                    + "%d viewed markers: %d rows in %.1f s, %.0f rows/s", users, questions, answers, comments,
+                    deepestReply, viewedMarkers, rows(), millis / 1000.0, rowsPerSecond());
+        }
+    }
+
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    // Tags in popularity order, most asked first
+    private static final Tags[] TAGS_BY_POPULARITY = {Tags.HOMEWORK, Tags.GENERAL, Tags.EXAMS,
+            Tags.TEAM_PROJECT, Tags.QUIZZES, Tags.TEAM_FORMATION};
+    private static final String[] TOPICS = {"java", "javafx", "generics", "exam", "homework", "database",
+            "threads", "lambda", "streams", "inheritance", "recursion", "sorting", "interfaces", "junit",
+            "exceptions", "collections", "hashmap", "arrays", "scene", "layout", "sql", "h2", "eclipse", "git"};
+    private static final String[] FILLER = {"the", "my", "with", "when", "how", "does", "why", "is", "not",
+            "working", "error", "example", "code", "test", "method", "class", "value", "after", "before", "using"};
+    private static final String[] OPENERS = {"How do I use", "Why does", "Problem with", "Question about",
+            "Help with", "Confused by", "Best way to handle", "Error in"};
+    // The semester the timestamps fall in: sixteen weeks from mid January
+    private static final long SEMESTER_START_MILLIS = Instant.parse("2025-01-13T08:00:00Z").toEpochMilli();
+    private static final long SEMESTER_MILLIS = 16L * 7 * 24 * 3600 * 1000;
+    private static final long MEAN_ANSWER_DELAY_MILLIS = 6L * 3600 * 1000;
+    private static final long MEAN_COMMENT_DELAY_MILLIS = 2L * 3600 * 1000;
+    private static final int MAX_ANSWERS = 200;
+    private static final int MAX_TOP_LEVEL_COMMENTS = 50;
+    private static final double MEAN_EXTRA_VIEWERS = 2.0;
+
+    private final Profile profile;
+    private final int batchSize;
+    private final Random random;
+    private final double[] tagWeights;
+    private final double[] authorWeights;
+    private final String[] userNames;
+
+    // Counters of the current run
+    private int answerCount;
+    private int commentCount;
+    private int viewedCount;
+    private int deepestReply;
+
+    public ForumDataGenerator(Profile profile) {
+        this(profile, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * @param profile shape of the forum
+     * @param batchSize questions per JDBC batch and commit; their answers, comments and
+     *        viewed markers go in the same commit
+     */
+    public ForumDataGenerator(Profile profile, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.profile = profile;
+        this.batchSize = batchSize;
+        this.random = new Random(profile.seed());
+        this.tagWeights = zipf(TAGS_BY_POPULARITY.length, profile.tagSkew());
+        this.authorWeights = zipf(profile.userCount(), profile.authorSkew());
+        this.userNames = new String[profile.userCount()];
+        for (int i = 0; i < userNames.length; i++) {
+            userNames[i] = "user" + i;
+        }
+    }
+
+    /**
+     * Writes the forum into the connected database, which should have no questions yet,
+     * then rebuilds the state derived from it. Not thread safe; one run per generator.
+     *
+     * @param db a connected helper
+     * @return the rows written and the elapsed time
+     * @throws SQLException if a batch fails; the batches committed before it stay
+     */
+    public Result generate(DatabaseHelper db) throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertUsers(conn);
+                insertQuestions(conn);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        db.rebuildDerivedState();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Result(profile.userCount(), profile.questionCount(), answerCount, commentCount, viewedCount,
+                deepestReply, millis);
+    }
+
+    private void insertUsers(Connection conn) throws SQLException {
+        try (PreparedStatement users = conn.prepareStatement(
+                "INSERT INTO cse360users (userName, password, name, email, roles) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < userNames.length; i++) {
+                users.setString(1, userNames[i]);
+                users.setString(2, "Passw0rd!");
+                users.setString(3, "User " + i);
+                users.setString(4, userNames[i] + "@example.com");
+                users.setString(5, String.valueOf((i == 0 ? Role.ADMIN : Role.STUDENT).toInt()));
+                users.addBatch();
+                if ((i + 1) % batchSize == 0) {
+                    users.executeBatch();
+                }
+            }
+            users.executeBatch();
+        }
+        conn.commit();
+    }
+
+    // Questions are written before their answers, and answers before their comments, batch by batch.
+    private void insertQuestions(Connection conn) throws SQLException {
+        try (PreparedStatement questions = conn.prepareStatement(
+                "INSERT INTO questions (id, title, body, authorUserName, status, creationTimestamp, tag, isPrivate, "
+                + "isAnonymous, viewCount, answerCount, acceptedAnswerId, lastActivityTimestamp) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement answers = conn.prepareStatement(
+                "INSERT INTO answers (id, body, authorUserName, questionId, creationTimestamp, resolvesQuestion) "
+                + "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement comments = conn.prepareStatement(
+                "INSERT INTO comments (id, body, authorUserName, answerId, parentCommentId, creationTimestamp, path) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement viewed = conn.prepareStatement(
+                "INSERT INTO viewed_answers (user_id, question_id, last_viewed) VALUES (?, ?, ?)")) {
+            long spacing = profile.questionCount() == 0 ? 0 : SEMESTER_MILLIS / profile.questionCount();
+            for (int i = 0; i < profile.questionCount(); i++) {
+                long created = SEMESTER_START_MILLIS + i * spacing + (spacing <= 1 ? 0 : random.nextLong(spacing));
+                addQuestion(questions, answers, comments, viewed, i, created);
+                if ((i + 1) % batchSize == 0) {
+                    flush(conn, questions, answers, comments, viewed);
+                }
+            }
+            flush(conn, questions, answers, comments, viewed);
+        }
+    }
+
+    private static void flush(Connection conn, PreparedStatement... batches) throws SQLException {
+        for (PreparedStatement batch : batches) {
+            batch.executeBatch();
+        }
+        conn.commit();
+    }
+
+    private void addQuestion(PreparedStatement questions, PreparedStatement answers, PreparedStatement comments,
+                             PreparedStatement viewed, int index, long created) throws SQLException {
+        String questionId = uuid();
+        String topic = TOPICS[random.nextInt(TOPICS.length)];
+
+        // Answers first, since the question row carries their stats
+        int answerTotal = Math.min(MAX_ANSWERS, geometric(profile.answersPerQuestion()));
+        String[] answerIds = new String[answerTotal];
+        long[] answerTimes = new long[answerTotal];
+        long lastActivity = created;
+        for (int a = 0; a < answerTotal; a++) {
+            answerIds[a] = uuid();
+            answerTimes[a] = created + exponential(MEAN_ANSWER_DELAY_MILLIS) + a;
+            lastActivity = Math.max(lastActivity, answerTimes[a]);
+        }
+        int accepted = answerTotal > 0 && random.nextDouble() < profile.resolvedRatio() ? random.nextInt(answerTotal) : -1;
+
+        questions.setString(1, questionId);
+        questions.setString(2, OPENERS[random.nextInt(OPENERS.length)] + " " + topic + " in " + words(2) + "?");
+        questions.setString(3, "Question " + index + " on " + topic + ": " + words(8 + random.nextInt(32)));
+        questions.setString(4, author());
+        questions.setString(5, QuestionStatus.OPEN.name());
+        questions.setTimestamp(6, new Timestamp(created));
+        questions.setString(7, TAGS_BY_POPULARITY[pick(tagWeights)].name());
+        questions.setBoolean(8, random.nextDouble() < profile.privateRatio());
+        questions.setBoolean(9, random.nextDouble() < profile.anonymousRatio());
+        questions.setInt(10, geometric(4.0 * (answerTotal + 1)));
+        questions.setInt(11, answerTotal);
+        questions.setString(12, accepted < 0 ? null : answerIds[accepted]);
+        questions.setTimestamp(13, new Timestamp(lastActivity));
+        questions.addBatch();
+
+        for (int a = 0; a < answerTotal; a++) {
+            answers.setString(1, answerIds[a]);
+            answers.setString(2, "Answer " + a + " about " + topic + ": " + words(6 + random.nextInt(40)));
+            answers.setString(3, author());
+            answers.setString(4, questionId);
+            answers.setTimestamp(5, new Timestamp(answerTimes[a]));
+            answers.setBoolean(6, a == accepted);
+            answers.addBatch();
+            answerCount++;
+            int topLevel = Math.min(MAX_TOP_LEVEL_COMMENTS, geometric(profile.commentsPerAnswer()));
+            for (int c = 0; c < topLevel; c++) {
+                addThread(comments, answerIds[a], null, "", c, answerTimes[a]);
+            }
+        }
+
+        addViewedMarkers(viewed, questionId, created, lastActivity);
+    }
+
+    // Adds a comment and, depth first, the replies below it. Iterative over the chain so
+    // deep threads do not need a deep stack; only occasional branches recurse.
+    private void addThread(PreparedStatement comments, String answerId, String parentId, String parentPath,
+                           int ordinal, long after) throws SQLException {
+        String id = parentId;
+        String path = parentPath;
+        long time = after;
+        int childOrdinal = ordinal;
+        while (true) {
+            String commentParent = id;
+            id = uuid();
+            path = CommentPaths.child(path, childOrdinal);
+            time += exponential(MEAN_COMMENT_DELAY_MILLIS) + 1;
+            comments.setString(1, id);
+            comments.setString(2, words(3 + random.nextInt(20)));
+            comments.setString(3, author());
+            comments.setString(4, answerId);
+            comments.setString(5, commentParent);
+            comments.setTimestamp(6, new Timestamp(time));
+            comments.setString(7, path);
+            comments.addBatch();
+            commentCount++;
+            int depth = CommentPaths.depth(path);
+            deepestReply = Math.max(deepestReply, depth - 1);
+            if (depth >= profile.maxReplyDepth() || random.nextDouble() >= profile.replyProbability()) {
+                return;
+            }
+            // A second reply branches off now and then; the chain continues as ordinal 0 or 1
+            if (random.nextDouble() < profile.replyProbability() / 4) {
+                addThread(comments, answerId, id, path, 0, time);
+                childOrdinal = 1;
+            } else {
+                childOrdinal = 0;
+            }
+        }
+    }
+
+    // user0 views viewedRatio of the questions, plus a few other viewers each. A view lands
+    // between the question and its last activity, so some answers stay unseen.
+    private void addViewedMarkers(PreparedStatement viewed, String questionId, long created, long lastActivity)
+            throws SQLException {
+        Set<Integer> viewers = new HashSet<>();
+        if (random.nextDouble() < profile.viewedRatio()) {
+            viewers.add(0);
+        }
+        int extra = Math.min(profile.userCount() - 1, geometric(MEAN_EXTRA_VIEWERS));
+        for (int v = 0; v < extra; v++) {
+            viewers.add(1 + random.nextInt(profile.userCount() - 1));
+        }
+        for (int v : viewers) {
+            long window = lastActivity - created + MEAN_ANSWER_DELAY_MILLIS;
+            viewed.setString(1, userNames[v]);
+            viewed.setString(2, questionId);
+            viewed.setTimestamp(3, new Timestamp(created + random.nextLong(window)));
+            viewed.addBatch();
+            viewedCount++;
+        }
+    }
+
+    private String author() {
+        return userNames[pick(authorWeights)];
+    }
+
+    private String words(int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(random.nextInt(4) == 0 ? TOPICS[random.nextInt(TOPICS.length)] : FILLER[random.nextInt(FILLER.length)]);
+        }
+        return sb.toString();
+    }
+
+    // A version 4 UUID from the seeded generator, so ids repeat with the seed.
+    private String uuid() {
+        long msb = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb).toString();
+    }
+
+    // Geometric count 0, 1, 2, ... with the given mean.
+    private int geometric(double mean) {
+        if (mean <= 0) {
+            return 0;
+        }
+        double p = 1.0 / (mean + 1);
+        return (int) Math.min(Integer.MAX_VALUE, Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p)));
+    }
+
+    private long exponential(long meanMillis) {
+        return (long) (-Math.log(1 - random.nextDouble()) * meanMillis);
+    }
+
+    // Cumulative Zipf weights of n ranks, normalised to end at 1.
+    private static double[] zipf(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double total = 0;
+        for (int rank = 0; rank < n; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < n; rank++) {
+            cumulative[rank] /= total;
+        }
+        return cumulative;
+    }
+
+    private int pick(double[] cumulative) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(cumulative.length - 1, index >= 0 ? index : -index - 1);
+    }
+}
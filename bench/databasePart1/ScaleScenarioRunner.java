@@ -0,0 +1,127 @@
+package databasePart1;
+
+import application.BoardQuery;
+import application.Question;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * <h2>Scale Scenario Runner</h2>
+ *
+ * <p>A headless mainline that fills a database with {@link ForumDataGenerator} and then
+ * replays the read paths of the board and question pages against it, reporting latency
+ * percentiles per scenario:</p>
+ *
+ * <ul>
+ *   <li><b>all-public</b> — {@link DatabaseHelper#getAllPublicQuestions()}, the whole board at once.</li>
+ *   <li><b>board-page</b> — the first board page the UI renders, with unseen counts.</li>
+ *   <li><b>board-summaries</b> — every public question with its unseen answer count for the viewer.</li>
+ *   <li><b>question-detail</b> — {@link DatabaseHelper#loadAnswersAndCommentsForQuestion(Question)}
+ *       for random questions, with every answer and comment thread.</li>
+ *   <li><b>unseen-count</b> — {@link DatabaseHelper#getUnseenAnswerCount(String, String)} for
+ *       random questions.</li>
+ * </ul>
+ *
+ * <p>The viewer is user0, who has viewed a share of the questions. Questions and their
+ * order are drawn from a seeded generator, so two runs of the same size replay the same
+ * calls.</p>
+ *
+ * <h3>How to Run</h3>
+ * <pre>{@code
+ * // default 10000 questions (about 100k answers) in memory
+ * Right-click ScaleScenarioRunner.java -> Run As -> Java Application
+ *
+ * // program arguments: question count and an optional JDBC URL, e.g. the full scale
+ * // of 100k questions and 1M answers in a file database (VM argument -Xmx4g)
+ * 100000 jdbc:h2:./scale-test
+ * }</pre>
+ *
+ * @since HW03
+ * @see ForumDataGenerator
+ * @see BoardSummaryBenchmark
+ */
+public final class ScaleScenarioRunner {
+
+    private static final int DEFAULT_QUESTIONS = 10_000;
+    private static final int PAGE_SIZE = 25;
+    private static final String VIEWER = "user0";
+
+    private ScaleScenarioRunner() {}
+
+    /** One call of a scenario; the random source picks its arguments. */
+    private interface Call {
+        void run(Random random) throws SQLException;
+    }
+
+    /**
+     * Generates the forum and prints a latency table.
+     *
+     * @param args optional question count and JDBC URL
+     * @throws SQLException if generating or querying fails
+     */
+    public static void main(String[] args) throws SQLException {
+        int questionCount = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_QUESTIONS;
+        String url = args.length > 1 ? args[1] : "jdbc:h2:mem:scale" + questionCount + ";DB_CLOSE_DELAY=-1";
+
+        DatabaseHelper db = new DatabaseHelper(url);
+        db.connectToDatabase();
+        try {
+            if (db.getAllPublicQuestions().isEmpty()) {
+                ForumDataGenerator.Result result = new ForumDataGenerator(ForumDataGenerator.Profile.forQuestions(questionCount))
+                        .generate(db);
+                System.out.println("Generated " + result);
+            } else {
+                System.out.println("Database already has questions; replaying against them");
+            }
+
+            List<Question> questions = db.getAllPublicQuestions();
+            List<String> ids = new ArrayList<>(questions.size());
+            for (Question q : questions) {
+                ids.add(q.getQuestionId().toString());
+            }
+
+            System.out.printf("%-16s %7s %10s %10s %10s %10s%n", "scenario", "calls", "p50 ms", "p90 ms", "p99 ms", "max ms");
+            report("all-public", 2, 10, random -> db.getAllPublicQuestions());
+            report("board-page", 20, 500, random -> db.getPublicQuestionPage(VIEWER, BoardQuery.all(), null, PAGE_SIZE));
+            report("board-summaries", 2, 10, random -> db.getPublicQuestionSummaries(VIEWER));
+            report("question-detail", 50, 1_000, random ->
+                    db.loadAnswersAndCommentsForQuestion(copyOf(questions.get(random.nextInt(questions.size())))));
+            report("unseen-count", 100, 5_000, random ->
+                    db.getUnseenAnswerCount(VIEWER, ids.get(random.nextInt(ids.size()))));
+        } finally {
+            db.closeConnection();
+        }
+    }
+
+    // loadAnswersAndCommentsForQuestion adds to the question it is given, so each call gets a fresh one.
+    private static Question copyOf(Question q) {
+        return new Question(q.getQuestionId(), q.getTitle(), q.getBody(), q.getAuthor(), q.getStatus(),
+                q.getCreationTimestamp(), q.getTag(), q.isPrivate(), q.isAnonymous(), q.getViewCount());
+    }
+
+    private static void report(String name, int warmup, int calls, Call call) throws SQLException {
+        Random random = new Random(7);
+        for (int i = 0; i < warmup; i++) {
+            call.run(random);
+        }
+        long[] nanos = new long[calls];
+        for (int i = 0; i < calls; i++) {
+            long start = System.nanoTime();
+            call.run(random);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("%-16s %7d %10.3f %10.3f %10.3f %10.3f%n", name, calls, percentile(nanos, 0.50) / 1e6,
+                percentile(nanos, 0.90) / 1e6, percentile(nanos, 0.99) / 1e6, nanos[calls - 1] / 1e6);
+    }
+
+    // Nearest-rank percentile of sorted samples.
+    private static long percentile(long[] sorted, double fraction) {
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
@@ -0,0 +1,109 @@
+package databasePart1;
+
+import application.Question;
+import application.User;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <h2>Prepared Statement Cache Benchmark</h2>
+ *
+ * <p>JMH throughput comparison of the hot {@link DatabaseHelper} read methods with the
+ * per-connection statement cache disabled ({@code statementCacheSize = 0}) and enabled
+ * ({@link DatabaseHelper#STATEMENT_CACHE_SIZE}). Each run seeds a private in-memory H2
+ * database with 1,000 questions.</p>
+ *
+ * <h3>How to Run</h3>
+ * <pre>{@code
+ * Right-click StatementCacheBenchmark.java -> Run As -> Java Application
+ * }</pre>
+ * <p>Requires the JMH core and annotation processor jars on the build path.</p>
+ *
+ * @since HW03
+ * @see StatementCache
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatementCacheBenchmark {
+
+    @Param({"0", "64"})
+    public int statementCacheSize;
+
+    private DatabaseHelper db;
+    private String userName;
+    private String[] questionIds;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:stmtcache" + statementCacheSize + ";DB_CLOSE_DELAY=-1",
+                DatabaseHelper.POOL_SIZE, statementCacheSize);
+        db.connectToDatabase();
+        User viewer = BoardSummaryBenchmark.seed(db, 1_000);
+        userName = viewer.getUserName();
+        List<Question> questions = db.getAllPublicQuestions();
+        questionIds = questions.stream().map(q -> q.getQuestionId().toString()).toArray(String[]::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.println(db.getConnectionPool().describe());
+        db.closeConnection();
+    }
+
+    private String nextQuestionId() {
+        next = (next + 1) % questionIds.length;
+        return questionIds[next];
+    }
+
+    @Benchmark
+    public int answerCount() {
+        return db.getAnswerCountForQuestion(nextQuestionId());
+    }
+
+    @Benchmark
+    public int unseenAnswerCount() throws SQLException {
+        return db.getUnseenAnswerCount(userName, nextQuestionId());
+    }
+
+    @Benchmark
+    public boolean acceptedAnswer() throws SQLException {
+        return db.hasAcceptedAnswer(nextQuestionId());
+    }
+
+    @Benchmark
+    public Object userRoles() {
+        return db.getUserRoles(userName);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StatementCacheBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Map;
  *   <li>Null user returns false</li>
  *   <li>No admin in memory nor DB returns false</li>
  *   <li>DB exception is caught → false (fail-closed)</li>
+ *   <li>Delete checks with admin powers resolved up front</li>
  * </ol>
  *
  * @author Collin Looney
@@ -126,4 +127,15 @@ public class AuthorizationTest {
         boolean isAdmin = Authorization.isAdmin(jimmy, db);
         assertFalse("On DB error, isAdmin should fail closed (false)", isAdmin);
     }
+
+    /** Test 6: with admin powers resolved up front, owners and admins may delete, others may not. */
+    @Test
+    public void test06_CanDelete_withResolvedAdminPowers() {
+        User owner = makeUser("owner", roles(Role.STUDENT));
+        User other = makeUser("other", roles(Role.STUDENT));
+        Question q = new Question(owner, "Title", "body", Tags.GENERAL, false, false);
+        assertTrue("Owner may delete without admin powers", Authorization.canDeleteQuestion(owner, q, false));
+        assertFalse("Non-owner without admin powers may not delete", Authorization.canDeleteQuestion(other, q, false));
+        assertTrue("Admin powers allow deleting others' posts", Authorization.canDeleteQuestion(other, q, true));
+    }
 }
@@ -0,0 +1,78 @@
+package application;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javafx.scene.Scene;
+
+/**
+ * <h2>NavigationController JUnit Tests</h2>
+ *
+ * <p>Drives a controller without a Stage using stub screens, and checks that
+ * live screens are reused and refreshed instead of rebuilt, that back returns
+ * to the screen underneath, and that the stack stays bounded.</p>
+ *
+ * @since HW03
+ * @see NavigationController
+ */
+public class NavigationControllerTest {
+
+    private NavigationController navigation;
+
+    // Counts how often it was refreshed; never builds a real Scene.
+    private static class StubScreen implements NavigationController.Screen {
+        int refreshes;
+
+        @Override public Scene getScene() { return null; }
+        @Override public String getTitle() { return "stub"; }
+        @Override public void refresh() { refreshes++; }
+    }
+
+    @Before
+    public void setUp() {
+        navigation = new NavigationController(null, 3);
+    }
+
+    /** Opening a live screen again reuses and refreshes it. */
+    @Test
+    public void open_reusesLiveScreen() {
+        StubScreen board = navigation.open("board", StubScreen::new);
+        navigation.open("question:1", StubScreen::new);
+
+        StubScreen again = navigation.open("board", StubScreen::new);
+        assertSame(board, again);
+        assertEquals(1, board.refreshes);
+        assertEquals(2, navigation.getBuildCount());
+        assertEquals(1, navigation.getReuseCount());
+        assertEquals(3, navigation.getNavigationCount());
+    }
+
+    /** Back drops the top screen and refreshes the one underneath. */
+    @Test
+    public void back_returnsToScreenUnderneath() {
+        StubScreen board = navigation.open("board", StubScreen::new);
+        navigation.open("question:1", StubScreen::new);
+
+        assertTrue(navigation.back());
+        assertEquals(1, board.refreshes);
+        assertFalse(navigation.isLive("question:1"));
+        assertFalse(navigation.back());
+        assertEquals(0, navigation.size());
+    }
+
+    /** The oldest screen is dropped once the stack is full. */
+    @Test
+    public void stack_isBounded() {
+        navigation.open("board", StubScreen::new);
+        navigation.open("question:1", StubScreen::new);
+        navigation.open("question:2", StubScreen::new);
+        navigation.open("question:3", StubScreen::new);
+
+        assertEquals(3, navigation.size());
+        assertFalse(navigation.isLive("board"));
+        assertEquals(1, navigation.getEvictionCount());
+        assertTrue(navigation.describe().startsWith("navigation[screens=3"));
+    }
+}
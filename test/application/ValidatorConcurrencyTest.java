@@ -0,0 +1,89 @@
+package application;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+/**
+ * <h2>Validator JUnit Tests</h2>
+ *
+ * <p>Checks the results of the table-driven validators: error codes and indexes from
+ * {@code validate}, shared results, and that many threads validating at once each get
+ * the verdict a single thread would. The existing per-validator tests cover the
+ * messages of the static wrappers.</p>
+ *
+ * @since HW03
+ * @see ValidationResult
+ */
+public class ValidatorConcurrencyTest {
+
+    private static final String[] USER_NAMES = { "alice", "al", "1alice", "al..ice", "aaaabbbbccccddddx", "ali@ce" };
+    private static final String[] PASSWORDS = { "Passw0rd!", "short1!", "aaaaAAAA1!'", "lowercase1!", "" };
+    private static final String[] EMAILS = { "user@example.com", "a@b@c.com", "user@domain.co-", "us..er@domain.com" };
+    private static final String[] NAMES = { "Jean-Luc O'Malley", "Bad--Format", "Mr$Money", "InvalidEnd " };
+
+    /** validate reports the error code and the index where the input went wrong. */
+    @Test
+    public void validate_reportsCodeAndIndex() {
+        assertSame(ValidationResult.VALID, UserNameRecognizer.validate("alice"));
+        assertEquals(ValidationResult.of(UserNameRecognizer.INVALID_CHARACTER, 5), UserNameRecognizer.validate("alice@x"));
+        assertEquals(ValidationResult.of(UserNameRecognizer.TOO_LONG, 16), UserNameRecognizer.validate("aaaabbbbccccddddx"));
+
+        ValidationResult password = PasswordRecognizer.validate("lowercase");
+        assertEquals(PasswordRecognizer.MISSING_UPPER_CASE | PasswordRecognizer.MISSING_DIGIT | PasswordRecognizer.MISSING_SPECIAL,
+                password.getCode());
+        assertEquals(ValidationResult.of(PasswordRecognizer.INVALID_CHARACTER, 10), PasswordRecognizer.validate("aaaaAAAA1!'"));
+
+        assertEquals(ValidationResult.of(EmailValidator.MULTIPLE_AT, 3), EmailValidator.validate("a@b@c.com"));
+        assertEquals(ValidationResult.of(EmailValidator.ENDS_WITH_HYPHEN, 14), EmailValidator.validate("user@domain.co-"));
+
+        ValidationResult name = NameValidator.validate("Mr$Money");
+        assertEquals(ValidationResult.of(NameValidator.INVALID_CHARACTER, 2), name);
+        assertEquals("\nNAME ERROR: Name contains invalid character: '$'", NameValidator.errorMessage("Mr$Money", name));
+
+        // Small results are shared rather than allocated per call
+        assertSame(UserNameRecognizer.validate("al"), UserNameRecognizer.validate("bo"));
+    }
+
+    /** Threads validating at the same time never see each other's state. */
+    @Test
+    public void concurrentCalls_matchSequentialVerdicts() throws Exception {
+        List<String> expected = verdicts();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            Callable<Boolean> task = () -> {
+                for (int i = 0; i < 2_000; i++) {
+                    if (!verdicts().equals(expected)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(task));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<String> verdicts() {
+        List<String> verdicts = new ArrayList<>();
+        for (String s : USER_NAMES) verdicts.add(UserNameRecognizer.checkForValidUserName(s));
+        for (String s : PASSWORDS) verdicts.add(PasswordRecognizer.evaluatePassword(s));
+        for (String s : EMAILS) verdicts.add(EmailValidator.checkForValidEmail(s));
+        for (String s : NAMES) verdicts.add(NameValidator.validateName(s));
+        return verdicts;
+    }
+}
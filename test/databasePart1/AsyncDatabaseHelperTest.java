@@ -0,0 +1,130 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h2>AsyncDatabaseHelper JUnit Tests</h2>
+ *
+ * <p>Uses a single-thread executor in place of the JavaFX application thread to
+ * check where results are delivered, how failures surface and how a newer request
+ * on the same channel supersedes an older one.</p>
+ *
+ * @since HW03
+ * @see AsyncDatabaseHelper
+ */
+public class AsyncDatabaseHelperTest {
+
+    private ExecutorService uiThread;
+    private AsyncDatabaseHelper async;
+
+    @Before
+    public void setUp() {
+        uiThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "fake-fx-thread"));
+        // the helper is never connected; the queries below do not touch the database
+        async = new AsyncDatabaseHelper(new DatabaseHelper(), Executors.newCachedThreadPool(), uiThread);
+    }
+
+    @After
+    public void tearDown() {
+        async.shutdown();
+        uiThread.shutdownNow();
+    }
+
+    /** Queries run on a worker thread and results arrive on the callback thread. */
+    @Test
+    public void result_isDeliveredOnCallbackThread() throws Exception {
+        AtomicReference<String> queryThread = new AtomicReference<>();
+        AtomicReference<String> callbackThread = new AtomicReference<>();
+        CountDownLatch delivered = new CountDownLatch(1);
+        CountDownLatch attached = new CountDownLatch(1);
+
+        async.submit(db -> {
+            queryThread.set(Thread.currentThread().getName());
+            try {
+                attached.await(5, TimeUnit.SECONDS); // finish only after the callback is attached
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            return 42;
+        }).whenComplete((value, error) -> {
+            callbackThread.set(Thread.currentThread().getName());
+            delivered.countDown();
+        });
+        attached.countDown();
+
+        assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        assertNotEquals("fake-fx-thread", queryThread.get());
+        assertEquals("fake-fx-thread", callbackThread.get());
+    }
+
+    /** A failing query completes the future with the original SQLException. */
+    @Test
+    public void failure_surfacesSqlException() throws Exception {
+        CompletableFuture<Object> future = async.submit(db -> { throw new SQLException("boom"); });
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            fail("Expected the query to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+            assertEquals(1, async.getFailedCount());
+        }
+    }
+
+    /** A write without a result completes on the callback thread, or fails like a query. */
+    @Test
+    public void update_completesOnCallbackThread() throws Exception {
+        AtomicBoolean ran = new AtomicBoolean();
+        AtomicReference<String> callbackThread = new AtomicReference<>();
+        async.execute(db -> ran.set(true))
+                .thenRun(() -> callbackThread.set(Thread.currentThread().getName()))
+                .get(5, TimeUnit.SECONDS);
+        assertTrue(ran.get());
+        assertEquals("fake-fx-thread", callbackThread.get());
+
+        try {
+            async.execute(db -> { throw new SQLException("boom"); }).get(5, TimeUnit.SECONDS);
+            fail("Expected the write to fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
+    /** A newer request on the same channel cancels the older one, whose result is dropped. */
+    @Test
+    public void newerRequest_supersedesOlder() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean staleDelivered = new AtomicBoolean();
+
+        CompletableFuture<String> first = async.submitLatest("board", db -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+            return "stale";
+        });
+        first.thenAccept(v -> staleDelivered.set(true));
+        CompletableFuture<String> second = async.submitLatest("board", db -> "fresh");
+
+        assertEquals("fresh", second.get(5, TimeUnit.SECONDS));
+        assertTrue(first.isCancelled());
+        release.countDown();
+        Thread.sleep(50);
+        assertFalse(staleDelivered.get());
+        assertEquals(1, async.getCancelledCount());
+    }
+}
@@ -0,0 +1,206 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import application.Answer;
+import application.BoardQuery;
+import application.Comment;
+import application.Question;
+import application.QuestionPage;
+import application.QuestionStatus;
+import application.QuestionSummary;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Board Query Cache JUnit Tests</h2>
+ *
+ * <p>Checks hits, LRU eviction and expiry of {@link BoardQueryCache}, that each kind of
+ * {@link DomainEvent} drops only the filter combinations it can change, and that
+ * {@link DatabaseHelper#getPublicQuestionPage(String, BoardQuery, QuestionPage.Cursor, int)}
+ * pages from the cache without showing a stale board after a write.</p>
+ *
+ * @since HW03
+ * @see BoardQuery
+ */
+public class BoardQueryCacheTest {
+
+    private static final User ALICE = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+
+    private static final BoardQuery ALL = BoardQuery.all();
+    private static final BoardQuery RESOLVED = new BoardQuery("", null, BoardQuery.StatusFilter.RESOLVED, null, true);
+    private static final BoardQuery UNANSWERED = new BoardQuery("", null, BoardQuery.StatusFilter.UNANSWERED, null, true);
+    private static final BoardQuery EXAMS = new BoardQuery("", null, BoardQuery.StatusFilter.ALL, Tags.EXAMS, true);
+
+    private final AtomicInteger loads = new AtomicInteger();
+    // What every query matches
+    private List<String> listed = List.of("q1", "q2");
+
+    private List<String> load(BoardQuery query, int limit) {
+        loads.incrementAndGet();
+        return listed;
+    }
+
+    private static Question question(String title, Tags tag) {
+        return new Question(UUID.randomUUID(), title, "body", ALICE, QuestionStatus.OPEN,
+                ZonedDateTime.now(), tag, false, false, 0);
+    }
+
+    /** A second get is a hit; the least recently used combination is evicted beyond capacity. */
+    @Test
+    public void get_cachesAndEvictsLeastRecentlyUsed() throws SQLException {
+        BoardQueryCache cache = new BoardQueryCache(2, 60_000, 100);
+        cache.get(ALL, this::load);
+        cache.get(RESOLVED, this::load);
+        BoardQueryCache.Ids ids = cache.get(ALL, this::load);
+        assertEquals(List.of("q1", "q2"), ids.getIds());
+        assertEquals(2, ids.positionAfter("q2"));
+        assertEquals(-1, ids.positionAfter("q3"));
+
+        cache.get(UNANSWERED, this::load); // RESOLVED was used least recently
+        assertTrue(cache.contains(ALL));
+        assertFalse(cache.contains(RESOLVED));
+
+        assertEquals(3, loads.get());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(0.25, cache.getHitRatio(), 1e-9);
+    }
+
+    /** Expired entries are loaded again. */
+    @Test
+    public void get_reloadsAfterTimeToLive() throws SQLException, InterruptedException {
+        BoardQueryCache cache = new BoardQueryCache(4, 1, 100);
+        cache.get(ALL, this::load);
+        Thread.sleep(5);
+        cache.get(ALL, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(1, cache.getExpirations());
+    }
+
+    /** Results over the size limit are not kept, but the decision is remembered. */
+    @Test
+    public void get_returnsNullWhenTooLarge() throws SQLException {
+        BoardQueryCache cache = new BoardQueryCache(4, 60_000, 1);
+        assertNull(cache.get(ALL, this::load));
+        assertNull(cache.get(ALL, this::load));
+        assertEquals(1, loads.get());
+    }
+
+    /** A write committed while a load runs keeps that load out of the cache. */
+    @Test
+    public void get_doesNotCacheLoadRacingWithWrite() throws SQLException {
+        BoardQueryCache cache = new BoardQueryCache(4, 60_000, 100);
+        cache.get(ALL, (query, limit) -> {
+            cache.apply(new DomainEvent.QuestionDeleted("q1"));
+            return List.of("q1");
+        });
+        assertFalse(cache.contains(ALL));
+    }
+
+    /** Each write drops only the combinations whose result it can change. */
+    @Test
+    public void apply_invalidatesOnlyAffectedEntries() throws SQLException {
+        Question homework = question("Homework", Tags.HOMEWORK);
+        listed = List.of(homework.getQuestionId().toString(), "q2");
+        BoardQueryCache cache = new BoardQueryCache(8, 60_000, 100);
+        for (BoardQuery query : List.of(ALL, RESOLVED, UNANSWERED, EXAMS)) {
+            cache.get(query, this::load);
+        }
+        Answer answer = new Answer(homework, ALICE, "answer");
+
+        // Edits of answers and comments never change a board
+        cache.apply(new DomainEvent.AnswerUpdated(answer));
+        cache.apply(new DomainEvent.CommentAdded(new Comment(answer, ALICE, "comment")));
+        assertEquals(4, cache.size());
+
+        // A new homework question is unanswered and unresolved, and not an exam
+        cache.apply(new DomainEvent.QuestionCreated(homework));
+        assertFalse(cache.contains(ALL));
+        assertFalse(cache.contains(UNANSWERED));
+        assertTrue(cache.contains(RESOLVED));
+        assertTrue(cache.contains(EXAMS));
+
+        // Answering a listed question only takes it off the unanswered board
+        cache.get(ALL, this::load);
+        cache.get(UNANSWERED, this::load);
+        cache.apply(new DomainEvent.AnswerAdded(answer));
+        assertFalse(cache.contains(UNANSWERED));
+        assertEquals(3, cache.size());
+
+        // A question resolved elsewhere joins the resolved board
+        cache.apply(new DomainEvent.AnswerResolved("q9", "a9", true));
+        assertFalse(cache.contains(RESOLVED));
+        assertTrue(cache.contains(ALL));
+
+        cache.apply(new DomainEvent.QuestionDeleted("q2"));
+        assertEquals(0, cache.size());
+        assertEquals(6, cache.getInvalidations());
+    }
+
+    /** Boards paged from the cache match the database after every kind of write. */
+    @Test
+    public void databasePages_followWrites() throws SQLException {
+        DatabaseHelper db = new DatabaseHelper("jdbc:h2:mem:boardcachetest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        try {
+            db.register(ALICE);
+            List<Question> questions = new ArrayList<>();
+            ZonedDateTime base = ZonedDateTime.now().withNano(0);
+            for (int i = 0; i < 7; i++) {
+                Question q = new Question(UUID.randomUUID(), "Question " + i, "body", ALICE, QuestionStatus.OPEN,
+                        base.minusMinutes(i), Tags.GENERAL, false, false, 0);
+                db.addQuestion(q);
+                questions.add(q);
+            }
+            assertEquals(7, readAll(db, ALL, 3).size());
+            assertEquals(0, readAll(db, RESOLVED, 3).size());
+            long hits = db.getBoardQueryCache().getHits();
+            assertEquals(7, readAll(db, ALL, 3).size());
+            assertTrue(db.getBoardQueryCache().getHits() > hits);
+
+            Question newest = new Question(UUID.randomUUID(), "Newest", "body", ALICE, QuestionStatus.OPEN,
+                    base.plusMinutes(1), Tags.GENERAL, false, false, 0);
+            db.addQuestion(newest);
+            Answer answer = new Answer(questions.get(3), ALICE, "answer");
+            db.addAnswer(answer);
+            db.updateAnswerResolutionStatus(answer.getAnswerId().toString(), true);
+            db.deleteQuestion(questions.get(5).getQuestionId().toString());
+
+            List<Question> all = readAll(db, ALL, 3);
+            assertEquals(7, all.size());
+            assertEquals(newest.getQuestionId(), all.get(0).getQuestionId());
+            assertFalse(all.stream().anyMatch(q -> q.getQuestionId().equals(questions.get(5).getQuestionId())));
+            List<Question> resolved = readAll(db, RESOLVED, 3);
+            assertEquals(1, resolved.size());
+            assertEquals(questions.get(3).getQuestionId(), resolved.get(0).getQuestionId());
+            assertEquals(6, readAll(db, UNANSWERED, 3).size());
+        } finally {
+            try (var conn = db.getConnection(); var st = conn.createStatement()) {
+                st.execute("DROP ALL OBJECTS");
+            }
+            db.closeConnection();
+        }
+    }
+
+    private static List<Question> readAll(DatabaseHelper db, BoardQuery query, int pageSize) throws SQLException {
+        List<Question> seen = new ArrayList<>();
+        QuestionPage.Cursor cursor = null;
+        do {
+            QuestionPage page = db.getPublicQuestionPage("alice", query, cursor, pageSize);
+            page.getSummaries().stream().map(QuestionSummary::getQuestion).forEach(seen::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+}
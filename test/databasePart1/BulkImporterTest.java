@@ -0,0 +1,194 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Answer;
+import application.Comment;
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Bulk Import JUnit Tests</h2>
+ *
+ * <p>Imports JSON lines and CSV through {@link BulkImporter} into an in-memory H2
+ * database, with batches and commits small enough to cross several of each, and checks
+ * the rows, the records rejected in-stream, comment paths, and the state rebuilt
+ * afterwards (answer stats, search index, unseen counts).</p>
+ *
+ * @since HW03
+ * @see BulkImporter
+ */
+public class BulkImporterTest {
+
+    private DatabaseHelper db;
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:bulkimporttest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Connection conn = db.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+    }
+
+    /** Valid records are written and invalid ones skipped with their line numbers. */
+    @Test
+    public void jsonLines_importValidAndRejectInvalidRecords() throws Exception {
+        String q = UUID.randomUUID().toString();
+        String a = UUID.randomUUID().toString();
+        String c1 = UUID.randomUUID().toString();
+        String c2 = UUID.randomUUID().toString();
+        String c3 = UUID.randomUUID().toString();
+        String input = String.join("\n",
+                "{\"type\":\"user\",\"userName\":\"alice\",\"name\":\"Alice\",\"email\":\"alice@example.com\",\"password\":\"Passw0rd!\"}",
+                "{\"type\":\"user\",\"userName\":\"bob\",\"roles\":\"1,3\"}",
+                "{\"type\":\"question\",\"id\":\"" + q + "\",\"title\":\"Imported zebra question\",\"body\":\"about \\\"streams\\\"\","
+                        + "\"author\":\"alice\",\"tag\":\"Team Project\",\"createdAt\":\"2025-02-01T10:00:00Z\",\"viewCount\":3}",
+                "{\"type\":\"answer\",\"id\":\"" + a + "\",\"questionId\":\"" + q + "\",\"author\":\"bob\",\"body\":\"first\","
+                        + "\"createdAt\":\"2025-02-01T11:00:00Z\",\"resolvesQuestion\":true}",
+                "{\"type\":\"comment\",\"id\":\"" + c1 + "\",\"answerId\":\"" + a + "\",\"author\":\"alice\",\"body\":\"top\"}",
+                "{\"type\":\"comment\",\"id\":\"" + c2 + "\",\"answerId\":\"" + a + "\",\"parentCommentId\":\"" + c1 + "\",\"author\":\"bob\"}",
+                "{\"type\":\"comment\",\"id\":\"" + c3 + "\",\"answerId\":\"" + a + "\",\"parentCommentId\":\"" + c1 + "\",\"author\":\"bob\"}",
+                "{\"type\":\"viewed\",\"userName\":\"alice\",\"questionId\":\"" + q + "\",\"lastViewed\":\"2025-02-01T10:30:00Z\"}",
+                "{\"type\":\"answer\",\"id\":\"" + UUID.randomUUID() + "\",\"questionId\":\"" + UUID.randomUUID() + "\",\"author\":\"bob\"}",
+                "{\"type\":\"question\",\"id\":\"not-a-uuid\",\"title\":\"t\",\"author\":\"alice\"}",
+                "{\"type\":\"user\",\"userName\":\"alice\"}",
+                "{\"type\":\"user\",",
+                "",
+                "{\"type\":\"comment\",\"id\":\"" + UUID.randomUUID() + "\",\"answerId\":\"" + a + "\",\"parentCommentId\":\""
+                        + UUID.randomUUID() + "\",\"author\":\"bob\"}",
+                "{\"type\":\"poll\"}");
+
+        BulkImporter.ImportReport report = new BulkImporter(db, 2, 3).importJsonLines(new StringReader(input));
+
+        assertEquals(2, report.importedCount(BulkImporter.RecordType.USER));
+        assertEquals(1, report.importedCount(BulkImporter.RecordType.QUESTION));
+        assertEquals(1, report.importedCount(BulkImporter.RecordType.ANSWER));
+        assertEquals(3, report.importedCount(BulkImporter.RecordType.COMMENT));
+        assertEquals(1, report.importedCount(BulkImporter.RecordType.VIEWED));
+        assertEquals(6, report.rejected());
+        assertEquals(List.of(9L, 10L, 11L, 12L, 14L, 15L),
+                report.rejections().stream().map(BulkImporter.Rejection::line).toList());
+
+        assertTrue(db.getUserByUserName("bob").getRoles().contains(Role.ADMIN));
+        assertEquals(1, db.getAnswerCountForQuestion(q));
+        assertTrue(db.hasAcceptedAnswer(q));
+        assertEquals(1, db.getUnseenAnswerCount("alice", q));
+        assertEquals(List.of(q), db.getSearchIndex().search("zebra", 10));
+        assertEquals(2, db.countReplies(c1));
+        assertEquals(CommentPaths.child(CommentPaths.child("", 0), 1), path(c3));
+    }
+
+    /** CSV fields may be quoted; imported comments continue threads already in the database. */
+    @Test
+    public void csv_parsesQuotedFieldsAndAppendsToExistingThreads() throws Exception {
+        User alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        db.register(alice);
+        Question question = new Question(UUID.randomUUID(), "Threads", "body", alice, QuestionStatus.OPEN,
+                ZonedDateTime.now(), Tags.GENERAL, false, false, 0);
+        db.addQuestion(question);
+        Answer answer = new Answer(question, alice, "answer");
+        db.addAnswer(answer);
+        Comment top = new Comment(answer, alice, "existing");
+        db.addComment(top);
+
+        String reply = UUID.randomUUID().toString();
+        String second = UUID.randomUUID().toString();
+        String csv = "id,answerId,parentCommentId,author,body,createdAt\r\n"
+                + reply + "," + answer.getAnswerId() + "," + top.getCommentId() + ",alice,"
+                + "\"Line one, with \"\"quotes\"\"\nline two\",2025-02-01T10:00:00Z\r\n"
+                + second + "," + answer.getAnswerId() + ",,alice,second top-level,\r\n"
+                + "too,few,fields\r\n";
+
+        BulkImporter.ImportReport report = new BulkImporter(db, 1, 1)
+                .importCsv(new StringReader(csv), BulkImporter.RecordType.COMMENT);
+        assertEquals(2, report.importedCount(BulkImporter.RecordType.COMMENT));
+        assertEquals(List.of(new BulkImporter.Rejection(5, "Expected 6 fields but found 3")), report.rejections());
+
+        // A reply added afterwards goes after the imported one
+        db.addComment(new Comment(top, alice, "later"));
+
+        Question reloaded = new Question(question.getQuestionId(), "Threads", "body", alice, QuestionStatus.OPEN,
+                question.getCreationTimestamp(), Tags.GENERAL, false, false, 0);
+        db.loadAnswersAndCommentsForQuestion(reloaded);
+        List<Comment> topLevel = reloaded.getPotentialAnswers().get(0).getComments();
+        assertEquals(List.of("existing", "second top-level"), topLevel.stream().map(Comment::getBody).toList());
+        assertEquals(List.of("Line one, with \"quotes\"\nline two", "later"),
+                topLevel.get(0).getReplies().stream().map(Comment::getBody).toList());
+    }
+
+    /** A failure mid-stream keeps the committed chunks and still rebuilds the state derived from them. */
+    @Test
+    public void failedImport_rebuildsStateForCommittedRows() throws Exception {
+        StringBuilder input = new StringBuilder(
+                "{\"type\":\"user\",\"userName\":\"alice\",\"name\":\"Alice\",\"email\":\"alice@example.com\"}\n");
+        for (int i = 0; i < 20; i++) {
+            input.append("{\"type\":\"question\",\"id\":\"").append(UUID.randomUUID())
+                    .append("\",\"title\":\"Imported zebra ").append(i).append("\",\"author\":\"alice\"}\n");
+        }
+        // Fails once every record above has been read
+        Reader failing = new Reader() {
+            private final Reader records = new StringReader(input.toString());
+
+            @Override
+            public int read(char[] buf, int off, int len) throws IOException {
+                int n = records.read(buf, off, len);
+                if (n < 0) {
+                    throw new IOException("connection reset");
+                }
+                return n;
+            }
+
+            @Override
+            public void close() { }
+        };
+
+        try {
+            new BulkImporter(db, 2, 5).importJsonLines(failing);
+            fail("Expected the import to fail");
+        } catch (IOException expected) {
+            assertEquals("connection reset", expected.getMessage());
+        }
+
+        int committed = db.getAllPublicQuestions().size();
+        assertTrue(committed > 0 && committed < 20);
+        assertEquals(committed, db.getSearchIndex().search("zebra", 50).size());
+        assertEquals(committed, db.getFacetIndex().size());
+    }
+
+    private String path(String commentId) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT path FROM comments WHERE id = ?")) {
+            pstmt.setString(1, commentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import application.Answer;
+import application.Comment;
+import application.CommentSummary;
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Comment Path JUnit Tests</h2>
+ *
+ * <p>Checks the materialized comment paths of {@link CommentPaths}: the backfill of
+ * comments written before the path column existed, and subtree reads, reply counts and
+ * subtree deletes through {@link DatabaseHelper} on an in-memory H2 database.</p>
+ *
+ * @since HW03
+ * @see CommentPaths
+ * @see Migrations
+ */
+public class CommentPathsTest {
+
+    /** Paths are fixed-width base-36 segments that sort siblings in creation order. */
+    @Test
+    public void paths_encodeDepthAndOrder() {
+        String first = CommentPaths.child("", 0);
+        String reply = CommentPaths.child(first, 35);
+        String next = CommentPaths.child(first, 36);
+
+        assertEquals("00000", first);
+        assertEquals("00000" + "0000z", reply);
+        assertEquals(2, CommentPaths.depth(reply));
+        assertEquals(36, CommentPaths.ordinal(next));
+        assertTrue(reply.compareTo(next) < 0);
+        assertTrue(next.compareTo(CommentPaths.child("", 1)) < 0);
+    }
+
+    /** The V8 migration numbers existing threads by creation time, replies under their parents. */
+    @Test
+    public void backfill_assignsPathsToExistingComments() throws SQLException {
+        String url = "jdbc:h2:mem:commentpathbackfill;DB_CLOSE_DELAY=-1";
+        try (Connection conn = DriverManager.getConnection(url, "sa", "");
+             Statement st = conn.createStatement()) {
+            List<Migration> beforePaths = Migrations.all().stream().filter(m -> m.getVersion() < 8).toList();
+            new SchemaMigrator(beforePaths).migrate(conn);
+
+            st.execute("INSERT INTO cse360users (userName) VALUES ('alice')");
+            st.execute("INSERT INTO questions (id, authorUserName, isPrivate) VALUES ('q', 'alice', FALSE)");
+            st.execute("INSERT INTO answers (id, authorUserName, questionId) VALUES ('a', 'alice', 'q')");
+            st.execute("INSERT INTO answers (id, authorUserName, questionId) VALUES ('b', 'alice', 'q')");
+            // A reply sharing its parent's timestamp but sorting before it by id
+            st.execute("INSERT INTO comments (id, authorUserName, answerId, parentCommentId, creationTimestamp) VALUES "
+                    + "('c2', 'alice', 'a', NULL, TIMESTAMP WITH TIME ZONE '2024-01-01 10:00:00+00'), "
+                    + "('c1', 'alice', 'a', NULL, TIMESTAMP WITH TIME ZONE '2024-01-01 09:00:00+00'), "
+                    + "('c3', 'alice', 'a', 'c2', TIMESTAMP WITH TIME ZONE '2024-01-01 11:00:00+00'), "
+                    + "('c0', 'alice', 'a', 'c3', TIMESTAMP WITH TIME ZONE '2024-01-01 11:00:00+00'), "
+                    + "('d1', 'alice', 'b', NULL, TIMESTAMP WITH TIME ZONE '2024-01-01 08:00:00+00')");
+
+            new SchemaMigrator(Migrations.all()).migrate(conn);
+
+            Map<String, String> paths = new HashMap<>();
+            try (ResultSet rs = st.executeQuery("SELECT id, path FROM comments")) {
+                while (rs.next()) {
+                    paths.put(rs.getString(1), rs.getString(2));
+                }
+            }
+            assertEquals(CommentPaths.child("", 0), paths.get("c1"));
+            assertEquals(CommentPaths.child("", 1), paths.get("c2"));
+            assertEquals(CommentPaths.child(paths.get("c2"), 0), paths.get("c3"));
+            assertEquals(CommentPaths.child(paths.get("c3"), 0), paths.get("c0"));
+            assertEquals(CommentPaths.child("", 0), paths.get("d1"));
+
+            try {
+                st.execute("INSERT INTO comments (id, answerId) VALUES ('e', 'a')");
+                fail("Expected paths to be required once backfilled");
+            } catch (SQLException expected) {
+            }
+            st.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    /** Subtree slices, reply counts and deletes all follow the paths written on insert. */
+    @Test
+    public void subtrees_readCountAndDeleteByPath() throws SQLException {
+        DatabaseHelper db = new DatabaseHelper("jdbc:h2:mem:commentpathtest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        try {
+            User alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+            db.register(alice);
+            Question question = new Question(UUID.randomUUID(), "Paths", "body", alice, QuestionStatus.OPEN,
+                    ZonedDateTime.now(), Tags.GENERAL, false, false, 0);
+            db.addQuestion(question);
+            Answer answer = new Answer(question, alice, "answer");
+            db.addAnswer(answer);
+
+            // top -> r1 -> r1a -> r1a1, top -> r2, and a second top-level comment
+            Comment top = new Comment(answer, alice, "top");
+            db.addComment(top);
+            Comment r1 = new Comment(top, alice, "r1");
+            db.addComment(r1);
+            Comment r1a = new Comment(r1, alice, "r1a");
+            db.addComment(r1a);
+            db.addComment(new Comment(r1a, alice, "r1a1"));
+            db.addComment(new Comment(top, alice, "r2"));
+            db.addComment(new Comment(answer, alice, "second"));
+
+            List<CommentSummary> thread = db.getCommentSubtree(answer, null, 10);
+            assertEquals(List.of("top", "r1", "r1a", "r1a1", "r2", "second"), bodies(thread));
+            assertSame(thread.get(1).getComment(), thread.get(2).getComment().getParentComment());
+
+            List<CommentSummary> slice = db.getCommentSubtree(answer, top, 2);
+            assertEquals(List.of("r1", "r1a", "r2"), bodies(slice));
+            assertSame(top, slice.get(0).getComment().getParentComment());
+            assertEquals(1, slice.get(1).getReplyCount()); // r1a1 is past the slice
+
+            assertEquals(4, db.countReplies(top.getCommentId().toString()));
+            assertEquals(0, db.countReplies(UUID.randomUUID().toString()));
+
+            db.deleteComment(r1.getCommentId().toString());
+            assertEquals(List.of("top", "r2", "second"), bodies(db.getCommentSubtree(answer, null, 10)));
+
+            // A new reply goes after the remaining siblings, not into the deleted one's place
+            db.addComment(new Comment(top, alice, "r3"));
+            assertEquals(List.of("r2", "r3"), bodies(db.getCommentSubtree(answer, top, 1)));
+        } finally {
+            try (var conn = db.getConnection(); var st = conn.createStatement()) {
+                st.execute("DROP ALL OBJECTS");
+            }
+            db.closeConnection();
+        }
+    }
+
+    private static List<String> bodies(List<CommentSummary> comments) {
+        return comments.stream().map(c -> c.getComment().getBody()).toList();
+    }
+}
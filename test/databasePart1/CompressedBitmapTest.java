@@ -0,0 +1,110 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * <h2>Compressed Bitmap JUnit Tests</h2>
+ *
+ * <p>Compares {@link CompressedBitmap} with {@link BitSet} on random sets spanning several
+ * 65536-value chunks, dense enough that some chunks switch between array and bitmap
+ * containers while values are added and removed.</p>
+ *
+ * @since HW03
+ * @see QuestionFacetIndex
+ */
+public class CompressedBitmapTest {
+
+    private static final int RANGE = 4 * 65536;
+
+    // Chunk 0 dense (bitmap container), chunk 1 sparse (array), the rest random
+    private static BitSet randomSet(Random random) {
+        BitSet set = new BitSet();
+        for (int i = 0; i < 65536; i++) {
+            if (random.nextInt(4) == 0) {
+                set.set(i);
+            }
+        }
+        for (int i = 0; i < 300; i++) {
+            set.set(65536 + random.nextInt(65536));
+        }
+        for (int i = 0; i < 20_000; i++) {
+            set.set(2 * 65536 + random.nextInt(2 * 65536));
+        }
+        return set;
+    }
+
+    private static CompressedBitmap bitmapOf(BitSet set) {
+        CompressedBitmap bitmap = new CompressedBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+
+    private static void assertSame(BitSet expected, CompressedBitmap actual) {
+        assertEquals(expected.cardinality(), actual.getCardinality());
+        assertArrayEquals(expected.stream().toArray(), actual.toArray());
+    }
+
+    /** Adds, removes and membership match a BitSet as containers change kind. */
+    @Test
+    public void addAndRemove_matchBitSet() {
+        Random random = new Random(42);
+        BitSet expected = randomSet(random);
+        CompressedBitmap bitmap = bitmapOf(expected);
+        assertSame(expected, bitmap);
+
+        // Thin the dense chunk below the array threshold and back
+        for (int i = 0; i < 65536; i++) {
+            if (random.nextInt(8) != 0) {
+                expected.clear(i);
+                bitmap.remove(i);
+            }
+        }
+        bitmap.remove(RANGE + 5); // absent chunk
+        assertSame(expected, bitmap);
+        for (int i = 0; i < RANGE; i += 3) {
+            assertEquals(expected.get(i), bitmap.contains(i));
+        }
+
+        for (int i = 65536; i < 2 * 65536; i++) {
+            expected.clear(i);
+            bitmap.remove(i);
+        }
+        assertSame(expected, bitmap);
+    }
+
+    /** AND, AND NOT and the intersection size match BitSet for every mix of containers. */
+    @Test
+    public void setOperations_matchBitSet() {
+        Random random = new Random(7);
+        BitSet a = randomSet(random);
+        BitSet b = randomSet(random);
+        b.clear(65536, 2 * 65536); // a chunk only a has
+        CompressedBitmap x = bitmapOf(a);
+        CompressedBitmap y = bitmapOf(b);
+
+        BitSet and = (BitSet) a.clone();
+        and.and(b);
+        assertSame(and, CompressedBitmap.and(x, y));
+        assertEquals(and.cardinality(), CompressedBitmap.andCardinality(x, y));
+        assertEquals(and.cardinality(), CompressedBitmap.andCardinality(y, x));
+
+        BitSet andNot = (BitSet) a.clone();
+        andNot.andNot(b);
+        assertSame(andNot, CompressedBitmap.andNot(x, y));
+
+        BitSet reverse = (BitSet) b.clone();
+        reverse.andNot(a);
+        assertSame(reverse, CompressedBitmap.andNot(y, x));
+
+        // Operands are left untouched, and copies are independent
+        assertSame(a, x);
+        CompressedBitmap copy = x.copy();
+        copy.remove(a.nextSetBit(0));
+        assertSame(a, x);
+    }
+}
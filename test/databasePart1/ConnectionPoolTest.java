@@ -0,0 +1,202 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h2>ConnectionPool JUnit Tests</h2>
+ *
+ * <p>Exercises {@link ConnectionPool} against a private in-memory H2 database:
+ * reuse of returned connections, the size bound, replacement of broken
+ * connections, leak reporting and the per-connection statement cache.</p>
+ *
+ * @since HW03
+ * @see ConnectionPool
+ */
+public class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:h2:mem:pooltest;DB_CLOSE_DELAY=-1";
+
+    private ConnectionPool pool;
+
+    @Before
+    public void setUp() {
+        pool = new ConnectionPool(URL, "sa", "", 2, 200, 50);
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+    }
+
+    /** A returned connection is handed out again instead of opening a new one. */
+    @Test
+    public void returnedConnection_isReused() throws SQLException {
+        try (Connection c = pool.borrow()) {
+            assertFalse(c.isClosed());
+        }
+        try (Connection c = pool.borrow()) {
+            assertFalse(c.isClosed());
+        }
+        assertEquals(2, pool.getBorrowCount());
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    /** Borrowing beyond the pool size times out instead of opening more connections. */
+    @Test
+    public void borrowBeyondMaxSize_timesOut() throws SQLException {
+        try (Connection a = pool.borrow(); Connection b = pool.borrow()) {
+            assertNotSame(a, b);
+            assertEquals(2, pool.getActiveCount());
+            try {
+                pool.borrow();
+                fail("Expected a timeout when every connection is in use");
+            } catch (SQLException expected) {
+                assertEquals(1, pool.getTimeoutCount());
+            }
+        }
+        // Both permits came back, so borrowing works again.
+        try (Connection c = pool.borrow()) {
+            assertNotNull(c);
+        }
+    }
+
+    /** A closed proxy cannot be used and closing it twice returns it only once. */
+    @Test
+    public void closedProxy_rejectsUse() throws SQLException {
+        Connection c = pool.borrow();
+        c.close();
+        c.close();
+        assertTrue(c.isClosed());
+        assertEquals(1, pool.getIdleCount());
+        try {
+            c.createStatement();
+            fail("Expected an exception for a connection already returned to the pool");
+        } catch (SQLException expected) {
+            // expected
+        }
+    }
+
+    /** A physical connection that died while idle is replaced on the next borrow. */
+    @Test
+    public void brokenIdleConnection_isReplaced() throws SQLException {
+        try (Connection c = pool.borrow()) {
+            c.unwrap(Connection.class).close(); // kill the physical connection behind the proxy
+        }
+        try (Connection c = pool.borrow(); Statement st = c.createStatement()) {
+            assertTrue(st.execute("SELECT 1"));
+        }
+        assertEquals(2, pool.getCreatedCount());
+    }
+
+    /** A connection held past the leak threshold is reported exactly once. */
+    @Test
+    public void heldConnection_isReportedAsLeak() throws Exception {
+        try (Connection c = pool.borrow()) {
+            assertFalse(c.isClosed());
+            Thread.sleep(80);
+            int reported = pool.detectLeaks();
+            assertTrue(reported + pool.getLeakCount() >= 1);
+            assertEquals(0, pool.detectLeaks());
+        }
+        assertEquals(1, pool.getLeakCount());
+    }
+
+    /** Several threads can read at the same time without exceeding the bound. */
+    @Test
+    public void concurrentReaders_shareThePool() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch done = new CountDownLatch(20);
+        AtomicInteger failures = new AtomicInteger();
+        for (int i = 0; i < 20; i++) {
+            executor.submit(() -> {
+                try (Connection c = pool.borrow(); Statement st = c.createStatement()) {
+                    st.execute("SELECT 1");
+                } catch (SQLException e) {
+                    failures.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, failures.get());
+        assertTrue(pool.getCreatedCount() <= 2);
+        assertEquals(0, pool.getActiveCount());
+    }
+
+    /** Preparing the same SQL again on a pooled connection is a cache hit. */
+    @Test
+    public void repeatedSql_hitsStatementCache() throws SQLException {
+        ConnectionPool cached = new ConnectionPool(URL, "sa", "", 1, 200, 10_000, 2);
+        try {
+            for (int i = 0; i < 3; i++) {
+                try (Connection c = cached.borrow();
+                     PreparedStatement ps = c.prepareStatement("SELECT ?")) {
+                    ps.setInt(1, i);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        assertTrue(rs.next());
+                        assertEquals(i, rs.getInt(1));
+                    }
+                }
+            }
+            assertEquals(1, cached.getStatementCacheMisses());
+            assertEquals(2, cached.getStatementCacheHits());
+        } finally {
+            cached.close();
+        }
+    }
+
+    /** The least recently used statement is evicted once the cache is full. */
+    @Test
+    public void fullStatementCache_evictsLeastRecentlyUsed() throws SQLException {
+        ConnectionPool cached = new ConnectionPool(URL, "sa", "", 1, 200, 10_000, 2);
+        try (Connection c = cached.borrow()) {
+            c.prepareStatement("SELECT 1").close();
+            c.prepareStatement("SELECT 2").close();
+            c.prepareStatement("SELECT 1").close(); // hit, SELECT 2 is now eldest
+            c.prepareStatement("SELECT 3").close(); // evicts SELECT 2
+            c.prepareStatement("SELECT 1").close(); // still cached
+            assertEquals(1, cached.getStatementCacheEvictions());
+            assertEquals(2, cached.getStatementCacheHits());
+        } finally {
+            cached.close();
+        }
+    }
+
+    /** A statement still open in an enclosing call is not handed out twice. */
+    @Test
+    public void nestedUseOfSameSql_getsSeparateStatement() throws SQLException {
+        ConnectionPool cached = new ConnectionPool(URL, "sa", "", 1, 200, 10_000, 4);
+        try (Connection c = cached.borrow();
+             PreparedStatement outer = c.prepareStatement("SELECT ?");
+             PreparedStatement inner = c.prepareStatement("SELECT ?")) {
+            outer.setInt(1, 1);
+            inner.setInt(1, 2);
+            try (ResultSet a = outer.executeQuery(); ResultSet b = inner.executeQuery()) {
+                assertTrue(a.next() && b.next());
+                assertEquals(1, a.getInt(1));
+                assertEquals(2, b.getInt(1));
+            }
+        } finally {
+            cached.close();
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import application.Answer;
+import application.Comment;
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Domain Event Bus JUnit Tests</h2>
+ *
+ * <p>Checks synchronous and queued delivery on {@link DomainEventBus}, its backpressure
+ * and overflow handling, and that {@link DatabaseHelper} writes publish the matching
+ * {@link DomainEvent}s once committed.</p>
+ *
+ * @since HW03
+ * @see DomainEvent
+ */
+public class DomainEventBusTest {
+
+    private static DomainEvent deleted(int i) {
+        return new DomainEvent.QuestionDeleted("q" + i);
+    }
+
+    /** Synchronous listeners run before publish returns and only see their type. */
+    @Test
+    public void subscribe_deliversMatchingEventsOnPublishingThread() {
+        DomainEventBus bus = new DomainEventBus(0);
+        List<DomainEvent> seen = new ArrayList<>();
+        DomainEventBus.Subscription subscription = bus.subscribe(DomainEvent.QuestionDeleted.class, seen::add);
+
+        bus.publish(deleted(1));
+        bus.publish(new DomainEvent.UserDeleted("alice", List.of()));
+        assertEquals(List.of(deleted(1)), seen);
+
+        subscription.close();
+        bus.publish(deleted(2));
+        assertEquals(1, seen.size());
+        assertEquals(0, bus.getSubscriberCount());
+    }
+
+    /** Queued events are applied in publish order, and a failing listener does not stop the rest. */
+    @Test
+    public void subscribeAsync_appliesEventsInOrder() throws InterruptedException {
+        DomainEventBus bus = new DomainEventBus(1000);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        List<String> seen = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(200);
+        bus.subscribeAsync(DomainEvent.QuestionEvent.class, e -> {
+            try {
+                if (e.questionId().equals("q7")) {
+                    throw new IllegalStateException("listener bug");
+                }
+                seen.add(e.questionId());
+            } finally {
+                done.countDown();
+            }
+        }, () -> fail("no overflow expected"), executor, 16);
+
+        for (int i = 0; i < 200; i++) {
+            bus.publish(deleted(i));
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(199, seen.size());
+        assertEquals("q0", seen.get(0));
+        assertEquals("q199", seen.get(198));
+        assertEquals(1, bus.getFailedCount());
+    }
+
+    /** A publisher that cannot wait overflows the subscriber: its queue is dropped and the handler runs once. */
+    @Test
+    public void fullQueue_overflowsToHandler() {
+        DomainEventBus bus = new DomainEventBus(0);
+        List<Runnable> tasks = new ArrayList<>();
+        List<DomainEvent> seen = new ArrayList<>();
+        AtomicInteger overflows = new AtomicInteger();
+        bus.subscribeAsync(DomainEvent.class, seen::add, overflows::incrementAndGet, tasks::add, 4);
+
+        for (int i = 0; i < 10; i++) {
+            bus.publish(deleted(i));
+        }
+        assertEquals(1, tasks.size());
+        tasks.remove(0).run();
+
+        assertEquals(1, overflows.get());
+        assertTrue(seen.isEmpty());
+        assertEquals(1, bus.getOverflowCount());
+        assertEquals(10, bus.getDroppedCount());
+
+        // Back to normal delivery after the reload
+        bus.publish(deleted(11));
+        tasks.remove(0).run();
+        assertEquals(List.of(deleted(11)), seen);
+    }
+
+    /** A publisher on another thread waits for room instead of overflowing. */
+    @Test
+    public void fullQueue_blocksPublisherUntilDrained() throws InterruptedException {
+        DomainEventBus bus = new DomainEventBus(5000);
+        List<Runnable> tasks = Collections.synchronizedList(new ArrayList<>());
+        List<DomainEvent> seen = Collections.synchronizedList(new ArrayList<>());
+        bus.subscribeAsync(DomainEvent.class, seen::add, () -> fail("no overflow expected"), tasks::add, 2);
+
+        Thread publisher = new Thread(() -> {
+            for (int i = 0; i < 3; i++) {
+                bus.publish(deleted(i));
+            }
+        });
+        publisher.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (bus.getBlockedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(1, bus.getBlockedCount());
+        assertTrue(publisher.isAlive());
+
+        tasks.remove(0).run();
+        publisher.join(5000);
+        assertFalse(publisher.isAlive());
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+        assertEquals(List.of(deleted(0), deleted(1), deleted(2)), seen);
+        assertEquals(0, bus.getOverflowCount());
+    }
+
+    /** Events still queued for a closed subscription are not applied. */
+    @Test
+    public void close_discardsQueuedEvents() {
+        DomainEventBus bus = new DomainEventBus(0);
+        List<Runnable> tasks = new ArrayList<>();
+        List<DomainEvent> seen = new ArrayList<>();
+        DomainEventBus.Subscription subscription = bus.subscribeAsync(DomainEvent.class, seen::add, () -> { }, tasks::add, 8);
+
+        bus.publish(deleted(1));
+        subscription.close();
+        tasks.forEach(Runnable::run);
+        assertTrue(seen.isEmpty());
+    }
+
+    /** Committed writes publish one event each, carrying the ids views look rows up by. */
+    @Test
+    public void databaseWrites_publishEvents() throws SQLException {
+        DatabaseHelper db = new DatabaseHelper("jdbc:h2:mem:eventtest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        try {
+            List<DomainEvent> seen = new ArrayList<>();
+            db.getEvents().subscribe(DomainEvent.class, seen::add);
+
+            User alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+            db.register(alice);
+            Question question = new Question(UUID.randomUUID(), "Events", "body", alice, QuestionStatus.OPEN,
+                    ZonedDateTime.now(), Tags.GENERAL, false, false, 0);
+            db.addQuestion(question);
+            Answer answer = new Answer(question, alice, "answer");
+            db.addAnswer(answer);
+            Comment comment = new Comment(answer, alice, "comment");
+            db.addComment(comment);
+            Comment reply = new Comment(comment, alice, "reply");
+            db.addComment(reply);
+            db.updateAnswerResolutionStatus(answer.getAnswerId().toString(), true);
+            db.deleteComment(reply.getCommentId().toString());
+            db.deleteAnswer(answer.getAnswerId().toString());
+            db.deleteQuestion(question.getQuestionId().toString());
+
+            String questionId = question.getQuestionId().toString();
+            String answerId = answer.getAnswerId().toString();
+            assertEquals(List.of(
+                    new DomainEvent.QuestionCreated(question),
+                    new DomainEvent.AnswerAdded(answer),
+                    new DomainEvent.CommentAdded(comment),
+                    new DomainEvent.CommentAdded(reply),
+                    new DomainEvent.AnswerResolved(questionId, answerId, true),
+                    new DomainEvent.CommentDeleted(questionId, answerId, comment.getCommentId().toString(), reply.getCommentId().toString()),
+                    new DomainEvent.AnswerDeleted(questionId, answerId),
+                    new DomainEvent.QuestionDeleted(questionId)), seen);
+        } finally {
+            try (var conn = db.getConnection(); var st = conn.createStatement()) {
+                st.execute("DROP ALL OBJECTS");
+            }
+            db.closeConnection();
+        }
+    }
+}
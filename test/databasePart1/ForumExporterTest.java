@@ -0,0 +1,194 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Answer;
+import application.Comment;
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+import databasePart1.BulkImporter.RecordType;
+
+/**
+ * <h2>Forum Export JUnit Tests</h2>
+ *
+ * <p>Exports an in-memory H2 forum with {@link ForumExporter} in both formats and imports
+ * each into a fresh database with {@link BulkImporter}, comparing the tables. A second test
+ * writes to the forum from another thread while an export is streaming and checks that
+ * the writer is not blocked and that the export leaves its rows out.</p>
+ *
+ * @since HW03
+ * @see ForumExporter
+ * @see BulkImporter
+ */
+public class ForumExporterTest {
+
+    private static final String COPY_URL = "jdbc:h2:mem:forumexportcopy;DB_CLOSE_DELAY=-1";
+
+    private DatabaseHelper db;
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:forumexporttest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        drop(db);
+    }
+
+    /** Both formats carry every row, and import back into an identical forum. */
+    @Test
+    public void export_roundTripsThroughBulkImport() throws Exception {
+        User alice = new User("alice", "Alice \"Al\"", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        User bob = new User("bob", "Bob", "bob@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.ADMIN, Role.STUDENT)));
+        db.register(alice);
+        db.register(bob);
+        Question question = new Question(UUID.randomUUID(), "Export ünïcode", "line one\nline two\t\\", alice,
+                QuestionStatus.OPEN, ZonedDateTime.now(), Tags.TEAM_PROJECT, false, true, 4);
+        db.addQuestion(question);
+        Answer answer = new Answer(question, bob, "answer");
+        db.addAnswer(answer);
+        Comment top = new Comment(answer, alice, "top");
+        db.addComment(top);
+        db.addComment(new Comment(top, bob, "reply"));
+        db.addComment(new Comment(answer, bob, "second top"));
+        db.updateLastViewed("alice", question.getQuestionId().toString());
+
+        for (ForumExporter.Format format : ForumExporter.Format.values()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ForumExporter.ExportReport report = new ForumExporter(db).export(out, format);
+            assertEquals(format.name(), 2, report.exportedCount(RecordType.USER));
+            assertEquals(format.name(), 3, report.exportedCount(RecordType.COMMENT));
+            assertEquals(format.name(), 1, report.exportedCount(RecordType.VIEWED));
+            assertEquals(format.name(), out.size(), report.bytes());
+
+            DatabaseHelper copy = new DatabaseHelper(COPY_URL);
+            copy.connectToDatabase();
+            try {
+                GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()));
+                BulkImporter importer = new BulkImporter(copy);
+                BulkImporter.ImportReport imported = format == ForumExporter.Format.BINARY
+                        ? importer.importBinary(in)
+                        : importer.importJsonLines(new InputStreamReader(in, StandardCharsets.UTF_8));
+                assertEquals(format.name(), List.of(), imported.rejections());
+                assertEquals(format.name(), report.exported(), imported.imported());
+
+                for (String table : List.of("cse360users", "questions", "answers", "comments", "viewed_answers")) {
+                    assertEquals(format + " " + table, dump(db, table), dump(copy, table));
+                }
+            } finally {
+                drop(copy);
+            }
+        }
+    }
+
+    /** A write made while the export streams is not blocked, and is not in the export. */
+    @Test
+    public void export_readsOneSnapshotWithoutBlockingWriters() throws Exception {
+        // Enough rows that compressed output reaches the stream while users are still being read
+        try (Connection conn = db.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("INSERT INTO cse360users (userName, password, name, email, roles) "
+                    + "SELECT 'user' || X, RANDOM_UUID(), RANDOM_UUID(), RANDOM_UUID() || '@example.com', '3' "
+                    + "FROM SYSTEM_RANGE(1, 5000)");
+        }
+        User author = db.getUserByUserName("user1");
+
+        AtomicReference<Throwable> writerFailure = new AtomicReference<>();
+        boolean[] written = {false};
+        OutputStream out = new OutputStream() {
+            private long bytes = 0;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                bytes += len;
+                if (bytes > 1024 && !written[0]) {
+                    written[0] = true;
+                    Thread writer = new Thread(() -> {
+                        try {
+                            db.register(new User("latecomer", "Late", "late@example.com", "Passw0rd!",
+                                    new ArrayList<>(List.of(Role.STUDENT))));
+                            db.addQuestion(new Question(UUID.randomUUID(), "Written mid-export", "body", author,
+                                    QuestionStatus.OPEN, ZonedDateTime.now(), Tags.GENERAL, false, false, 0));
+                        } catch (Throwable e) {
+                            writerFailure.set(e);
+                        }
+                    });
+                    writer.start();
+                    try {
+                        writer.join(10_000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    assertFalse("writer was blocked by the export", writer.isAlive());
+                }
+            }
+        };
+
+        ForumExporter.ExportReport report = new ForumExporter(db).export(out, ForumExporter.Format.JSON_LINES);
+
+        assertTrue(written[0]);
+        assertNull(writerFailure.get());
+        assertEquals(5000, report.exportedCount(RecordType.USER));
+        assertEquals(0, report.exportedCount(RecordType.QUESTION));
+        assertNotNull(db.getUserByUserName("latecomer"));
+        assertEquals(1, db.getAllPublicQuestions().size());
+    }
+
+    // Every row of a table in primary key order, with the generated id and path columns left out.
+    private static List<String> dump(DatabaseHelper helper, String table) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = helper.getConnection(); Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT * FROM " + table + " ORDER BY 1, 2")) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int i = 1; i <= columns; i++) {
+                    String name = rs.getMetaData().getColumnName(i);
+                    if (table.equals("cse360users") && name.equalsIgnoreCase("id")) {
+                        continue;
+                    }
+                    row.append(name).append('=').append(rs.getString(i)).append(' ');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    private static void drop(DatabaseHelper helper) throws SQLException {
+        try (Connection conn = helper.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        helper.closeConnection();
+    }
+}
@@ -0,0 +1,166 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.Test;
+
+import application.Answer;
+import application.BoardFacetCounts;
+import application.BoardQuery;
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Facet Index JUnit Tests</h2>
+ *
+ * <p>Filters and counts questions with {@link QuestionFacetIndex}: board order with and
+ * without out-of-order arrivals, per-option counts, journaling during the startup build,
+ * and staying in step with {@link DatabaseHelper} writes on an in-memory H2 database.</p>
+ *
+ * @since HW03
+ * @see CompressedBitmap
+ * @see BoardFacetCounts
+ */
+public class QuestionFacetIndexTest {
+
+    private static QuestionFacetIndex.FacetedQuestion faceted(String id, String author, Tags tag, boolean isPrivate,
+                                                              boolean answered, boolean resolved, long created) {
+        return new QuestionFacetIndex.FacetedQuestion(id, author, tag, isPrivate, answered, resolved, created);
+    }
+
+    private static QuestionFacetIndex sample() throws SQLException {
+        QuestionFacetIndex index = new QuestionFacetIndex();
+        index.rebuild(List.of(
+                faceted("q1", "alice", Tags.HOMEWORK, false, true, true, 10),
+                faceted("q2", "bob", Tags.HOMEWORK, false, true, false, 20),
+                faceted("q3", "alice", Tags.EXAMS, false, false, false, 30),
+                faceted("q4", "bob", Tags.EXAMS, true, false, false, 40),
+                faceted("q5", "bob", Tags.GENERAL, false, false, false, 50)), id -> null);
+        return index;
+    }
+
+    /** Filter combinations list the matching public questions in board order. */
+    @Test
+    public void find_filtersInBoardOrder() throws SQLException {
+        QuestionFacetIndex index = sample();
+        assertEquals(List.of("q5", "q3", "q2", "q1"), index.find(BoardQuery.all(), null, 100));
+        assertEquals(List.of("q5", "q3"), index.find(BoardQuery.all(), null, 2));
+        assertEquals(List.of("q3", "q5"), index.find(
+                new BoardQuery("", null, BoardQuery.StatusFilter.UNANSWERED, null, false), null, 100));
+        assertEquals(List.of("q1"), index.find(
+                new BoardQuery("", "alice", BoardQuery.StatusFilter.RESOLVED, Tags.HOMEWORK, true), null, 100));
+        assertEquals(List.of("q3"), index.find(BoardQuery.all(), List.of("q3", "q4", "missing"), 100));
+        assertEquals(List.of(), index.find(new BoardQuery("", "carol", BoardQuery.StatusFilter.ALL, null, true), null, 100));
+    }
+
+    /** Each option's count keeps the other filters but not its own. */
+    @Test
+    public void count_keepsOtherFilters() throws SQLException {
+        QuestionFacetIndex index = sample();
+        BoardQuery homeworkUnresolved = new BoardQuery("", null, BoardQuery.StatusFilter.UNRESOLVED, Tags.HOMEWORK, true);
+        BoardFacetCounts counts = index.count(homeworkUnresolved, null, "alice");
+
+        assertEquals(1, counts.getTagCount(Tags.HOMEWORK)); // q2
+        assertEquals(1, counts.getTagCount(Tags.EXAMS));    // q3; q4 is private
+        assertEquals(1, counts.getTagCount(Tags.GENERAL));
+        assertEquals(3, counts.getAllTagsCount());
+        assertEquals(2, counts.getStatusCount(BoardQuery.StatusFilter.ALL));
+        assertEquals(1, counts.getStatusCount(BoardQuery.StatusFilter.RESOLVED));
+        assertEquals(1, counts.getStatusCount(BoardQuery.StatusFilter.UNRESOLVED));
+        assertEquals(2, counts.getStatusCount(BoardQuery.StatusFilter.ANSWERED));
+        assertEquals(0, counts.getStatusCount(BoardQuery.StatusFilter.UNANSWERED));
+        assertEquals(1, counts.getAllQuestionsCount());
+        assertEquals(0, counts.getMyQuestionsCount());
+    }
+
+    /** Updates replace a question's facets; late arrivals are still listed in board order. */
+    @Test
+    public void updates_keepIndexConsistent() throws SQLException {
+        QuestionFacetIndex index = sample();
+        index.putQuestion(faceted("q1", "alice", Tags.EXAMS, false, false, false, 10));
+        index.markAnswered("q3");
+        index.remove("q2");
+        index.put(faceted("q0", "carol", Tags.EXAMS, false, false, false, 5)); // created before q1
+
+        assertEquals(List.of("q0", "q1", "q3"), index.find(
+                new BoardQuery("", null, BoardQuery.StatusFilter.ALL, Tags.EXAMS, false), null, 100));
+        // q1 kept its answered and resolved flags through the question edit
+        assertEquals(List.of("q1"), index.find(
+                new BoardQuery("", null, BoardQuery.StatusFilter.RESOLVED, null, true), null, 100));
+        assertEquals(List.of("q3", "q1"), index.find(
+                new BoardQuery("", null, BoardQuery.StatusFilter.ANSWERED, null, true), null, 100));
+        assertEquals(5, index.size()); // private questions are indexed too
+    }
+
+    /** Writes made before the startup build finishes are re-read once it does. */
+    @Test
+    public void writesDuringBuild_areReplayed() throws SQLException {
+        QuestionFacetIndex index = new QuestionFacetIndex();
+        index.markAnswered("q1");
+        index.remove("q2");
+        assertFalse(index.isReady());
+
+        Map<String, QuestionFacetIndex.FacetedQuestion> current = new HashMap<>();
+        current.put("q1", faceted("q1", "alice", Tags.GENERAL, false, true, false, 10));
+        index.rebuild(List.of(
+                faceted("q1", "alice", Tags.GENERAL, false, false, false, 10),
+                faceted("q2", "bob", Tags.GENERAL, false, false, false, 20)), current::get);
+
+        assertTrue(index.isReady());
+        assertEquals(List.of("q1"), index.find(BoardQuery.all(), null, 100));
+        assertEquals(List.of("q1"), index.find(
+                new BoardQuery("", null, BoardQuery.StatusFilter.ANSWERED, null, true), null, 100));
+    }
+
+    /** The helper's facet index follows answers being added, accepted and deleted. */
+    @Test
+    public void databaseWrites_updateFacets() throws SQLException, InterruptedException {
+        DatabaseHelper db = new DatabaseHelper("jdbc:h2:mem:facettest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        try {
+            QuestionFacetIndex index = db.getFacetIndex();
+            for (int i = 0; i < 100 && !index.isReady(); i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(index.isReady());
+
+            User alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+            db.register(alice);
+            Question question = new Question(UUID.randomUUID(), "Facets", "body", alice, QuestionStatus.OPEN,
+                    ZonedDateTime.now(), Tags.QUIZZES, false, false, 0);
+            db.addQuestion(question);
+            Answer answer = new Answer(question, alice, "answer");
+            db.addAnswer(answer);
+            db.updateAnswerResolutionStatus(answer.getAnswerId().toString(), true);
+
+            BoardQuery quizzes = new BoardQuery("", null, BoardQuery.StatusFilter.ALL, Tags.QUIZZES, true);
+            BoardFacetCounts counts = db.getBoardFacetCounts("alice", quizzes);
+            assertEquals(1, counts.getTagCount(Tags.QUIZZES));
+            assertEquals(1, counts.getStatusCount(BoardQuery.StatusFilter.RESOLVED));
+            assertEquals(1, counts.getMyQuestionsCount());
+
+            db.deleteAnswer(answer.getAnswerId().toString());
+            counts = db.getBoardFacetCounts("alice", quizzes);
+            assertEquals(0, counts.getStatusCount(BoardQuery.StatusFilter.RESOLVED));
+            assertEquals(1, counts.getStatusCount(BoardQuery.StatusFilter.UNANSWERED));
+            assertEquals(List.of(question.getQuestionId().toString()), index.find(
+                    new BoardQuery("", null, BoardQuery.StatusFilter.UNANSWERED, null, true), null, 10));
+        } finally {
+            try (var conn = db.getConnection(); var st = conn.createStatement()) {
+                st.execute("DROP ALL OBJECTS");
+            }
+            db.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Answer;
+import application.BoardQuery;
+import application.Question;
+import application.QuestionPage;
+import application.QuestionStatus;
+import application.QuestionSummary;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Keyset Pagination JUnit Tests</h2>
+ *
+ * <p>Pages through the discussion board with
+ * {@link DatabaseHelper#getPublicQuestionPage(String, BoardQuery, QuestionPage.Cursor, int)}
+ * against an in-memory H2 database. Half of the questions share a creation
+ * timestamp, so the id tie-breaker is exercised on every page boundary.</p>
+ *
+ * @since HW03
+ * @see QuestionPage
+ */
+public class QuestionPageTest {
+
+    private static final int QUESTIONS = 23;
+
+    private DatabaseHelper db;
+    private User alice;
+    private User bob;
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:pagetest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        bob = new User("bob", "Bob", "bob@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        db.register(alice);
+        db.register(bob);
+
+        ZonedDateTime base = ZonedDateTime.now().withNano(0);
+        for (int i = 0; i < QUESTIONS; i++) {
+            // every even question shares the base timestamp
+            ZonedDateTime created = i % 2 == 0 ? base : base.plusMinutes(i);
+            Question q = new Question(UUID.randomUUID(), (i % 3 == 0 ? "Exam 100% " : "Homework ") + i, "body",
+                    i % 2 == 0 ? alice : bob, QuestionStatus.OPEN, created,
+                    i % 4 == 0 ? Tags.EXAMS : Tags.HOMEWORK, false, false, 0);
+            db.addQuestion(q);
+            if (i % 5 == 0) {
+                Answer a = new Answer(q, bob, "answer");
+                db.addAnswer(a);
+                db.updateAnswerResolutionStatus(a.getAnswerId().toString(), i % 10 == 0);
+            }
+        }
+        // a private question never shows up
+        db.addQuestion(new Question(UUID.randomUUID(), "Private", "body", alice, QuestionStatus.OPEN,
+                base, Tags.GENERAL, true, false, 0));
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (var conn = db.getConnection(); var st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+    }
+
+    /** Walking every page visits each public question exactly once, in order, both directions. */
+    @Test
+    public void pagesCoverEveryQuestionOnce() throws SQLException {
+        for (boolean newestFirst : new boolean[] {true, false}) {
+            BoardQuery query = new BoardQuery("", null, BoardQuery.StatusFilter.ALL, null, newestFirst);
+            List<Question> seen = readAll(query, 4);
+
+            assertEquals(QUESTIONS, seen.size());
+            assertEquals(QUESTIONS, ids(seen).size());
+            for (int i = 1; i < seen.size(); i++) {
+                int cmp = seen.get(i - 1).getCreationTimestamp().compareTo(seen.get(i).getCreationTimestamp());
+                assertTrue(newestFirst ? cmp >= 0 : cmp <= 0);
+            }
+        }
+    }
+
+    /** The last page reports no further cursor. */
+    @Test
+    public void lastPage_hasNoCursor() throws SQLException {
+        QuestionPage page = db.getPublicQuestionPage("alice", BoardQuery.all(), null, QUESTIONS);
+        assertEquals(QUESTIONS, page.getSummaries().size());
+        assertFalse(page.hasMore());
+    }
+
+    /** Filters are applied in SQL and combine with paging. */
+    @Test
+    public void filters_matchInMemoryEquivalent() throws SQLException {
+        List<QuestionSummary> all = db.getPublicQuestionSummaries("alice");
+
+        BoardQuery mine = new BoardQuery("", "alice", BoardQuery.StatusFilter.ALL, Tags.EXAMS, true);
+        assertEquals(all.stream().filter(s -> s.getQuestion().getAuthor().getUserName().equals("alice")
+                && s.getQuestion().getTag() == Tags.EXAMS).count(), readAll(mine, 2).size());
+
+        BoardQuery resolved = new BoardQuery("", null, BoardQuery.StatusFilter.RESOLVED, null, true);
+        assertEquals(all.stream().filter(QuestionSummary::isResolved).count(), readAll(resolved, 2).size());
+
+        BoardQuery unanswered = new BoardQuery("", null, BoardQuery.StatusFilter.UNANSWERED, null, false);
+        assertEquals(all.stream().filter(s -> !s.isAnswered()).count(), readAll(unanswered, 3).size());
+    }
+
+    /** LIKE wildcards in the search text are matched literally. */
+    @Test
+    public void searchText_isMatchedLiterally() throws SQLException {
+        BoardQuery percent = new BoardQuery("100%", null, BoardQuery.StatusFilter.ALL, null, true);
+        assertEquals(8, readAll(percent, 5).size());
+
+        BoardQuery underscore = new BoardQuery("_", null, BoardQuery.StatusFilter.ALL, null, true);
+        assertEquals(0, readAll(underscore, 5).size());
+    }
+
+    /** Once the search index is built, search matches bodies and word prefixes and still pages in order. */
+    @Test
+    public void searchText_usesIndexOnceReady() throws Exception {
+        for (int i = 0; i < 200 && !db.getSearchIndex().isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(db.getSearchIndex().isReady());
+
+        BoardQuery byBody = new BoardQuery("bod", null, BoardQuery.StatusFilter.ALL, null, true);
+        assertEquals(QUESTIONS, readAll(byBody, 4).size());
+
+        BoardQuery exams = new BoardQuery("exam 100", null, BoardQuery.StatusFilter.ALL, Tags.EXAMS, false);
+        List<Question> seen = readAll(exams, 1);
+        assertEquals(2, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).getCreationTimestamp().compareTo(seen.get(i).getCreationTimestamp()) <= 0);
+        }
+    }
+
+    private List<Question> readAll(BoardQuery query, int pageSize) throws SQLException {
+        List<Question> questions = new ArrayList<>();
+        QuestionPage.Cursor cursor = null;
+        do {
+            QuestionPage page = db.getPublicQuestionPage("alice", query, cursor, pageSize);
+            assertTrue(page.getSummaries().size() <= pageSize);
+            page.getSummaries().forEach(s -> questions.add(s.getQuestion()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return questions;
+    }
+
+    private static Set<UUID> ids(List<Question> questions) {
+        Set<UUID> ids = new HashSet<>();
+        questions.forEach(q -> ids.add(q.getQuestionId()));
+        return ids;
+    }
+
+    /** Re-reading rows by id returns their current state and skips deleted questions. */
+    @Test
+    public void summariesById_reflectCurrentRows() throws SQLException {
+        List<QuestionSummary> page = db.getPublicQuestionPage("alice", new BoardQuery("", null, BoardQuery.StatusFilter.ALL, null, true), null, 3).getSummaries();
+        Question kept = page.get(0).getQuestion();
+        Question deleted = page.get(1).getQuestion();
+        db.addAnswer(new Answer(kept, bob, "late answer"));
+        db.deleteQuestion(deleted.getQuestionId().toString());
+
+        List<QuestionSummary> refreshed = db.getPublicQuestionSummaries("alice",
+                List.of(kept.getQuestionId().toString(), deleted.getQuestionId().toString()));
+        assertEquals(1, refreshed.size());
+        assertEquals(kept.getQuestionId(), refreshed.get(0).getQuestion().getQuestionId());
+        assertEquals(page.get(0).getAnswerCount() + 1, refreshed.get(0).getAnswerCount());
+        assertTrue(db.getPublicQuestionSummaries("alice", List.of()).isEmpty());
+    }
+}
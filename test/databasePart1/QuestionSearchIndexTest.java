@@ -0,0 +1,127 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import databasePart1.QuestionSearchIndex.IndexedQuestion;
+
+/**
+ * <h2>QuestionSearchIndex JUnit Tests</h2>
+ *
+ * <p>Covers tokenizing, AND and prefix matching, ranking, incremental
+ * updates and compaction of {@link QuestionSearchIndex}, and the journal
+ * that keeps writes made before the startup build finishes.</p>
+ *
+ * @since HW03
+ * @see QuestionSearchIndex
+ */
+public class QuestionSearchIndexTest {
+
+    private QuestionSearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new QuestionSearchIndex();
+        index.rebuild(List.of(
+                new IndexedQuestion("q1", "Java generics question", "How do wildcards work?"),
+                new IndexedQuestion("q2", "JavaFX layout", "My VBox ignores padding in java"),
+                new IndexedQuestion("q3", "Exam review", "Is generics on the exam?"),
+                new IndexedQuestion("q4", "Homework 2", "Deadline for homework two")));
+    }
+
+    /** Text is split into lowercase letter and digit runs. */
+    @Test
+    public void tokenize_splitsOnNonAlphanumerics() {
+        assertEquals(List.of("java", "s", "hashmap", "100"), QuestionSearchIndex.tokenize("Java's HashMap: 100%!"));
+        assertTrue(QuestionSearchIndex.tokenize("  %_ ").isEmpty());
+        assertTrue(QuestionSearchIndex.tokenize(null).isEmpty());
+    }
+
+    /** The last token matches any term it prefixes. */
+    @Test
+    public void lastToken_matchesAsPrefix() {
+        assertEquals(List.of("q2", "q1"), index.search("jav", 10));
+        assertEquals(List.of("q4"), index.search("homew", 10));
+        assertTrue(index.search("xyz", 10).isEmpty());
+    }
+
+    /** Earlier tokens must match whole terms, and every token must match. */
+    @Test
+    public void tokens_areAnded() {
+        assertEquals(List.of("q3"), index.search("exam gen", 10));
+        assertTrue(index.search("jav layout", 10).isEmpty());
+        assertEquals(List.of("q2"), index.search("java padd", 10));
+    }
+
+    /** A title hit outranks a body hit; the limit keeps only the best. */
+    @Test
+    public void titleHits_rankAboveBodyHits() {
+        assertEquals(List.of("q1", "q3"), index.search("generics", 10));
+        assertEquals(List.of("q1"), index.search("generics", 1));
+    }
+
+    /** Equal scores rank the most recently added question first. */
+    @Test
+    public void ties_rankNewestFirst() {
+        index.put("q5", "Office hours", "");
+        index.put("q6", "Office hours", "");
+        assertEquals(List.of("q6", "q5"), index.search("office", 10));
+    }
+
+    /** Updating replaces the old text and removing drops the question. */
+    @Test
+    public void putAndRemove_updateResults() {
+        index.put("q4", "Homework 3", "Deadline moved");
+        assertTrue(index.search("two", 10).isEmpty());
+        assertEquals(List.of("q4"), index.search("moved", 10));
+
+        index.remove("q1");
+        assertEquals(List.of("q2"), index.search("java", 10));
+        assertEquals(3, index.size());
+    }
+
+    /** Removing many questions compacts the postings without losing the rest. */
+    @Test
+    public void manyRemovals_compactIndex() {
+        List<IndexedQuestion> questions = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            questions.add(new IndexedQuestion("q" + i, "topic" + i + " shared", "body"));
+        }
+        index.rebuild(questions);
+        int terms = index.getTermCount();
+        for (int i = 0; i < 60; i++) {
+            index.remove("q" + i);
+        }
+
+        assertEquals(40, index.size());
+        assertTrue(index.getTermCount() < terms);
+        assertEquals(40, index.search("shared", 100).size());
+        assertEquals(List.of("q99"), index.search("topic99", 10));
+        assertTrue(index.search("topic5", 10).isEmpty());
+    }
+
+    /** Writes made while the startup build is loading are applied after it. */
+    @Test
+    public void writesBeforeBuild_areReplayed() {
+        QuestionSearchIndex fresh = new QuestionSearchIndex();
+        assertFalse(fresh.isReady());
+        fresh.put("new", "Late arrival", "");
+        fresh.remove("old");
+        fresh.put("kept", "Edited title", "");
+
+        fresh.rebuild(List.of(
+                new IndexedQuestion("old", "Deleted meanwhile", ""),
+                new IndexedQuestion("kept", "Original title", "")));
+
+        assertTrue(fresh.isReady());
+        assertEquals(List.of("new"), fresh.search("late", 10));
+        assertTrue(fresh.search("deleted", 10).isEmpty());
+        assertTrue(fresh.search("original", 10).isEmpty());
+        assertEquals(List.of("kept"), fresh.search("edited", 10));
+    }
+}
@@ -0,0 +1,112 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Answer;
+import application.BoardQuery;
+import application.Question;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Denormalized Answer Stats JUnit Tests</h2>
+ *
+ * <p>Checks that {@link DatabaseHelper} keeps {@code answerCount} and
+ * {@code acceptedAnswerId} on the question row in step with answer writes, and
+ * that {@link QuestionStatsReconciler} repairs rows changed behind its back.</p>
+ *
+ * @since HW03
+ * @see QuestionStatsReconciler
+ */
+public class QuestionStatsReconcilerTest {
+
+    private DatabaseHelper db;
+    private User alice;
+    private Question question;
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:statstest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        db.register(alice);
+        question = new Question(alice, "Title", "body", Tags.GENERAL, false, false);
+        db.addQuestion(question);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        execute("DROP ALL OBJECTS");
+        db.closeConnection();
+    }
+
+    /** Adding, resolving and deleting answers keeps the columns exact. */
+    @Test
+    public void answerWrites_maintainStats() throws SQLException {
+        String id = question.getQuestionId().toString();
+        Answer first = new Answer(question, alice, "first");
+        Answer second = new Answer(question, alice, "second");
+        db.addAnswer(first);
+        db.addAnswer(second);
+        assertEquals(2, db.getAnswerCountForQuestion(id));
+        assertFalse(db.hasAcceptedAnswer(id));
+
+        db.updateAnswerResolutionStatus(second.getAnswerId().toString(), true);
+        assertTrue(db.hasAcceptedAnswer(id));
+
+        db.deleteAnswer(second.getAnswerId().toString());
+        assertEquals(1, db.getAnswerCountForQuestion(id));
+        assertFalse(db.hasAcceptedAnswer(id));
+
+        assertEquals(0, db.getStatsReconciler().reconcile());
+    }
+
+    /** Answers written with plain SQL are picked up by the next reconciliation pass. */
+    @Test
+    public void drift_isRepaired() throws SQLException {
+        String id = question.getQuestionId().toString();
+        execute("INSERT INTO answers (id, body, authorUserName, questionId, creationTimestamp, resolvesQuestion) "
+                + "VALUES ('a1', 'manual', 'alice', '" + id + "', CURRENT_TIMESTAMP, TRUE)");
+        assertEquals(0, db.getAnswerCountForQuestion(id));
+
+        assertEquals(1, db.getStatsReconciler().reconcile());
+        assertEquals(1, db.getAnswerCountForQuestion(id));
+        assertTrue(db.hasAcceptedAnswer(id));
+        assertEquals(0, db.getStatsReconciler().reconcile());
+    }
+
+    /** A bulk load behind the helper's back is fully visible after rebuildDerivedState. */
+    @Test
+    public void rebuildDerivedState_coversRowsWrittenWithSql() throws SQLException {
+        String id = "00000000-0000-4000-8000-000000000001";
+        execute("INSERT INTO questions (id, title, body, authorUserName, status, creationTimestamp, tag, isPrivate, "
+                + "isAnonymous, viewCount) VALUES ('" + id + "', 'Zebra crossing', 'imported body', 'alice', 'OPEN', "
+                + "CURRENT_TIMESTAMP, 'EXAMS', FALSE, FALSE, 0)");
+        execute("INSERT INTO answers (id, body, authorUserName, questionId, creationTimestamp) "
+                + "VALUES ('a1', 'imported', 'alice', '" + id + "', CURRENT_TIMESTAMP)");
+        assertEquals(0, db.getAnswerCountForQuestion(id));
+
+        db.rebuildDerivedState();
+        assertEquals(1, db.getAnswerCountForQuestion(id));
+        assertEquals(List.of(id), db.getSearchIndex().search("zebra", 10));
+        assertEquals(id, db.findSimilarQuestions("zebra crossing", 5).get(0).getQuestionId().toString());
+        assertEquals(1, db.getBoardFacetCounts("alice", BoardQuery.all()).getTagCount(Tags.EXAMS));
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection conn = db.getConnection(); Statement st = conn.createStatement()) {
+            st.execute(sql);
+        }
+    }
+}
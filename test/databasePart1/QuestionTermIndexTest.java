@@ -0,0 +1,151 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>QuestionTermIndex JUnit Tests</h2>
+ *
+ * <p>Ranks similar questions with BM25 against an in-memory H2 database and
+ * checks that the term statistics kept up by {@link DatabaseHelper} on every
+ * question write match a full rebuild.</p>
+ *
+ * @since HW03
+ * @see QuestionTermIndex
+ */
+public class QuestionTermIndexTest {
+
+    private DatabaseHelper db;
+    private User alice;
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:termtest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        db.register(alice);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Connection conn = db.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+    }
+
+    private Question ask(String title, String body, boolean isPrivate) throws SQLException {
+        Question q = new Question(UUID.randomUUID(), title, body, alice, QuestionStatus.OPEN,
+                ZonedDateTime.now(), Tags.GENERAL, isPrivate, false, 0);
+        db.addQuestion(q);
+        return q;
+    }
+
+    private List<String> titles(List<Question> questions) {
+        List<String> titles = new ArrayList<>();
+        questions.forEach(q -> titles.add(q.getTitle()));
+        return titles;
+    }
+
+    /** A reworded question is found, and sharing the rarer term ranks higher. */
+    @Test
+    public void rewordedDuplicate_ranksFirst() throws SQLException {
+        ask("NullPointerException in JavaFX TableView", "My table throws when loading rows", false);
+        ask("How to center a JavaFX button", "Alignment in an HBox", false);
+        ask("JavaFX scene builder setup", "Eclipse plugin", false);
+        ask("Sorting a list of records", "Comparator question", false);
+
+        List<Question> similar = db.findSimilarQuestions("TableView NullPointerException when rows load", 10);
+        assertEquals("NullPointerException in JavaFX TableView", similar.get(0).getTitle());
+        assertFalse(titles(similar).contains("Sorting a list of records"));
+    }
+
+    /** Stop words alone match nothing and private questions are never suggested. */
+    @Test
+    public void stopWordsAndPrivateQuestions_areIgnored() throws SQLException {
+        ask("How do I use streams", "", false);
+        ask("Private streams question", "", true);
+
+        assertTrue(db.findSimilarQuestions("how do I", 10).isEmpty());
+        assertEquals(List.of("How do I use streams"), titles(db.findSimilarQuestions("streams", 10)));
+    }
+
+    /** Edits and deletes update the statistics exactly as a full rebuild computes them. */
+    @Test
+    public void incrementalStatistics_matchRebuild() throws SQLException {
+        Question a = ask("Generics wildcard question", "extends versus super", false);
+        Question b = ask("Generics erasure", "why generics types vanish at runtime", false);
+        ask("Lambda capture", "effectively final variables", false);
+        a.setTitle("Wildcard bounds");
+        db.updateQuestion(a);
+        db.deleteQuestion(b.getQuestionId().toString());
+
+        Map<String, String> incremental = snapshot();
+        try (Connection conn = db.getConnection()) {
+            new QuestionTermIndex().rebuild(conn);
+        }
+        assertEquals(snapshot(), incremental);
+        assertTrue(db.findSimilarQuestions("erasure", 10).isEmpty());
+        assertEquals(List.of("Wildcard bounds"), titles(db.findSimilarQuestions("wildcard", 10)));
+    }
+
+    /** Deleting a user drops the statistics of their questions. */
+    @Test
+    public void deleteUser_removesTheirTerms() throws SQLException {
+        ask("Recursion depth", "stack overflow", false);
+        assertTrue(db.deleteUser("alice"));
+
+        assertTrue(db.findSimilarQuestions("recursion", 10).isEmpty());
+        assertEquals("corpus=0/0", snapshot().get("corpus"));
+    }
+
+    /** Title terms weigh more than body terms. */
+    @Test
+    public void titleTerms_outweighBodyTerms() {
+        Map<String, Integer> tfs = QuestionTermIndex.termFrequencies("Threads", "threads and locks");
+        assertEquals(Integer.valueOf(QuestionSearchIndex.TITLE_WEIGHT + 1), tfs.get("threads"));
+        assertEquals(Integer.valueOf(1), tfs.get("locks"));
+        assertNull(tfs.get("and"));
+    }
+
+    // Every term and corpus statistic as text, for comparing two states.
+    private Map<String, String> snapshot() throws SQLException {
+        Map<String, String> stats = new TreeMap<>();
+        try (Connection conn = db.getConnection(); Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("SELECT term, doc_freq FROM search_terms")) {
+                while (rs.next()) {
+                    stats.put("df:" + rs.getString(1), rs.getString(2));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT term, question_id, tf, doc_length FROM search_postings")) {
+                while (rs.next()) {
+                    stats.put("p:" + rs.getString(1) + ":" + rs.getString(2), rs.getInt(3) + "/" + rs.getInt(4));
+                }
+            }
+            try (ResultSet rs = st.executeQuery("SELECT doc_count, total_length FROM search_corpus")) {
+                stats.put("corpus", rs.next() ? "corpus=" + rs.getLong(1) + "/" + rs.getLong(2) : "missing");
+            }
+        }
+        return stats;
+    }
+}
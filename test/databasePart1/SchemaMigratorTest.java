@@ -0,0 +1,118 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h2>SchemaMigrator JUnit Tests</h2>
+ *
+ * <p>Runs {@link SchemaMigrator} against a fresh in-memory H2 database per test:
+ * applying pending migrations, the no-op fast path, checksum verification and
+ * background migrations.</p>
+ *
+ * @since HW03
+ * @see SchemaMigrator
+ * @see Migrations
+ */
+public class SchemaMigratorTest {
+
+    private static int databaseCounter;
+
+    private String url;
+    private Connection conn;
+
+    @Before
+    public void setUp() throws SQLException {
+        url = "jdbc:h2:mem:migratortest" + (databaseCounter++) + ";DB_CLOSE_DELAY=-1";
+        conn = DriverManager.getConnection(url, "sa", "");
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        conn.close();
+    }
+
+    /** A fresh database gets every foreground migration and a version row for each. */
+    @Test
+    public void freshDatabase_appliesForegroundMigrations() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(Migrations.all());
+        int foreground = (int) Migrations.all().stream().filter(m -> !m.isBackground()).count();
+
+        assertEquals(foreground, migrator.migrate(conn));
+        assertEquals(foreground, countRows(SchemaMigrator.VERSION_TABLE));
+        assertEquals(0, countRows("questions"));
+    }
+
+    /** Once up to date, migrating again applies nothing. */
+    @Test
+    public void upToDateDatabase_appliesNothing() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(Migrations.all());
+        migrator.migrate(conn);
+
+        assertEquals(0, migrator.migrate(conn));
+    }
+
+    /** A migration edited after it was applied stops the migrator. */
+    @Test
+    public void changedMigration_failsChecksum() throws SQLException {
+        new SchemaMigrator(List.of(Migration.sql(1, "t", "CREATE TABLE t (id INT)"))).migrate(conn);
+        SchemaMigrator edited = new SchemaMigrator(List.of(Migration.sql(1, "t", "CREATE TABLE t (id BIGINT)")));
+        try {
+            edited.migrate(conn);
+            fail("Expected a checksum mismatch");
+        } catch (SQLException expected) {
+            assertTrue(expected.getMessage().contains("checksum"));
+        }
+    }
+
+    /** A failing migration leaves no version row behind, so it is retried next time. */
+    @Test
+    public void failingMigration_isNotRecorded() throws SQLException {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+                Migration.sql(1, "ok", "CREATE TABLE ok (id INT)"),
+                Migration.code(2, "broken", 1, c -> { throw new SQLException("boom"); })));
+        try {
+            migrator.migrate(conn);
+            fail("Expected the broken migration to fail");
+        } catch (SQLException expected) {
+            assertEquals(1, countRows(SchemaMigrator.VERSION_TABLE));
+        }
+    }
+
+    /** Background migrations are skipped by migrate and applied by the worker thread. */
+    @Test
+    public void backgroundMigration_runsOnWorkerThread() throws Exception {
+        SchemaMigrator migrator = new SchemaMigrator(List.of(
+                Migration.sql(1, "table", "CREATE TABLE bg (id INT)"),
+                Migration.sql(2, "index", "CREATE INDEX idx_bg ON bg(id)").inBackground()));
+        assertEquals(1, migrator.migrate(conn));
+
+        Thread worker = migrator.startBackgroundMigrations(() -> DriverManager.getConnection(url, "sa", ""));
+        assertNotNull(worker);
+        worker.join(5_000);
+
+        assertEquals(2, countRows(SchemaMigrator.VERSION_TABLE));
+        assertNull(migrator.startBackgroundMigrations(() -> DriverManager.getConnection(url, "sa", "")));
+    }
+
+    private int countRows(String table) throws SQLException {
+        try (Statement st = conn.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * <h2>SearchPipeline JUnit Tests</h2>
+ *
+ * <p>Drives a pipeline from a single-thread executor standing in for the JavaFX
+ * application thread and checks that bursts of input are debounced into one
+ * query, repeated input is served from the cache, and superseded or cancelled
+ * queries deliver nothing.</p>
+ *
+ * @since HW03
+ * @see SearchPipeline
+ */
+public class SearchPipelineTest {
+
+    private static final long DEBOUNCE_MILLIS = 30;
+
+    private ExecutorService uiThread;
+    private ScheduledExecutorService timer;
+    private AsyncDatabaseHelper async;
+    private BlockingQueue<String> results;
+    private SearchPipeline<String, String> pipeline;
+
+    @Before
+    public void setUp() {
+        uiThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "fake-fx-thread"));
+        timer = Executors.newSingleThreadScheduledExecutor();
+        // the helper is never connected; the searches below do not touch the database
+        async = new AsyncDatabaseHelper(new DatabaseHelper(), Executors.newCachedThreadPool(), uiThread);
+        results = new LinkedBlockingQueue<>();
+        pipeline = pipeline((db, query) -> "result:" + query);
+    }
+
+    @After
+    public void tearDown() {
+        async.shutdown();
+        timer.shutdownNow();
+        uiThread.shutdownNow();
+    }
+
+    private SearchPipeline<String, String> pipeline(SearchPipeline.Search<String, String> search) {
+        return new SearchPipeline<>(async, "test", DEBOUNCE_MILLIS, 8, search,
+                results::add, error -> results.add("error:" + error.getMessage()), uiThread, timer);
+    }
+
+    // Runs on the fake FX thread and waits for it, as the pipeline is only used from there.
+    private void onUi(Runnable action) throws Exception {
+        uiThread.submit(action).get(5, TimeUnit.SECONDS);
+    }
+
+    private String nextResult() throws InterruptedException {
+        return results.poll(5, TimeUnit.SECONDS);
+    }
+
+    /** A burst of keystrokes sends a single query for the settled input. */
+    @Test
+    public void keystrokeBurst_sendsOneQuery() throws Exception {
+        onUi(() -> {
+            pipeline.submit("j");
+            pipeline.submit("ja");
+            pipeline.submit("jav");
+            pipeline.submit("java");
+        });
+
+        assertEquals("result:java", nextResult());
+        assertEquals(4, pipeline.getInputCount());
+        assertEquals(1, pipeline.getQueryCount());
+        assertEquals(3, pipeline.getDebouncedCount());
+    }
+
+    /** Going back to an earlier input is answered from the cache without a query. */
+    @Test
+    public void repeatedInput_isServedFromCache() throws Exception {
+        onUi(() -> pipeline.submitNow("java"));
+        assertEquals("result:java", nextResult());
+        onUi(() -> pipeline.submitNow("javafx"));
+        assertEquals("result:javafx", nextResult());
+
+        onUi(() -> pipeline.submit("java"));
+        assertEquals("result:java", results.poll());
+        assertEquals(2, pipeline.getQueryCount());
+        assertEquals(1, pipeline.getCacheHitCount());
+    }
+
+    /** A query still in flight is superseded by newer input and its result is dropped. */
+    @Test
+    public void newerInput_supersedesQueryInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        pipeline = pipeline((db, query) -> {
+            if (query.equals("slow")) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // cancelled; the result is dropped either way
+                }
+            }
+            return "result:" + query;
+        });
+
+        onUi(() -> {
+            pipeline.submitNow("slow");
+            pipeline.submitNow("fast");
+        });
+        assertEquals("result:fast", nextResult());
+        release.countDown();
+
+        assertNull(results.poll(DEBOUNCE_MILLIS * 5, TimeUnit.MILLISECONDS));
+        assertEquals(1, pipeline.getSupersededCount());
+    }
+
+    /** Cancelling drops pending input before it is queried. */
+    @Test
+    public void cancel_dropsPendingInput() throws Exception {
+        onUi(() -> {
+            pipeline.submit("java");
+            pipeline.cancel();
+        });
+
+        assertNull(results.poll(DEBOUNCE_MILLIS * 5, TimeUnit.MILLISECONDS));
+        assertEquals(0, pipeline.getQueryCount());
+    }
+
+    /** Inputs that differ only in case and spacing normalize to the same query. */
+    @Test
+    public void normalize_collapsesCaseAndWhitespace() {
+        assertEquals("java generics", SearchPipeline.normalize("  Java \t GENERICS "));
+        assertEquals("", SearchPipeline.normalize(null));
+    }
+}
@@ -0,0 +1,139 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Answer;
+import application.AnswerPage;
+import application.AnswerSummary;
+import application.Comment;
+import application.CommentSummary;
+import application.Question;
+import application.QuestionStatus;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>Lazy Thread Loading JUnit Tests</h2>
+ *
+ * <p>Pages through a question's answers with
+ * {@link DatabaseHelper#getAnswerPage(Question, AnswerPage.Cursor, int)} and expands
+ * comment threads one level at a time with
+ * {@link DatabaseHelper#getComments(Answer, Comment)} against an in-memory H2 database.</p>
+ *
+ * @since HW03
+ * @see AnswerPage
+ * @see ThreadLoadStats
+ */
+public class ThreadPageTest {
+
+    private static final int ANSWERS = 12;
+
+    private DatabaseHelper db;
+    private User alice;
+    private Question question;
+    private List<Answer> answers = new ArrayList<>();
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:threadtest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        db.register(alice);
+        question = new Question(UUID.randomUUID(), "Busy thread", "body", alice, QuestionStatus.OPEN,
+                ZonedDateTime.now(), Tags.GENERAL, false, false, 0);
+        db.addQuestion(question);
+        for (int i = 0; i < ANSWERS; i++) {
+            Answer a = new Answer(question, alice, "answer " + i);
+            db.addAnswer(a);
+            answers.add(a);
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (var conn = db.getConnection(); var st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+    }
+
+    /** Pages cover every answer exactly once, with the accepted answer first. */
+    @Test
+    public void answerPages_listAcceptedFirstThenEveryAnswerOnce() throws SQLException {
+        Answer accepted = answers.get(7);
+        db.updateAnswerResolutionStatus(accepted.getAnswerId().toString(), true);
+
+        List<String> seen = new ArrayList<>();
+        AnswerPage page = db.getAnswerPage(question, null, 5);
+        assertEquals(ANSWERS, page.getTotalCount());
+        assertTrue(page.getAnswers().get(0).getAnswer().getResolvesQuestion());
+        int pages = 1;
+        while (true) {
+            page.getAnswers().forEach(a -> seen.add(a.getAnswer().getAnswerId().toString()));
+            if (!page.hasMore()) {
+                break;
+            }
+            page = db.getAnswerPage(question, page.getNextCursor(), 5);
+            pages++;
+        }
+
+        assertEquals(3, pages);
+        assertEquals(ANSWERS, seen.size());
+        assertEquals(ANSWERS, new HashSet<>(seen).size());
+        assertEquals(accepted.getAnswerId().toString(), seen.get(0));
+    }
+
+    /** Comments load one level per expansion, each row knowing how many replies it hides. */
+    @Test
+    public void comments_loadOneLevelAtATime() throws SQLException {
+        Answer answer = answers.get(0);
+        Comment top = new Comment(answer, alice, "top");
+        db.addComment(top);
+        Comment reply = new Comment(top, alice, "reply");
+        db.addComment(reply);
+        db.addComment(new Comment(reply, alice, "nested reply"));
+        db.addComment(new Comment(answer, alice, "second top"));
+
+        AnswerSummary summary = db.getAnswerPage(question, null, ANSWERS).getAnswers().stream()
+                .filter(a -> a.getAnswer().getAnswerId().equals(answer.getAnswerId()))
+                .findFirst().orElseThrow();
+        assertEquals(2, summary.getCommentCount());
+
+        List<CommentSummary> level1 = db.getComments(answer, null);
+        assertEquals(List.of("top", "second top"), level1.stream().map(c -> c.getComment().getBody()).toList());
+        assertEquals(1, level1.get(0).getReplyCount());
+        assertEquals(0, level1.get(1).getReplyCount());
+
+        List<CommentSummary> level2 = db.getComments(answer, level1.get(0).getComment());
+        assertEquals(1, level2.size());
+        assertEquals("reply", level2.get(0).getComment().getBody());
+        assertEquals(1, level2.get(0).getReplyCount());
+        assertSame(level1.get(0).getComment(), level2.get(0).getComment().getParentComment());
+    }
+
+    /** Every page and subtree load is timed. */
+    @Test
+    public void loads_areTimed() throws SQLException {
+        ThreadLoadStats stats = db.getThreadLoadStats();
+        db.getAnswerPage(question, null, 5);
+        db.getComments(answers.get(0), null);
+
+        assertEquals(1, stats.getAnswerPages().getLoadCount());
+        assertEquals(5, stats.getAnswerPages().getRowCount());
+        assertEquals(1, stats.getCommentSubtrees().getLoadCount());
+        assertTrue(stats.getAnswerPages().getMaxMillis() > 0);
+        assertTrue(stats.describe().startsWith("thread[answerPages: loads=1"));
+    }
+}
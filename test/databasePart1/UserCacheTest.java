@@ -0,0 +1,108 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import application.BoardQuery;
+import application.Question;
+import application.QuestionSummary;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>UserCache JUnit Tests</h2>
+ *
+ * <p>Covers the LRU bound, hit/miss accounting and invalidation of
+ * {@link UserCache}, and checks that {@link DatabaseHelper} invalidates it
+ * on user writes and shares cached authors across loads.</p>
+ *
+ * @since HW03
+ * @see UserCache
+ */
+public class UserCacheTest {
+
+    private static User user(String userName, String name) {
+        return new User(userName, name, userName + "@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+    }
+
+    /** A second lookup is a hit and returns the same instance. */
+    @Test
+    public void repeatedLookup_isHit() throws SQLException {
+        UserCache cache = new UserCache(4);
+        User first = cache.get("alice", n -> user(n, "Alice"));
+        User second = cache.get("alice", n -> { throw new AssertionError("should not load"); });
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0.5, cache.getHitRatio(), 1e-9);
+    }
+
+    /** Missing users are not cached. */
+    @Test
+    public void missingUser_isNotCached() throws SQLException {
+        UserCache cache = new UserCache(4);
+        assertNull(cache.get("ghost", n -> null));
+        assertEquals(0, cache.size());
+    }
+
+    /** The least recently used user is evicted when the cache is full. */
+    @Test
+    public void fullCache_evictsLeastRecentlyUsed() throws SQLException {
+        UserCache cache = new UserCache(2);
+        cache.get("a", n -> user(n, "A"));
+        cache.get("b", n -> user(n, "B"));
+        cache.get("a", n -> user(n, "A"));      // b is now eldest
+        cache.get("c", n -> user(n, "C"));      // evicts b
+        User a = cache.get("a", n -> user(n, "A2"));
+
+        assertEquals("A", a.getName());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(2, cache.size());
+    }
+
+    /** A load that overlaps an invalidation is returned but not cached. */
+    @Test
+    public void loadRacingInvalidation_isNotCached() throws SQLException {
+        UserCache cache = new UserCache(4);
+        cache.get("alice", n -> {
+            cache.invalidate("alice");
+            return user(n, "Stale");
+        });
+        assertEquals(0, cache.size());
+    }
+
+    /** User writes through DatabaseHelper invalidate the cached entry, and loads share authors. */
+    @Test
+    public void databaseHelper_invalidatesOnWrite() throws SQLException {
+        DatabaseHelper db = new DatabaseHelper("jdbc:h2:mem:usercachetest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        try {
+            db.register(user("alice", "Alice"));
+            assertEquals("Alice", db.getUserNameField("alice"));
+            assertEquals("Alice", db.getUserNameField("alice"));
+            assertTrue(db.getUserCache().getHits() >= 1);
+
+            db.updateUserInfo("alice", user("alice", "Alice Renamed"));
+            assertEquals("Alice Renamed", db.getUserNameField("alice"));
+
+            User alice = db.getUserByUserName("alice");
+            db.addQuestion(new Question(alice, "First", "body", Tags.GENERAL, false, false));
+            db.addQuestion(new Question(alice, "Second", "body", Tags.GENERAL, false, false));
+            List<QuestionSummary> page = db.getPublicQuestionPage("alice", BoardQuery.all(), null, 10).getSummaries();
+            assertSame(alice, page.get(0).getQuestion().getAuthor());
+            assertSame(alice, page.get(1).getQuestion().getAuthor());
+
+            db.deleteUser("alice");
+            assertNull(db.getUserByUserName("alice"));
+        } finally {
+            db.closeConnection();
+        }
+    }
+}
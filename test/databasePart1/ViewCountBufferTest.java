@@ -0,0 +1,139 @@
+package databasePart1;
+
+import static org.junit.Assert.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import application.Question;
+import application.Role;
+import application.Tags;
+import application.User;
+
+/**
+ * <h2>ViewCountBuffer JUnit Tests</h2>
+ *
+ * <p>Records views from several threads and checks that flushes add exactly
+ * the recorded deltas to {@code questions.viewCount}, batch them per question,
+ * and keep them when a flush fails.</p>
+ *
+ * @since HW03
+ * @see ViewCountBuffer
+ */
+public class ViewCountBufferTest {
+
+    private DatabaseHelper db;
+    private Question question;
+
+    @Before
+    public void setUp() throws SQLException {
+        db = new DatabaseHelper("jdbc:h2:mem:viewcounttest;DB_CLOSE_DELAY=-1");
+        db.connectToDatabase();
+        User alice = new User("alice", "Alice", "alice@example.com", "Passw0rd!", new ArrayList<>(List.of(Role.STUDENT)));
+        db.register(alice);
+        question = new Question(alice, "Title", "body", Tags.GENERAL, false, false);
+        db.addQuestion(question);
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Connection conn = db.getConnection(); Statement st = conn.createStatement()) {
+            st.execute("DROP ALL OBJECTS");
+        }
+        db.closeConnection();
+    }
+
+    /** Concurrent views are all counted and written by one flush. */
+    @Test
+    public void concurrentViews_areFlushedExactly() throws Exception {
+        ViewCountBuffer buffer = new ViewCountBuffer(db::getConnection);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.submit(() -> buffer.record(question.getQuestionId().toString()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(1000, buffer.flush());
+        assertEquals(1000, storedViewCount());
+        assertEquals(0, buffer.getPendingViews());
+        assertEquals(1, buffer.getRowsWritten());
+        assertEquals(0, buffer.flush());
+    }
+
+    /** Views racing with flushes are written exactly once, and idle questions are dropped. */
+    @Test
+    public void viewsDuringFlushes_areKeptAndIdleEntriesRemoved() throws Exception {
+        ViewCountBuffer buffer = new ViewCountBuffer(db::getConnection);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < 5000; i++) {
+                    buffer.record("q" + (i % 20));
+                }
+            });
+        }
+        executor.shutdown();
+        long flushed = 0;
+        while (!executor.isTerminated()) {
+            flushed += buffer.flush();
+        }
+        flushed += buffer.flush();
+
+        assertEquals(20_000, flushed);
+        assertEquals(0, buffer.getPendingViews());
+        // Every adder was drained by the last flush, so the next one finds them empty and removes them
+        assertEquals(0, buffer.flush());
+        assertEquals(0, buffer.getTrackedQuestionCount());
+    }
+
+    /** A failed flush keeps its deltas for the next attempt. */
+    @Test
+    public void failedFlush_keepsDeltas() throws SQLException {
+        ViewCountBuffer broken = new ViewCountBuffer(() -> { throw new SQLException("down"); });
+        broken.record("q");
+        broken.record("q");
+        try {
+            broken.flush();
+            fail("Expected the flush to fail");
+        } catch (SQLException expected) {
+            assertEquals(2, broken.getPendingViews("q"));
+            assertEquals(1, broken.getFailedFlushCount());
+        }
+    }
+
+    /** Buffered views show up in loaded questions and reach the database on close. */
+    @Test
+    public void helperViews_visibleBeforeAndAfterFlush() throws SQLException {
+        db.recordQuestionView(question);
+        db.recordQuestionView(question);
+        assertEquals(2, db.getAllPublicQuestions().get(0).getViewCount());
+
+        db.getViewCountBuffer().stop();
+        assertEquals(2, storedViewCount());
+        assertEquals(2, db.getAllPublicQuestions().get(0).getViewCount());
+    }
+
+    private int storedViewCount() throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT viewCount FROM questions WHERE id = ?")) {
+            ps.setString(1, question.getQuestionId().toString());
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+}